@@ -0,0 +1,113 @@
+package com.alexpyslar03.productselectorbackend.admission;
+
+import com.alexpyslar03.productselectorbackend.exception.ServiceUnavailableException;
+import com.alexpyslar03.productselectorbackend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Допуск запросов к обработчикам контроллеров до обращения к базе данных.
+ * <p>
+ * Если пул соединений насыщен, запрос сразу отклоняется с кодом 503, чтобы не вставать в очередь за соединением.
+ * Иначе из корзины токенов клиента и маршрута списывается стоимость обработчика ({@link RequestCost});
+ * при нехватке токенов запрос отклоняется с кодом 429. Оба ответа содержат заголовок Retry-After.
+ * Клиент определяется по заголовку {@value #API_KEY_HEADER}, если ключ входит в список известных,
+ * иначе по адресу клиента. Повторная диспетчеризация асинхронного запроса уже допущенного обработчика
+ * не проверяется и не списывает токены повторно.
+ */
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    /**
+     * Заголовок с ключом API клиента.
+     */
+    public static final String API_KEY_HEADER = "X-API-Key";
+
+    private final RateLimiter rateLimiter;
+    private final PoolSaturation poolSaturation;
+    private final Set<String> apiKeys;
+    private final long shedRetryAfterSeconds;
+    private final ConcurrentHashMap<Method, Integer> costs = new ConcurrentHashMap<>();
+    private final Counter admitted;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    /**
+     * Создает перехватчик.
+     *
+     * @param rateLimiter           Ограничение частоты запросов.
+     * @param poolSaturation        Проверка насыщения пулов соединений.
+     * @param apiKeys               Известные ключи API.
+     * @param shedRetryAfterSeconds Значение Retry-After в секундах для запросов, отклоненных из-за насыщения пула.
+     * @param meterRegistry         Реестр метрик.
+     */
+    public AdmissionInterceptor(RateLimiter rateLimiter, PoolSaturation poolSaturation, Set<String> apiKeys,
+                                long shedRetryAfterSeconds, MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.poolSaturation = poolSaturation;
+        this.apiKeys = apiKeys;
+        this.shedRetryAfterSeconds = shedRetryAfterSeconds;
+        this.admitted = counter(meterRegistry, "admitted");
+        this.rateLimited = counter(meterRegistry, "rate_limited");
+        this.shed = counter(meterRegistry, "shed");
+        Gauge.builder("admission.buckets", rateLimiter, RateLimiter::size)
+                .description("Количество корзин токенов ограничения частоты в памяти")
+                .register(meterRegistry);
+        Gauge.builder("admission.pool.waiters", poolSaturation, PoolSaturation::maxThreadsAwaiting)
+                .description("Наибольшее количество потоков, ожидающих соединения, среди пулов")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (poolSaturation.isSaturated()) {
+            shed.increment();
+            throw new ServiceUnavailableException("Сервер перегружен, повторите запрос позже.", shedRetryAfterSeconds);
+        }
+        int cost = costs.computeIfAbsent(handlerMethod.getMethod(), AdmissionInterceptor::cost);
+        long waitNanos = rateLimiter.tryAcquire(client(request) + " " + request.getMethod() + " " + route(request), cost);
+        if (waitNanos > 0) {
+            rateLimited.increment();
+            long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            throw new TooManyRequestsException("Превышена допустимая частота запросов, повторите запрос через " + retryAfter + " с.", retryAfter);
+        }
+        admitted.increment();
+        return true;
+    }
+
+    private String client(HttpServletRequest request) {
+        String apiKey = request.getHeader(API_KEY_HEADER);
+        return apiKey != null && apiKeys.contains(apiKey) ? "key:" + apiKey : "addr:" + request.getRemoteAddr();
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : request.getRequestURI();
+    }
+
+    private static int cost(Method method) {
+        RequestCost cost = method.getAnnotation(RequestCost.class);
+        return cost != null ? cost.value() : 1;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("admission.requests")
+                .description("Количество запросов к обработчикам контроллеров по результату допуска")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,64 @@
+package com.alexpyslar03.productselectorbackend.admission;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Проверка насыщения пулов соединений Hikari: пул считается насыщенным, если соединения ожидают
+ * не меньше {@code maxWaiters} потоков. Пулы находятся за оборачивающими источниками данных
+ * ({@link DelegatingDataSource}) и за маршрутизацией на реплики ({@link AbstractRoutingDataSource}).
+ */
+public class PoolSaturation {
+
+    private final List<HikariDataSource> pools = new ArrayList<>();
+    private final int maxWaiters;
+
+    /**
+     * Создает проверку.
+     *
+     * @param dataSource Источник данных приложения.
+     * @param maxWaiters Количество ожидающих соединения потоков, начиная с которого пул насыщен; 0 отключает проверку.
+     */
+    public PoolSaturation(DataSource dataSource, int maxWaiters) {
+        this.maxWaiters = maxWaiters;
+        collect(dataSource);
+    }
+
+    /**
+     * Возвращает true, если насыщен хотя бы один пул.
+     */
+    public boolean isSaturated() {
+        return maxWaiters > 0 && maxThreadsAwaiting() >= maxWaiters;
+    }
+
+    /**
+     * Возвращает наибольшее количество потоков, ожидающих соединения, среди пулов.
+     * Пулы, еще не открывшие ни одного соединения, не учитываются.
+     */
+    public int maxThreadsAwaiting() {
+        int max = 0;
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean bean = pool.getHikariPoolMXBean();
+            if (bean != null) {
+                max = Math.max(max, bean.getThreadsAwaitingConnection());
+            }
+        }
+        return max;
+    }
+
+    private void collect(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            pools.add(hikari);
+        } else if (dataSource instanceof DelegatingDataSource delegating && delegating.getTargetDataSource() != null) {
+            collect(delegating.getTargetDataSource());
+        } else if (dataSource instanceof AbstractRoutingDataSource routing) {
+            routing.getResolvedDataSources().values().forEach(this::collect);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.alexpyslar03.productselectorbackend.admission;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничение частоты запросов корзинами токенов по произвольному ключу (клиент и маршрут).
+ * <p>
+ * Корзина вмещает {@code capacity} токенов и пополняется со скоростью {@code refillRate} токенов в секунду.
+ * Состояние корзины — одно число: теоретическое время, к которому корзина снова станет полной
+ * (алгоритм GCRA). Списание токенов выполняется одной операцией compare-and-set без блокировок;
+ * корзина, которая уже успела наполниться, неотличима от новой, поэтому такие корзины удаляются
+ * методом {@link #evictIdle()}.
+ */
+public class RateLimiter {
+
+    private final long capacity;
+    private final long nanosPerToken;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Создает ограничитель.
+     *
+     * @param capacity   Емкость корзины в токенах (допустимый всплеск запросов).
+     * @param refillRate Скорость пополнения корзины в токенах в секунду.
+     */
+    public RateLimiter(long capacity, double refillRate) {
+        this(capacity, refillRate, System::nanoTime);
+    }
+
+    RateLimiter(long capacity, double refillRate, LongSupplier clock) {
+        if (capacity <= 0 || refillRate <= 0) {
+            throw new IllegalArgumentException("Емкость и скорость пополнения корзины должны быть положительными");
+        }
+        this.capacity = capacity;
+        this.nanosPerToken = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / refillRate));
+        this.clock = clock;
+    }
+
+    /**
+     * Списывает токены из корзины ключа.
+     *
+     * @param key  Ключ корзины.
+     * @param cost Количество токенов; стоимость больше емкости корзины ограничивается емкостью.
+     * @return 0, если токены списаны, иначе время в наносекундах, через которое их станет достаточно.
+     */
+    public long tryAcquire(String key, int cost) {
+        long increment = Math.min(Math.max(cost, 1), capacity) * nanosPerToken;
+        long burst = capacity * nanosPerToken;
+        AtomicLong bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = clock.getAsLong();
+            long full = bucket.get();
+            long next = (full == Long.MIN_VALUE || full - now < 0 ? now : full) + increment;
+            long wait = next - burst - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Удаляет наполнившиеся корзины. Запрос, успевший получить корзину до удаления, списывает токены
+     * из удаленной корзины; это допускает не больше одного лишнего запроса на ключ.
+     */
+    @Scheduled(fixedDelayString = "${app.admission.rate-limit.eviction-interval}")
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        buckets.forEach((key, bucket) -> {
+            long full = bucket.get();
+            if (full == Long.MIN_VALUE || full - now <= 0) {
+                buckets.remove(key, bucket);
+            }
+        });
+    }
+
+    /**
+     * Возвращает количество корзин в памяти.
+     */
+    public int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,22 @@
+package com.alexpyslar03.productselectorbackend.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Стоимость запроса к обработчику контроллера в токенах ограничения частоты.
+ * Обработчики без аннотации стоят один токен.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestCost {
+
+    /**
+     * Количество токенов, списываемых за запрос.
+     */
+    int value();
+}
@@ -0,0 +1,172 @@
+package com.alexpyslar03.productselectorbackend.bulkhead;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Изоляция одного класса трафика: ограничение количества одновременно обрабатываемых запросов
+ * и количества соединений базы данных, которые эти запросы держат одновременно.
+ * <p>
+ * Лимиты соединений делят общий пул на части: если их сумма не превышает размер пула, запросы одного класса
+ * не могут занять соединения, необходимые другому. Изоляция текущего потока устанавливается на время
+ * обработки запроса и используется {@link PartitionedDataSource} при получении соединения.
+ */
+public class Bulkhead {
+
+    private static final ThreadLocal<Bulkhead> CURRENT = new ThreadLocal<>();
+
+    private final TrafficClass trafficClass;
+    private final int maxConcurrent;
+    private final int maxConnections;
+    private final Semaphore requests;
+    private final Semaphore connections;
+    private final Counter rejected;
+    private final Counter connectionTimeouts;
+
+    /**
+     * Создает изоляцию.
+     *
+     * @param trafficClass   Класс трафика.
+     * @param maxConcurrent  Максимальное количество одновременно обрабатываемых запросов.
+     * @param maxConnections Максимальное количество одновременно занятых соединений; 0 снимает ограничение.
+     * @param meterRegistry  Реестр метрик.
+     */
+    public Bulkhead(TrafficClass trafficClass, int maxConcurrent, int maxConnections, MeterRegistry meterRegistry) {
+        this.trafficClass = trafficClass;
+        this.maxConcurrent = maxConcurrent;
+        this.maxConnections = maxConnections;
+        this.requests = new Semaphore(maxConcurrent);
+        this.connections = maxConnections > 0 ? new Semaphore(maxConnections) : null;
+        String name = trafficClass.tag();
+        this.rejected = Counter.builder("bulkhead.rejected")
+                .description("Количество запросов, отклоненных из-за заполнения изоляции")
+                .tag("name", name)
+                .register(meterRegistry);
+        this.connectionTimeouts = Counter.builder("bulkhead.connections.timeouts")
+                .description("Количество запросов соединения, не дождавшихся свободного места в части пула")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.active", this, Bulkhead::active)
+                .description("Количество запросов, обрабатываемых в изоляции")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.max", this, Bulkhead::getMaxConcurrent)
+                .description("Максимальное количество одновременно обрабатываемых запросов изоляции")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("bulkhead.saturation", this, Bulkhead::saturation)
+                .description("Доля занятых мест изоляции (от 0 до 1)")
+                .tag("name", name)
+                .register(meterRegistry);
+        if (connections != null) {
+            Gauge.builder("bulkhead.connections.active", this, Bulkhead::activeConnections)
+                    .description("Количество соединений, занятых запросами изоляции")
+                    .tag("name", name)
+                    .register(meterRegistry);
+            Gauge.builder("bulkhead.connections.max", this, Bulkhead::getMaxConnections)
+                    .description("Размер части пула соединений изоляции")
+                    .tag("name", name)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Возвращает изоляцию запроса, обрабатываемого текущим потоком, или null.
+     */
+    static Bulkhead current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Занимает место для запроса и устанавливает изоляцию текущего потока.
+     *
+     * @param maxWaitNanos Максимальное время ожидания свободного места в наносекундах.
+     * @return true, если место занято; false, если изоляция заполнена или ожидание прервано.
+     */
+    boolean tryEnter(long maxWaitNanos) {
+        try {
+            if (!requests.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+                rejected.increment();
+                return false;
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            rejected.increment();
+            return false;
+        }
+        CURRENT.set(this);
+        return true;
+    }
+
+    /**
+     * Освобождает место запроса и снимает изоляцию текущего потока.
+     */
+    void exit() {
+        CURRENT.remove();
+        requests.release();
+    }
+
+    /**
+     * Занимает место в части пула соединений.
+     *
+     * @param timeoutNanos Максимальное время ожидания в наносекундах.
+     * @return true, если место занято или лимит соединений не задан.
+     * @throws InterruptedException Если ожидание прервано.
+     */
+    boolean tryAcquireConnection(long timeoutNanos) throws InterruptedException {
+        if (connections == null) {
+            return true;
+        }
+        if (connections.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS)) {
+            return true;
+        }
+        connectionTimeouts.increment();
+        return false;
+    }
+
+    /**
+     * Освобождает место в части пула соединений.
+     */
+    void releaseConnection() {
+        if (connections != null) {
+            connections.release();
+        }
+    }
+
+    public TrafficClass getTrafficClass() {
+        return trafficClass;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    /**
+     * Возвращает количество обрабатываемых запросов.
+     */
+    public int active() {
+        return maxConcurrent - requests.availablePermits();
+    }
+
+    /**
+     * Возвращает количество занятых соединений.
+     */
+    public int activeConnections() {
+        return connections != null ? maxConnections - connections.availablePermits() : 0;
+    }
+
+    /**
+     * Возвращает долю занятых мест изоляции.
+     */
+    public double saturation() {
+        return maxConcurrent > 0 ? (double) active() / maxConcurrent : 0;
+    }
+}
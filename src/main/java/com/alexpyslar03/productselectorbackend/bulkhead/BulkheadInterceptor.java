@@ -0,0 +1,86 @@
+package com.alexpyslar03.productselectorbackend.bulkhead;
+
+import com.alexpyslar03.productselectorbackend.exception.ServiceUnavailableException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Перехватчик, выполняющий обработчики контроллеров в изоляции их класса трафика ({@link Bulkheaded}).
+ * Если изоляция заполнена и место не освободилось за время ожидания, запрос отклоняется с кодом 503
+ * и заголовком Retry-After. Место освобождается по завершении запроса, а для асинхронных обработчиков —
+ * при освобождении потока сервлета.
+ */
+public class BulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ATTRIBUTE = BulkheadInterceptor.class.getName() + ".bulkhead";
+
+    private final Map<TrafficClass, Bulkhead> bulkheads;
+    private final long maxWaitNanos;
+    private final long retryAfterSeconds;
+    private final ConcurrentHashMap<Method, Optional<TrafficClass>> trafficClasses = new ConcurrentHashMap<>();
+
+    /**
+     * Создает перехватчик.
+     *
+     * @param bulkheads         Изоляции по классам трафика.
+     * @param maxWaitNanos      Максимальное время ожидания свободного места в изоляции в наносекундах.
+     * @param retryAfterSeconds Значение Retry-After в секундах для отклоненных запросов.
+     */
+    public BulkheadInterceptor(Map<TrafficClass, Bulkhead> bulkheads, long maxWaitNanos, long retryAfterSeconds) {
+        this.bulkheads = bulkheads;
+        this.maxWaitNanos = maxWaitNanos;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Bulkhead bulkhead = trafficClasses.computeIfAbsent(handlerMethod.getMethod(), method -> trafficClass(handlerMethod))
+                .map(bulkheads::get)
+                .orElse(null);
+        if (bulkhead == null) {
+            return true;
+        }
+        if (!bulkhead.tryEnter(maxWaitNanos)) {
+            throw new ServiceUnavailableException("Сервер перегружен запросами этого вида, повторите запрос позже.", retryAfterSeconds);
+        }
+        request.setAttribute(ATTRIBUTE, bulkhead);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        exit(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        exit(request);
+    }
+
+    private static void exit(HttpServletRequest request) {
+        if (request.getAttribute(ATTRIBUTE) instanceof Bulkhead bulkhead) {
+            request.removeAttribute(ATTRIBUTE);
+            bulkhead.exit();
+        }
+    }
+
+    private static Optional<TrafficClass> trafficClass(HandlerMethod handlerMethod) {
+        Bulkheaded annotation = handlerMethod.getMethodAnnotation(Bulkheaded.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), Bulkheaded.class);
+        }
+        return Optional.ofNullable(annotation).map(Bulkheaded::value);
+    }
+}
@@ -0,0 +1,22 @@
+package com.alexpyslar03.productselectorbackend.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Класс трафика обработчиков контроллера. Аннотация метода переопределяет аннотацию класса;
+ * обработчики без аннотации не ограничиваются.
+ */
+@Documented
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Bulkheaded {
+
+    /**
+     * Класс трафика обработчика.
+     */
+    TrafficClass value();
+}
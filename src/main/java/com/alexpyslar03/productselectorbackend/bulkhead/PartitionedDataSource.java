@@ -0,0 +1,131 @@
+package com.alexpyslar03.productselectorbackend.bulkhead;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+/**
+ * Источник данных, делящий пул соединений между изоляциями классов трафика.
+ * Соединение для запроса в изоляции выдается, только если в части пула этой изоляции есть место;
+ * место освобождается при закрытии соединения. Потоки вне изоляции (фоновые задачи, запуск приложения)
+ * получают соединения без ограничений.
+ */
+public class PartitionedDataSource extends DelegatingDataSource {
+
+    private final long timeoutNanos;
+
+    /**
+     * Создает источник данных.
+     *
+     * @param target  Исходный источник данных.
+     * @param timeout Максимальное время ожидания места в части пула.
+     */
+    public PartitionedDataSource(DataSource target, Duration timeout) {
+        super(target);
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Bulkhead bulkhead = acquire();
+        return bulkhead == null ? super.getConnection() : wrap(bulkhead, () -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Bulkhead bulkhead = acquire();
+        return bulkhead == null ? super.getConnection(username, password) : wrap(bulkhead, () -> super.getConnection(username, password));
+    }
+
+    private Bulkhead acquire() throws SQLException {
+        Bulkhead bulkhead = Bulkhead.current();
+        if (bulkhead == null) {
+            return null;
+        }
+        try {
+            if (!bulkhead.tryAcquireConnection(timeoutNanos)) {
+                throw new SQLTransientConnectionException(String.format(
+                        "Часть пула соединений %s заполнена: все %d соединений заняты",
+                        bulkhead.getTrafficClass().tag(), bulkhead.getMaxConnections()));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Ожидание соединения прервано", ex);
+        }
+        return bulkhead;
+    }
+
+    private static Connection wrap(Bulkhead bulkhead, ConnectionSupplier supplier) throws SQLException {
+        Connection target;
+        try {
+            target = supplier.get();
+        } catch (SQLException | RuntimeException ex) {
+            bulkhead.releaseConnection();
+            throw ex;
+        }
+        return (Connection) Proxy.newProxyInstance(PartitionedDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(bulkhead, target));
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+
+    /**
+     * Обертка соединения: освобождает место в части пула при первом закрытии.
+     */
+    private static final class ConnectionHandler implements InvocationHandler {
+
+        private final Bulkhead bulkhead;
+        private final Connection target;
+        private boolean released;
+
+        private ConnectionHandler(Bulkhead bulkhead, Connection target) {
+            this.bulkhead = bulkhead;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    synchronized (this) {
+                        if (released) {
+                            return null;
+                        }
+                        released = true;
+                    }
+                    try {
+                        target.close();
+                    } finally {
+                        bulkhead.releaseConnection();
+                    }
+                    return null;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.alexpyslar03.productselectorbackend.bulkhead;
+
+import java.util.Locale;
+
+/**
+ * Класс трафика, для которого выделяется отдельная изоляция (bulkhead).
+ */
+public enum TrafficClass {
+
+    /**
+     * Чтение и загрузка изображений: долгие потоки данных.
+     */
+    IMAGE,
+
+    /**
+     * Чтение списков и пакетные запросы: тяжелые запросы к базе данных.
+     */
+    SEARCH,
+
+    /**
+     * Чтение по идентификатору и изменения: быстрые запросы.
+     */
+    CRUD;
+
+    /**
+     * Возвращает имя класса в нижнем регистре для метрик и настроек.
+     */
+    public String tag() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
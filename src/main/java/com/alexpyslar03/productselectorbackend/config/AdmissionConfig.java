@@ -0,0 +1,67 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import com.alexpyslar03.productselectorbackend.admission.AdmissionInterceptor;
+import com.alexpyslar03.productselectorbackend.admission.PoolSaturation;
+import com.alexpyslar03.productselectorbackend.admission.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Конфигурация допуска запросов: ограничение частоты по клиенту и маршруту с учетом стоимости обработчиков
+ * и отклонение запросов при насыщении пула соединений.
+ */
+@Configuration
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    @Value("${app.admission.rate-limit.capacity}")
+    private long capacity;
+
+    @Value("${app.admission.rate-limit.refill-rate}")
+    private double refillRate;
+
+    @Value("${app.admission.rate-limit.api-keys}")
+    private List<String> apiKeys;
+
+    @Value("${app.admission.max-pool-waiters}")
+    private int maxPoolWaiters;
+
+    @Value("${app.admission.retry-after}")
+    private Duration retryAfter;
+
+    private final ObjectProvider<AdmissionInterceptor> admissionInterceptor;
+
+    public AdmissionConfig(ObjectProvider<AdmissionInterceptor> admissionInterceptor) {
+        this.admissionInterceptor = admissionInterceptor;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(capacity, refillRate);
+    }
+
+    @Bean
+    public PoolSaturation poolSaturation(DataSource dataSource) {
+        return new PoolSaturation(dataSource, maxPoolWaiters);
+    }
+
+    @Bean
+    public AdmissionInterceptor admissionInterceptor(RateLimiter rateLimiter, PoolSaturation poolSaturation, MeterRegistry meterRegistry) {
+        return new AdmissionInterceptor(rateLimiter, poolSaturation, Set.copyOf(apiKeys),
+                Math.max(1, retryAfter.toSeconds()), meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(admissionInterceptor.getObject());
+    }
+}
@@ -0,0 +1,66 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import com.alexpyslar03.productselectorbackend.bulkhead.Bulkhead;
+import com.alexpyslar03.productselectorbackend.bulkhead.BulkheadInterceptor;
+import com.alexpyslar03.productselectorbackend.bulkhead.PartitionedDataSource;
+import com.alexpyslar03.productselectorbackend.bulkhead.TrafficClass;
+import com.alexpyslar03.productselectorbackend.datasource.DataSourceWrappingPostProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Конфигурация изоляции классов трафика: ограничение одновременных запросов каждого класса
+ * и деление пула соединений между классами. Классы обработчиков задаются аннотацией
+ * {@link com.alexpyslar03.productselectorbackend.bulkhead.Bulkheaded}.
+ */
+@Configuration
+@EnableConfigurationProperties(BulkheadProperties.class)
+public class BulkheadConfig implements WebMvcConfigurer {
+
+    @Value("${app.admission.retry-after}")
+    private Duration retryAfter;
+
+    private final ObjectProvider<BulkheadInterceptor> bulkheadInterceptor;
+
+    public BulkheadConfig(ObjectProvider<BulkheadInterceptor> bulkheadInterceptor) {
+        this.bulkheadInterceptor = bulkheadInterceptor;
+    }
+
+    @Bean
+    public BulkheadInterceptor bulkheadInterceptor(BulkheadProperties bulkheadProperties, MeterRegistry meterRegistry) {
+        Map<TrafficClass, Bulkhead> bulkheads = new EnumMap<>(TrafficClass.class);
+        bulkheadProperties.getClasses().forEach((trafficClass, limits) -> bulkheads.put(trafficClass,
+                new Bulkhead(trafficClass, limits.getMaxConcurrent(), limits.getMaxConnections(), meterRegistry)));
+        return new BulkheadInterceptor(bulkheads, bulkheadProperties.getMaxWait().toNanos(), Math.max(1, retryAfter.toSeconds()));
+    }
+
+    /**
+     * Выполняется после перехватчика допуска запросов, чтобы запросы сверх ограничения частоты не занимали места в изоляции.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(bulkheadInterceptor.getObject()).order(1);
+    }
+
+    /**
+     * Оборачивает основной источник данных для деления пула соединений между изоляциями.
+     * Обертка применяется первой и считает физические соединения: с репликами она устанавливается
+     * под LazyConnectionDataSourceProxy.
+     */
+    @Bean
+    public static DataSourceWrappingPostProcessor partitionedDataSourcePostProcessor(@Value("${app.bulkhead.connection-timeout}") Duration connectionTimeout) {
+        return new DataSourceWrappingPostProcessor(Ordered.HIGHEST_PRECEDENCE, true,
+                dataSource -> new PartitionedDataSource(dataSource, connectionTimeout));
+    }
+}
@@ -0,0 +1,49 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import com.alexpyslar03.productselectorbackend.bulkhead.TrafficClass;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Настройки изоляции классов трафика (app.bulkhead).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+
+    /**
+     * Максимальное время ожидания свободного места в изоляции, после которого запрос отклоняется.
+     */
+    private Duration maxWait = Duration.ofMillis(100);
+
+    /**
+     * Максимальное время ожидания свободного места в части пула соединений.
+     */
+    private Duration connectionTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Лимиты изоляций по классам трафика. Классы без настроек не ограничиваются.
+     */
+    private Map<TrafficClass, Limits> classes = new EnumMap<>(TrafficClass.class);
+
+    /**
+     * Лимиты изоляции одного класса трафика.
+     */
+    @Data
+    public static class Limits {
+
+        /**
+         * Максимальное количество одновременно обрабатываемых запросов.
+         */
+        private int maxConcurrent;
+
+        /**
+         * Максимальное количество одновременно занятых соединений базы данных; 0 снимает ограничение.
+         */
+        private int maxConnections;
+    }
+}
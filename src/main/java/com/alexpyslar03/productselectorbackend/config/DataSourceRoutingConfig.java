@@ -0,0 +1,102 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import com.alexpyslar03.productselectorbackend.datasource.ReadYourWritesFilter;
+import com.alexpyslar03.productselectorbackend.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Конфигурация источника данных с маршрутизацией чтения на реплики базы данных.
+ * Маршрутизация включается, только если в app.datasource.replicas задана хотя бы одна реплика; иначе
+ * используется один пул основной базы данных. Решение принимается при создании бинов, а не условием
+ * конфигурации: AOT-обработка вычисляет условия при сборке, и реплики, заданные при запуске, были бы проигнорированы.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+public class DataSourceRoutingConfig {
+
+    /**
+     * Основной источник данных приложения. С репликами это маршрутизирующий источник за
+     * LazyConnectionDataSourceProxy, откладывающим получение соединения до первого запроса,
+     * чтобы маршрутизация учитывала признак транзакции только для чтения.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReplicaProperties replicaProperties, Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        if (replicaProperties.getReplicas().isEmpty()) {
+            if (StringUtils.hasText(dataSourceProperties.getName())) {
+                primary.setPoolName(dataSourceProperties.getName());
+            }
+            return primary;
+        }
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < replicaProperties.getReplicas().size(); i++) {
+            ReplicaProperties.Replica replica = replicaProperties.getReplicas().get(i);
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(dataSourceProperties.determineDriverClassName())
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            dataSource.setPoolName("replica-" + i);
+            dataSource.setReadOnly(true);
+            replicas.put(dataSource.getPoolName(), dataSource);
+        }
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas,
+                replicaProperties.getLagQuery(), replicaProperties.getMaxLag().toMillis());
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Периодическая проверка исправности и отставания реплик; без реплик не планируется.
+     */
+    @Bean
+    public SchedulingConfigurer replicaHealthCheck(DataSource dataSource, ReplicaProperties replicaProperties) {
+        return registrar -> {
+            try {
+                if (dataSource.isWrapperFor(ReplicaRoutingDataSource.class)) {
+                    registrar.addFixedDelayTask(dataSource.unwrap(ReplicaRoutingDataSource.class)::checkHealth,
+                            replicaProperties.getHealthCheckInterval());
+                }
+            } catch (SQLException ex) {
+                throw new IllegalStateException("Не удалось получить источник данных с маршрутизацией на реплики.", ex);
+            }
+        };
+    }
+
+    /**
+     * Фильтр чтения собственных записей; выполняется до остальных фильтров, чтобы охватить весь запрос.
+     * Без реплик все запросы выполняются на основной базе данных, и фильтр отключен.
+     */
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties replicaProperties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(replicaProperties.getStickyDuration().toMillis()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setEnabled(!replicaProperties.getReplicas().isEmpty());
+        return registration;
+    }
+}
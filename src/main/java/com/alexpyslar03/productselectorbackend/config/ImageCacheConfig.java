@@ -0,0 +1,29 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import com.alexpyslar03.productselectorbackend.image.OffHeapImageCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Конфигурация кэша изображений вне кучи.
+ */
+@Configuration
+public class ImageCacheConfig {
+
+    @Value("${app.image.cache.max-size}")
+    private DataSize maxSize;
+
+    @Value("${app.image.cache.max-entry-size}")
+    private DataSize maxEntrySize;
+
+    /**
+     * Кэш содержимого часто читаемых изображений. Буфер выделяется при запуске целиком.
+     */
+    @Bean
+    public OffHeapImageCache offHeapImageCache(MeterRegistry meterRegistry) {
+        return new OffHeapImageCache(maxSize, maxEntrySize, meterRegistry);
+    }
+}
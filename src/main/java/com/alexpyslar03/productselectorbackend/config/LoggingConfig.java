@@ -0,0 +1,58 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import com.alexpyslar03.productselectorbackend.logging.RingBufferAppender;
+import com.alexpyslar03.productselectorbackend.logging.SamplingTurboFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Iterator;
+
+/**
+ * Конфигурация метрик асинхронного журналирования.
+ * Аппендер и фильтр частоты настраиваются в logback-spring.xml.
+ */
+@Configuration
+public class LoggingConfig {
+
+    /**
+     * Метрики журналирования: события, отброшенные фильтром частоты и из-за заполнения буфера, и заполненность буфера.
+     */
+    @Bean
+    public MeterBinder loggingMetrics() {
+        return registry -> {
+            if (!(LoggerFactory.getILoggerFactory() instanceof LoggerContext context)) {
+                return;
+            }
+            context.getTurboFilterList().stream()
+                    .filter(SamplingTurboFilter.class::isInstance)
+                    .map(SamplingTurboFilter.class::cast)
+                    .forEach(filter -> FunctionCounter.builder("logging.events.sampled", filter, SamplingTurboFilter::sampledCount)
+                            .description("Количество событий журнала, отброшенных ограничением частоты")
+                            .register(registry));
+            Iterator<Appender<ILoggingEvent>> appenders = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME).iteratorForAppenders();
+            while (appenders.hasNext()) {
+                if (appenders.next() instanceof RingBufferAppender appender) {
+                    FunctionCounter.builder("logging.events.dropped", appender, RingBufferAppender::droppedCount)
+                            .description("Количество событий журнала, отброшенных из-за заполнения буфера")
+                            .tag("appender", appender.getName())
+                            .register(registry);
+                    Gauge.builder("logging.buffer.pending", appender, RingBufferAppender::pendingCount)
+                            .description("Количество событий журнала, ожидающих вывода")
+                            .tag("appender", appender.getName())
+                            .register(registry);
+                    Gauge.builder("logging.buffer.capacity", appender, RingBufferAppender::getBufferSize)
+                            .description("Размер буфера асинхронного журналирования")
+                            .tag("appender", appender.getName())
+                            .register(registry);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import lombok.Data;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки маршрутизации чтения на реплики базы данных (app.datasource).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.datasource")
+public class ReplicaProperties implements InitializingBean {
+
+    /**
+     * Реплики только для чтения. Если список пуст, все запросы выполняются на основной базе данных.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Длительность чтения с основной базы данных после записи клиента. Не может быть меньше максимально
+     * допустимого отставания реплики, иначе клиент может не увидеть свою запись на отстающей реплике.
+     */
+    private Duration stickyDuration = Duration.ofSeconds(10);
+
+    /**
+     * Максимально допустимое отставание реплики.
+     */
+    private Duration maxLag = Duration.ofSeconds(10);
+
+    /**
+     * Интервал проверки исправности и отставания реплик.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Запрос, возвращающий отставание реплики в миллисекундах. Если не задан, отставание не проверяется.
+     */
+    private String lagQuery;
+
+    /**
+     * Проверяет согласованность настроек при запуске приложения.
+     *
+     * @throws IllegalStateException Если длительность чтения с основной базы данных после записи меньше
+     *                               максимально допустимого отставания реплики.
+     */
+    @Override
+    public void afterPropertiesSet() {
+        if (stickyDuration.compareTo(maxLag) < 0) {
+            throw new IllegalStateException(String.format(
+                    "Длительность чтения с основной базы данных после записи (%s) меньше максимально допустимого отставания реплики (%s).",
+                    stickyDuration, maxLag));
+        }
+    }
+
+    /**
+     * Параметры подключения к реплике.
+     */
+    @Data
+    public static class Replica {
+
+        /**
+         * URL для подключения к реплике.
+         */
+        private String url;
+
+        /**
+         * Имя пользователя для подключения к реплике.
+         */
+        private String username;
+
+        /**
+         * Пароль для подключения к реплике.
+         */
+        private String password;
+    }
+}
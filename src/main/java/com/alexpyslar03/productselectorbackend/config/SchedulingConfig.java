@@ -0,0 +1,12 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Конфигурация планировщика периодических задач (сброс счетчиков, обслуживание индексов и т.д.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,37 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import com.alexpyslar03.productselectorbackend.dto.RecipeDetailsDTO;
+import com.alexpyslar03.productselectorbackend.util.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Конфигурация объединения одинаковых одновременных запросов на чтение.
+ */
+@Configuration
+public class SingleFlightConfig {
+
+    @Value("${app.single-flight.max-wait}")
+    private Duration maxWait;
+
+    /**
+     * Объединение запросов рецепта по идентификатору.
+     */
+    @Bean
+    public SingleFlight<Long, RecipeDetailsDTO> recipeByIdFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("recipe-by-id", maxWait, meterRegistry);
+    }
+
+    /**
+     * Объединение запросов рецептов по набору продуктов. Ключ — отсортированный список идентификаторов без повторов.
+     */
+    @Bean
+    public SingleFlight<List<Long>, List<RecipeDetailsDTO>> recipesByProductIdsFlight(MeterRegistry meterRegistry) {
+        return new SingleFlight<>("recipes-by-product-ids", maxWait, meterRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Конфигурация быстрого запуска приложения.
+ * Определяет, какие бины создаются лениво, и позволяет выполнить обучающий запуск для архива CDS
+ * без обращения к базе данных.
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+    /**
+     * При включенной ленивой инициализации (spring.main.lazy-initialization) лениво создаются только бины
+     * документации OpenAPI: они нужны лишь при первом обращении к Swagger UI. Остальные бины создаются при запуске,
+     * чтобы периодические задачи, индексы и пулы соединений были готовы к первому запросу.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerApplicationBeans() {
+        return (beanName, beanDefinition, beanType) -> beanType == null || !beanType.getName().startsWith("org.springdoc.");
+    }
+
+    /**
+     * Применяет миграции Flyway при запуске, если это не отключено свойством app.schema.migrate-on-startup.
+     * Миграции отключаются при обучающем запуске, в котором контекст только создается и сразу закрывается.
+     */
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${app.schema.migrate-on-startup}") boolean migrateOnStartup) {
+        return flyway -> {
+            if (migrateOnStartup) {
+                flyway.migrate();
+            } else {
+                logger.info("Применение миграций схемы при запуске отключено.");
+            }
+        };
+    }
+}
@@ -0,0 +1,115 @@
+package com.alexpyslar03.productselectorbackend.config;
+
+import com.alexpyslar03.productselectorbackend.datasource.DataSourceWrappingPostProcessor;
+import com.alexpyslar03.productselectorbackend.datasource.InstrumentedDataSource;
+import com.alexpyslar03.productselectorbackend.tracing.OtlpJsonSpanExporter;
+import com.alexpyslar03.productselectorbackend.tracing.Span;
+import com.alexpyslar03.productselectorbackend.tracing.SpanKind;
+import com.alexpyslar03.productselectorbackend.tracing.Tracer;
+import com.alexpyslar03.productselectorbackend.tracing.TracingFilter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Конфигурация трассировки запросов: трассировщик, экспорт span, фильтр корневого span,
+ * span выполнения SQL-выражений и записи JSON. Span контроллеров, сервисов и репозиториев создает
+ * {@link com.alexpyslar03.productselectorbackend.tracing.TracingAspect}.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Value("${spring.application.name}")
+    private String serviceName;
+
+    @Value("${app.tracing.sampling-probability}")
+    private double samplingProbability;
+
+    @Value("${app.tracing.export.file}")
+    private String file;
+
+    @Value("${app.tracing.export.endpoint}")
+    private String endpoint;
+
+    @Value("${app.tracing.export.queue-size}")
+    private int queueSize;
+
+    @Value("${app.tracing.export.interval}")
+    private Duration interval;
+
+    /**
+     * Экспорт span в файл и/или на эндпоинт OTLP/HTTP.
+     */
+    @Bean(destroyMethod = "close")
+    public OtlpJsonSpanExporter spanExporter(MeterRegistry meterRegistry) {
+        return new OtlpJsonSpanExporter(serviceName,
+                file.isBlank() ? null : Path.of(file),
+                endpoint.isBlank() ? null : URI.create(endpoint),
+                queueSize, interval, meterRegistry);
+    }
+
+    @Bean
+    public Tracer tracer(OtlpJsonSpanExporter spanExporter) {
+        return new Tracer(samplingProbability, spanExporter);
+    }
+
+    /**
+     * Фильтр корневого span; выполняется до остальных фильтров, чтобы охватить весь запрос.
+     */
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer) {
+        FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(new TracingFilter(tracer));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Оборачивает основной источник данных для журнала медленных запросов и span SQL-выражений.
+     * Обертка применяется последней, поэтому измеряет выражения над всеми остальными обертками.
+     */
+    @Bean
+    public static DataSourceWrappingPostProcessor instrumentedDataSourcePostProcessor(
+            @Value("${app.logging.slow-query-threshold}") Duration slowQueryThreshold, ObjectProvider<Tracer> tracer) {
+        return new DataSourceWrappingPostProcessor(Ordered.LOWEST_PRECEDENCE, false,
+                dataSource -> new InstrumentedDataSource(dataSource, slowQueryThreshold, tracer.getObject()));
+    }
+
+    /**
+     * Конвертер JSON ответов контроллеров, записывающий сериализацию ответа в span json.write.
+     * Заменяет конвертер Spring Boot с тем же ObjectMapper.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper, Tracer tracer) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+                if (!tracer.isRecording()) {
+                    super.writeInternal(object, type, outputMessage);
+                    return;
+                }
+                try (Span span = tracer.startSpan("json.write", SpanKind.INTERNAL)) {
+                    span.setAttribute("code.namespace", object.getClass().getSimpleName());
+                    try {
+                        super.writeInternal(object, type, outputMessage);
+                    } catch (IOException | RuntimeException ex) {
+                        span.recordError(ex);
+                        throw ex;
+                    }
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,109 @@
+package com.alexpyslar03.productselectorbackend.controller;
+
+import com.alexpyslar03.productselectorbackend.bulkhead.Bulkheaded;
+import com.alexpyslar03.productselectorbackend.bulkhead.TrafficClass;
+import com.alexpyslar03.productselectorbackend.exception.ImageNotFoundException;
+import com.alexpyslar03.productselectorbackend.image.OffHeapImageCache;
+import com.alexpyslar03.productselectorbackend.image.StoredImage;
+import com.alexpyslar03.productselectorbackend.service.ImageService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.apache.catalina.connector.CoyoteOutputStream;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.Duration;
+
+/**
+ * Контроллер для чтения изображений продуктов и рецептов.
+ * Изображения адресуются хэшем содержимого (поле imageHash продукта или рецепта), поэтому ответ не изменяется
+ * и кэшируется клиентами без повторной проверки.
+ */
+@RestController
+@RequestMapping("/images")
+@Bulkheaded(TrafficClass.IMAGE)
+@AllArgsConstructor
+public class ImageController {
+
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+
+    private final ImageService imageService;
+    private final OffHeapImageCache imageCache;
+
+    /**
+     * Возвращает изображение по хэшу содержимого.
+     * Хэш служит ETag, поэтому условный запрос с совпадающим If-None-Match обслуживается без обращения к базе данных.
+     * Часто читаемые изображения отдаются из кэша вне кучи без копирования содержимого в кучу.
+     *
+     * @param hash        Хэш SHA-256 содержимого.
+     * @param ifNoneMatch Значение заголовка If-None-Match или null.
+     * @param response    Ответ, в который записывается изображение.
+     * @throws IOException            Если не удалось записать ответ.
+     * @throws ImageNotFoundException Если изображение с указанным хэшем не найдено.
+     */
+    @Operation(summary = "Получение изображения по хэшу", description = "Возвращает изображение продукта или рецепта по хэшу SHA-256 из поля imageHash. Ответ неизменяем и кэшируется клиентом.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Изображение успешно найдено",
+                    content = @Content(mediaType = "image/*", schema = @Schema(type = "string", format = "binary"))),
+            @ApiResponse(responseCode = "304", description = "Изображение не изменилось"),
+            @ApiResponse(responseCode = "404", description = "Изображение с указанным хэшем не найдено")
+    })
+    @GetMapping("/{hash}")
+    public void readByHash(
+            @Parameter(description = "Хэш SHA-256 изображения", required = true) @PathVariable String hash,
+            @Parameter(hidden = true) @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
+        String eTag = "\"" + hash + "\"";
+        if (eTag.equals(ifNoneMatch)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, eTag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+            return;
+        }
+        try (OffHeapImageCache.Entry cached = imageCache.acquire(hash)) {
+            if (cached != null) {
+                writeHeaders(response, eTag, cached.contentType(), cached.size());
+                cached.writeTo(chunkWriter(response.getOutputStream()));
+                return;
+            }
+        }
+        StoredImage image = imageService.read(hash);
+        imageCache.put(image.hash(), image.contentType(), image.content());
+        writeHeaders(response, eTag, image.contentType(), image.content().length);
+        response.getOutputStream().write(image.content());
+    }
+
+    private static void writeHeaders(HttpServletResponse response, String eTag, String contentType, long size) {
+        response.setContentType(contentType);
+        response.setContentLengthLong(size);
+        response.setHeader(HttpHeaders.ETAG, eTag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+    }
+
+    /**
+     * Возвращает получателя фрагментов кэша для потока ответа. Поток ответа Tomcat принимает ByteBuffer напрямую
+     * и копирует его в буфер сокета; для других контейнеров фрагменты пишутся через канал потока.
+     */
+    private static OffHeapImageCache.ChunkWriter chunkWriter(OutputStream out) {
+        if (out instanceof CoyoteOutputStream coyote) {
+            return coyote::write;
+        }
+        WritableByteChannel channel = Channels.newChannel(out);
+        return chunk -> {
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+        };
+    }
+}
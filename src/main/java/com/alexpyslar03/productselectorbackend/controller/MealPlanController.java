@@ -0,0 +1,55 @@
+package com.alexpyslar03.productselectorbackend.controller;
+
+import com.alexpyslar03.productselectorbackend.admission.RequestCost;
+import com.alexpyslar03.productselectorbackend.dto.MealPlanDTO;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.exception.RecipeNotFoundException;
+import com.alexpyslar03.productselectorbackend.service.MealPlanService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Контроллер для составления плана питания.
+ * Предоставляет endpoint для подбора рецептов на неделю с максимальным повторным использованием продуктов.
+ */
+@RestController
+@RequestMapping("/meal-plan")
+@AllArgsConstructor
+public class MealPlanController {
+
+    private final MealPlanService mealPlanService;
+
+    /**
+     * Составляет план питания.
+     *
+     * @param count            Количество рецептов в плане.
+     * @param pantryIds        Список идентификаторов продуктов в кладовой.
+     * @param vegan            Только веганские рецепты.
+     * @param difficultyLevels Допустимые уровни сложности.
+     * @return Ответ с планом питания и статусом 200 OK.
+     * @throws RecipeNotFoundException Если рецепты, удовлетворяющие ограничениям, не найдены.
+     */
+    @Operation(summary = "Составление плана питания", description = "Подбирает рецепты на неделю, минимизируя количество различных покупок и максимально используя кладовую.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "План питания успешно составлен"),
+            @ApiResponse(responseCode = "400", description = "Некорректное количество рецептов"),
+            @ApiResponse(responseCode = "404", description = "Рецепты, удовлетворяющие ограничениям, не найдены")
+    })
+    @RequestCost(10)
+    @GetMapping
+    public ResponseEntity<MealPlanDTO> create(
+            @Parameter(description = "Количество рецептов в плане") @RequestParam(defaultValue = "7") int count,
+            @Parameter(description = "Список идентификаторов продуктов в кладовой") @RequestParam(required = false) List<Long> pantryIds,
+            @Parameter(description = "Только веганские рецепты") @RequestParam(defaultValue = "false") boolean vegan,
+            @Parameter(description = "Допустимые уровни сложности") @RequestParam(required = false) List<Recipe.DifficultyLevel> difficultyLevels) {
+        MealPlanDTO plan = mealPlanService.create(count, pantryIds, vegan, difficultyLevels);
+        return ResponseEntity.ok(plan);
+    }
+}
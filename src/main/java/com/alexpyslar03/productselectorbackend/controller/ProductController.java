@@ -1,18 +1,39 @@
 package com.alexpyslar03.productselectorbackend.controller;
 
+import com.alexpyslar03.productselectorbackend.admission.RequestCost;
+import com.alexpyslar03.productselectorbackend.bulkhead.Bulkheaded;
+import com.alexpyslar03.productselectorbackend.bulkhead.TrafficClass;
+import com.alexpyslar03.productselectorbackend.dto.BulkDeleteDTO;
+import com.alexpyslar03.productselectorbackend.dto.ImageDTO;
 import com.alexpyslar03.productselectorbackend.dto.ProductDTO;
+import com.alexpyslar03.productselectorbackend.dto.ProductPatchDTO;
+import com.alexpyslar03.productselectorbackend.dto.RelatedProductDTO;
+import com.alexpyslar03.productselectorbackend.dto.SparseFieldsDTO;
+import com.alexpyslar03.productselectorbackend.dto.SubstitutionDTO;
 import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
 import com.alexpyslar03.productselectorbackend.exception.ProductNotFoundException;
+import com.alexpyslar03.productselectorbackend.service.ImageService;
 import com.alexpyslar03.productselectorbackend.service.ProductService;
+import com.alexpyslar03.productselectorbackend.service.ProductSubstitutionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Set;
 
@@ -22,10 +43,13 @@ import java.util.Set;
  */
 @RestController
 @RequestMapping("/products")
+@Bulkheaded(TrafficClass.CRUD)
 @AllArgsConstructor
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductSubstitutionService productSubstitutionService;
+    private final ImageService imageService;
 
     /**
      * Создает новый продукт.
@@ -47,16 +71,42 @@ public class ProductController {
 
     /**
      * Возвращает список всех продуктов.
+     * JSON записывается в ответ напрямую из курсора базы данных, без загрузки сущностей и списка в память.
      *
-     * @return Ответ со списком всех продуктов и статусом 200 OK.
+     * @param response Ответ, в который записывается список.
+     * @throws IOException Если не удалось записать ответ.
      */
     @Operation(summary = "Получение списка всех продуктов", description = "Возвращает список всех продуктов в системе.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Список продуктов успешно возвращен")
+            @ApiResponse(responseCode = "200", description = "Список продуктов успешно возвращен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Product.class))))
     })
+    @RequestCost(10)
+    @Bulkheaded(TrafficClass.SEARCH)
     @GetMapping
-    public ResponseEntity<List<Product>> readAll() {
-        List<Product> products = productService.readAll();
+    public void readAll(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        productService.writeAll(response.getOutputStream());
+    }
+
+    /**
+     * Возвращает указанные поля всех продуктов.
+     *
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями продуктов и статусом 200 OK.
+     * @throws BadRequestException Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей всех продуктов", description = "Возвращает список всех продуктов только с полями, перечисленными в параметре fields (id, name, viewCount, cookedCount, imageHash); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список продуктов успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @RequestCost(10)
+    @Bulkheaded(TrafficClass.SEARCH)
+    @GetMapping(params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readAllFields(
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO products = productService.readAllFields(fields);
         return ResponseEntity.ok(products);
     }
 
@@ -79,6 +129,29 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    /**
+     * Возвращает указанные поля продукта по его идентификатору.
+     *
+     * @param id     Идентификатор продукта.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями продукта и статусом 200 OK.
+     * @throws ProductNotFoundException Если продукт с указанным идентификатором не найден.
+     * @throws BadRequestException      Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей продукта по ID", description = "Возвращает продукт по указанному ID только с полями, перечисленными в параметре fields (id, name, viewCount, cookedCount, imageHash); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Продукт успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Продукт с указанным ID не найден"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readFieldsById(
+            @Parameter(description = "Идентификатор продукта", required = true) @PathVariable Long id,
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO product = productService.readFieldsById(id, fields);
+        return ResponseEntity.ok(product);
+    }
+
     /**
      * Возвращает набор продуктов по предоставленным идентификаторам.
      *
@@ -91,6 +164,8 @@ public class ProductController {
             @ApiResponse(responseCode = "200", description = "Набор продуктов успешно возвращен"),
             @ApiResponse(responseCode = "404", description = "Не найдены продукты с указанными ID")
     })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
     @GetMapping("/batch")
     public ResponseEntity<Set<Product>> readByIds(
             @Parameter(description = "Список идентификаторов продуктов", required = true) @RequestParam List<Long> ids) {
@@ -98,6 +173,31 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Возвращает указанные поля продуктов по предоставленным идентификаторам.
+     *
+     * @param ids    Список идентификаторов продуктов.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями продуктов и статусом 200 OK.
+     * @throws ProductNotFoundException Если ни один из продуктов с указанными идентификаторами не найден.
+     * @throws BadRequestException      Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей продуктов по ID", description = "Возвращает набор продуктов по указанным ID только с полями, перечисленными в параметре fields (id, name, viewCount, cookedCount, imageHash); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Набор продуктов успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Не найдены продукты с указанными ID"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
+    @GetMapping(value = "/batch", params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readFieldsByIdIn(
+            @Parameter(description = "Список идентификаторов продуктов", required = true) @RequestParam List<Long> ids,
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO products = productService.readFieldsByIdIn(ids, fields);
+        return ResponseEntity.ok(products);
+    }
+
     /**
      * Возвращает список продуктов по идентификатору рецепта.
      *
@@ -117,6 +217,29 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Возвращает указанные поля продуктов по идентификатору рецепта.
+     *
+     * @param id     Идентификатор рецепта.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями продуктов и статусом 200 OK.
+     * @throws ProductNotFoundException Если продукты для указанного рецепта не найдены.
+     * @throws BadRequestException      Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей продуктов по ID рецепта", description = "Возвращает список продуктов по указанному ID рецепта только с полями, перечисленными в параметре fields (id, name, viewCount, cookedCount, imageHash); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список продуктов успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Продукты для указанного рецепта не найдены"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @GetMapping(value = "/recipe/{id}", params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readFieldsByRecipeId(
+            @Parameter(description = "Идентификатор рецепта", required = true) @PathVariable Long id,
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO products = productService.readFieldsByRecipeId(id, fields);
+        return ResponseEntity.ok(products);
+    }
+
     /**
      * Возвращает список продуктов по списку идентификаторов рецептов.
      *
@@ -129,6 +252,8 @@ public class ProductController {
             @ApiResponse(responseCode = "200", description = "Список продуктов успешно возвращен"),
             @ApiResponse(responseCode = "404", description = "Продукты для указанных рецептов не найдены")
     })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
     @GetMapping("/recipe/batch")
     public ResponseEntity<List<Product>> readByRecipeIdIn(
             @Parameter(description = "Список идентификаторов рецептов", required = true) @RequestParam List<Long> ids) {
@@ -136,6 +261,193 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * Возвращает указанные поля продуктов по списку идентификаторов рецептов.
+     *
+     * @param ids    Список идентификаторов рецептов.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями продуктов и статусом 200 OK.
+     * @throws ProductNotFoundException Если продукты для указанных рецептов не найдены.
+     * @throws BadRequestException      Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей продуктов по списку ID рецептов", description = "Возвращает список продуктов по списку идентификаторов рецептов только с полями, перечисленными в параметре fields (id, name, viewCount, cookedCount, imageHash); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список продуктов успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Продукты для указанных рецептов не найдены"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
+    @GetMapping(value = "/recipe/batch", params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readFieldsByRecipeIdIn(
+            @Parameter(description = "Список идентификаторов рецептов", required = true) @RequestParam List<Long> ids,
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO products = productService.readFieldsByRecipeIdIn(ids, fields);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * Возвращает продукты, которые часто используются вместе с указанным продуктом.
+     *
+     * @param id    Идентификатор продукта.
+     * @param limit Максимальное количество результатов.
+     * @return Ответ со списком связанных продуктов и статусом 200 OK.
+     * @throws ProductNotFoundException Если связанные продукты не найдены.
+     */
+    @Operation(summary = "Получение продуктов, используемых вместе", description = "Возвращает продукты, которые чаще всего встречаются в рецептах вместе с указанным продуктом.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список связанных продуктов успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Связанные продукты не найдены")
+    })
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<RelatedProductDTO>> readRelated(
+            @Parameter(description = "Идентификатор продукта", required = true) @PathVariable Long id,
+            @Parameter(description = "Максимальное количество результатов") @RequestParam(defaultValue = "10") int limit) {
+        List<RelatedProductDTO> related = productService.readRelated(id, limit);
+        return ResponseEntity.ok(related);
+    }
+
+    /**
+     * Возвращает продукты, которые могут понадобиться вместе с продуктами из кладовой.
+     *
+     * @param ids   Список идентификаторов продуктов в кладовой.
+     * @param limit Максимальное количество результатов.
+     * @return Ответ со списком рекомендуемых продуктов и статусом 200 OK.
+     * @throws ProductNotFoundException Если рекомендуемые продукты не найдены.
+     */
+    @Operation(summary = "Получение рекомендаций для кладовой", description = "Возвращает продукты, которые чаще всего используются вместе с указанными продуктами.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список рекомендуемых продуктов успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Рекомендуемые продукты не найдены")
+    })
+    @GetMapping("/suggestions")
+    public ResponseEntity<List<RelatedProductDTO>> readSuggestions(
+            @Parameter(description = "Список идентификаторов продуктов в кладовой", required = true) @RequestParam List<Long> ids,
+            @Parameter(description = "Максимальное количество результатов") @RequestParam(defaultValue = "10") int limit) {
+        List<RelatedProductDTO> suggestions = productService.readSuggestions(ids, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    /**
+     * Возвращает замены продукта.
+     *
+     * @param id Идентификатор заменяемого продукта.
+     * @return Ответ со списком замен и статусом 200 OK.
+     * @throws ProductNotFoundException Если замены для продукта не найдены.
+     */
+    @Operation(summary = "Получение замен продукта", description = "Возвращает продукты, которыми можно заменить указанный продукт, с весами замен.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список замен успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Замены для продукта не найдены")
+    })
+    @GetMapping("/{id}/substitutes")
+    public ResponseEntity<List<SubstitutionDTO>> readSubstitutes(
+            @Parameter(description = "Идентификатор продукта", required = true) @PathVariable Long id) {
+        List<SubstitutionDTO> substitutions = productSubstitutionService.readByProductId(id);
+        return ResponseEntity.ok(substitutions);
+    }
+
+    /**
+     * Добавляет замену продукта или обновляет ее вес.
+     *
+     * @param id  Идентификатор заменяемого продукта.
+     * @param dto DTO с идентификатором продукта-заменителя и весом замены.
+     * @return Ответ с сохраненной заменой и статусом 200 OK.
+     * @throws ProductNotFoundException Если один из продуктов не найден.
+     */
+    @Operation(summary = "Сохранение замены продукта", description = "Добавляет продукт-заменитель или обновляет вес существующей замены.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Замена успешно сохранена"),
+            @ApiResponse(responseCode = "400", description = "Не указан продукт-заменитель или некорректный вес замены"),
+            @ApiResponse(responseCode = "404", description = "Продукт не найден")
+    })
+    @PutMapping("/{id}/substitutes")
+    public ResponseEntity<SubstitutionDTO> saveSubstitute(
+            @Parameter(description = "Идентификатор продукта", required = true) @PathVariable Long id,
+            @Parameter(description = "DTO с данными замены", required = true) @RequestBody SubstitutionDTO dto) {
+        SubstitutionDTO substitution = productSubstitutionService.save(id, dto);
+        return ResponseEntity.ok(substitution);
+    }
+
+    /**
+     * Удаляет замену продукта.
+     *
+     * @param id           Идентификатор заменяемого продукта.
+     * @param substituteId Идентификатор продукта-заменителя.
+     * @return Ответ со статусом 204 No Content.
+     * @throws ProductNotFoundException Если замена не найдена.
+     */
+    @Operation(summary = "Удаление замены продукта", description = "Удаляет продукт-заменитель из графа замен.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Замена успешно удалена"),
+            @ApiResponse(responseCode = "404", description = "Замена не найдена")
+    })
+    @DeleteMapping("/{id}/substitutes/{substituteId}")
+    public ResponseEntity<Void> deleteSubstitute(
+            @Parameter(description = "Идентификатор продукта", required = true) @PathVariable Long id,
+            @Parameter(description = "Идентификатор продукта-заменителя", required = true) @PathVariable Long substituteId) {
+        productSubstitutionService.delete(id, substituteId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Заменяет изображение продукта содержимым тела запроса.
+     * Изображение передается в базу данных потоком по мере получения, без буферизации в памяти.
+     *
+     * @param id      Идентификатор продукта.
+     * @param request HTTP-запрос с изображением в теле.
+     * @return Ответ со сведениями о загруженном изображении и статусом 200 OK.
+     * @throws IOException              Если не удалось прочитать тело запроса.
+     * @throws ProductNotFoundException Если продукт с указанным идентификатором не найден.
+     * @throws BadRequestException     Если размер, тип или содержимое изображения недопустимы.
+     */
+    @Operation(summary = "Загрузка изображения продукта", description = "Принимает изображение JPEG, PNG, GIF или WebP в теле запроса с заголовком Content-Length. Формат определяется по содержимому и должен совпадать с Content-Type (для application/octet-stream не проверяется).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Изображение успешно загружено"),
+            @ApiResponse(responseCode = "400", description = "Недопустимый размер, тип или содержимое изображения"),
+            @ApiResponse(responseCode = "404", description = "Продукт с указанным ID не найден")
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Изображение", required = true,
+            content = @Content(mediaType = "image/*", schema = @Schema(type = "string", format = "binary")))
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.IMAGE)
+    @PutMapping(value = "/{id}/image", consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE,
+            "image/webp", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImageDTO> uploadImage(
+            @Parameter(description = "Идентификатор продукта", required = true) @PathVariable Long id,
+            HttpServletRequest request) throws IOException {
+        ImageDTO image = imageService.uploadProductImage(id, request.getInputStream(), request.getContentLengthLong(), request.getContentType());
+        return ResponseEntity.ok(image);
+    }
+
+    /**
+     * Заменяет изображение продукта файлом из multipart-запроса.
+     *
+     * @param id   Идентификатор продукта.
+     * @param file Файл изображения (часть file).
+     * @return Ответ со сведениями о загруженном изображении и статусом 200 OK.
+     * @throws IOException              Если не удалось прочитать файл.
+     * @throws ProductNotFoundException Если продукт с указанным идентификатором не найден.
+     * @throws BadRequestException     Если размер, тип или содержимое изображения недопустимы.
+     */
+    @Operation(summary = "Загрузка изображения продукта из формы", description = "Принимает изображение JPEG, PNG, GIF или WebP в части file запроса multipart/form-data.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Изображение успешно загружено"),
+            @ApiResponse(responseCode = "400", description = "Недопустимый размер, тип или содержимое изображения"),
+            @ApiResponse(responseCode = "404", description = "Продукт с указанным ID не найден")
+    })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.IMAGE)
+    @PutMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImageDTO> uploadImageFile(
+            @Parameter(description = "Идентификатор продукта", required = true) @PathVariable Long id,
+            @Parameter(description = "Файл изображения", required = true) @RequestPart("file") MultipartFile file) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            ImageDTO image = imageService.uploadProductImage(id, content, file.getSize(), file.getContentType());
+            return ResponseEntity.ok(image);
+        }
+    }
+
     /**
      * Обновляет данные продукта.
      *
@@ -155,6 +467,29 @@ public class ProductController {
         return ResponseEntity.ok(updatedProduct);
     }
 
+    /**
+     * Частично обновляет данные продукта.
+     *
+     * @param id  Идентификатор продукта.
+     * @param dto DTO с изменяемыми полями продукта.
+     * @return Ответ со статусом 204 No Content.
+     * @throws ProductNotFoundException Если продукт с указанным идентификатором не найден.
+     * @throws BadRequestException Если некоторые из связанных рецептов не найдены.
+     */
+    @Operation(summary = "Частичное обновление данных продукта", description = "Записывает только переданные поля продукта; связи с рецептами изменяются добавлением и удалением только измененных связей.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Продукт успешно изменен"),
+            @ApiResponse(responseCode = "400", description = "Некоторые из связанных рецептов не найдены"),
+            @ApiResponse(responseCode = "404", description = "Продукт с указанным ID не найден")
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(
+            @Parameter(description = "Идентификатор продукта", required = true) @PathVariable Long id,
+            @Parameter(description = "DTO с изменяемыми полями продукта", required = true) @RequestBody ProductPatchDTO dto) {
+        productService.patch(id, dto);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Удаляет продукт по его идентификатору.
      *
@@ -173,4 +508,26 @@ public class ProductController {
         productService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Удаляет несколько продуктов по набору идентификаторов одной транзакцией.
+     *
+     * @param ids Идентификаторы продуктов для удаления.
+     * @return Ответ со списками удаленных и не найденных идентификаторов и статусом 200 OK.
+     * @throws BadRequestException Если список идентификаторов пуст или превышает допустимый размер.
+     * @throws ProductNotFoundException Если ни один из продуктов не найден.
+     */
+    @Operation(summary = "Массовое удаление продуктов", description = "Удаляет продукты по списку ID и возвращает идентификаторы удаленных и не найденных продуктов.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Продукты успешно удалены"),
+            @ApiResponse(responseCode = "400", description = "Список ID пуст или слишком велик"),
+            @ApiResponse(responseCode = "404", description = "Ни один из продуктов не найден")
+    })
+    @RequestCost(10)
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteDTO> deleteAll(
+            @Parameter(description = "Идентификаторы продуктов для удаления", required = true) @RequestParam List<Long> ids) {
+        BulkDeleteDTO products = productService.deleteAll(ids);
+        return ResponseEntity.ok(products);
+    }
 }
\ No newline at end of file
@@ -1,18 +1,40 @@
 package com.alexpyslar03.productselectorbackend.controller;
 
+import com.alexpyslar03.productselectorbackend.admission.RequestCost;
+import com.alexpyslar03.productselectorbackend.bulkhead.Bulkheaded;
+import com.alexpyslar03.productselectorbackend.bulkhead.TrafficClass;
+import com.alexpyslar03.productselectorbackend.dto.BulkDeleteDTO;
+import com.alexpyslar03.productselectorbackend.dto.ImageDTO;
+import com.alexpyslar03.productselectorbackend.dto.NormalizedRecipesDTO;
+import com.alexpyslar03.productselectorbackend.dto.PantryMatchDTO;
 import com.alexpyslar03.productselectorbackend.dto.RecipeDTO;
+import com.alexpyslar03.productselectorbackend.dto.RecipeDetailsDTO;
+import com.alexpyslar03.productselectorbackend.dto.RecipePatchDTO;
+import com.alexpyslar03.productselectorbackend.dto.SparseFieldsDTO;
+import com.alexpyslar03.productselectorbackend.dto.TrendingRecipeDTO;
 import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
 import com.alexpyslar03.productselectorbackend.exception.RecipeNotFoundException;
+import com.alexpyslar03.productselectorbackend.service.ImageService;
 import com.alexpyslar03.productselectorbackend.service.RecipeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Set;
 
@@ -22,10 +44,12 @@ import java.util.Set;
  */
 @RestController
 @RequestMapping("/recipes")
+@Bulkheaded(TrafficClass.CRUD)
 @AllArgsConstructor
 public class RecipeController {
 
     private final RecipeService recipeService;
+    private final ImageService imageService;
 
     /**
      * Создает новый рецепт.
@@ -47,16 +71,42 @@ public class RecipeController {
 
     /**
      * Возвращает список всех рецептов.
+     * JSON записывается в ответ напрямую из курсора базы данных, без загрузки сущностей и списка в память.
      *
-     * @return Ответ со списком всех рецептов и статусом 200 OK.
+     * @param response Ответ, в который записывается список.
+     * @throws IOException Если не удалось записать ответ.
      */
     @Operation(summary = "Получение списка всех рецептов", description = "Возвращает список всех рецептов в системе.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен")
+            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE, array = @ArraySchema(schema = @Schema(implementation = Recipe.class))))
     })
+    @RequestCost(10)
+    @Bulkheaded(TrafficClass.SEARCH)
     @GetMapping
-    public ResponseEntity<List<Recipe>> readAll() {
-        List<Recipe> recipes = recipeService.readAll();
+    public void readAll(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        recipeService.writeAll(response.getOutputStream());
+    }
+
+    /**
+     * Возвращает указанные поля всех рецептов.
+     *
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями рецептов и статусом 200 OK.
+     * @throws BadRequestException Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей всех рецептов", description = "Возвращает список всех рецептов только с полями, перечисленными в параметре fields (id, name, description, vegan, difficultyLevel, rating, viewCount, cookedCount, imageHash); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @RequestCost(10)
+    @Bulkheaded(TrafficClass.SEARCH)
+    @GetMapping(params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readAllFields(
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO recipes = recipeService.readAllFields(fields);
         return ResponseEntity.ok(recipes);
     }
 
@@ -73,9 +123,32 @@ public class RecipeController {
             @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден")
     })
     @GetMapping("/{id}")
-    public ResponseEntity<Recipe> readById(
+    public ResponseEntity<RecipeDetailsDTO> readById(
             @Parameter(description = "Идентификатор рецепта", required = true) @PathVariable Long id) {
-        Recipe recipe = recipeService.readById(id);
+        RecipeDetailsDTO recipe = recipeService.readById(id);
+        return ResponseEntity.ok(recipe);
+    }
+
+    /**
+     * Возвращает указанные поля рецепта по его идентификатору.
+     *
+     * @param id     Идентификатор рецепта.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями рецепта и статусом 200 OK.
+     * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей рецепта по ID", description = "Возвращает рецепт по указанному ID только с полями, перечисленными в параметре fields (id, name, description, vegan, difficultyLevel, rating, viewCount, cookedCount, imageHash); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Рецепт успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readFieldsById(
+            @Parameter(description = "Идентификатор рецепта", required = true) @PathVariable Long id,
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO recipe = recipeService.readFieldsById(id, fields);
         return ResponseEntity.ok(recipe);
     }
 
@@ -91,6 +164,8 @@ public class RecipeController {
             @ApiResponse(responseCode = "200", description = "Набор рецептов успешно возвращен"),
             @ApiResponse(responseCode = "404", description = "Не найдены рецепты с указанными ID")
     })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
     @GetMapping("/batch")
     public ResponseEntity<Set<Recipe>> readByIds(
             @Parameter(description = "Список идентификаторов рецептов", required = true) @RequestParam List<Long> ids) {
@@ -98,6 +173,31 @@ public class RecipeController {
         return ResponseEntity.ok(recipes);
     }
 
+    /**
+     * Возвращает указанные поля рецептов по предоставленным идентификаторам.
+     *
+     * @param ids    Список идентификаторов рецептов.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями рецептов и статусом 200 OK.
+     * @throws RecipeNotFoundException Если рецепты с указанными идентификаторами не найдены.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей рецептов по ID", description = "Возвращает набор рецептов по указанным ID только с полями, перечисленными в параметре fields (id, name, description, vegan, difficultyLevel, rating, viewCount, cookedCount, imageHash); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Набор рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Рецепты с указанными ID не найдены"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
+    @GetMapping(value = "/batch", params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readFieldsByIdIn(
+            @Parameter(description = "Список идентификаторов рецептов", required = true) @RequestParam List<Long> ids,
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO recipes = recipeService.readFieldsByIdIn(ids, fields);
+        return ResponseEntity.ok(recipes);
+    }
+
     /**
      * Возвращает список рецептов по идентификатору продукта.
      *
@@ -117,6 +217,29 @@ public class RecipeController {
         return ResponseEntity.ok(recipes);
     }
 
+    /**
+     * Возвращает указанные поля рецептов по идентификатору продукта.
+     *
+     * @param id     Идентификатор продукта.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями рецептов и статусом 200 OK.
+     * @throws RecipeNotFoundException Если рецепты для указанного продукта не найдены.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей рецептов по ID продукта", description = "Возвращает список рецептов по указанному ID продукта только с полями, перечисленными в параметре fields (id, name, description, vegan, difficultyLevel, rating, viewCount, cookedCount, imageHash); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Рецепты для указанного продукта не найдены"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @GetMapping(value = "/product/{id}", params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readFieldsByProductId(
+            @Parameter(description = "Идентификатор продукта", required = true) @PathVariable Long id,
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO recipes = recipeService.readFieldsByProductId(id, fields);
+        return ResponseEntity.ok(recipes);
+    }
+
     /**
      * Возвращает список рецептов по списку идентификаторов продуктов.
      *
@@ -129,13 +252,180 @@ public class RecipeController {
             @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен"),
             @ApiResponse(responseCode = "404", description = "Рецепты для указанных продуктов не найдены")
     })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
     @GetMapping("/product/batch")
-    public ResponseEntity<List<Recipe>> readByProductIdIn(
+    public ResponseEntity<List<RecipeDetailsDTO>> readByProductIdIn(
             @Parameter(description = "Список идентификаторов продуктов", required = true) @RequestParam List<Long> ids) {
-        List<Recipe> recipes = recipeService.readByProductIdIn(ids);
+        List<RecipeDetailsDTO> recipes = recipeService.readByProductIdIn(ids);
+        return ResponseEntity.ok(recipes);
+    }
+
+    /**
+     * Возвращает указанные поля рецептов по списку идентификаторов продуктов.
+     *
+     * @param ids    Список идентификаторов продуктов.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями рецептов и статусом 200 OK.
+     * @throws RecipeNotFoundException Если рецепты для указанных продуктов не найдены.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей рецептов по списку ID продуктов", description = "Возвращает список рецептов по списку идентификаторов продуктов только с полями, перечисленными в параметре fields (id, name, description, vegan, difficultyLevel, rating, viewCount, cookedCount, imageHash); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Рецепты для указанных продуктов не найдены"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
+    @GetMapping(value = "/product/batch", params = {"fields", "normalized!=true"})
+    public ResponseEntity<SparseFieldsDTO> readFieldsByProductIdIn(
+            @Parameter(description = "Список идентификаторов продуктов", required = true) @RequestParam List<Long> ids,
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO recipes = recipeService.readFieldsByProductIdIn(ids, fields);
         return ResponseEntity.ok(recipes);
     }
 
+    /**
+     * Возвращает рецепты по списку идентификаторов продуктов в нормализованном виде.
+     * Рецепты ссылаются на продукты по идентификаторам, каждый продукт передается один раз в словаре products.
+     *
+     * @param ids Список идентификаторов продуктов.
+     * @return Ответ с нормализованным списком рецептов и статусом 200 OK.
+     * @throws RecipeNotFoundException Если рецепты для указанных продуктов не найдены.
+     */
+    @Operation(summary = "Получение рецептов по списку ID продуктов в нормализованном виде",
+            description = "Возвращает {recipes: [...], products: {id: {...}}}: рецепты содержат идентификаторы продуктов, а сами продукты передаются один раз. Включается параметром normalized=true.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Нормализованный список рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Рецепты для указанных продуктов не найдены")
+    })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
+    @GetMapping(value = "/product/batch", params = "normalized=true")
+    public ResponseEntity<NormalizedRecipesDTO> readNormalizedByProductIdIn(
+            @Parameter(description = "Список идентификаторов продуктов", required = true) @RequestParam List<Long> ids) {
+        NormalizedRecipesDTO recipes = recipeService.readNormalizedByProductIdIn(ids);
+        return ResponseEntity.ok(recipes);
+    }
+
+    /**
+     * Возвращает рецепты, которые можно приготовить из продуктов кладовой.
+     *
+     * @param ids         Список идентификаторов продуктов в кладовой.
+     * @param substitutes Разрешить замену недостающих продуктов продуктами из кладовой.
+     * @return Ответ со списком подходящих рецептов и статусом 200 OK.
+     * @throws RecipeNotFoundException Если подходящие рецепты не найдены.
+     */
+    @Operation(summary = "Подбор рецептов по кладовой", description = "Возвращает рецепты, все продукты которых есть в кладовой или могут быть заменены продуктами из нее.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список подходящих рецептов успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Подходящие рецепты не найдены")
+    })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
+    @GetMapping("/pantry")
+    public ResponseEntity<List<PantryMatchDTO>> readByPantry(
+            @Parameter(description = "Список идентификаторов продуктов в кладовой", required = true) @RequestParam List<Long> ids,
+            @Parameter(description = "Разрешить замену недостающих продуктов") @RequestParam(defaultValue = "false") boolean substitutes) {
+        List<PantryMatchDTO> matches = recipeService.readByPantry(ids, substitutes);
+        return ResponseEntity.ok(matches);
+    }
+
+    /**
+     * Возвращает рецепты, популярные в последнее время.
+     *
+     * @param limit Максимальное количество результатов.
+     * @return Ответ со списком популярных рецептов и статусом 200 OK.
+     */
+    @Operation(summary = "Получение популярных рецептов", description = "Возвращает рецепты с наибольшим количеством просмотров и приготовлений с учетом затухания по времени.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список популярных рецептов успешно возвращен")
+    })
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingRecipeDTO>> readTrending(
+            @Parameter(description = "Максимальное количество результатов") @RequestParam(defaultValue = "10") int limit) {
+        List<TrendingRecipeDTO> trending = recipeService.readTrending(limit);
+        return ResponseEntity.ok(trending);
+    }
+
+    /**
+     * Отмечает, что рецепт был приготовлен.
+     *
+     * @param id Идентификатор рецепта.
+     * @return Ответ со статусом 204 No Content.
+     * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
+     */
+    @Operation(summary = "Отметка о приготовлении рецепта", description = "Увеличивает счетчики приготовления рецепта и его продуктов.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Приготовление успешно учтено"),
+            @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден")
+    })
+    @PostMapping("/{id}/cooked")
+    public ResponseEntity<Void> cooked(
+            @Parameter(description = "Идентификатор рецепта", required = true) @PathVariable Long id) {
+        recipeService.cooked(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Заменяет изображение рецепта содержимым тела запроса.
+     * Изображение передается в базу данных потоком по мере получения, без буферизации в памяти.
+     *
+     * @param id      Идентификатор рецепта.
+     * @param request HTTP-запрос с изображением в теле.
+     * @return Ответ со сведениями о загруженном изображении и статусом 200 OK.
+     * @throws IOException             Если не удалось прочитать тело запроса.
+     * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
+     * @throws BadRequestException    Если размер, тип или содержимое изображения недопустимы.
+     */
+    @Operation(summary = "Загрузка изображения рецепта", description = "Принимает изображение JPEG, PNG, GIF или WebP в теле запроса с заголовком Content-Length. Формат определяется по содержимому и должен совпадать с Content-Type (для application/octet-stream не проверяется).")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Изображение успешно загружено"),
+            @ApiResponse(responseCode = "400", description = "Недопустимый размер, тип или содержимое изображения"),
+            @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден")
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Изображение", required = true,
+            content = @Content(mediaType = "image/*", schema = @Schema(type = "string", format = "binary")))
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.IMAGE)
+    @PutMapping(value = "/{id}/image", consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.IMAGE_GIF_VALUE,
+            "image/webp", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<ImageDTO> uploadImage(
+            @Parameter(description = "Идентификатор рецепта", required = true) @PathVariable Long id,
+            HttpServletRequest request) throws IOException {
+        ImageDTO image = imageService.uploadRecipeImage(id, request.getInputStream(), request.getContentLengthLong(), request.getContentType());
+        return ResponseEntity.ok(image);
+    }
+
+    /**
+     * Заменяет изображение рецепта файлом из multipart-запроса.
+     *
+     * @param id   Идентификатор рецепта.
+     * @param file Файл изображения (часть file).
+     * @return Ответ со сведениями о загруженном изображении и статусом 200 OK.
+     * @throws IOException             Если не удалось прочитать файл.
+     * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
+     * @throws BadRequestException    Если размер, тип или содержимое изображения недопустимы.
+     */
+    @Operation(summary = "Загрузка изображения рецепта из формы", description = "Принимает изображение JPEG, PNG, GIF или WebP в части file запроса multipart/form-data.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Изображение успешно загружено"),
+            @ApiResponse(responseCode = "400", description = "Недопустимый размер, тип или содержимое изображения"),
+            @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден")
+    })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.IMAGE)
+    @PutMapping(value = "/{id}/image", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImageDTO> uploadImageFile(
+            @Parameter(description = "Идентификатор рецепта", required = true) @PathVariable Long id,
+            @Parameter(description = "Файл изображения", required = true) @RequestPart("file") MultipartFile file) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            ImageDTO image = imageService.uploadRecipeImage(id, content, file.getSize(), file.getContentType());
+            return ResponseEntity.ok(image);
+        }
+    }
+
     /**
      * Обновляет данные рецепта.
      *
@@ -155,6 +445,29 @@ public class RecipeController {
         return ResponseEntity.ok(updatedRecipe);
     }
 
+    /**
+     * Частично обновляет данные рецепта.
+     *
+     * @param id  Идентификатор рецепта.
+     * @param dto DTO с изменяемыми полями рецепта.
+     * @return Ответ со статусом 204 No Content.
+     * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
+     * @throws BadRequestException Если некоторые из связанных продуктов не найдены.
+     */
+    @Operation(summary = "Частичное обновление данных рецепта", description = "Записывает только переданные поля рецепта; связи с продуктами изменяются добавлением и удалением только измененных связей.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Рецепт успешно изменен"),
+            @ApiResponse(responseCode = "400", description = "Некоторые из связанных продуктов не найдены"),
+            @ApiResponse(responseCode = "404", description = "Рецепт с указанным ID не найден")
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(
+            @Parameter(description = "Идентификатор рецепта", required = true) @PathVariable Long id,
+            @Parameter(description = "DTO с изменяемыми полями рецепта", required = true) @RequestBody RecipePatchDTO dto) {
+        recipeService.patch(id, dto);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Удаляет рецепт по его идентификатору.
      *
@@ -173,4 +486,26 @@ public class RecipeController {
         recipeService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Удаляет несколько рецептов по набору идентификаторов одной транзакцией.
+     *
+     * @param ids Идентификаторы рецептов для удаления.
+     * @return Ответ со списками удаленных и не найденных идентификаторов и статусом 200 OK.
+     * @throws BadRequestException Если список идентификаторов пуст или превышает допустимый размер.
+     * @throws RecipeNotFoundException Если ни один из рецептов не найден.
+     */
+    @Operation(summary = "Массовое удаление рецептов", description = "Удаляет рецепты по списку ID и возвращает идентификаторы удаленных и не найденных рецептов.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Рецепты успешно удалены"),
+            @ApiResponse(responseCode = "400", description = "Список ID пуст или слишком велик"),
+            @ApiResponse(responseCode = "404", description = "Ни один из рецептов не найден")
+    })
+    @RequestCost(10)
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteDTO> deleteAll(
+            @Parameter(description = "Идентификаторы рецептов для удаления", required = true) @RequestParam List<Long> ids) {
+        BulkDeleteDTO recipes = recipeService.deleteAll(ids);
+        return ResponseEntity.ok(recipes);
+    }
 }
\ No newline at end of file
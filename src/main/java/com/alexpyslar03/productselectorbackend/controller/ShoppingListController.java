@@ -0,0 +1,49 @@
+package com.alexpyslar03.productselectorbackend.controller;
+
+import com.alexpyslar03.productselectorbackend.admission.RequestCost;
+import com.alexpyslar03.productselectorbackend.dto.ShoppingListDTO;
+import com.alexpyslar03.productselectorbackend.exception.RecipeNotFoundException;
+import com.alexpyslar03.productselectorbackend.service.ShoppingListService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Контроллер для формирования списков покупок.
+ * Предоставляет endpoint для получения объединенного списка продуктов по набору рецептов.
+ */
+@RestController
+@RequestMapping("/shopping-list")
+@AllArgsConstructor
+public class ShoppingListController {
+
+    private final ShoppingListService shoppingListService;
+
+    /**
+     * Возвращает список покупок для указанных рецептов.
+     *
+     * @param recipeIds Список идентификаторов рецептов.
+     * @param pantryIds Список идентификаторов продуктов, уже имеющихся у пользователя.
+     * @return Ответ со списком покупок и статусом 200 OK.
+     * @throws RecipeNotFoundException Если продукты для указанных рецептов не найдены.
+     */
+    @Operation(summary = "Получение списка покупок", description = "Возвращает дедуплицированный список недостающих продуктов для набора рецептов с учетом кладовой.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список покупок успешно сформирован"),
+            @ApiResponse(responseCode = "404", description = "Продукты для указанных рецептов не найдены")
+    })
+    @RequestCost(5)
+    @GetMapping
+    public ResponseEntity<ShoppingListDTO> create(
+            @Parameter(description = "Список идентификаторов рецептов", required = true) @RequestParam List<Long> recipeIds,
+            @Parameter(description = "Список идентификаторов продуктов в кладовой") @RequestParam(required = false) List<Long> pantryIds) {
+        ShoppingListDTO shoppingList = shoppingListService.create(recipeIds, pantryIds);
+        return ResponseEntity.ok(shoppingList);
+    }
+}
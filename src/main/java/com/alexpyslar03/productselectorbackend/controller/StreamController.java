@@ -0,0 +1,41 @@
+package com.alexpyslar03.productselectorbackend.controller;
+
+import com.alexpyslar03.productselectorbackend.service.CatalogStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Контроллер для подписки на изменения каталога.
+ * Предоставляет поток Server-Sent Events с уведомлениями о создании, изменении и удалении сущностей.
+ */
+@RestController
+@RequestMapping("/stream")
+@AllArgsConstructor
+public class StreamController {
+
+    private final CatalogStreamService catalogStreamService;
+
+    /**
+     * Открывает поток уведомлений об изменениях каталога.
+     *
+     * @param lastEventId Идентификатор последнего полученного события для продолжения потока после переподключения.
+     * @return Ответ с потоком событий и статусом 200 OK.
+     */
+    @Operation(summary = "Подписка на изменения каталога", description = "Открывает поток Server-Sent Events с уведомлениями об изменениях продуктов, рецептов и пользователей. Событие reset означает, что клиенту необходимо выполнить полную синхронизацию через /sync.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Поток событий успешно открыт")
+    })
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(
+            @Parameter(description = "Идентификатор последнего полученного события") @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        SseEmitter emitter = catalogStreamService.subscribe(lastEventId);
+        return ResponseEntity.ok(emitter);
+    }
+}
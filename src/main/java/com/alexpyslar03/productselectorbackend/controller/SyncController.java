@@ -0,0 +1,47 @@
+package com.alexpyslar03.productselectorbackend.controller;
+
+import com.alexpyslar03.productselectorbackend.admission.RequestCost;
+import com.alexpyslar03.productselectorbackend.dto.SyncDTO;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
+import com.alexpyslar03.productselectorbackend.service.CatalogSyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.AllArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * Контроллер для инкрементальной синхронизации каталога.
+ * Предоставляет endpoint для получения изменений продуктов и рецептов с момента предыдущей синхронизации.
+ */
+@RestController
+@RequestMapping("/sync")
+@AllArgsConstructor
+public class SyncController {
+
+    private final CatalogSyncService catalogSyncService;
+
+    /**
+     * Возвращает изменения каталога после указанного токена.
+     *
+     * @param since Токен предыдущей синхронизации.
+     * @param limit Максимальное количество изменений в ответе.
+     * @return Ответ с изменениями каталога и статусом 200 OK.
+     * @throws BadRequestException Если токен или ограничение некорректны.
+     */
+    @Operation(summary = "Инкрементальная синхронизация каталога", description = "Возвращает измененные и удаленные продукты и рецепты после указанного токена в компактном виде без изображений.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Изменения каталога успешно возвращены"),
+            @ApiResponse(responseCode = "400", description = "Некорректный токен или ограничение количества изменений")
+    })
+    @RequestCost(5)
+    @GetMapping
+    public ResponseEntity<SyncDTO> sync(
+            @Parameter(description = "Токен предыдущей синхронизации (0 для полной синхронизации)") @RequestParam(defaultValue = "0") long since,
+            @Parameter(description = "Максимальное количество изменений в ответе") @RequestParam(defaultValue = "1000") int limit) {
+        SyncDTO sync = catalogSyncService.sync(since, limit);
+        return ResponseEntity.ok(sync);
+    }
+}
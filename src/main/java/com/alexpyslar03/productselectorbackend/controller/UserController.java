@@ -1,7 +1,14 @@
 package com.alexpyslar03.productselectorbackend.controller;
 
+import com.alexpyslar03.productselectorbackend.admission.RequestCost;
+import com.alexpyslar03.productselectorbackend.bulkhead.Bulkheaded;
+import com.alexpyslar03.productselectorbackend.bulkhead.TrafficClass;
+import com.alexpyslar03.productselectorbackend.dto.BulkDeleteDTO;
+import com.alexpyslar03.productselectorbackend.dto.SparseFieldsDTO;
 import com.alexpyslar03.productselectorbackend.dto.UserDTO;
+import com.alexpyslar03.productselectorbackend.dto.UserPatchDTO;
 import com.alexpyslar03.productselectorbackend.entity.User;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
 import com.alexpyslar03.productselectorbackend.exception.UserNotFoundException;
 import com.alexpyslar03.productselectorbackend.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,6 +28,7 @@ import java.util.List;
  */
 @RestController
 @RequestMapping("/users")
+@Bulkheaded(TrafficClass.CRUD)
 @AllArgsConstructor
 public class UserController {
 
@@ -53,12 +61,35 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список пользователей успешно возвращен")
     })
+    @RequestCost(10)
+    @Bulkheaded(TrafficClass.SEARCH)
     @GetMapping
     public ResponseEntity<List<User>> readAll() {
         List<User> users = userService.readAll();
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Возвращает указанные поля всех пользователей.
+     *
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями пользователей и статусом 200 OK.
+     * @throws BadRequestException Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей всех пользователей", description = "Возвращает список всех пользователей только с полями, перечисленными в параметре fields (id, name, surname, email, birthDate, registrationDate, accessLevel); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список пользователей успешно возвращен"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @RequestCost(10)
+    @Bulkheaded(TrafficClass.SEARCH)
+    @GetMapping(params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readAllFields(
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO users = userService.readAllFields(fields);
+        return ResponseEntity.ok(users);
+    }
+
     /**
      * Возвращает пользователя по его идентификатору.
      *
@@ -78,6 +109,29 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    /**
+     * Возвращает указанные поля пользователя по его идентификатору.
+     *
+     * @param id     Идентификатор пользователя.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями пользователя и статусом 200 OK.
+     * @throws UserNotFoundException Если пользователь с указанным идентификатором не найден.
+     * @throws BadRequestException   Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей пользователя по ID", description = "Возвращает пользователя по указанному ID только с полями, перечисленными в параметре fields (id, name, surname, email, birthDate, registrationDate, accessLevel); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователь успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Пользователь с указанным ID не найден"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readFieldsById(
+            @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable Long id,
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO user = userService.readFieldsById(id, fields);
+        return ResponseEntity.ok(user);
+    }
+
     /**
      * Возвращает список пользователей по предоставленным идентификаторам.
      *
@@ -90,6 +144,8 @@ public class UserController {
             @ApiResponse(responseCode = "200", description = "Список пользователей успешно возвращен"),
             @ApiResponse(responseCode = "404", description = "Не найдены пользователи с указанными ID")
     })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
     @GetMapping("/batch")
     public ResponseEntity<List<User>> readByIdIn(
             @Parameter(description = "Список идентификаторов пользователей", required = true) @RequestParam List<Long> ids) {
@@ -97,6 +153,31 @@ public class UserController {
         return ResponseEntity.ok(users);
     }
 
+    /**
+     * Возвращает указанные поля пользователей по предоставленным идентификаторам.
+     *
+     * @param ids    Список идентификаторов пользователей.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями пользователей и статусом 200 OK.
+     * @throws UserNotFoundException Если ни один из пользователей с указанными идентификаторами не найден.
+     * @throws BadRequestException   Если поля не указаны или среди них есть неизвестные.
+     */
+    @Operation(summary = "Получение выбранных полей пользователей по ID", description = "Возвращает список пользователей по указанным ID только с полями, перечисленными в параметре fields (id, name, surname, email, birthDate, registrationDate, accessLevel); остальные столбцы не выбираются из базы данных.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Список пользователей успешно возвращен"),
+            @ApiResponse(responseCode = "404", description = "Не найдены пользователи с указанными ID"),
+            @ApiResponse(responseCode = "400", description = "Поля не указаны или среди них есть неизвестные")
+    })
+    @RequestCost(5)
+    @Bulkheaded(TrafficClass.SEARCH)
+    @GetMapping(value = "/batch", params = "fields")
+    public ResponseEntity<SparseFieldsDTO> readFieldsByIdIn(
+            @Parameter(description = "Список идентификаторов пользователей", required = true) @RequestParam List<Long> ids,
+            @Parameter(description = "Имена полей через запятую", required = true) @RequestParam String fields) {
+        SparseFieldsDTO users = userService.readFieldsByIdIn(ids, fields);
+        return ResponseEntity.ok(users);
+    }
+
     /**
      * Обновляет данные пользователя.
      *
@@ -116,6 +197,27 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    /**
+     * Частично обновляет данные пользователя.
+     *
+     * @param id  Идентификатор пользователя.
+     * @param dto DTO с изменяемыми полями пользователя.
+     * @return Ответ со статусом 204 No Content.
+     * @throws UserNotFoundException Если пользователь с указанным идентификатором не найден.
+     */
+    @Operation(summary = "Частичное обновление данных пользователя", description = "Записывает только переданные поля пользователя.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Пользователь успешно изменен"),
+            @ApiResponse(responseCode = "404", description = "Пользователь с указанным ID не найден")
+    })
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patch(
+            @Parameter(description = "Идентификатор пользователя", required = true) @PathVariable Long id,
+            @Parameter(description = "DTO с изменяемыми полями пользователя", required = true) @RequestBody UserPatchDTO dto) {
+        userService.patch(id, dto);
+        return ResponseEntity.noContent().build();
+    }
+
     /**
      * Удаляет пользователя по его идентификатору.
      *
@@ -134,4 +236,26 @@ public class UserController {
         userService.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Удаляет несколько пользователей по набору идентификаторов одной транзакцией.
+     *
+     * @param ids Идентификаторы пользователей для удаления.
+     * @return Ответ со списками удаленных и не найденных идентификаторов и статусом 200 OK.
+     * @throws BadRequestException Если список идентификаторов пуст или превышает допустимый размер.
+     * @throws UserNotFoundException Если ни один из пользователей не найден.
+     */
+    @Operation(summary = "Массовое удаление пользователей", description = "Удаляет пользователей по списку ID и возвращает идентификаторы удаленных и не найденных пользователей.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователи успешно удалены"),
+            @ApiResponse(responseCode = "400", description = "Список ID пуст или слишком велик"),
+            @ApiResponse(responseCode = "404", description = "Ни один из пользователей не найден")
+    })
+    @RequestCost(10)
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteDTO> deleteAll(
+            @Parameter(description = "Идентификаторы пользователей для удаления", required = true) @RequestParam List<Long> ids) {
+        BulkDeleteDTO users = userService.deleteAll(ids);
+        return ResponseEntity.ok(users);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.alexpyslar03.productselectorbackend.datasource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.function.UnaryOperator;
+
+/**
+ * Постпроцессор, оборачивающий основной источник данных приложения (бин dataSource).
+ * Обертки применяются в порядке возрастания {@link #getOrder()}, поэтому обертка с меньшим порядком
+ * оказывается ближе к пулу соединений.
+ * <p>
+ * Обертки физических соединений устанавливаются под {@link LazyConnectionDataSourceProxy}, если основной
+ * источник данных — он (маршрутизация на реплики): прокси выдает соединение до того, как получено
+ * физическое соединение пула, и обертка над ним считала бы неиспользованные соединения.
+ */
+public class DataSourceWrappingPostProcessor implements BeanPostProcessor, Ordered {
+
+    private final int order;
+    private final boolean physical;
+    private final UnaryOperator<DataSource> wrapper;
+
+    /**
+     * Создает постпроцессор.
+     *
+     * @param order    Порядок применения обертки.
+     * @param physical Признак обертки физических соединений, устанавливаемой под LazyConnectionDataSourceProxy.
+     * @param wrapper  Функция, оборачивающая источник данных.
+     */
+    public DataSourceWrappingPostProcessor(int order, boolean physical, UnaryOperator<DataSource> wrapper) {
+        this.order = order;
+        this.physical = physical;
+        this.wrapper = wrapper;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource) || !beanName.equals("dataSource")) {
+            return bean;
+        }
+        if (physical && dataSource instanceof LazyConnectionDataSourceProxy lazy) {
+            lazy.setTargetDataSource(wrapper.apply(lazy.getTargetDataSource()));
+            return lazy;
+        }
+        return wrapper.apply(dataSource);
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,177 @@
+package com.alexpyslar03.productselectorbackend.datasource;
+
+import com.alexpyslar03.productselectorbackend.tracing.Span;
+import com.alexpyslar03.productselectorbackend.tracing.SpanKind;
+import com.alexpyslar03.productselectorbackend.tracing.Tracer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Источник данных, измеряющий выполнение SQL-выражений.
+ * Оборачивает соединения и выражения JDBC и измеряет время методов execute*, поэтому охватывает и запросы Hibernate,
+ * включая ленивую загрузку связей, и запросы JdbcTemplate.
+ * <ul>
+ *     <li>Выражения, выполнявшиеся дольше порога, записываются в журнал; частота этих записей ограничивается
+ *     фильтром журнала вместе с остальными событиями уровня INFO.</li>
+ *     <li>В записываемых трассах для каждого выражения создается span вида CLIENT с текстом выражения, дочерний
+ *     текущему span: по родителю видно, выполнен ли запрос репозиторием или, например, при записи JSON.</li>
+ * </ul>
+ */
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedDataSource.class);
+
+    private final long thresholdNanos;
+    private final Tracer tracer;
+
+    /**
+     * Создает источник данных.
+     *
+     * @param target    Исходный источник данных.
+     * @param threshold Время выполнения, начиная с которого выражение записывается в журнал; 0 отключает журнал.
+     * @param tracer    Трассировщик запросов.
+     */
+    public InstrumentedDataSource(DataSource target, Duration threshold, Tracer tracer) {
+        super(target);
+        this.thresholdNanos = threshold.isZero() ? Long.MAX_VALUE : threshold.toNanos();
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(Connection.class, new ConnectionHandler(super.getConnection()));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(Connection.class, new ConnectionHandler(super.getConnection(username, password)));
+    }
+
+    private static <T> T wrap(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InstrumentedDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    /**
+     * Возвращает имя span выражения: первое слово SQL (SELECT, INSERT и т. д.) или имя метода JDBC.
+     */
+    private static String operation(String query, String method) {
+        if (query == null) {
+            return method;
+        }
+        String trimmed = query.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        return end == 0 ? method : trimmed.substring(0, end).toUpperCase(Locale.ROOT);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    /**
+     * Обертка соединения: выражения, созданные соединением, оборачиваются для измерения времени.
+     */
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "unwrap":
+                    return ((Class<?>) args[0]).isInstance(proxy) ? proxy : target.unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || target.isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            Object result = InstrumentedDataSource.invoke(target, method, args);
+            String sql = args != null && args.length > 0 && args[0] instanceof String s ? s : null;
+            if (result instanceof CallableStatement statement) {
+                return wrap(CallableStatement.class, new StatementHandler(proxy, statement, sql));
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrap(PreparedStatement.class, new StatementHandler(proxy, statement, sql));
+            }
+            if (result instanceof Statement statement) {
+                return wrap(Statement.class, new StatementHandler(proxy, statement, null));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Обертка выражения: измеряет время методов execute*.
+     */
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Object connection;
+        private final Statement target;
+        private final String sql;
+
+        private StatementHandler(Object connection, Statement target, String sql) {
+            this.connection = connection;
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("getConnection")) {
+                return connection;
+            }
+            if (!name.startsWith("execute")) {
+                return InstrumentedDataSource.invoke(target, method, args);
+            }
+            String query = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            Span span = tracer.isRecording() ? tracer.startSpan(operation(query, name), SpanKind.CLIENT) : null;
+            long start = System.nanoTime();
+            try {
+                return InstrumentedDataSource.invoke(target, method, args);
+            } catch (Throwable ex) {
+                if (span != null) {
+                    span.recordError(ex);
+                }
+                throw ex;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                if (span != null) {
+                    span.setAttribute("db.statement", query);
+                    span.close();
+                }
+                if (elapsed >= thresholdNanos) {
+                    logger.info("Медленный запрос выполнялся {} мс: {}", elapsed / 1_000_000, query != null ? query : name);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.alexpyslar03.productselectorbackend.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Фильтр, обеспечивающий чтение собственных записей при маршрутизации на реплики.
+ * После запроса с записью клиенту выдается cookie со временем, до которого его чтения выполняются
+ * на основной базе данных; это время должно превышать типичное отставание реплик.
+ * Состояние хранится у клиента, поэтому фильтр работает одинаково на всех экземплярах приложения.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    /**
+     * Имя cookie со временем окончания чтения с основной базы данных (миллисекунды с начала эпохи).
+     */
+    public static final String COOKIE_NAME = "read-primary-until";
+
+    private final long stickyMillis;
+
+    /**
+     * Создает фильтр.
+     *
+     * @param stickyMillis Длительность чтения с основной базы данных после записи в миллисекундах.
+     */
+    public ReadYourWritesFilter(long stickyMillis) {
+        this.stickyMillis = stickyMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        ReplicaRoutingContext.begin(stickyUntil(request) > now, () -> {
+            if (!response.isCommitted()) {
+                Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(now + stickyMillis));
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setMaxAge((int) ((stickyMillis + 999) / 1000));
+                response.addCookie(cookie);
+            }
+        });
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingContext.end();
+        }
+    }
+
+    private static long stickyUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,67 @@
+package com.alexpyslar03.productselectorbackend.datasource;
+
+/**
+ * Контекст маршрутизации соединений текущего потока.
+ * Хранит признак того, что чтение должно выполняться на основной базе данных
+ * (клиент недавно выполнял запись и должен видеть свои изменения), и обработчик первой записи.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<State> STATE = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    /**
+     * Открывает контекст для текущего потока (обычно на время обработки запроса).
+     *
+     * @param primaryRequired Признак того, что чтения должны выполняться на основной базе данных.
+     * @param onWrite         Обработчик, вызываемый один раз при первой записи в контексте, или null.
+     */
+    public static void begin(boolean primaryRequired, Runnable onWrite) {
+        STATE.set(new State(primaryRequired, onWrite));
+    }
+
+    /**
+     * Закрывает контекст текущего потока.
+     */
+    public static void end() {
+        STATE.remove();
+    }
+
+    /**
+     * Возвращает признак того, что чтения должны выполняться на основной базе данных.
+     */
+    public static boolean isPrimaryRequired() {
+        State state = STATE.get();
+        return state != null && state.primaryRequired;
+    }
+
+    /**
+     * Отмечает запись в основную базу данных: последующие чтения в контексте выполняются на ней же,
+     * а обработчик записи вызывается при первой отметке.
+     */
+    static void markWrite() {
+        State state = STATE.get();
+        if (state == null || state.written) {
+            return;
+        }
+        state.written = true;
+        state.primaryRequired = true;
+        if (state.onWrite != null) {
+            state.onWrite.run();
+        }
+    }
+
+    private static final class State {
+
+        private boolean primaryRequired;
+        private boolean written;
+        private final Runnable onWrite;
+
+        private State(boolean primaryRequired, Runnable onWrite) {
+            this.primaryRequired = primaryRequired;
+            this.onWrite = onWrite;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.alexpyslar03.productselectorbackend.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник данных, направляющий транзакции только для чтения на реплики, а остальные запросы — на основную базу данных.
+ * <p>
+ * Решение принимается в момент получения соединения, поэтому источник должен использоваться через
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, откладывающий получение соединения
+ * до первого запроса, когда признак транзакции только для чтения уже установлен.
+ * Реплики выбираются по кругу среди исправных; при ошибке подключения реплика помечается неисправной,
+ * и соединение запрашивается у следующей реплики или у основной базы данных.
+ * Исправность и отставание реплик периодически проверяются методом {@link #checkHealth()}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    /**
+     * Ключ основной базы данных.
+     */
+    public static final String PRIMARY = "primary";
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final String lagQuery;
+    private final long maxLagMillis;
+
+    /**
+     * Создает источник данных.
+     *
+     * @param primary      Основная база данных.
+     * @param replicas     Реплики только для чтения по именам.
+     * @param lagQuery     Запрос, возвращающий отставание реплики в миллисекундах, или null, если отставание не проверяется.
+     * @param maxLagMillis Максимально допустимое отставание реплики в миллисекундах.
+     */
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, String lagQuery, long maxLagMillis) {
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        replicas.keySet().forEach(name -> this.replicas.add(new Replica(name)));
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    /**
+     * Возвращает ключ источника для текущего соединения.
+     * Записи и чтения клиента, недавно выполнявшего запись, направляются на основную базу данных.
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return candidates().get(0);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(null, null);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(username, password);
+    }
+
+    /**
+     * Проверяет доступность и отставание каждой реплики и обновляет их состояние.
+     */
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            long lag = 0;
+            try (Connection connection = target(replica.name).getConnection()) {
+                healthy = connection.isValid(1);
+                if (healthy && lagQuery != null) {
+                    try (Statement statement = connection.createStatement();
+                         ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                        lag = resultSet.next() ? resultSet.getLong(1) : 0;
+                    }
+                    healthy = lag <= maxLagMillis;
+                }
+            } catch (SQLException ex) {
+                healthy = false;
+            }
+            if (healthy != replica.healthy) {
+                logger.warn("Реплика {} {} (отставание {} мс).", replica.name, healthy ? "снова доступна" : "исключена из маршрутизации", lag);
+            }
+            replica.healthy = healthy;
+        }
+    }
+
+    /**
+     * Возвращает имена исправных реплик.
+     *
+     * @return Список имен реплик, на которые направляются чтения.
+     */
+    public List<String> healthyReplicas() {
+        return replicas.stream().filter(r -> r.healthy).map(r -> r.name).toList();
+    }
+
+    /**
+     * Возвращает ключи источников в порядке попыток подключения: выбранная реплика, остальные исправные реплики,
+     * затем основная база данных.
+     */
+    private List<String> candidates() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        if (!readOnly || ReplicaRoutingContext.isPrimaryRequired()) {
+            if (!readOnly && TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReplicaRoutingContext.markWrite();
+            }
+            return List.of(PRIMARY);
+        }
+        List<String> candidates = new ArrayList<>(replicas.size() + 1);
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                candidates.add(replica.name);
+            }
+        }
+        candidates.add(PRIMARY);
+        return candidates;
+    }
+
+    private Connection connect(String username, String password) throws SQLException {
+        List<String> candidates = candidates();
+        for (int i = 0; i < candidates.size() - 1; i++) {
+            try {
+                return open(candidates.get(i), username, password);
+            } catch (SQLException ex) {
+                markDown(candidates.get(i), ex);
+            }
+        }
+        return open(candidates.get(candidates.size() - 1), username, password);
+    }
+
+    private Connection open(String key, String username, String password) throws SQLException {
+        DataSource target = target(key);
+        return username == null ? target.getConnection() : target.getConnection(username, password);
+    }
+
+    private DataSource target(String key) {
+        return getResolvedDataSources().get(key);
+    }
+
+    private void markDown(String name, SQLException ex) {
+        for (Replica replica : replicas) {
+            if (replica.name.equals(name) && replica.healthy) {
+                replica.healthy = false;
+                logger.warn("Не удалось подключиться к реплике {}, она исключена из маршрутизации до следующей проверки.", name, ex);
+            }
+        }
+    }
+
+    /**
+     * Состояние реплики.
+     */
+    private static final class Replica {
+
+        private final String name;
+        private volatile boolean healthy = true;
+
+        private Replica(String name) {
+            this.name = name;
+        }
+    }
+}
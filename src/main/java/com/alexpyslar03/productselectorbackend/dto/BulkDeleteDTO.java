@@ -0,0 +1,26 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) для передачи результата массового удаления.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkDeleteDTO {
+
+    /**
+     * Идентификаторы удаленных сущностей.
+     */
+    private List<Long> deletedIds;
+
+    /**
+     * Идентификаторы, для которых сущности не существовали.
+     */
+    private List<Long> missingIds;
+}
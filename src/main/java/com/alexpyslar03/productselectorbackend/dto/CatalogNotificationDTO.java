@@ -0,0 +1,30 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) для передачи уведомления об изменении сущности в потоке событий.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogNotificationDTO {
+
+    /**
+     * Тип измененной сущности.
+     */
+    private CatalogChangedEvent.Type type;
+
+    /**
+     * Вид изменения.
+     */
+    private CatalogChangedEvent.Action action;
+
+    /**
+     * Идентификатор измененной сущности.
+     */
+    private Long id;
+}
@@ -0,0 +1,29 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) для передачи сведений о загруженном изображении.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImageDTO {
+
+    /**
+     * Хэш SHA-256 содержимого изображения в шестнадцатеричном виде.
+     */
+    private String hash;
+
+    /**
+     * Размер изображения в байтах.
+     */
+    private long size;
+
+    /**
+     * MIME-тип изображения, определенный по его содержимому.
+     */
+    private String contentType;
+}
@@ -0,0 +1,36 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) для передачи плана питания на неделю.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MealPlanDTO {
+
+    /**
+     * Идентификаторы выбранных рецептов.
+     */
+    private List<Long> recipeIds;
+
+    /**
+     * Идентификаторы продуктов, которые необходимо купить.
+     */
+    private List<Long> purchaseProductIds;
+
+    /**
+     * Идентификаторы продуктов из кладовой, которые будут использованы.
+     */
+    private List<Long> pantryProductIds;
+
+    /**
+     * Признак того, что поиск был прерван по истечении бюджета времени и план может быть неоптимальным.
+     */
+    private boolean timedOut;
+}
@@ -0,0 +1,41 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import com.alexpyslar03.productselectorbackend.json.NormalizedRecipesSerializer;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.*;
+
+/**
+ * Нормализованный ответ со списком рецептов: каждый рецепт ссылается на свои продукты по идентификаторам,
+ * а каждый продукт передается один раз в общем словаре products.
+ * Сериализуется {@link NormalizedRecipesSerializer} в вид {@code {"recipes":[...],"products":{"id":{...}}}}.
+ *
+ * @param recipes          Рецепты в порядке возрастания идентификаторов.
+ * @param recipeProductIds Идентификаторы продуктов каждого рецепта.
+ * @param products         Продукты, на которые ссылаются рецепты.
+ */
+@JsonSerialize(using = NormalizedRecipesSerializer.class)
+public record NormalizedRecipesDTO(List<RecipeSummary> recipes, Map<Long, List<Long>> recipeProductIds,
+                                   List<ProductSummary> products) {
+
+    /**
+     * Создает ответ по сведениям о рецептах, их связям с продуктами и сведениям о продуктах.
+     *
+     * @param recipes  Сведения о рецептах.
+     * @param links    Связи рецептов с продуктами.
+     * @param products Сведения о продуктах.
+     * @return Нормализованный ответ.
+     */
+    public static NormalizedRecipesDTO of(List<RecipeSummary> recipes, List<RecipeProductLink> links, List<ProductSummary> products) {
+        Map<Long, List<Long>> recipeProductIds = new HashMap<>();
+        for (RecipeProductLink link : links) {
+            recipeProductIds.computeIfAbsent(link.recipeId(), id -> new ArrayList<>()).add(link.productId());
+        }
+        recipeProductIds.values().forEach(Collections::sort);
+        List<RecipeSummary> sortedRecipes = new ArrayList<>(recipes);
+        sortedRecipes.sort(Comparator.comparing(RecipeSummary::id));
+        List<ProductSummary> sortedProducts = new ArrayList<>(products);
+        sortedProducts.sort(Comparator.comparing(ProductSummary::id));
+        return new NormalizedRecipesDTO(sortedRecipes, recipeProductIds, sortedProducts);
+    }
+}
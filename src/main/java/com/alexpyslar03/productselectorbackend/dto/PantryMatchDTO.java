@@ -0,0 +1,32 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) для передачи рецепта, который можно приготовить из продуктов кладовой.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PantryMatchDTO {
+
+    /**
+     * Идентификатор рецепта.
+     */
+    private Long recipeId;
+
+    /**
+     * Оценка совпадения: 1 — все продукты есть в кладовой, меньшие значения — требуются замены
+     * (произведение весов использованных замен).
+     */
+    private double score;
+
+    /**
+     * Замены, необходимые для приготовления рецепта. Пустой список для точного совпадения.
+     */
+    private List<SubstitutionDTO> substitutions;
+}
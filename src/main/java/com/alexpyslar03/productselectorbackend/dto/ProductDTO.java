@@ -17,6 +17,7 @@ public class ProductDTO {
 
     /**
      * Изображение продукта в виде массива байтов.
+     * Передается в JSON строкой Base64; изображение удобнее загружать отдельно запросом PUT /products/{id}/image.
      */
     private byte[] image;
 
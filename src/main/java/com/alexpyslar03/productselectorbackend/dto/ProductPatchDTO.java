@@ -0,0 +1,29 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) для частичного обновления продукта.
+ * Обновляются только переданные поля; поле со значением null остается без изменений.
+ */
+@Data
+public class ProductPatchDTO {
+
+    /**
+     * Новое название продукта.
+     */
+    private String name;
+
+    /**
+     * Новое изображение продукта в виде массива байтов.
+     * Передается в JSON строкой Base64; изображение удобнее загружать отдельно запросом PUT /products/{id}/image.
+     */
+    private byte[] image;
+
+    /**
+     * Новый полный список идентификаторов рецептов, связанных с продуктом.
+     */
+    private List<Long> recipeIds;
+}
@@ -0,0 +1,10 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+/**
+ * Краткое представление продукта без изображения и связей.
+ *
+ * @param id   Идентификатор продукта.
+ * @param name Название продукта.
+ */
+public record ProductSummary(Long id, String name) {
+}
@@ -41,6 +41,7 @@ public class RecipeDTO {
 
     /**
      * Изображение рецепта в виде массива байтов.
+     * Передается в JSON строкой Base64; изображение удобнее загружать отдельно запросом PUT /recipes/{id}/image.
      */
     private byte[] image;
 
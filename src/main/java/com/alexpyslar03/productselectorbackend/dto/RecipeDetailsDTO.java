@@ -0,0 +1,61 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Неизменяемое представление рецепта с продуктами. Сериализуется так же, как сущность Recipe,
+ * но не связано с сессией Hibernate, поэтому один экземпляр можно передавать нескольким запросам
+ * и сериализовать в разных потоках.
+ *
+ * @param id              Идентификатор рецепта.
+ * @param name            Название рецепта.
+ * @param description     Описание рецепта.
+ * @param vegan           Признак веганского рецепта.
+ * @param difficultyLevel Уровень сложности рецепта.
+ * @param rating          Рейтинг рецепта.
+ * @param viewCount       Количество просмотров рецепта.
+ * @param cookedCount     Количество приготовлений рецепта.
+ * @param imageHash       Хэш изображения рецепта.
+ * @param products        Продукты рецепта в порядке возрастания идентификаторов.
+ */
+public record RecipeDetailsDTO(Long id, String name, String description, boolean vegan,
+                               Recipe.DifficultyLevel difficultyLevel, Long rating, long viewCount, long cookedCount,
+                               String imageHash, List<ProductDetails> products) {
+
+    /**
+     * Создает представление по сущности. Продукты рецепта должны быть загружены.
+     *
+     * @param recipe Рецепт с загруженными продуктами.
+     * @return Представление рецепта.
+     */
+    public static RecipeDetailsDTO of(Recipe recipe) {
+        List<ProductDetails> products = recipe.getProducts().stream()
+                .map(ProductDetails::of)
+                .sorted(Comparator.comparing(ProductDetails::id))
+                .toList();
+        return new RecipeDetailsDTO(recipe.getId(), recipe.getName(), recipe.getDescription(), recipe.isVegan(),
+                recipe.getDifficultyLevel(), recipe.getRating(), recipe.getViewCount(), recipe.getCookedCount(),
+                recipe.getImageHash(), products);
+    }
+
+    /**
+     * Продукт рецепта без обратной ссылки на рецепты.
+     *
+     * @param id          Идентификатор продукта.
+     * @param name        Название продукта.
+     * @param viewCount   Количество просмотров продукта.
+     * @param cookedCount Количество приготовлений продукта.
+     * @param imageHash   Хэш изображения продукта.
+     */
+    public record ProductDetails(Long id, String name, long viewCount, long cookedCount, String imageHash) {
+
+        private static ProductDetails of(Product product) {
+            return new ProductDetails(product.getId(), product.getName(), product.getViewCount(),
+                    product.getCookedCount(), product.getImageHash());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) для частичного обновления рецепта.
+ * Обновляются только переданные поля; поле со значением null остается без изменений.
+ */
+@Data
+public class RecipePatchDTO {
+
+    /**
+     * Новое название рецепта.
+     */
+    private String name;
+
+    /**
+     * Новое описание рецепта.
+     */
+    private String description;
+
+    /**
+     * Новый признак веганского рецепта.
+     */
+    private Boolean vegan;
+
+    /**
+     * Новый уровень сложности рецепта.
+     */
+    private Recipe.DifficultyLevel difficultyLevel;
+
+    /**
+     * Новый рейтинг рецепта.
+     */
+    private Long rating;
+
+    /**
+     * Новое изображение рецепта в виде массива байтов.
+     * Передается в JSON строкой Base64; изображение удобнее загружать отдельно запросом PUT /recipes/{id}/image.
+     */
+    private byte[] image;
+
+    /**
+     * Новый полный список идентификаторов продуктов рецепта.
+     */
+    private List<Long> productIds;
+}
@@ -0,0 +1,11 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+/**
+ * Строка таблицы связей products_recipes.
+ * Используется для построения индексов без загрузки сущностей.
+ *
+ * @param recipeId  Идентификатор рецепта.
+ * @param productId Идентификатор продукта.
+ */
+public record RecipeProductLink(Long recipeId, Long productId) {
+}
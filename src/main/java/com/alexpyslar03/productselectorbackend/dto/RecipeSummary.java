@@ -0,0 +1,18 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+
+/**
+ * Краткие сведения о рецепте без изображения и связей.
+ * Используется для выборок, которым не нужна полная сущность.
+ *
+ * @param id              Идентификатор рецепта.
+ * @param name            Название рецепта.
+ * @param description     Описание рецепта.
+ * @param vegan           Признак веганского рецепта.
+ * @param difficultyLevel Уровень сложности рецепта.
+ * @param rating          Рейтинг рецепта.
+ */
+public record RecipeSummary(Long id, String name, String description, boolean vegan,
+                            Recipe.DifficultyLevel difficultyLevel, Long rating) {
+}
@@ -0,0 +1,24 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) для передачи продукта, который часто используется вместе с другими.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RelatedProductDTO {
+
+    /**
+     * Идентификатор связанного продукта.
+     */
+    private Long productId;
+
+    /**
+     * Количество рецептов, в которых продукт встречается вместе с исходными продуктами.
+     */
+    private long count;
+}
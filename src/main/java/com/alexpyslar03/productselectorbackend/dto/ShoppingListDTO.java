@@ -0,0 +1,51 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) для передачи списка покупок по набору рецептов.
+ * Каждый недостающий продукт встречается в списке ровно один раз.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShoppingListDTO {
+
+    /**
+     * Недостающие продукты, упорядоченные по идентификатору.
+     */
+    private List<Item> items;
+
+    /**
+     * Идентификаторы продуктов из кладовой, которые используются в выбранных рецептах.
+     */
+    private List<Long> coveredProductIds;
+
+    /**
+     * Позиция списка покупок.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+
+        /**
+         * Идентификатор продукта.
+         */
+        private Long id;
+
+        /**
+         * Название продукта.
+         */
+        private String name;
+
+        /**
+         * Идентификаторы рецептов, в которых используется продукт.
+         */
+        private List<Long> recipeIds;
+    }
+}
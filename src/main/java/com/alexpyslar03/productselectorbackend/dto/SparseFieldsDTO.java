@@ -0,0 +1,19 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import com.alexpyslar03.productselectorbackend.json.SparseFieldsSerializer;
+import com.alexpyslar03.productselectorbackend.json.SparseFieldsWriter;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+
+/**
+ * Ответ с выбранными параметром fields полями сущностей.
+ * Сериализуется {@link SparseFieldsSerializer}: одна сущность — объектом, список — массивом объектов.
+ *
+ * @param writer Запись строк для набора выбранных полей.
+ * @param rows   Строки проекции в порядке {@link SparseFieldsWriter#attributes()}.
+ * @param single Признак ответа с одной сущностью.
+ */
+@JsonSerialize(using = SparseFieldsSerializer.class)
+public record SparseFieldsDTO(SparseFieldsWriter writer, List<Object[]> rows, boolean single) {
+}
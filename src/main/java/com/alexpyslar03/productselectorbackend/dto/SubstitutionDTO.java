@@ -0,0 +1,30 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) для передачи замены продукта.
+ * Используется как для управления графом замен, так и для описания замен в результатах подбора рецептов.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SubstitutionDTO {
+
+    /**
+     * Идентификатор заменяемого продукта.
+     */
+    private Long productId;
+
+    /**
+     * Идентификатор продукта-заменителя.
+     */
+    private Long substituteId;
+
+    /**
+     * Вес замены в диапазоне (0, 1].
+     */
+    private double weight;
+}
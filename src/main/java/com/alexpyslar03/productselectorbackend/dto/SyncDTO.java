@@ -0,0 +1,117 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) для передачи изменений каталога с момента предыдущей синхронизации.
+ * Записи передаются в компактном виде без изображений; связи между продуктами и рецептами
+ * передаются полными наборами для каждой измененной сущности и заменяют ранее полученные.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SyncDTO {
+
+    /**
+     * Токен, который необходимо передать при следующей синхронизации.
+     */
+    private long token;
+
+    /**
+     * Признак того, что изменения не поместились в ответ и синхронизацию нужно продолжить с новым токеном.
+     */
+    private boolean hasMore;
+
+    /**
+     * Созданные или измененные продукты.
+     */
+    private List<ProductRecord> products;
+
+    /**
+     * Созданные или измененные рецепты.
+     */
+    private List<RecipeRecord> recipes;
+
+    /**
+     * Идентификаторы удаленных продуктов.
+     */
+    private List<Long> deletedProductIds;
+
+    /**
+     * Идентификаторы удаленных рецептов.
+     */
+    private List<Long> deletedRecipeIds;
+
+    /**
+     * Компактная запись продукта.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ProductRecord {
+
+        /**
+         * Идентификатор продукта.
+         */
+        private Long id;
+
+        /**
+         * Название продукта.
+         */
+        private String name;
+
+        /**
+         * Идентификаторы рецептов, в которых используется продукт.
+         */
+        private List<Long> recipeIds;
+    }
+
+    /**
+     * Компактная запись рецепта.
+     */
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class RecipeRecord {
+
+        /**
+         * Идентификатор рецепта.
+         */
+        private Long id;
+
+        /**
+         * Название рецепта.
+         */
+        private String name;
+
+        /**
+         * Описание рецепта.
+         */
+        private String description;
+
+        /**
+         * Флаг, указывающий, является ли рецепт веганским.
+         */
+        private boolean vegan;
+
+        /**
+         * Уровень сложности рецепта.
+         */
+        private Recipe.DifficultyLevel difficultyLevel;
+
+        /**
+         * Рейтинг рецепта.
+         */
+        private Long rating;
+
+        /**
+         * Идентификаторы продуктов рецепта.
+         */
+        private List<Long> productIds;
+    }
+}
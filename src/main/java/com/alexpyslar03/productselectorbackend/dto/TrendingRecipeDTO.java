@@ -0,0 +1,24 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) для передачи популярного в последнее время рецепта.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TrendingRecipeDTO {
+
+    /**
+     * Идентификатор рецепта.
+     */
+    private Long recipeId;
+
+    /**
+     * Оценка популярности: сумма просмотров и приготовлений с затуханием по времени.
+     */
+    private double score;
+}
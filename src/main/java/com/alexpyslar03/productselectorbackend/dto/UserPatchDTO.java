@@ -0,0 +1,44 @@
+package com.alexpyslar03.productselectorbackend.dto;
+
+import com.alexpyslar03.productselectorbackend.entity.User;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * DTO (Data Transfer Object) для частичного обновления пользователя.
+ * Обновляются только переданные поля; поле со значением null остается без изменений.
+ */
+@Data
+public class UserPatchDTO {
+
+    /**
+     * Новое имя пользователя.
+     */
+    private String name;
+
+    /**
+     * Новая фамилия пользователя.
+     */
+    private String surname;
+
+    /**
+     * Новый адрес электронной почты пользователя.
+     */
+    private String email;
+
+    /**
+     * Новый пароль пользователя.
+     */
+    private String password;
+
+    /**
+     * Новая дата рождения пользователя.
+     */
+    private LocalDate birthDate;
+
+    /**
+     * Новый уровень доступа пользователя.
+     */
+    private User.AccessLevel accessLevel;
+}
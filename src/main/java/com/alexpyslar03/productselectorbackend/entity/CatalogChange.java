@@ -0,0 +1,55 @@
+package com.alexpyslar03.productselectorbackend.entity;
+
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сущность, представляющая запись журнала изменений каталога.
+ * Идентификатор записи монотонно возрастает и служит токеном синхронизации для клиентов.
+ * Для каждой сущности каталога в журнале хранится только последнее изменение,
+ * удаления сохраняются в виде записей-надгробий с действием DELETE.
+ */
+@Entity
+@Table(name = "catalog_changes", indexes = @Index(name = "idx_catalog_changes_entity", columnList = "entity_type, entity_id"))
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogChange {
+
+    /**
+     * Порядковый номер изменения.
+     * Генерируется автоматически с использованием последовательности.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "catalog_change_seq")
+    @SequenceGenerator(name = "catalog_change_seq", sequenceName = "catalog_change_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false, unique = true)
+    private Long id;
+
+    /**
+     * Тип измененной сущности.
+     * Хранится как строковое значение в базе данных.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false)
+    private CatalogChangedEvent.Type entityType;
+
+    /**
+     * Идентификатор измененной сущности.
+     */
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    /**
+     * Вид изменения.
+     * Хранится как строковое значение в базе данных.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action", nullable = false)
+    private CatalogChangedEvent.Action action;
+}
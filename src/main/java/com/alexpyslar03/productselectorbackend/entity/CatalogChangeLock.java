@@ -0,0 +1,32 @@
+package com.alexpyslar03.productselectorbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сущность, представляющая единственную строку блокировки журнала изменений каталога.
+ * Транзакция блокирует строку перед записью в журнал и удерживает блокировку до фиксации, поэтому
+ * порядковые номера изменений фиксируются в порядке возрастания и токен синхронизации не пропускает
+ * изменения транзакций, зафиксированных позже.
+ */
+@Entity
+@Table(name = "catalog_change_lock")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogChangeLock {
+
+    /**
+     * Идентификатор единственной строки блокировки.
+     */
+    public static final long ID = 1L;
+
+    /**
+     * Идентификатор строки.
+     */
+    @Id
+    @Column(name = "id", nullable = false)
+    private Long id;
+}
@@ -0,0 +1,57 @@
+package com.alexpyslar03.productselectorbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Сущность, представляющая изображение, хранимое по хэшу содержимого.
+ * Одинаковые изображения продуктов и рецептов хранятся один раз, а сущности ссылаются на них по хэшу.
+ * Записывается и читается только запросами ImageService, сущность описывает схему таблицы.
+ */
+@Entity
+@Table(name = "images")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class Image {
+
+    /**
+     * Хэш SHA-256 содержимого в шестнадцатеричном виде.
+     * Служит идентификатором изображения.
+     */
+    @Id
+    @Column(name = "hash", nullable = false, length = 64)
+    private String hash;
+
+    /**
+     * Содержимое изображения.
+     * Хранится в базе данных как BYTEA.
+     */
+    @Column(name = "content", nullable = false, columnDefinition = "BYTEA")
+    private byte[] content;
+
+    /**
+     * MIME-тип изображения, определенный по его содержимому.
+     */
+    @Column(name = "content_type", nullable = false, length = 32)
+    private String contentType;
+
+    /**
+     * Размер изображения в байтах.
+     */
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    /**
+     * Количество продуктов и рецептов, ссылающихся на изображение.
+     * Изображения без ссылок удаляются периодической очисткой.
+     */
+    @ColumnDefault("0")
+    @Column(name = "ref_count", nullable = false)
+    private long refCount;
+}
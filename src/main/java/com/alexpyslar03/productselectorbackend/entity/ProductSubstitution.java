@@ -0,0 +1,54 @@
+package com.alexpyslar03.productselectorbackend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сущность, представляющая взвешенное ребро графа замен продуктов.
+ * Означает, что продукт substitute может заменить продукт product в рецептах.
+ */
+@Entity
+@Table(
+        name = "product_substitutions",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"product_id", "substitute_id"})
+)
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductSubstitution {
+
+    /**
+     * Уникальный идентификатор замены.
+     * ID генерируется автоматически с использованием последовательности.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_substitution_seq")
+    @SequenceGenerator(name = "product_substitution_seq", sequenceName = "product_substitution_seq", allocationSize = 1)
+    @Column(name = "id", nullable = false, unique = true)
+    private Long id;
+
+    /**
+     * Заменяемый продукт.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    /**
+     * Продукт, которым можно заменить исходный.
+     */
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "substitute_id", nullable = false)
+    private Product substitute;
+
+    /**
+     * Вес замены в диапазоне (0, 1]: 1 — равноценная замена, меньшие значения — менее удачная.
+     * Не может быть null.
+     */
+    @Column(name = "weight", nullable = false)
+    private double weight;
+}
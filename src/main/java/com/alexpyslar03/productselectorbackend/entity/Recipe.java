@@ -1,10 +1,14 @@
 package com.alexpyslar03.productselectorbackend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -67,18 +71,39 @@ public class Recipe {
     private Long rating;
 
     /**
-     * Двоичный большой объект (BLOB), представляющий изображение рецепта.
-     * Хранится в базе данных как BYTEA.
+     * Количество просмотров рецепта.
+     * Обновляется только пакетными запросами PopularityService, поэтому не записывается при сохранении сущности.
      */
-    @Lob
-    @Column(name = "image", columnDefinition = "BYTEA")
-    private byte[] image;
+    @ColumnDefault("0")
+    @Column(name = "view_count", nullable = false, insertable = false, updatable = false)
+    private long viewCount;
+
+    /**
+     * Количество приготовлений рецепта.
+     * Обновляется только пакетными запросами PopularityService, поэтому не записывается при сохранении сущности.
+     */
+    @ColumnDefault("0")
+    @Column(name = "cooked_count", nullable = false, insertable = false, updatable = false)
+    private long cookedCount;
+
+    /**
+     * Хэш SHA-256 изображения рецепта.
+     * Содержимое хранится один раз в таблице images и доступно по адресу /images/{hash};
+     * счетчик ссылок изменяется только через ImageService.
+     */
+    @Column(name = "image_hash", length = 64)
+    private String imageHash;
 
     /**
      * Связь многие ко многим между Recipe и Product.
      * Тип загрузки - LAZY для оптимизации производительности.
      * Операции каскадирования включают PERSIST, MERGE и REFRESH.
+     * Связанные продукты сериализуются без обратной ссылки на рецепты и не участвуют в equals, hashCode и toString,
+     * чтобы инициализация ленивой коллекции не вызывала инициализацию обратной.
      */
+    @JsonIgnoreProperties("recipes")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     @ManyToMany(
             fetch = FetchType.LAZY,
             cascade = {CascadeType.PERSIST, CascadeType.MERGE, CascadeType.REFRESH}
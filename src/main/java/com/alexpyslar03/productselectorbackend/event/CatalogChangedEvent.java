@@ -0,0 +1,85 @@
+package com.alexpyslar03.productselectorbackend.event;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Событие изменения каталога, публикуемое сервисами после операций записи.
+ * Используется для инкрементального обновления индексов и кэшей.
+ *
+ * @param type   Тип измененной сущности.
+ * @param action Вид изменения.
+ * @param ids    Идентификаторы измененных сущностей.
+ * @param links  Новые наборы связей для сущностей из ids (идентификаторы рецептов для продукта
+ *               и продуктов для рецепта). Отсутствие ключа означает, что связи не изменялись.
+ *               Набор вычисляется до фиксации транзакции и не учитывает одновременное изменение связей
+ *               с другой стороны, поэтому получатели, применяющие связи, перечитывают их из базы данных.
+ */
+public record CatalogChangedEvent(Type type, Action action, Collection<Long> ids, Map<Long, Set<Long>> links) {
+
+    /**
+     * Создает событие создания или обновления одной сущности.
+     *
+     * @param type      Тип сущности.
+     * @param id        Идентификатор сущности.
+     * @param linkedIds Новый набор связанных идентификаторов или null, если связи не изменялись.
+     * @return Событие изменения.
+     */
+    public static CatalogChangedEvent upserted(Type type, Long id, Set<Long> linkedIds) {
+        return new CatalogChangedEvent(type, Action.UPSERT, List.of(id),
+                linkedIds == null ? Map.of() : Map.of(id, Set.copyOf(linkedIds)));
+    }
+
+    /**
+     * Создает событие изменения сущностей, связи которых изменились при записи другой стороны связи
+     * (набор рецептов продукта при изменении продуктов рецепта и наоборот). Новые связи передаются
+     * событием другой стороны, поэтому в этом событии они не указываются.
+     *
+     * @param type Тип сущностей.
+     * @param ids  Идентификаторы сущностей, у которых изменились связи.
+     * @return Событие изменения.
+     */
+    public static CatalogChangedEvent relinked(Type type, Collection<Long> ids) {
+        return new CatalogChangedEvent(type, Action.UPSERT, List.copyOf(ids), Map.of());
+    }
+
+    /**
+     * Создает событие удаления сущностей.
+     *
+     * @param type Тип сущностей.
+     * @param ids  Идентификаторы удаленных сущностей.
+     * @return Событие удаления.
+     */
+    public static CatalogChangedEvent deleted(Type type, Collection<Long> ids) {
+        return new CatalogChangedEvent(type, Action.DELETE, List.copyOf(ids), Map.of());
+    }
+
+    /**
+     * Возвращает новый набор связей сущности.
+     *
+     * @param id Идентификатор сущности.
+     * @return Набор связанных идентификаторов или null, если связи не изменялись.
+     */
+    public Set<Long> linksOf(Long id) {
+        return links.get(id);
+    }
+
+    /**
+     * Тип сущности каталога.
+     */
+    public enum Type {
+        PRODUCT, // Продукт
+        RECIPE,  // Рецепт
+        USER     // Пользователь
+    }
+
+    /**
+     * Вид изменения.
+     */
+    public enum Action {
+        UPSERT, // Создание или обновление
+        DELETE  // Удаление
+    }
+}
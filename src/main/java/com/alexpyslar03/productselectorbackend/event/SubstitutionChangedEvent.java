@@ -0,0 +1,12 @@
+package com.alexpyslar03.productselectorbackend.event;
+
+import java.util.Map;
+
+/**
+ * Событие изменения набора замен продукта.
+ *
+ * @param productId   Идентификатор заменяемого продукта.
+ * @param substitutes Новый набор замен: идентификатор продукта-заменителя → вес замены.
+ */
+public record SubstitutionChangedEvent(Long productId, Map<Long, Double> substitutes) {
+}
@@ -1,9 +1,12 @@
 package com.alexpyslar03.productselectorbackend.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
 
 /**
  * Глобальный обработчик исключений для обработки ошибок, возникающих в приложении.
@@ -45,6 +48,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
     }
 
+    /**
+     * Обработка исключения ImageNotFoundException.
+     *
+     * @param ex Исключение, которое будет обработано.
+     * @return Ответ с кодом состояния 404 (Not Found) и сообщением об ошибке.
+     */
+    @ExceptionHandler(ImageNotFoundException.class)
+    public ResponseEntity<String> handleImageNotFoundException(ImageNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
     /**
      * Обработка исключения BadRequestException.
      *
@@ -56,6 +70,55 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    /**
+     * Обработка исключения TooManyRequestsException.
+     *
+     * @param ex Исключение, которое будет обработано.
+     * @return Ответ с кодом состояния 429 (Too Many Requests), заголовком Retry-After и сообщением об ошибке.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequestsException(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Обработка исключения ServiceUnavailableException.
+     *
+     * @param ex Исключение, которое будет обработано.
+     * @return Ответ с кодом состояния 503 (Service Unavailable), заголовком Retry-After и сообщением об ошибке.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<String> handleServiceUnavailableException(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Обработка исключения MaxUploadSizeExceededException, возникающего при превышении размера multipart-запроса.
+     *
+     * @param ex Исключение, которое будет обработано.
+     * @return Ответ с кодом состояния 400 (Bad Request) и сообщением об ошибке.
+     */
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<String> handleMaxUploadSizeExceededException(MaxUploadSizeExceededException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Размер загружаемого файла превышает допустимый.");
+    }
+
+    /**
+     * Обработка исключения HttpMediaTypeNotSupportedException, возникающего при неподдерживаемом типе тела запроса.
+     *
+     * @param ex Исключение, которое будет обработано.
+     * @return Ответ с кодом состояния 415 (Unsupported Media Type) и сообщением об ошибке.
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<String> handleHttpMediaTypeNotSupportedException(HttpMediaTypeNotSupportedException ex) {
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .body(String.format("Неподдерживаемый тип содержимого %s. Допустимые типы: %s.", ex.getContentType(), ex.getSupportedMediaTypes()));
+    }
+
     /**
      * Обработка общего исключения Exception.
      *
@@ -0,0 +1,17 @@
+package com.alexpyslar03.productselectorbackend.exception;
+
+/**
+ * Исключение, выбрасываемое в случае, если изображение не найдено.
+ * Наследует от RuntimeException и предназначено для обработки ситуаций, когда изображение отсутствует в системе.
+ */
+public class ImageNotFoundException extends RuntimeException {
+
+    /**
+     * Конструктор исключения ImageNotFoundException.
+     *
+     * @param message Сообщение об ошибке, которое будет передано конструктору родительского класса.
+     */
+    public ImageNotFoundException(String message) {
+        super(message);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.alexpyslar03.productselectorbackend.exception;
+
+/**
+ * Исключение, выбрасываемое в случае, если сервер перегружен и не принимает запрос.
+ * Наследует от RuntimeException и содержит время, через которое запрос можно повторить.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Конструктор исключения ServiceUnavailableException.
+     *
+     * @param message           Сообщение об ошибке, которое будет передано конструктору родительского класса.
+     * @param retryAfterSeconds Время в секундах, через которое запрос можно повторить.
+     */
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Возвращает время в секундах, через которое запрос можно повторить.
+     *
+     * @return Время в секундах для заголовка Retry-After.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,30 @@
+package com.alexpyslar03.productselectorbackend.exception;
+
+/**
+ * Исключение, выбрасываемое в случае, если клиент превысил допустимую частоту запросов.
+ * Наследует от RuntimeException и содержит время, через которое запрос можно повторить.
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Конструктор исключения TooManyRequestsException.
+     *
+     * @param message           Сообщение об ошибке, которое будет передано конструктору родительского класса.
+     * @param retryAfterSeconds Время в секундах, через которое запрос можно повторить.
+     */
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Возвращает время в секундах, через которое запрос можно повторить.
+     *
+     * @return Время в секундах для заголовка Retry-After.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
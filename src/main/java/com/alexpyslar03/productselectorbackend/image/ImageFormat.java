@@ -0,0 +1,80 @@
+package com.alexpyslar03.productselectorbackend.image;
+
+import java.util.Arrays;
+
+/**
+ * Поддерживаемые форматы изображений.
+ * Формат определяется по сигнатуре в первых байтах содержимого, а не по заявленному типу.
+ */
+public enum ImageFormat {
+    JPEG("image/jpeg"),
+    PNG("image/png"),
+    GIF("image/gif"),
+    WEBP("image/webp");
+
+    /**
+     * Количество первых байтов содержимого, достаточное для определения формата.
+     */
+    public static final int HEADER_LENGTH = 12;
+
+    private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    private static final byte[] GIF_SIGNATURE = {'G', 'I', 'F', '8'};
+    private static final byte[] RIFF_SIGNATURE = {'R', 'I', 'F', 'F'};
+    private static final byte[] WEBP_SIGNATURE = {'W', 'E', 'B', 'P'};
+
+    private final String mediaType;
+
+    ImageFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * Возвращает MIME-тип формата.
+     *
+     * @return MIME-тип, например image/png.
+     */
+    public String mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Определяет формат по первым байтам содержимого.
+     *
+     * @param header Первые байты содержимого.
+     * @param length Количество прочитанных байтов (не больше {@link #HEADER_LENGTH}).
+     * @return Формат изображения или null, если сигнатура не распознана.
+     */
+    public static ImageFormat detect(byte[] header, int length) {
+        if (startsWith(header, length, 0, JPEG_SIGNATURE)) {
+            return JPEG;
+        }
+        if (startsWith(header, length, 0, PNG_SIGNATURE)) {
+            return PNG;
+        }
+        if (startsWith(header, length, 0, GIF_SIGNATURE)) {
+            return GIF;
+        }
+        if (startsWith(header, length, 0, RIFF_SIGNATURE) && startsWith(header, length, 8, WEBP_SIGNATURE)) {
+            return WEBP;
+        }
+        return null;
+    }
+
+    /**
+     * Возвращает формат по MIME-типу.
+     *
+     * @param mediaType MIME-тип без параметров.
+     * @return Формат изображения или null, если тип не соответствует ни одному формату.
+     */
+    public static ImageFormat fromMediaType(String mediaType) {
+        return Arrays.stream(values()).filter(format -> format.mediaType.equalsIgnoreCase(mediaType)).findFirst().orElse(null);
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, byte[] signature) {
+        if (length < offset + signature.length) {
+            return false;
+        }
+        return Arrays.equals(header, offset, offset + signature.length, signature, 0, signature.length);
+    }
+}
@@ -0,0 +1,37 @@
+package com.alexpyslar03.productselectorbackend.image;
+
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+
+/**
+ * Сущности, которые ссылаются на изображения по хэшу содержимого.
+ */
+public enum ImageOwner {
+    PRODUCT("products", CatalogChangedEvent.Type.PRODUCT),
+    RECIPE("recipes", CatalogChangedEvent.Type.RECIPE);
+
+    private final String table;
+    private final CatalogChangedEvent.Type type;
+
+    ImageOwner(String table, CatalogChangedEvent.Type type) {
+        this.table = table;
+        this.type = type;
+    }
+
+    /**
+     * Возвращает таблицу сущности, содержащую столбец image_hash.
+     *
+     * @return Имя таблицы.
+     */
+    public String table() {
+        return table;
+    }
+
+    /**
+     * Возвращает тип сущности для событий изменения каталога.
+     *
+     * @return Тип сущности.
+     */
+    public CatalogChangedEvent.Type type() {
+        return type;
+    }
+}
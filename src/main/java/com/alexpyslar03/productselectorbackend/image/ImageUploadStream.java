@@ -0,0 +1,167 @@
+package com.alexpyslar03.productselectorbackend.image;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Поток загружаемого изображения, проверяющий содержимое по мере чтения.
+ * Не буферизует изображение: хранит только первые байты для определения формата, считает размер
+ * и хэш SHA-256 содержимого. При нарушении ограничений чтение прерывается исключением IOException,
+ * а причина доступна через {@link #violation()}.
+ */
+public class ImageUploadStream extends FilterInputStream {
+
+    private final long maxSize;
+    private final ImageFormat expectedFormat;
+    private final MessageDigest digest;
+    private final byte[] header = new byte[ImageFormat.HEADER_LENGTH];
+    private int headerLength;
+    private long size;
+    private ImageFormat format;
+    private String violation;
+    private String hash;
+
+    /**
+     * Создает поток, проверяющий загружаемое изображение.
+     *
+     * @param in             Исходный поток содержимого.
+     * @param maxSize        Максимально допустимый размер изображения в байтах.
+     * @param expectedFormat Заявленный формат или null, если формат определяется только по содержимому.
+     */
+    public ImageUploadStream(InputStream in, long maxSize, ImageFormat expectedFormat) {
+        super(in);
+        this.maxSize = maxSize;
+        this.expectedFormat = expectedFormat;
+        try {
+            this.digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read > 0) {
+            accept(b, off, read);
+        } else if (read == -1 && format == null && violation == null) {
+            detect();
+            failOnViolation();
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(n, 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read == -1) {
+                break;
+            }
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Проверяет содержимое после того, как оно полностью прочитано.
+     *
+     * @return Причина отказа или null, если изображение допустимо.
+     */
+    public String complete() {
+        if (violation == null && format == null) {
+            detect();
+        }
+        return violation;
+    }
+
+    /**
+     * Возвращает причину, по которой содержимое было отвергнуто.
+     *
+     * @return Причина отказа или null, если нарушений не обнаружено.
+     */
+    public String violation() {
+        return violation;
+    }
+
+    /**
+     * Возвращает формат изображения, определенный по содержимому.
+     *
+     * @return Формат изображения или null, если он еще не определен.
+     */
+    public ImageFormat format() {
+        return format;
+    }
+
+    /**
+     * Возвращает количество прочитанных байтов.
+     *
+     * @return Размер прочитанного содержимого.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Возвращает хэш SHA-256 прочитанного содержимого. Вызывается после завершения чтения.
+     *
+     * @return Хэш в шестнадцатеричном виде.
+     */
+    public String hash() {
+        if (hash == null) {
+            hash = HexFormat.of().formatHex(digest.digest());
+        }
+        return hash;
+    }
+
+    private void accept(byte[] b, int off, int len) throws IOException {
+        size += len;
+        if (size > maxSize) {
+            violation = String.format("Размер изображения превышает допустимый размер %d байт.", maxSize);
+            failOnViolation();
+        }
+        digest.update(b, off, len);
+        if (headerLength < header.length) {
+            int copied = Math.min(len, header.length - headerLength);
+            System.arraycopy(b, off, header, headerLength, copied);
+            headerLength += copied;
+            if (headerLength == header.length) {
+                detect();
+                failOnViolation();
+            }
+        }
+    }
+
+    private void detect() {
+        format = ImageFormat.detect(header, headerLength);
+        if (format == null) {
+            violation = "Неподдерживаемый формат изображения. Допустимые форматы: JPEG, PNG, GIF, WebP.";
+        } else if (expectedFormat != null && expectedFormat != format) {
+            violation = String.format("Тип содержимого %s не соответствует формату изображения %s.",
+                    expectedFormat.mediaType(), format.mediaType());
+        }
+    }
+
+    private void failOnViolation() throws IOException {
+        if (violation != null) {
+            throw new IOException(violation);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.alexpyslar03.productselectorbackend.image;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Кэш содержимого изображений вне кучи.
+ * Изображения хранятся в одном заранее выделенном прямом буфере (slab), разбитом на страницы фиксированного размера:
+ * запись занимает целое число страниц, освобожденные страницы переиспользуются. Поэтому память кэша ограничена,
+ * не фрагментируется и не попадает в старое поколение кучи. При нехватке страниц вытесняются записи,
+ * которые дольше всего не читались (LRU).
+ * <p>
+ * Прочитанная запись закрепляется, пока ее содержимое пишется в ответ. Вытесненная закрепленная запись сразу
+ * удаляется из индекса, а ее страницы освобождаются после снятия последнего закрепления.
+ * Изображения адресуются хэшем содержимого и не изменяются, поэтому инвалидация не требуется.
+ */
+public class OffHeapImageCache {
+
+    /**
+     * Размер страницы буфера в байтах.
+     */
+    public static final int PAGE_SIZE = 16 * 1024;
+
+    private final ByteBuffer slab;
+    private final int maxEntrySize;
+    private final int[] freePages;
+    private int freeCount;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    /**
+     * Создает кэш, выделяет его буфер и регистрирует метрики.
+     * Доля попаданий равна отношению result=hit к сумме result=hit и result=miss метрики image.cache.requests.
+     *
+     * @param maxSize      Размер буфера кэша; 0 отключает кэширование.
+     * @param maxEntrySize Максимальный размер кэшируемого изображения.
+     * @param registry     Реестр метрик.
+     */
+    public OffHeapImageCache(DataSize maxSize, DataSize maxEntrySize, MeterRegistry registry) {
+        long pages = maxSize.toBytes() / PAGE_SIZE;
+        if (pages * PAGE_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Размер кэша изображений не должен превышать 2 ГБ.");
+        }
+        this.slab = ByteBuffer.allocateDirect((int) pages * PAGE_SIZE);
+        this.maxEntrySize = (int) Math.min(maxEntrySize.toBytes(), slab.capacity());
+        this.freePages = new int[(int) pages];
+        for (int i = 0; i < freePages.length; i++) {
+            freePages[i] = freePages.length - 1 - i; // Страницы выдаются по возрастанию, соседние записи занимают смежную память
+        }
+        this.freeCount = freePages.length;
+        this.hits = counter(registry, "hit");
+        this.misses = counter(registry, "miss");
+        this.evictions = Counter.builder("image.cache.evictions")
+                .description("Количество изображений, вытесненных из кэша")
+                .register(registry);
+        Gauge.builder("image.cache.memory.used", this, OffHeapImageCache::usedBytes)
+                .description("Память кэша изображений, занятая страницами записей")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("image.cache.memory.max", slab, ByteBuffer::capacity)
+                .description("Размер буфера кэша изображений вне кучи")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("image.cache.entries", this, OffHeapImageCache::size)
+                .description("Количество изображений в кэше")
+                .register(registry);
+    }
+
+    /**
+     * Возвращает закрепленную запись изображения. Запись нужно закрыть после записи содержимого в ответ.
+     *
+     * @param hash Хэш SHA-256 содержимого.
+     * @return Закрепленная запись или null, если изображения нет в кэше.
+     */
+    public Entry acquire(String hash) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(hash);
+            if (entry != null) {
+                entry.pins++;
+            }
+        }
+        (entry == null ? misses : hits).increment();
+        return entry;
+    }
+
+    /**
+     * Помещает изображение в кэш, вытесняя давно не читавшиеся записи.
+     * Пустые изображения и изображения больше максимального размера записи не кэшируются.
+     * Содержимое копируется в буфер вне блокировки, а запись становится видна после копирования.
+     *
+     * @param hash        Хэш SHA-256 содержимого.
+     * @param contentType MIME-тип изображения.
+     * @param content     Содержимое изображения.
+     */
+    public void put(String hash, String contentType, byte[] content) {
+        if (content.length == 0 || content.length > maxEntrySize) {
+            return;
+        }
+        int needed = (content.length + PAGE_SIZE - 1) / PAGE_SIZE;
+        Entry entry;
+        synchronized (this) {
+            if (entries.containsKey(hash) || !reserve(needed)) {
+                return;
+            }
+            int[] pages = new int[needed];
+            for (int i = 0; i < needed; i++) {
+                pages[i] = freePages[--freeCount];
+            }
+            entry = new Entry(contentType, content.length, pages);
+        }
+        for (int i = 0; i < needed; i++) {
+            int offset = i * PAGE_SIZE;
+            slab.put(entry.pages[i] * PAGE_SIZE, content, offset, Math.min(PAGE_SIZE, content.length - offset));
+        }
+        synchronized (this) {
+            if (entries.putIfAbsent(hash, entry) != null) {
+                entry.evicted = true; // Параллельная загрузка того же изображения успела первой
+            }
+            unpin(entry);
+        }
+    }
+
+    /**
+     * Возвращает память, занятую страницами записей, включая вытесненные, но еще закрепленные записи.
+     *
+     * @return Размер занятой памяти в байтах.
+     */
+    public synchronized long usedBytes() {
+        return (long) (freePages.length - freeCount) * PAGE_SIZE;
+    }
+
+    /**
+     * Возвращает количество изображений в кэше.
+     *
+     * @return Количество записей.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Освобождает страницы, вытесняя записи в порядке давности чтения.
+     * Вызывается под блокировкой кэша.
+     *
+     * @return true, если свободных страниц достаточно.
+     */
+    private boolean reserve(int needed) {
+        if (needed > freePages.length) {
+            return false;
+        }
+        Iterator<Entry> lru = entries.values().iterator();
+        while (freeCount < needed && lru.hasNext()) {
+            Entry victim = lru.next();
+            lru.remove();
+            victim.evicted = true;
+            evictions.increment();
+            if (victim.pins == 0) {
+                free(victim);
+            }
+        }
+        return freeCount >= needed;
+    }
+
+    private void unpin(Entry entry) {
+        if (--entry.pins == 0 && entry.evicted) {
+            free(entry);
+        }
+    }
+
+    private void free(Entry entry) {
+        for (int i = entry.pages.length - 1; i >= 0; i--) {
+            freePages[freeCount++] = entry.pages[i];
+        }
+    }
+
+    private synchronized void release(Entry entry) {
+        unpin(entry);
+    }
+
+    private static Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("image.cache.requests")
+                .description("Количество обращений к кэшу изображений")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Получатель фрагментов содержимого изображения.
+     */
+    @FunctionalInterface
+    public interface ChunkWriter {
+
+        /**
+         * Записывает фрагмент целиком.
+         *
+         * @param chunk Представление участка буфера кэша; его позиция может изменяться получателем.
+         * @throws IOException Если запись не удалась.
+         */
+        void write(ByteBuffer chunk) throws IOException;
+    }
+
+    /**
+     * Закрепленная запись кэша. Пока запись не закрыта, ее страницы не переиспользуются.
+     */
+    public final class Entry implements AutoCloseable {
+
+        private final String contentType;
+        private final int size;
+        private final int[] pages;
+        private int pins = 1;
+        private boolean evicted;
+
+        private Entry(String contentType, int size, int[] pages) {
+            this.contentType = contentType;
+            this.size = size;
+            this.pages = pages;
+        }
+
+        /**
+         * Возвращает MIME-тип изображения.
+         *
+         * @return MIME-тип.
+         */
+        public String contentType() {
+            return contentType;
+        }
+
+        /**
+         * Возвращает размер изображения в байтах.
+         *
+         * @return Размер содержимого.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Передает содержимое получателю без копирования в кучу: фрагменты являются представлениями буфера кэша,
+         * смежные страницы объединяются в один фрагмент.
+         *
+         * @param writer Получатель фрагментов.
+         * @throws IOException Если запись не удалась.
+         */
+        public void writeTo(ChunkWriter writer) throws IOException {
+            int first = 0;
+            while (first < pages.length) {
+                int last = first;
+                while (last + 1 < pages.length && pages[last + 1] == pages[last] + 1) {
+                    last++;
+                }
+                int length = Math.min((last + 1) * PAGE_SIZE, size) - first * PAGE_SIZE;
+                writer.write(slab.slice(pages[first] * PAGE_SIZE, length));
+                first = last + 1;
+            }
+        }
+
+        /**
+         * Снимает закрепление записи.
+         */
+        @Override
+        public void close() {
+            release(this);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.alexpyslar03.productselectorbackend.image;
+
+/**
+ * Изображение, прочитанное из хранилища по хэшу содержимого.
+ *
+ * @param hash        Хэш SHA-256 содержимого в шестнадцатеричном виде.
+ * @param contentType MIME-тип изображения.
+ * @param content     Содержимое изображения.
+ */
+public record StoredImage(String hash, String contentType, byte[] content) {
+}
@@ -0,0 +1,323 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.snapshot.CatalogSnapshot;
+
+import java.util.*;
+
+/**
+ * Неизменяемая модель каталога для чтения в виде структуры массивов.
+ * Рецепты хранятся колонками примитивов (идентификаторы, сложность, битовая карта веганских рецептов, рейтинг),
+ * связи products_recipes — в формате CSR в обе стороны: массив смещений и общий массив позиций.
+ * Вместо сотен байт на управляемую сущность с HashSet связей модель занимает десятки байт на рецепт.
+ * <p>
+ * Изменения применяются копированием: {@link #with(Delta)} возвращает новую модель, а старая остается
+ * доступной читателям, которые ее уже получили.
+ */
+public final class CatalogReadModel {
+
+    /**
+     * Пустая модель каталога.
+     */
+    public static final CatalogReadModel EMPTY = new CatalogReadModel(new long[0], new byte[0], new long[0], new long[0],
+            new long[0], new long[0], new long[0]);
+
+    private static final long NO_RATING = Long.MIN_VALUE;
+    private static final Recipe.DifficultyLevel[] LEVELS = Recipe.DifficultyLevel.values();
+    private static final long[] NONE = new long[0];
+
+    private final long[] recipeIds;
+    private final byte[] difficulty;
+    private final long[] vegan;
+    private final long[] ratings;
+    private final long[] productIds;
+    private final int[] recipeProductOffsets;
+    private final int[] recipeProducts;
+    private final int[] productRecipeOffsets;
+    private final int[] productRecipes;
+
+    /**
+     * Создает модель по колонкам рецептов (упорядоченным по идентификатору), упорядоченным идентификаторам
+     * продуктов и связям в виде параллельных массивов. Связи с неизвестными сущностями и повторы отбрасываются.
+     */
+    private CatalogReadModel(long[] recipeIds, byte[] difficulty, long[] vegan, long[] ratings, long[] productIds,
+                             long[] linkRecipes, long[] linkProducts) {
+        this.recipeIds = recipeIds;
+        this.difficulty = difficulty;
+        this.vegan = vegan;
+        this.ratings = ratings;
+        this.productIds = productIds;
+        int[] from = new int[linkRecipes.length];
+        int[] to = new int[linkRecipes.length];
+        int count = 0;
+        for (int i = 0; i < linkRecipes.length; i++) {
+            int r = Arrays.binarySearch(recipeIds, linkRecipes[i]);
+            int p = Arrays.binarySearch(productIds, linkProducts[i]);
+            if (r >= 0 && p >= 0) {
+                from[count] = r;
+                to[count++] = p;
+            }
+        }
+        int[][] recipeSide = compress(from, to, count, recipeIds.length);
+        this.recipeProductOffsets = recipeSide[0];
+        this.recipeProducts = recipeSide[1];
+        int[][] productSide = compress(to, from, count, productIds.length);
+        this.productRecipeOffsets = productSide[0];
+        this.productRecipes = productSide[1];
+    }
+
+    /**
+     * Строит модель по сведениям о рецептах, идентификаторам продуктов и связям.
+     *
+     * @param recipes    Сведения о рецептах.
+     * @param productIds Идентификаторы продуктов.
+     * @param links      Связи между рецептами и продуктами.
+     * @return Модель каталога.
+     */
+    public static CatalogReadModel of(List<RecipeSummary> recipes, Collection<Long> productIds, List<RecipeProductLink> links) {
+        List<RecipeSummary> sorted = new ArrayList<>(recipes);
+        sorted.sort(Comparator.comparing(RecipeSummary::id));
+        int n = sorted.size();
+        long[] ids = new long[n];
+        byte[] difficulty = new byte[n];
+        long[] vegan = new long[words(n)];
+        long[] ratings = new long[n];
+        for (int r = 0; r < n; r++) {
+            RecipeSummary recipe = sorted.get(r);
+            ids[r] = recipe.id();
+            difficulty[r] = (byte) recipe.difficultyLevel().ordinal();
+            if (recipe.vegan()) {
+                vegan[r >>> 6] |= 1L << r;
+            }
+            ratings[r] = recipe.rating() == null ? NO_RATING : recipe.rating();
+        }
+        long[] linkRecipes = new long[links.size()];
+        long[] linkProducts = new long[links.size()];
+        for (int i = 0; i < links.size(); i++) {
+            linkRecipes[i] = links.get(i).recipeId();
+            linkProducts[i] = links.get(i).productId();
+        }
+        return new CatalogReadModel(ids, difficulty, vegan, ratings, sortedDistinct(productIds), linkRecipes, linkProducts);
+    }
+
+    /**
+     * Строит модель по снимку каталога без обращений к базе данных.
+     *
+     * @param snapshot Снимок каталога.
+     * @return Модель каталога.
+     */
+    public static CatalogReadModel of(CatalogSnapshot snapshot) {
+        int n = snapshot.recipeCount();
+        long[] ids = new long[n];
+        byte[] difficulty = new byte[n];
+        long[] vegan = new long[words(n)];
+        long[] ratings = new long[n];
+        for (int r = 0; r < n; r++) {
+            ids[r] = snapshot.recipeId(r);
+            difficulty[r] = (byte) snapshot.recipeDifficulty(r).ordinal();
+            if (snapshot.recipeVegan(r)) {
+                vegan[r >>> 6] |= 1L << r;
+            }
+            Long rating = snapshot.recipeRating(r);
+            ratings[r] = rating == null ? NO_RATING : rating;
+        }
+        long[] productIds = new long[snapshot.productCount()];
+        for (int p = 0; p < productIds.length; p++) {
+            productIds[p] = snapshot.productId(p);
+        }
+        List<RecipeProductLink> links = snapshot.links();
+        long[] linkRecipes = new long[links.size()];
+        long[] linkProducts = new long[links.size()];
+        for (int i = 0; i < links.size(); i++) {
+            linkRecipes[i] = links.get(i).recipeId();
+            linkProducts[i] = links.get(i).productId();
+        }
+        return new CatalogReadModel(ids, difficulty, vegan, ratings, productIds, linkRecipes, linkProducts);
+    }
+
+    /**
+     * Возвращает новую модель с примененными изменениями. Текущая модель не изменяется.
+     *
+     * @param delta Изменения каталога.
+     * @return Новая модель каталога.
+     */
+    public CatalogReadModel with(Delta delta) {
+        Set<Long> replacedRecipes = new HashSet<>(delta.deletedRecipeIds());
+        delta.recipes().forEach(recipe -> replacedRecipes.add(recipe.id()));
+
+        List<RecipeSummary> recipes = new ArrayList<>(recipeIds.length + delta.recipes().size());
+        for (int r = 0; r < recipeIds.length; r++) {
+            if (!replacedRecipes.contains(recipeIds[r])) {
+                recipes.add(summary(r));
+            }
+        }
+        recipes.addAll(delta.recipes());
+
+        Set<Long> products = new HashSet<>(productIds.length + delta.productIds().size());
+        for (long id : productIds) {
+            products.add(id);
+        }
+        products.removeAll(delta.deletedProductIds());
+        products.addAll(delta.productIds());
+
+        List<RecipeProductLink> links = new ArrayList<>(recipeProducts.length);
+        for (int r = 0; r < recipeIds.length; r++) {
+            if (delta.deletedRecipeIds().contains(recipeIds[r]) || delta.recipeProducts().containsKey(recipeIds[r])) {
+                continue;
+            }
+            for (int i = recipeProductOffsets[r]; i < recipeProductOffsets[r + 1]; i++) {
+                links.add(new RecipeProductLink(recipeIds[r], productIds[recipeProducts[i]]));
+            }
+        }
+        delta.recipeProducts().forEach((recipeId, productIds) ->
+                productIds.forEach(productId -> links.add(new RecipeProductLink(recipeId, productId))));
+        return of(recipes, products, links);
+    }
+
+    /**
+     * Возвращает идентификаторы рецептов, удовлетворяющих ограничениям, просматривая только колонки сложности
+     * и битовую карту веганских рецептов.
+     *
+     * @param veganOnly        Только веганские рецепты.
+     * @param difficultyLevels Допустимые уровни сложности.
+     * @return Идентификаторы рецептов в порядке возрастания.
+     */
+    public long[] recipeIds(boolean veganOnly, Set<Recipe.DifficultyLevel> difficultyLevels) {
+        boolean[] allowed = new boolean[LEVELS.length];
+        difficultyLevels.forEach(level -> allowed[level.ordinal()] = true);
+        long[] result = new long[recipeIds.length];
+        int count = 0;
+        for (int r = 0; r < recipeIds.length; r++) {
+            if (allowed[difficulty[r]] && (!veganOnly || isVegan(r))) {
+                result[count++] = recipeIds[r];
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Возвращает идентификаторы продуктов рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return Массив идентификаторов продуктов (пустой, если рецепт неизвестен).
+     */
+    public long[] productsOf(long recipeId) {
+        int r = Arrays.binarySearch(recipeIds, recipeId);
+        return r < 0 ? NONE : ids(productIds, recipeProducts, recipeProductOffsets[r], recipeProductOffsets[r + 1]);
+    }
+
+    /**
+     * Возвращает идентификаторы рецептов, в которых используется продукт.
+     *
+     * @param productId Идентификатор продукта.
+     * @return Массив идентификаторов рецептов (пустой, если продукт неизвестен).
+     */
+    public long[] recipesOf(long productId) {
+        int p = Arrays.binarySearch(productIds, productId);
+        return p < 0 ? NONE : ids(recipeIds, productRecipes, productRecipeOffsets[p], productRecipeOffsets[p + 1]);
+    }
+
+    /**
+     * Возвращает рейтинг рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return Рейтинг или null, если рецепт неизвестен или рейтинг не установлен.
+     */
+    public Long ratingOf(long recipeId) {
+        int r = Arrays.binarySearch(recipeIds, recipeId);
+        return r < 0 || ratings[r] == NO_RATING ? null : ratings[r];
+    }
+
+    public int recipeCount() {
+        return recipeIds.length;
+    }
+
+    public int productCount() {
+        return productIds.length;
+    }
+
+    public int linkCount() {
+        return recipeProducts.length;
+    }
+
+    /**
+     * Возвращает оценку занимаемой массивами памяти в байтах.
+     *
+     * @return Размер данных модели.
+     */
+    public long sizeInBytes() {
+        return 8L * (recipeIds.length + vegan.length + ratings.length + productIds.length) + difficulty.length
+                + 4L * (recipeProductOffsets.length + recipeProducts.length + productRecipeOffsets.length + productRecipes.length);
+    }
+
+    private boolean isVegan(int r) {
+        return (vegan[r >>> 6] & (1L << r)) != 0;
+    }
+
+    private RecipeSummary summary(int r) {
+        return new RecipeSummary(recipeIds[r], null, null, isVegan(r), LEVELS[difficulty[r]],
+                ratings[r] == NO_RATING ? null : ratings[r]);
+    }
+
+    private static long[] ids(long[] ids, int[] positions, int from, int to) {
+        long[] result = new long[to - from];
+        for (int i = from; i < to; i++) {
+            result[i - from] = ids[positions[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Группирует пары (from, to) в CSR: смещения по from и отсортированные позиции to без повторов.
+     */
+    private static int[][] compress(int[] from, int[] to, int count, int size) {
+        int[] offsets = new int[size + 1];
+        for (int i = 0; i < count; i++) {
+            offsets[from[i] + 1]++;
+        }
+        for (int i = 0; i < size; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] values = new int[count];
+        int[] fill = Arrays.copyOf(offsets, size);
+        for (int i = 0; i < count; i++) {
+            values[fill[from[i]]++] = to[i];
+        }
+        int[] compacted = new int[size + 1];
+        int length = 0;
+        for (int i = 0; i < size; i++) {
+            Arrays.sort(values, offsets[i], offsets[i + 1]);
+            for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+                if (j == offsets[i] || values[j] != values[j - 1]) {
+                    values[length++] = values[j];
+                }
+            }
+            compacted[i + 1] = length;
+        }
+        return new int[][]{compacted, length == count ? values : Arrays.copyOf(values, length)};
+    }
+
+    private static long[] sortedDistinct(Collection<Long> values) {
+        return values.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+    }
+
+    private static int words(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    /**
+     * Изменения каталога, применяемые к модели. Связи удаленных сущностей отбрасываются, связи рецептов
+     * из recipeProducts заменяются переданными, остальные связи сохраняются.
+     *
+     * @param deletedRecipeIds  Идентификаторы удаленных рецептов.
+     * @param recipes           Текущие сведения о созданных и измененных рецептах.
+     * @param deletedProductIds Идентификаторы удаленных продуктов.
+     * @param productIds        Идентификаторы созданных и измененных продуктов.
+     * @param recipeProducts    Новые полные наборы продуктов рецептов, связи которых изменились.
+     */
+    public record Delta(Set<Long> deletedRecipeIds, List<RecipeSummary> recipes, Set<Long> deletedProductIds,
+                        Set<Long> productIds, Map<Long, Set<Long>> recipeProducts) {
+    }
+}
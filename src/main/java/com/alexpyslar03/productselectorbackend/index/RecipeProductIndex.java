@@ -0,0 +1,723 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.dto.PantryMatchDTO;
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RelatedProductDTO;
+import com.alexpyslar03.productselectorbackend.dto.SubstitutionDTO;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.event.SubstitutionChangedEvent;
+import com.alexpyslar03.productselectorbackend.repository.ProductSubstitutionRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import com.alexpyslar03.productselectorbackend.service.CatalogSnapshotService;
+import com.alexpyslar03.productselectorbackend.snapshot.CatalogSnapshot;
+import com.alexpyslar03.productselectorbackend.util.IntIntHashMap;
+import com.alexpyslar03.productselectorbackend.util.LongIntHashMap;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Индекс связей между рецептами и продуктами, хранящийся в памяти.
+ * Содержит списки смежности в обе стороны и разреженную матрицу совместной встречаемости продуктов
+ * (сколько рецептов используют оба продукта), а также граф замен продуктов с заранее вычисленными
+ * битовыми картами рецептов. Строится один раз при запуске параллельно по каталогу (или по снимку каталога
+ * с последующим догоняющим применением изменений) и затем обновляется
+ * инкрементально по событиям CatalogChangedEvent и SubstitutionChangedEvent, поэтому запросы к нему
+ * не выполняют агрегирующих SQL-запросов.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecipeProductIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeProductIndex.class);
+
+    private static final int[] NONE = new int[0];
+
+    private final RecipeRepository recipeRepository;
+    private final ProductSubstitutionRepository productSubstitutionRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Текущее состояние индекса. Заменяется целиком после первоначального построения.
+     */
+    private Graph graph = new Graph();
+
+    /**
+     * Упорядочивает применение событий. Измененные связи перечитываются из базы данных и применяются под этим
+     * монитором, поэтому при одновременном изменении связей со стороны рецепта и со стороны продукта последним
+     * применяется более позднее чтение, а не набор, вычисленный одной из транзакций до фиксации другой.
+     */
+    private final Object applyOrder = new Object();
+
+    /**
+     * Признак завершения первоначального построения индекса. Изменяется под монитором applyOrder.
+     */
+    private boolean built;
+
+    /**
+     * События, поступившие во время построения индекса. Применяются повторно после его завершения.
+     * Изменяются под монитором applyOrder.
+     */
+    private final List<Object> pending = new ArrayList<>();
+
+    /**
+     * Строит индекс после запуска приложения.
+     * Если есть пригодный снимок каталога, индекс сначала строится по связям из снимка и сразу начинает
+     * обслуживать запросы, а затем догоняет изменения, выполненные после версии снимка. Иначе индекс
+     * строится по таблице products_recipes. События, поступившие во время построения, применяются после него.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        CatalogSnapshot snapshot = catalogSnapshotService.load();
+        if (snapshot == null) {
+            Graph fresh = Graph.fromLinks(recipeRepository.findAllLinks(), productSubstitutionRepository.findAllEdges());
+            publish(fresh, List.of());
+            logger.info("Индекс связей рецептов и продуктов построен за {} мс: {} рецептов, {} продуктов.",
+                    (System.nanoTime() - start) / 1_000_000, fresh.recipeCount, fresh.productCount);
+            return;
+        }
+        Graph warm = Graph.fromLinks(snapshot.links(), productSubstitutionRepository.findAllEdges());
+        lock.writeLock().lock();
+        try {
+            graph = warm;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Индекс связей рецептов и продуктов загружен из снимка версии {} за {} мс: {} рецептов, {} продуктов.",
+                snapshot.version(), (System.nanoTime() - start) / 1_000_000, warm.recipeCount, warm.productCount);
+        List<CatalogChangedEvent> changes = catalogSnapshotService.changesSince(snapshot.version());
+        publish(warm, changes);
+        logger.info("Индекс связей рецептов и продуктов догнал изменения после версии {}: {} событий.",
+                snapshot.version(), changes.size());
+    }
+
+    /**
+     * Обновляет индекс после фиксации изменений каталога.
+     *
+     * @param event Событие изменения каталога.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.type() != CatalogChangedEvent.Type.USER) {
+            enqueue(event);
+        }
+    }
+
+    /**
+     * Обновляет граф замен после фиксации изменений.
+     *
+     * @param event Событие изменения набора замен продукта.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSubstitutionChanged(SubstitutionChangedEvent event) {
+        enqueue(event);
+    }
+
+    /**
+     * Устанавливает построенное состояние, применяет к нему изменения и отложенные события
+     * и отмечает построение завершенным. Изменения после версии снимка уже содержат текущие связи,
+     * а связи отложенных событий перечитываются.
+     */
+    private void publish(Graph fresh, List<CatalogChangedEvent> changes) {
+        synchronized (applyOrder) {
+            List<Object> deferred = pending.stream().map(this::withCurrentLinks).toList();
+            lock.writeLock().lock();
+            try {
+                graph = fresh;
+                changes.forEach(this::apply);
+                deferred.forEach(this::apply);
+            } finally {
+                lock.writeLock().unlock();
+            }
+            built = true;
+            pending.clear();
+        }
+    }
+
+    /**
+     * Применяет событие к индексу или откладывает его до завершения построения.
+     * Связи перечитываются до захвата блокировки записи, чтобы запросы к индексу не ждали базу данных.
+     */
+    private void enqueue(Object event) {
+        synchronized (applyOrder) {
+            if (!built) {
+                pending.add(event);
+                return;
+            }
+            Object change = withCurrentLinks(event);
+            lock.writeLock().lock();
+            try {
+                apply(change);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Заменяет наборы связей из события текущими связями из базы данных. Набор в событии вычислен транзакцией
+     * до фиксации и может не учитывать одновременное изменение связей с другой стороны.
+     */
+    private Object withCurrentLinks(Object change) {
+        if (!(change instanceof CatalogChangedEvent event) || event.links().isEmpty()) {
+            return change;
+        }
+        Map<Long, Set<Long>> links = new HashMap<>();
+        event.links().keySet().forEach(id -> links.put(id, new HashSet<>()));
+        if (event.type() == CatalogChangedEvent.Type.RECIPE) {
+            recipeRepository.findLinksByRecipeIdIn(links.keySet())
+                    .forEach(link -> links.get(link.recipeId()).add(link.productId()));
+        } else {
+            recipeRepository.findLinksByProductIdIn(links.keySet())
+                    .forEach(link -> links.get(link.productId()).add(link.recipeId()));
+        }
+        return new CatalogChangedEvent(event.type(), event.action(), event.ids(), links);
+    }
+
+    /**
+     * Возвращает продукты, чаще всего встречающиеся в рецептах вместе с указанным продуктом.
+     *
+     * @param productId Идентификатор продукта.
+     * @param limit     Максимальное количество результатов.
+     * @return Список связанных продуктов, упорядоченный по убыванию количества общих рецептов.
+     */
+    public List<RelatedProductDTO> related(long productId, int limit) {
+        return suggest(List.of(productId), limit);
+    }
+
+    /**
+     * Возвращает продукты, которые чаще всего используются вместе с набором продуктов (например, с содержимым кладовой).
+     * Продукты из самого набора в результат не попадают.
+     *
+     * @param productIds Идентификаторы исходных продуктов.
+     * @param limit      Максимальное количество результатов.
+     * @return Список продуктов, упорядоченный по убыванию суммарной совместной встречаемости.
+     */
+    public List<RelatedProductDTO> suggest(Collection<Long> productIds, int limit) {
+        lock.readLock().lock();
+        try {
+            Set<Integer> source = new HashSet<>();
+            for (Long id : productIds) {
+                int p = graph.productIndex.get(id, -1);
+                if (p >= 0) {
+                    source.add(p);
+                }
+            }
+            IntIntHashMap scores = new IntIntHashMap();
+            for (int p : source) {
+                graph.cooccurrence[p].forEach((q, count) -> {
+                    if (!source.contains(q)) {
+                        scores.addTo(q, count);
+                    }
+                });
+            }
+            return top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает идентификаторы продуктов рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     * @return Массив идентификаторов продуктов (пустой, если рецепт неизвестен индексу).
+     */
+    public long[] productsOf(long recipeId) {
+        lock.readLock().lock();
+        try {
+            int r = graph.recipeIndex.get(recipeId, -1);
+            return r < 0 ? new long[0] : graph.toProductIds(graph.recipeProducts[r]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает идентификаторы рецептов, использующих продукт.
+     *
+     * @param productId Идентификатор продукта.
+     * @return Массив идентификаторов рецептов (пустой, если продукт неизвестен индексу).
+     */
+    public long[] recipesOf(long productId) {
+        lock.readLock().lock();
+        try {
+            int p = graph.productIndex.get(productId, -1);
+            return p < 0 ? new long[0] : graph.toRecipeIds(graph.productRecipes[p]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Подбирает рецепты, которые можно приготовить из продуктов кладовой.
+     * Кандидаты определяются объединением битовых карт рецептов продуктов кладовой; при разрешенных заменах
+     * к ним добавляются заранее вычисленные объединения битовых карт по группам замен, поэтому расширенный
+     * подбор стоит почти столько же, сколько точный.
+     *
+     * @param pantryIds   Идентификаторы продуктов в кладовой.
+     * @param substitutes Разрешить замену недостающих продуктов продуктами из кладовой.
+     * @return Подходящие рецепты, упорядоченные по убыванию оценки.
+     */
+    public List<PantryMatchDTO> match(Collection<Long> pantryIds, boolean substitutes) {
+        lock.readLock().lock();
+        try {
+            BitSet pantry = new BitSet(graph.productCount);
+            BitSet candidates = new BitSet(graph.recipeCount);
+            for (Long id : pantryIds) {
+                int p = graph.productIndex.get(id, -1);
+                if (p >= 0) {
+                    pantry.set(p);
+                    candidates.or(graph.recipeBits[p]);
+                    if (substitutes) {
+                        candidates.or(graph.coverBits[p]);
+                    }
+                }
+            }
+            List<PantryMatchDTO> matches = new ArrayList<>();
+            for (int r = candidates.nextSetBit(0); r >= 0; r = candidates.nextSetBit(r + 1)) {
+                PantryMatchDTO match = graph.evaluate(r, pantry, substitutes);
+                if (match != null) {
+                    matches.add(match);
+                }
+            }
+            matches.sort(Comparator.comparingDouble(PantryMatchDTO::getScore).reversed());
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Применяет событие к индексу. Вызывается под блокировкой записи.
+     */
+    private void apply(Object change) {
+        if (change instanceof SubstitutionChangedEvent event) {
+            int[] substitutes = event.substitutes().keySet().stream().mapToInt(graph::registerProduct).toArray();
+            double[] weights = event.substitutes().values().stream().mapToDouble(Double::doubleValue).toArray();
+            graph.setSubstitutes(graph.registerProduct(event.productId()), substitutes, weights);
+            return;
+        }
+        CatalogChangedEvent event = (CatalogChangedEvent) change;
+        boolean recipe = event.type() == CatalogChangedEvent.Type.RECIPE;
+        for (Long id : event.ids()) {
+            if (event.action() == CatalogChangedEvent.Action.DELETE) {
+                if (recipe) {
+                    int r = graph.recipeIndex.get(id, -1);
+                    if (r >= 0) {
+                        graph.setRecipeProducts(r, NONE);
+                    }
+                } else {
+                    int p = graph.productIndex.get(id, -1);
+                    if (p >= 0) {
+                        graph.setProductRecipes(p, NONE);
+                        graph.removeSubstitutionsOf(p);
+                    }
+                }
+                continue;
+            }
+            Set<Long> links = event.linksOf(id);
+            if (links == null) {
+                continue;
+            }
+            if (recipe) {
+                int[] products = links.stream().mapToInt(graph::registerProduct).sorted().distinct().toArray();
+                graph.setRecipeProducts(graph.registerRecipe(id), products);
+            } else {
+                int[] recipes = links.stream().mapToInt(graph::registerRecipe).sorted().distinct().toArray();
+                graph.setProductRecipes(graph.registerProduct(id), recipes);
+            }
+        }
+    }
+
+    /**
+     * Выбирает limit записей с наибольшими значениями.
+     */
+    private List<RelatedProductDTO> top(IntIntHashMap scores, int limit) {
+        PriorityQueue<long[]> heap = new PriorityQueue<>(Comparator.comparingLong((long[] e) -> e[1]));
+        scores.forEach((q, count) -> {
+            heap.offer(new long[]{q, count});
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+        List<RelatedProductDTO> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            long[] e = heap.poll();
+            result.add(new RelatedProductDTO(graph.productIds[(int) e[0]], e[1]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * Изменяемое состояние индекса: плотные индексы сущностей, списки смежности и матрица совместной встречаемости.
+     */
+    private static final class Graph {
+
+        private final LongIntHashMap productIndex;
+        private final LongIntHashMap recipeIndex;
+        private long[] productIds;
+        private long[] recipeIds;
+        private int productCount;
+        private int recipeCount;
+        private int[][] recipeProducts;
+        private int[][] productRecipes;
+        private IntIntHashMap[] cooccurrence;
+        private BitSet[] recipeBits;
+        private int[][] substitutes;
+        private double[][] substituteWeights;
+        private int[][] replaces;
+        private BitSet[] coverBits;
+
+        private Graph() {
+            this(16, 16);
+        }
+
+        private Graph(int products, int recipes) {
+            productIndex = new LongIntHashMap(products);
+            recipeIndex = new LongIntHashMap(recipes);
+            productIds = new long[Math.max(16, products)];
+            recipeIds = new long[Math.max(16, recipes)];
+            productRecipes = new int[productIds.length][];
+            cooccurrence = new IntIntHashMap[productIds.length];
+            recipeBits = new BitSet[productIds.length];
+            substitutes = new int[productIds.length][];
+            substituteWeights = new double[productIds.length][];
+            replaces = new int[productIds.length][];
+            coverBits = new BitSet[productIds.length];
+            recipeProducts = new int[recipeIds.length][];
+        }
+
+        /**
+         * Строит состояние по списку связей и ребрам графа замен. Матрица совместной встречаемости
+         * и битовые карты рецептов считаются параллельно: каждая строка (продукт) вычисляется независимо
+         * по спискам смежности.
+         */
+        private static Graph fromLinks(List<RecipeProductLink> links, List<SubstitutionDTO> edges) {
+            Graph g = new Graph(links.size() / 4, links.size() / 4);
+            int[] linkRecipe = new int[links.size()];
+            int[] linkProduct = new int[links.size()];
+            for (int i = 0; i < links.size(); i++) {
+                linkRecipe[i] = g.registerRecipe(links.get(i).recipeId());
+                linkProduct[i] = g.registerProduct(links.get(i).productId());
+            }
+            g.recipeProducts = group(linkRecipe, linkProduct, g.recipeCount, g.recipeIds.length);
+            g.productRecipes = group(linkProduct, linkRecipe, g.productCount, g.productIds.length);
+            int[][] recipeProducts = g.recipeProducts;
+            int[][] productRecipes = g.productRecipes;
+            IntIntHashMap[] cooccurrence = g.cooccurrence;
+            BitSet[] recipeBits = g.recipeBits;
+            IntStream.range(0, g.productCount).parallel().forEach(p -> {
+                BitSet bits = new BitSet(recipeProducts.length);
+                IntIntHashMap row = new IntIntHashMap();
+                for (int r : productRecipes[p]) {
+                    bits.set(r);
+                    for (int q : recipeProducts[r]) {
+                        if (q != p) {
+                            row.addTo(q, 1);
+                        }
+                    }
+                }
+                cooccurrence[p] = row;
+                recipeBits[p] = bits;
+            });
+            Map<Integer, Map<Integer, Double>> grouped = new HashMap<>();
+            for (SubstitutionDTO edge : edges) {
+                grouped.computeIfAbsent(g.registerProduct(edge.getProductId()), k -> new LinkedHashMap<>())
+                        .put(g.registerProduct(edge.getSubstituteId()), edge.getWeight());
+            }
+            grouped.forEach((q, row) -> g.setSubstitutes(q,
+                    row.keySet().stream().mapToInt(Integer::intValue).toArray(),
+                    row.values().stream().mapToDouble(Double::doubleValue).toArray()));
+            return g;
+        }
+
+        /**
+         * Группирует пары (from, to) в отсортированные списки смежности без дубликатов.
+         */
+        private static int[][] group(int[] from, int[] to, int count, int capacity) {
+            int[] degree = new int[count];
+            for (int f : from) {
+                degree[f]++;
+            }
+            int[][] rows = new int[capacity][];
+            for (int i = 0; i < count; i++) {
+                rows[i] = new int[degree[i]];
+            }
+            int[] fill = new int[count];
+            for (int i = 0; i < from.length; i++) {
+                rows[from[i]][fill[from[i]]++] = to[i];
+            }
+            for (int i = 0; i < count; i++) {
+                rows[i] = Arrays.stream(rows[i]).sorted().distinct().toArray();
+            }
+            return rows;
+        }
+
+        private int registerProduct(long id) {
+            int p = productIndex.get(id, -1);
+            if (p < 0) {
+                p = productCount++;
+                if (p == productIds.length) {
+                    int capacity = productIds.length << 1;
+                    productIds = Arrays.copyOf(productIds, capacity);
+                    productRecipes = Arrays.copyOf(productRecipes, capacity);
+                    cooccurrence = Arrays.copyOf(cooccurrence, capacity);
+                    recipeBits = Arrays.copyOf(recipeBits, capacity);
+                    substitutes = Arrays.copyOf(substitutes, capacity);
+                    substituteWeights = Arrays.copyOf(substituteWeights, capacity);
+                    replaces = Arrays.copyOf(replaces, capacity);
+                    coverBits = Arrays.copyOf(coverBits, capacity);
+                }
+                productIds[p] = id;
+                productRecipes[p] = NONE;
+                cooccurrence[p] = new IntIntHashMap();
+                recipeBits[p] = new BitSet();
+                substitutes[p] = NONE;
+                substituteWeights[p] = new double[0];
+                replaces[p] = NONE;
+                coverBits[p] = new BitSet();
+                productIndex.put(id, p);
+            }
+            return p;
+        }
+
+        private int registerRecipe(long id) {
+            int r = recipeIndex.get(id, -1);
+            if (r < 0) {
+                r = recipeCount++;
+                if (r == recipeIds.length) {
+                    int capacity = recipeIds.length << 1;
+                    recipeIds = Arrays.copyOf(recipeIds, capacity);
+                    recipeProducts = Arrays.copyOf(recipeProducts, capacity);
+                }
+                recipeIds[r] = id;
+                recipeProducts[r] = NONE;
+                recipeIndex.put(id, r);
+            }
+            return r;
+        }
+
+        /**
+         * Заменяет набор продуктов рецепта, поддерживая обратные списки и матрицу совместной встречаемости.
+         */
+        private void setRecipeProducts(int r, int[] products) {
+            int[] old = recipeProducts[r];
+            if (Arrays.equals(old, products)) {
+                return;
+            }
+            updatePairs(old, -1);
+            updatePairs(products, 1);
+            recipeProducts[r] = products;
+            for (int p : old) {
+                if (Arrays.binarySearch(products, p) < 0) {
+                    productRecipes[p] = remove(productRecipes[p], r);
+                    recipeBits[p].clear(r);
+                    for (int s : substitutes[p]) {
+                        coverBits[s].set(r, replacesAnyOf(s, products));
+                    }
+                }
+            }
+            for (int p : products) {
+                if (Arrays.binarySearch(old, p) < 0) {
+                    productRecipes[p] = insert(productRecipes[p], r);
+                    recipeBits[p].set(r);
+                    for (int s : substitutes[p]) {
+                        coverBits[s].set(r);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Заменяет набор рецептов продукта, перестраивая наборы продуктов затронутых рецептов.
+         */
+        private void setProductRecipes(int p, int[] recipes) {
+            int[] old = productRecipes[p];
+            for (int r : old) {
+                if (Arrays.binarySearch(recipes, r) < 0) {
+                    setRecipeProducts(r, remove(recipeProducts[r], p));
+                }
+            }
+            for (int r : recipes) {
+                if (Arrays.binarySearch(old, r) < 0) {
+                    setRecipeProducts(r, insert(recipeProducts[r], p));
+                }
+            }
+        }
+
+        /**
+         * Заменяет набор замен продукта q и пересчитывает объединенные битовые карты затронутых заменителей.
+         */
+        private void setSubstitutes(int q, int[] newSubstitutes, double[] weights) {
+            int[] old = substitutes[q];
+            substitutes[q] = newSubstitutes;
+            substituteWeights[q] = weights;
+            for (int s : old) {
+                replaces[s] = removeUnsorted(replaces[s], q);
+            }
+            for (int s : newSubstitutes) {
+                replaces[s] = insert(replaces[s], q);
+            }
+            Set<Integer> affected = new HashSet<>();
+            Arrays.stream(old).forEach(affected::add);
+            Arrays.stream(newSubstitutes).forEach(affected::add);
+            for (int s : affected) {
+                BitSet cover = new BitSet(recipeCount);
+                for (int replaced : replaces[s]) {
+                    cover.or(recipeBits[replaced]);
+                }
+                coverBits[s] = cover;
+            }
+        }
+
+        /**
+         * Удаляет все замены, в которых участвует продукт p.
+         */
+        private void removeSubstitutionsOf(int p) {
+            setSubstitutes(p, NONE, new double[0]);
+            for (int q : replaces[p].clone()) {
+                int pos = indexOf(substitutes[q], p);
+                int[] rest = removeUnsorted(substitutes[q], p);
+                double[] restWeights = new double[rest.length];
+                for (int i = 0, j = 0; i < substitutes[q].length; i++) {
+                    if (i != pos) {
+                        restWeights[j++] = substituteWeights[q][i];
+                    }
+                }
+                setSubstitutes(q, rest, restWeights);
+            }
+        }
+
+        /**
+         * Проверяет, может ли продукт s заменить хотя бы один из продуктов.
+         */
+        private boolean replacesAnyOf(int s, int[] products) {
+            for (int q : replaces[s]) {
+                if (Arrays.binarySearch(products, q) >= 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Проверяет, можно ли приготовить рецепт из кладовой, при необходимости подбирая для каждого
+         * недостающего продукта лучшую замену из кладовой.
+         *
+         * @return Результат подбора или null, если рецепт приготовить нельзя.
+         */
+        private PantryMatchDTO evaluate(int r, BitSet pantry, boolean allowSubstitutes) {
+            int[] products = recipeProducts[r];
+            if (products.length == 0) {
+                return null;
+            }
+            double score = 1.0;
+            List<SubstitutionDTO> used = List.of();
+            for (int q : products) {
+                if (pantry.get(q)) {
+                    continue;
+                }
+                if (!allowSubstitutes) {
+                    return null;
+                }
+                int best = -1;
+                for (int i = 0; i < substitutes[q].length; i++) {
+                    if (pantry.get(substitutes[q][i]) && (best < 0 || substituteWeights[q][i] > substituteWeights[q][best])) {
+                        best = i;
+                    }
+                }
+                if (best < 0) {
+                    return null;
+                }
+                if (used.isEmpty()) {
+                    used = new ArrayList<>();
+                }
+                used.add(new SubstitutionDTO(productIds[q], productIds[substitutes[q][best]], substituteWeights[q][best]));
+                score *= substituteWeights[q][best];
+            }
+            return new PantryMatchDTO(recipeIds[r], score, used);
+        }
+
+        private void updatePairs(int[] products, int delta) {
+            for (int i = 0; i < products.length; i++) {
+                for (int j = i + 1; j < products.length; j++) {
+                    cooccurrence[products[i]].addTo(products[j], delta);
+                    cooccurrence[products[j]].addTo(products[i], delta);
+                }
+            }
+        }
+
+        private long[] toProductIds(int[] products) {
+            long[] ids = new long[products.length];
+            for (int i = 0; i < products.length; i++) {
+                ids[i] = productIds[products[i]];
+            }
+            return ids;
+        }
+
+        private long[] toRecipeIds(int[] recipes) {
+            long[] ids = new long[recipes.length];
+            for (int i = 0; i < recipes.length; i++) {
+                ids[i] = recipeIds[recipes[i]];
+            }
+            return ids;
+        }
+
+        private static int[] insert(int[] sorted, int value) {
+            int pos = Arrays.binarySearch(sorted, value);
+            if (pos >= 0) {
+                return sorted;
+            }
+            pos = -pos - 1;
+            int[] result = new int[sorted.length + 1];
+            System.arraycopy(sorted, 0, result, 0, pos);
+            result[pos] = value;
+            System.arraycopy(sorted, pos, result, pos + 1, sorted.length - pos);
+            return result;
+        }
+
+        private static int indexOf(int[] values, int value) {
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == value) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static int[] removeUnsorted(int[] values, int value) {
+            int pos = indexOf(values, value);
+            if (pos < 0) {
+                return values;
+            }
+            int[] result = new int[values.length - 1];
+            System.arraycopy(values, 0, result, 0, pos);
+            System.arraycopy(values, pos + 1, result, pos, values.length - pos - 1);
+            return result;
+        }
+
+        private static int[] remove(int[] sorted, int value) {
+            int pos = Arrays.binarySearch(sorted, value);
+            if (pos < 0) {
+                return sorted;
+            }
+            int[] result = new int[sorted.length - 1];
+            System.arraycopy(sorted, 0, result, 0, pos);
+            System.arraycopy(sorted, pos + 1, result, pos, sorted.length - pos - 1);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.alexpyslar03.productselectorbackend.json;
+
+import com.alexpyslar03.productselectorbackend.dto.NormalizedRecipesDTO;
+import com.alexpyslar03.productselectorbackend.dto.ProductSummary;
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Сериализатор нормализованного ответа со списком рецептов.
+ * Пишет JSON напрямую в поток за один проход по рецептам и продуктам без построения промежуточного дерева
+ * и без обхода связей сущностей, поэтому время и размер ответа линейны по количеству различных рецептов,
+ * продуктов и связей между ними.
+ */
+public class NormalizedRecipesSerializer extends StdSerializer<NormalizedRecipesDTO> {
+
+    public NormalizedRecipesSerializer() {
+        super(NormalizedRecipesDTO.class);
+    }
+
+    @Override
+    public void serialize(NormalizedRecipesDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject();
+        gen.writeArrayFieldStart("recipes");
+        for (RecipeSummary recipe : value.recipes()) {
+            gen.writeStartObject();
+            gen.writeNumberField("id", recipe.id());
+            gen.writeStringField("name", recipe.name());
+            gen.writeStringField("description", recipe.description());
+            gen.writeBooleanField("vegan", recipe.vegan());
+            gen.writeStringField("difficultyLevel", recipe.difficultyLevel().name());
+            if (recipe.rating() == null) {
+                gen.writeNullField("rating");
+            } else {
+                gen.writeNumberField("rating", recipe.rating());
+            }
+            gen.writeArrayFieldStart("products");
+            for (Long productId : value.recipeProductIds().getOrDefault(recipe.id(), List.of())) {
+                gen.writeNumber(productId);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+        gen.writeObjectFieldStart("products");
+        for (ProductSummary product : value.products()) {
+            gen.writeObjectFieldStart(String.valueOf(product.id()));
+            gen.writeNumberField("id", product.id());
+            gen.writeStringField("name", product.name());
+            gen.writeEndObject();
+        }
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+}
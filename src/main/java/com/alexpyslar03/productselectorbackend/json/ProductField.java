@@ -0,0 +1,30 @@
+package com.alexpyslar03.productselectorbackend.json;
+
+/**
+ * Поля продукта, доступные для выборки параметром fields.
+ */
+public enum ProductField implements SparseField {
+    ID("id", ValueWriter.NUMBER),
+    NAME("name", ValueWriter.STRING),
+    VIEW_COUNT("viewCount", ValueWriter.NUMBER),
+    COOKED_COUNT("cookedCount", ValueWriter.NUMBER),
+    IMAGE_HASH("imageHash", ValueWriter.STRING);
+
+    private final String attribute;
+    private final ValueWriter writer;
+
+    ProductField(String attribute, ValueWriter writer) {
+        this.attribute = attribute;
+        this.writer = writer;
+    }
+
+    @Override
+    public String attribute() {
+        return attribute;
+    }
+
+    @Override
+    public ValueWriter writer() {
+        return writer;
+    }
+}
@@ -0,0 +1,34 @@
+package com.alexpyslar03.productselectorbackend.json;
+
+/**
+ * Поля рецепта, доступные для выборки параметром fields.
+ */
+public enum RecipeField implements SparseField {
+    ID("id", ValueWriter.NUMBER),
+    NAME("name", ValueWriter.STRING),
+    DESCRIPTION("description", ValueWriter.STRING),
+    VEGAN("vegan", ValueWriter.BOOLEAN),
+    DIFFICULTY_LEVEL("difficultyLevel", ValueWriter.ENUM),
+    RATING("rating", ValueWriter.NUMBER),
+    VIEW_COUNT("viewCount", ValueWriter.NUMBER),
+    COOKED_COUNT("cookedCount", ValueWriter.NUMBER),
+    IMAGE_HASH("imageHash", ValueWriter.STRING);
+
+    private final String attribute;
+    private final ValueWriter writer;
+
+    RecipeField(String attribute, ValueWriter writer) {
+        this.attribute = attribute;
+        this.writer = writer;
+    }
+
+    @Override
+    public String attribute() {
+        return attribute;
+    }
+
+    @Override
+    public ValueWriter writer() {
+        return writer;
+    }
+}
@@ -0,0 +1,42 @@
+package com.alexpyslar03.productselectorbackend.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+
+/**
+ * Поле сущности, которое можно запросить параметром fields.
+ * Имя атрибута сущности совпадает с именем поля в JSON.
+ */
+public interface SparseField {
+
+    /**
+     * Возвращает имя атрибута сущности, используемое в проекции запроса и в ответе.
+     *
+     * @return Имя атрибута.
+     */
+    String attribute();
+
+    /**
+     * Возвращает способ записи значения поля.
+     *
+     * @return Запись значения, отличного от null.
+     */
+    ValueWriter writer();
+
+    /**
+     * Запись значения поля в JSON без обращения к сериализаторам Jackson.
+     * Значения null обрабатываются вызывающей стороной.
+     */
+    @FunctionalInterface
+    interface ValueWriter {
+
+        ValueWriter NUMBER = (gen, value) -> gen.writeNumber(((Number) value).longValue());
+        ValueWriter STRING = (gen, value) -> gen.writeString((String) value);
+        ValueWriter BOOLEAN = (gen, value) -> gen.writeBoolean((Boolean) value);
+        ValueWriter ENUM = (gen, value) -> gen.writeString(((Enum<?>) value).name());
+        ValueWriter DATE = (gen, value) -> gen.writeString(value.toString());
+
+        void write(JsonGenerator gen, Object value) throws IOException;
+    }
+}
@@ -0,0 +1,32 @@
+package com.alexpyslar03.productselectorbackend.json;
+
+import com.alexpyslar03.productselectorbackend.dto.SparseFieldsDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Сериализатор ответа с выбранными полями сущностей.
+ * Пишет одну строку как объект, а список строк — как массив объектов.
+ */
+public class SparseFieldsSerializer extends StdSerializer<SparseFieldsDTO> {
+
+    public SparseFieldsSerializer() {
+        super(SparseFieldsDTO.class);
+    }
+
+    @Override
+    public void serialize(SparseFieldsDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        if (value.single()) {
+            value.writer().write(gen, value.rows().get(0));
+            return;
+        }
+        gen.writeStartArray();
+        for (Object[] row : value.rows()) {
+            value.writer().write(gen, row);
+        }
+        gen.writeEndArray();
+    }
+}
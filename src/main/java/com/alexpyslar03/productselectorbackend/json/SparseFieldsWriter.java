@@ -0,0 +1,110 @@
+package com.alexpyslar03.productselectorbackend.json;
+
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Запись строк проекции в JSON для заданного набора полей сущности.
+ * Для каждой маски полей запись строится один раз и кэшируется: имена полей заранее закодированы,
+ * а значения пишутся по типу поля, поэтому на горячем пути нет ни рефлексии, ни поиска сериализаторов.
+ */
+public final class SparseFieldsWriter {
+
+    private static final ClassValue<Map<Long, SparseFieldsWriter>> writers = new ClassValue<>() {
+        @Override
+        protected Map<Long, SparseFieldsWriter> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    private final List<String> attributes;
+    private final SerializedString[] names;
+    private final SparseField.ValueWriter[] values;
+
+    private SparseFieldsWriter(List<SparseField> fields) {
+        this.attributes = fields.stream().map(SparseField::attribute).toList();
+        this.names = fields.stream().map(field -> new SerializedString(field.attribute())).toArray(SerializedString[]::new);
+        this.values = fields.stream().map(SparseField::writer).toArray(SparseField.ValueWriter[]::new);
+    }
+
+    /**
+     * Возвращает запись для списка полей, переданного в параметре fields.
+     * Поля записываются в порядке их объявления в перечислении независимо от порядка в запросе.
+     *
+     * @param type   Перечисление полей сущности.
+     * @param fields Имена полей через запятую.
+     * @param <F>    Тип перечисления полей.
+     * @return Запись для указанного набора полей.
+     * @throws BadRequestException Если поля не указаны или среди них есть неизвестные.
+     */
+    public static <F extends Enum<F> & SparseField> SparseFieldsWriter forFields(Class<F> type, String fields) {
+        F[] constants = type.getEnumConstants();
+        long mask = 0;
+        List<String> unknown = new ArrayList<>();
+        for (String name : fields.split(",")) {
+            String attribute = name.trim();
+            if (attribute.isEmpty()) {
+                continue;
+            }
+            F field = Arrays.stream(constants).filter(constant -> constant.attribute().equals(attribute)).findFirst().orElse(null);
+            if (field == null) {
+                unknown.add(attribute);
+            } else {
+                mask |= 1L << field.ordinal();
+            }
+        }
+        if (!unknown.isEmpty()) {
+            throw new BadRequestException(String.format("Неизвестные поля %s. Допустимые поля: %s.", unknown,
+                    Arrays.stream(constants).map(SparseField::attribute).toList()));
+        }
+        if (mask == 0) {
+            throw new BadRequestException("Не указаны поля ответа.");
+        }
+        return writers.get(type).computeIfAbsent(mask, key -> {
+            List<SparseField> selected = new ArrayList<>();
+            for (F constant : constants) {
+                if ((key & (1L << constant.ordinal())) != 0) {
+                    selected.add(constant);
+                }
+            }
+            return new SparseFieldsWriter(selected);
+        });
+    }
+
+    /**
+     * Возвращает имена атрибутов в порядке столбцов строки проекции.
+     *
+     * @return Имена выбираемых атрибутов.
+     */
+    public List<String> attributes() {
+        return attributes;
+    }
+
+    /**
+     * Записывает строку проекции как объект JSON.
+     *
+     * @param gen Генератор JSON.
+     * @param row Значения атрибутов в порядке {@link #attributes()}.
+     * @throws IOException Если запись не удалась.
+     */
+    public void write(JsonGenerator gen, Object[] row) throws IOException {
+        gen.writeStartObject();
+        for (int i = 0; i < names.length; i++) {
+            gen.writeFieldName(names[i]);
+            if (row[i] == null) {
+                gen.writeNull();
+            } else {
+                values[i].write(gen, row[i]);
+            }
+        }
+        gen.writeEndObject();
+    }
+}
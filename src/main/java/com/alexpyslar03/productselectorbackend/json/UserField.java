@@ -0,0 +1,33 @@
+package com.alexpyslar03.productselectorbackend.json;
+
+/**
+ * Поля пользователя, доступные для выборки параметром fields.
+ * Пароль выбрать нельзя.
+ */
+public enum UserField implements SparseField {
+    ID("id", ValueWriter.NUMBER),
+    NAME("name", ValueWriter.STRING),
+    SURNAME("surname", ValueWriter.STRING),
+    EMAIL("email", ValueWriter.STRING),
+    BIRTH_DATE("birthDate", ValueWriter.DATE),
+    REGISTRATION_DATE("registrationDate", ValueWriter.DATE),
+    ACCESS_LEVEL("accessLevel", ValueWriter.ENUM);
+
+    private final String attribute;
+    private final ValueWriter writer;
+
+    UserField(String attribute, ValueWriter writer) {
+        this.attribute = attribute;
+        this.writer = writer;
+    }
+
+    @Override
+    public String attribute() {
+        return attribute;
+    }
+
+    @Override
+    public ValueWriter writer() {
+        return writer;
+    }
+}
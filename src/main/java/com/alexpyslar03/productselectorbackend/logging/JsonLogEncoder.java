@@ -0,0 +1,74 @@
+package com.alexpyslar03.productselectorbackend.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.ThrowableProxyUtil;
+import ch.qos.logback.core.encoder.EncoderBase;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * Кодировщик событий журнала в JSON: одно событие — один объект в отдельной строке.
+ * Объект содержит поля timestamp, level, thread, logger и message, значения MDC как отдельные поля
+ * и стек исключения в поле exception, если оно есть.
+ */
+public class JsonLogEncoder extends EncoderBase<ILoggingEvent> {
+
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString LEVEL = new SerializedString("level");
+    private static final SerializableString THREAD = new SerializedString("thread");
+    private static final SerializableString LOGGER = new SerializedString("logger");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString EXCEPTION = new SerializedString("exception");
+    private static final byte[] NO_BYTES = new byte[0];
+
+    @Override
+    public byte[] headerBytes() {
+        return NO_BYTES;
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+        try (JsonGenerator gen = FACTORY.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeFieldName(TIMESTAMP);
+            gen.writeString(DateTimeFormatter.ISO_INSTANT.format(event.getInstant()));
+            gen.writeFieldName(LEVEL);
+            gen.writeString(event.getLevel().levelStr);
+            gen.writeFieldName(THREAD);
+            gen.writeString(event.getThreadName());
+            gen.writeFieldName(LOGGER);
+            gen.writeString(event.getLoggerName());
+            gen.writeFieldName(MESSAGE);
+            gen.writeString(event.getFormattedMessage());
+            for (Map.Entry<String, String> entry : event.getMDCPropertyMap().entrySet()) {
+                gen.writeStringField(entry.getKey(), entry.getValue());
+            }
+            IThrowableProxy throwable = event.getThrowableProxy();
+            if (throwable != null) {
+                gen.writeFieldName(EXCEPTION);
+                gen.writeString(ThrowableProxyUtil.asString(throwable));
+            }
+            gen.writeEndObject();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        out.write('\n');
+        return out.toByteArray();
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return NO_BYTES;
+    }
+}
@@ -0,0 +1,210 @@
+package com.alexpyslar03.productselectorbackend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Асинхронный аппендер на кольцевом буфере.
+ * Потоки запросов только занимают ячейку буфера атомарной операцией и кладут в нее событие, не ожидая блокировок
+ * и вывода; события передаются вложенным аппендерам одним фоновым потоком в порядке занятия ячеек.
+ * <p>
+ * Потоки запросов никогда не ждут освобождения буфера: когда свободных ячеек меньше порога сброса, события
+ * уровня INFO и ниже отбрасываются, а при полном буфере отбрасываются любые события. Количество отброшенных
+ * событий доступно через {@link #droppedCount()}.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent> implements AppenderAttachable<ILoggingEvent> {
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private AtomicReferenceArray<ILoggingEvent> slots;
+    private int mask;
+    private int discardingThreshold = -1;
+    private int bufferSize = 8192;
+    private long maxFlushTime = 1000;
+    private boolean includeCallerData;
+    private volatile long head;
+    private volatile boolean sleeping;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (bufferSize < 1) {
+            addError("Размер буфера должен быть положительным.");
+            return;
+        }
+        int capacity = Integer.highestOneBit(bufferSize - 1) << 1;
+        slots = new AtomicReferenceArray<>(Math.max(capacity, 2));
+        mask = slots.length() - 1;
+        if (discardingThreshold < 0) {
+            discardingThreshold = slots.length() / 5;
+        }
+        worker = new Thread(this::drain, "logback-ring-buffer-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    /**
+     * Останавливает фоновый поток, дождавшись вывода накопленных событий не дольше maxFlushTime,
+     * и останавливает вложенные аппендеры.
+     */
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTime);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Не все события журнала выведены за " + maxFlushTime + " мс.");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+        int reserve = event.getLevel().levelInt > Level.INFO_INT ? 0 : discardingThreshold;
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head + reserve >= slots.length()) {
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+        slots.set((int) sequence & mask, event);
+        if (sleeping) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Цикл фонового потока: выводит события по порядку ячеек. Ячейка, занятая, но еще не заполненная
+     * потоком запроса, ожидается активно, пустой буфер — с засыпанием до следующего события.
+     */
+    private void drain() {
+        while (true) {
+            long sequence = head;
+            int slot = (int) sequence & mask;
+            ILoggingEvent event = slots.get(slot);
+            if (event == null) {
+                if (tail.get() != sequence) {
+                    Thread.onSpinWait();
+                } else if (!isStarted()) {
+                    return;
+                } else {
+                    sleeping = true;
+                    if (slots.get(slot) == null && isStarted()) {
+                        LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(100));
+                    }
+                    sleeping = false;
+                }
+                continue;
+            }
+            slots.lazySet(slot, null);
+            head = sequence + 1;
+            appenders.appendLoopOnAppenders(event);
+        }
+    }
+
+    /**
+     * Возвращает количество событий, отброшенных из-за заполнения буфера.
+     *
+     * @return Количество отброшенных событий.
+     */
+    public long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Возвращает количество событий, ожидающих вывода.
+     *
+     * @return Количество занятых ячеек буфера.
+     */
+    public int pendingCount() {
+        return (int) (tail.get() - head);
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public int getBufferSize() {
+        return slots == null ? bufferSize : slots.length();
+    }
+
+    /**
+     * Задает количество свободных ячеек, ниже которого события уровня INFO и ниже отбрасываются.
+     * По умолчанию пятая часть буфера.
+     */
+    public void setDiscardingThreshold(int discardingThreshold) {
+        this.discardingThreshold = discardingThreshold;
+    }
+
+    public void setMaxFlushTime(long maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> appender) {
+        appenders.addAppender(appender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,81 @@
+package com.alexpyslar03.productselectorbackend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Фильтр, ограничивающий частоту частых событий журнала отдельно для каждого логгера.
+ * Каждый логгер выводит не больше rate событий уровня level и ниже в секунду; остальные события этой секунды
+ * отбрасываются до создания события и форматирования сообщения. События выше уровня level, например WARN и ERROR,
+ * не ограничиваются. Количество отброшенных событий доступно через {@link #sampledCount()}.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final ConcurrentHashMap<Logger, AtomicLong> windows = new ConcurrentHashMap<>();
+    private final LongAdder sampled = new LongAdder();
+    private final LongSupplier clock;
+    private int rate = 100;
+    private Level level = Level.INFO;
+
+    public SamplingTurboFilter() {
+        this(System::currentTimeMillis);
+    }
+
+    SamplingTurboFilter(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Проверки isInfoEnabled() и события отключенных уровней не расходуют лимит
+        if (!isStarted() || rate <= 0 || format == null || level.levelInt > this.level.levelInt
+                || level.levelInt < logger.getEffectiveLevel().levelInt) {
+            return FilterReply.NEUTRAL;
+        }
+        AtomicLong window = windows.computeIfAbsent(logger, key -> new AtomicLong());
+        long second = clock.getAsLong() / 1000;
+        while (true) {
+            // Старшие 32 бита — секунда окна, младшие — количество выведенных в ней событий
+            long state = window.get();
+            long count = state >>> 32 == second ? state & 0xFFFFFFFFL : 0;
+            if (count >= rate) {
+                sampled.increment();
+                return FilterReply.DENY;
+            }
+            if (window.compareAndSet(state, second << 32 | count + 1)) {
+                return FilterReply.NEUTRAL;
+            }
+        }
+    }
+
+    /**
+     * Возвращает количество событий, отброшенных из-за превышения частоты.
+     *
+     * @return Количество отброшенных событий.
+     */
+    public long sampledCount() {
+        return sampled.sum();
+    }
+
+    /**
+     * Задает максимальное количество событий одного логгера в секунду; 0 отключает ограничение.
+     */
+    public void setRate(int rate) {
+        this.rate = rate;
+    }
+
+    /**
+     * Задает уровень, события которого и ниже ограничиваются. По умолчанию INFO.
+     */
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+}
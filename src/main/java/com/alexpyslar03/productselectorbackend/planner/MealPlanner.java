@@ -0,0 +1,324 @@
+package com.alexpyslar03.productselectorbackend.planner;
+
+import com.alexpyslar03.productselectorbackend.util.LongIntHashMap;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Эвристический планировщик меню: выбирает заданное количество рецептов так, чтобы
+ * минимизировать число различных покупаемых продуктов и максимально использовать кладовую.
+ * <p>
+ * Поиск выполняется жадным построением плана от нескольких стартовых рецептов с последующим
+ * локальным улучшением обменами. Стартовые рецепты обрабатываются параллельно через fork-join,
+ * время работы ограничено бюджетом на запрос: по его истечении возвращается лучший найденный план.
+ */
+public class MealPlanner {
+
+    /**
+     * Вес продукта из кладовой относительно одной покупки.
+     */
+    private static final int PANTRY_WEIGHT = 1;
+
+    /**
+     * Вес одной покупки.
+     */
+    private static final int PURCHASE_WEIGHT = 2;
+
+    /**
+     * Количество стартовых рецептов, обрабатываемых одной задачей без дальнейшего деления.
+     */
+    private static final int SEEDS_PER_TASK = 2;
+
+    private final ForkJoinPool pool;
+    private final int maxSeeds;
+
+    /**
+     * Создает планировщик.
+     *
+     * @param pool     Пул fork-join для параллельной обработки стартовых рецептов.
+     * @param maxSeeds Максимальное количество стартовых рецептов.
+     */
+    public MealPlanner(ForkJoinPool pool, int maxSeeds) {
+        this.pool = pool;
+        this.maxSeeds = maxSeeds;
+    }
+
+    /**
+     * Подбирает план из count рецептов.
+     *
+     * @param recipeIds      Идентификаторы рецептов-кандидатов.
+     * @param recipeProducts Идентификаторы продуктов каждого кандидата (в том же порядке, что и recipeIds).
+     * @param pantry         Идентификаторы продуктов, имеющихся в кладовой.
+     * @param count          Требуемое количество рецептов.
+     * @param budgetNanos    Бюджет времени на поиск в наносекундах.
+     * @return Лучший найденный план.
+     */
+    public Plan plan(long[] recipeIds, long[][] recipeProducts, Collection<Long> pantry, int count, long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        Problem problem = new Problem(recipeIds, recipeProducts, pantry, Math.min(count, recipeIds.length));
+        if (problem.size == 0) {
+            return new Plan(new long[0], new long[0], new long[0], 0, false);
+        }
+        int[] seeds = problem.seeds(maxSeeds);
+        Solution best = pool.invoke(new SeedTask(problem, seeds, 0, seeds.length, deadline));
+        return problem.toPlan(best);
+    }
+
+    /**
+     * Результат планирования.
+     *
+     * @param recipeIds          Выбранные рецепты.
+     * @param purchaseProductIds Продукты, которые необходимо купить.
+     * @param pantryProductIds   Продукты из кладовой, которые будут использованы.
+     * @param score              Значение целевой функции (больше — лучше).
+     * @param timedOut           Признак того, что поиск был прерван по истечении бюджета времени.
+     */
+    public record Plan(long[] recipeIds, long[] purchaseProductIds, long[] pantryProductIds, int score, boolean timedOut) {
+    }
+
+    /**
+     * Задача fork-join, обрабатывающая диапазон стартовых рецептов и возвращающая лучший план.
+     */
+    private static final class SeedTask extends RecursiveTask<Solution> {
+
+        private final Problem problem;
+        private final int[] seeds;
+        private final int from;
+        private final int to;
+        private final long deadline;
+
+        private SeedTask(Problem problem, int[] seeds, int from, int to, long deadline) {
+            this.problem = problem;
+            this.seeds = seeds;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+        }
+
+        @Override
+        protected Solution compute() {
+            if (to - from <= SEEDS_PER_TASK) {
+                Solution best = null;
+                for (int i = from; i < to; i++) {
+                    // Первый стартовый рецепт обрабатывается всегда, чтобы план был получен даже при исчерпанном бюджете.
+                    if (i > 0 && System.nanoTime() > deadline) {
+                        Solution skipped = new Solution(new int[0], Integer.MIN_VALUE, true);
+                        best = Solution.better(best, skipped);
+                        continue;
+                    }
+                    best = Solution.better(best, problem.search(seeds[i], deadline));
+                }
+                return best;
+            }
+            int mid = (from + to) >>> 1;
+            SeedTask left = new SeedTask(problem, seeds, from, mid, deadline);
+            left.fork();
+            Solution right = new SeedTask(problem, seeds, mid, to, deadline).compute();
+            return Solution.better(left.join(), right);
+        }
+    }
+
+    /**
+     * Найденный план в терминах плотных индексов рецептов.
+     */
+    private record Solution(int[] recipes, int score, boolean timedOut) {
+
+        private static Solution better(Solution a, Solution b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            Solution best = b.score > a.score ? b : a;
+            return a.timedOut || b.timedOut ? new Solution(best.recipes, best.score, true) : best;
+        }
+    }
+
+    /**
+     * Неизменяемое описание задачи: продукты рецептов в виде плотных индексов и признаки наличия в кладовой.
+     */
+    private static final class Problem {
+
+        private final long[] recipeIds;
+        private final int[][] recipeProducts;
+        private final long[] productIds;
+        private final boolean[] inPantry;
+        private final int size;
+
+        private Problem(long[] recipeIds, long[][] products, Collection<Long> pantry, int size) {
+            this.recipeIds = recipeIds;
+            this.size = size;
+            LongIntHashMap index = new LongIntHashMap(recipeIds.length * 4);
+            long[] ids = new long[16];
+            int count = 0;
+            recipeProducts = new int[products.length][];
+            for (int r = 0; r < products.length; r++) {
+                int[] row = new int[products[r].length];
+                for (int i = 0; i < row.length; i++) {
+                    int p = index.get(products[r][i], -1);
+                    if (p < 0) {
+                        p = count++;
+                        if (p == ids.length) {
+                            ids = Arrays.copyOf(ids, ids.length << 1);
+                        }
+                        ids[p] = products[r][i];
+                        index.put(products[r][i], p);
+                    }
+                    row[i] = p;
+                }
+                recipeProducts[r] = row;
+            }
+            productIds = Arrays.copyOf(ids, count);
+            inPantry = new boolean[count];
+            for (Long id : pantry) {
+                int p = index.get(id, -1);
+                if (p >= 0) {
+                    inPantry[p] = true;
+                }
+            }
+        }
+
+        /**
+         * Выбирает стартовые рецепты: в первую очередь те, что используют продукты из кладовой
+         * и продукты, общие для многих кандидатов.
+         */
+        private int[] seeds(int maxSeeds) {
+            int[] frequency = new int[productIds.length];
+            for (int[] row : recipeProducts) {
+                for (int p : row) {
+                    frequency[p]++;
+                }
+            }
+            long[] rank = new long[recipeProducts.length];
+            for (int r = 0; r < recipeProducts.length; r++) {
+                long value = 0;
+                for (int p : recipeProducts[r]) {
+                    value += inPantry[p] ? 2L * recipeProducts.length : frequency[p];
+                }
+                rank[r] = recipeProducts[r].length == 0 ? 0 : value / recipeProducts[r].length;
+            }
+            return IntStream.range(0, recipeProducts.length).boxed()
+                    .sorted(Comparator.comparingLong((Integer r) -> rank[r]).reversed())
+                    .limit(Math.max(1, maxSeeds))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+
+        /**
+         * Строит план жадно от стартового рецепта и улучшает его обменами, пока есть улучшение и не истек бюджет.
+         */
+        private Solution search(int seed, long deadline) {
+            int[] usage = new int[productIds.length];
+            boolean[] chosen = new boolean[recipeProducts.length];
+            int[] plan = new int[size];
+            plan[0] = seed;
+            chosen[seed] = true;
+            int score = add(usage, seed);
+            boolean timedOut = false;
+            for (int k = 1; k < size; k++) {
+                int bestRecipe = -1;
+                int bestGain = Integer.MIN_VALUE;
+                for (int r = 0; r < recipeProducts.length; r++) {
+                    if (!chosen[r]) {
+                        int gain = gain(usage, r);
+                        if (gain > bestGain) {
+                            bestGain = gain;
+                            bestRecipe = r;
+                        }
+                    }
+                }
+                plan[k] = bestRecipe;
+                chosen[bestRecipe] = true;
+                score += add(usage, bestRecipe);
+            }
+            boolean improved = true;
+            while (improved) {
+                improved = false;
+                for (int k = 0; k < size && !improved; k++) {
+                    if (System.nanoTime() > deadline) {
+                        timedOut = true;
+                        break;
+                    }
+                    int removed = plan[k];
+                    int loss = remove(usage, removed);
+                    int bestRecipe = removed;
+                    int bestGain = loss;
+                    for (int r = 0; r < recipeProducts.length; r++) {
+                        if (!chosen[r]) {
+                            int gain = gain(usage, r);
+                            if (gain > bestGain) {
+                                bestGain = gain;
+                                bestRecipe = r;
+                            }
+                        }
+                    }
+                    add(usage, bestRecipe);
+                    if (bestRecipe != removed) {
+                        chosen[removed] = false;
+                        chosen[bestRecipe] = true;
+                        plan[k] = bestRecipe;
+                        score += bestGain - loss;
+                        improved = true;
+                    }
+                }
+                if (timedOut) {
+                    break;
+                }
+            }
+            return new Solution(plan, score, timedOut);
+        }
+
+        /**
+         * Изменение целевой функции при добавлении рецепта к плану с текущим использованием продуктов.
+         */
+        private int gain(int[] usage, int r) {
+            int gain = 0;
+            for (int p : recipeProducts[r]) {
+                if (usage[p] == 0) {
+                    gain += inPantry[p] ? PANTRY_WEIGHT : -PURCHASE_WEIGHT;
+                }
+            }
+            return gain;
+        }
+
+        private int add(int[] usage, int r) {
+            int gain = gain(usage, r);
+            for (int p : recipeProducts[r]) {
+                usage[p]++;
+            }
+            return gain;
+        }
+
+        /**
+         * Удаляет рецепт из плана и возвращает его вклад в целевую функцию.
+         */
+        private int remove(int[] usage, int r) {
+            for (int p : recipeProducts[r]) {
+                usage[p]--;
+            }
+            return gain(usage, r);
+        }
+
+        private Plan toPlan(Solution solution) {
+            boolean[] used = new boolean[productIds.length];
+            long[] recipes = new long[solution.recipes.length];
+            for (int i = 0; i < recipes.length; i++) {
+                recipes[i] = recipeIds[solution.recipes[i]];
+                for (int p : recipeProducts[solution.recipes[i]]) {
+                    used[p] = true;
+                }
+            }
+            long[] purchases = IntStream.range(0, used.length).filter(p -> used[p] && !inPantry[p])
+                    .mapToLong(p -> productIds[p]).sorted().toArray();
+            long[] pantry = IntStream.range(0, used.length).filter(p -> used[p] && inPantry[p])
+                    .mapToLong(p -> productIds[p]).sorted().toArray();
+            return new Plan(recipes, purchases, pantry, solution.score, solution.timedOut);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.entity.CatalogChangeLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с сущностью CatalogChangeLock.
+ * Интерфейс наследует JpaRepository, предоставляя стандартные CRUD операции.
+ */
+@Repository
+public interface CatalogChangeLockRepository extends JpaRepository<CatalogChangeLock, Long> {
+
+    /**
+     * Найти строку блокировки и заблокировать ее до конца текущей транзакции (SELECT ... FOR UPDATE).
+     *
+     * @param id Идентификатор строки блокировки.
+     * @return Идентификатор строки, если она существует.
+     */
+    @Query(value = "SELECT id FROM catalog_change_lock WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(Long id);
+}
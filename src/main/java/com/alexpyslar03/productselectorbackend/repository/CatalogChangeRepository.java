@@ -0,0 +1,51 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.entity.CatalogChange;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Репозиторий для работы с сущностями CatalogChange.
+ * Интерфейс наследует JpaRepository, предоставляя стандартные CRUD операции.
+ */
+@Repository
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    /**
+     * Найти изменения, выполненные после указанного токена, в порядке их выполнения.
+     *
+     * @param id    Токен синхронизации (порядковый номер последнего полученного изменения).
+     * @param limit Максимальное количество записей.
+     * @return Список изменений, упорядоченный по порядковому номеру.
+     */
+    List<CatalogChange> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Найти порядковый номер последнего изменения.
+     *
+     * @return Порядковый номер последнего изменения или 0, если журнал пуст.
+     */
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM CatalogChange c")
+    long findMaxId();
+
+    /**
+     * Удалить записи журнала для указанных сущностей.
+     * Используется для уплотнения журнала перед записью нового изменения.
+     *
+     * @param entityType Тип сущностей.
+     * @param entityIds  Идентификаторы сущностей.
+     * @return Количество удаленных записей.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CatalogChange c WHERE c.entityType = :entityType AND c.entityId IN :entityIds")
+    int deleteByEntityTypeAndEntityIdIn(CatalogChangedEvent.Type entityType, Collection<Long> entityIds);
+}
@@ -0,0 +1,83 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Репозиторий для выборки только указанных атрибутов сущностей.
+ * Запрос выбирает лишь нужные столбцы и возвращает строки значений без создания сущностей
+ * и без загрузки их связей. Строки упорядочены по идентификатору.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class FieldProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Возвращает указанные атрибуты всех сущностей.
+     *
+     * @param type       Класс сущности.
+     * @param attributes Имена выбираемых атрибутов.
+     * @return Строки значений атрибутов в порядке их перечисления.
+     */
+    public List<Object[]> findAll(Class<?> type, List<String> attributes) {
+        return find(type, attributes, null);
+    }
+
+    /**
+     * Возвращает указанные атрибуты сущностей с указанными идентификаторами.
+     *
+     * @param type       Класс сущности.
+     * @param attributes Имена выбираемых атрибутов.
+     * @param ids        Идентификаторы сущностей.
+     * @return Строки значений атрибутов в порядке их перечисления.
+     */
+    public List<Object[]> findByIdIn(Class<?> type, List<String> attributes, Collection<Long> ids) {
+        return find(type, attributes, (query, root) -> root.get("id").in(ids));
+    }
+
+    /**
+     * Возвращает указанные атрибуты сущностей, связанных хотя бы с одной из указанных сущностей.
+     * Связь проверяется подзапросом, поэтому каждая сущность возвращается один раз без DISTINCT по выбранным столбцам.
+     *
+     * @param type        Класс сущности.
+     * @param attributes  Имена выбираемых атрибутов.
+     * @param association Имя атрибута связи многие ко многим.
+     * @param ids         Идентификаторы связанных сущностей.
+     * @return Строки значений атрибутов в порядке их перечисления.
+     */
+    public List<Object[]> findByAssociationIdIn(Class<?> type, List<String> attributes, String association, Collection<Long> ids) {
+        return find(type, attributes, (query, root) -> {
+            Subquery<Long> linked = query.subquery(Long.class);
+            Root<?> owner = linked.from(type);
+            linked.select(owner.<Long>get("id")).where(owner.join(association).get("id").in(ids));
+            return root.get("id").in(linked);
+        });
+    }
+
+    private List<Object[]> find(Class<?> type, List<String> attributes, BiFunction<CriteriaQuery<?>, Root<?>, Predicate> filter) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = criteriaBuilder.createQuery(Object[].class);
+        Root<?> root = query.from(type);
+        query.multiselect(attributes.stream().<Selection<?>>map(root::get).toList());
+        if (filter != null) {
+            query.where(filter.apply(query, root));
+        }
+        query.orderBy(criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
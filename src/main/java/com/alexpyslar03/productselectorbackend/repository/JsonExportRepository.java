@@ -0,0 +1,191 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Репозиторий для выгрузки всех продуктов и рецептов в JSON напрямую из курсора JDBC.
+ * Строки читаются однонаправленным курсором порциями и сразу записываются в генератор, без создания сущностей,
+ * контекста персистентности и списка результатов. Формат совпадает с сериализацией сущностей: поля в порядке
+ * их объявления и массив связанных сущностей, каждая без обратной ссылки. Сущности и связи упорядочены
+ * по идентификатору.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class JsonExportRepository {
+
+    private static final Column[] PRODUCT_COLUMNS = {
+            new Column("id", "id", ColumnWriter.NUMBER),
+            new Column("name", "name", ColumnWriter.STRING),
+            new Column("viewCount", "view_count", ColumnWriter.NUMBER),
+            new Column("cookedCount", "cooked_count", ColumnWriter.NUMBER),
+            new Column("imageHash", "image_hash", ColumnWriter.STRING)
+    };
+
+    private static final Column[] RECIPE_COLUMNS = {
+            new Column("id", "id", ColumnWriter.NUMBER),
+            new Column("name", "name", ColumnWriter.STRING),
+            new Column("description", "description", ColumnWriter.STRING),
+            new Column("vegan", "is_vegan", ColumnWriter.BOOLEAN),
+            new Column("difficultyLevel", "difficulty_level", ColumnWriter.STRING),
+            new Column("rating", "rating", ColumnWriter.NUMBER),
+            new Column("viewCount", "view_count", ColumnWriter.NUMBER),
+            new Column("cookedCount", "cooked_count", ColumnWriter.NUMBER),
+            new Column("imageHash", "image_hash", ColumnWriter.STRING)
+    };
+
+    private static final Export PRODUCTS = new Export(PRODUCT_COLUMNS, "products", "product_id", "recipes",
+            RECIPE_COLUMNS, "recipes", "recipe_id");
+
+    private static final Export RECIPES = new Export(RECIPE_COLUMNS, "recipes", "recipe_id", "products",
+            PRODUCT_COLUMNS, "products", "product_id");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JsonExportRepository(DataSource dataSource, @Value("${app.export.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Записывает массив всех продуктов со связанными рецептами.
+     *
+     * @param gen Генератор JSON.
+     * @throws IOException Если запись не удалась.
+     */
+    public void writeProducts(JsonGenerator gen) throws IOException {
+        write(gen, PRODUCTS);
+    }
+
+    /**
+     * Записывает массив всех рецептов со связанными продуктами.
+     *
+     * @param gen Генератор JSON.
+     * @throws IOException Если запись не удалась.
+     */
+    public void writeRecipes(JsonGenerator gen) throws IOException {
+        write(gen, RECIPES);
+    }
+
+    /**
+     * Выполняет один запрос с соединением сущностей и связей, упорядоченный по владельцу, и группирует
+     * последовательные строки одного владельца в один объект JSON.
+     */
+    private void write(JsonGenerator gen, Export export) throws IOException {
+        int linkedIdColumn = export.columns.length + 1;
+        long[] current = {Long.MIN_VALUE};
+        gen.writeStartArray();
+        try {
+            jdbcTemplate.query(export.sql, rs -> {
+                try {
+                    long id = rs.getLong(1);
+                    if (id != current[0]) {
+                        if (current[0] != Long.MIN_VALUE) {
+                            gen.writeEndArray();
+                            gen.writeEndObject();
+                        }
+                        current[0] = id;
+                        writeObject(gen, rs, export.columns, 1);
+                        gen.writeFieldName(export.linksField);
+                        gen.writeStartArray();
+                    }
+                    rs.getLong(linkedIdColumn);
+                    if (!rs.wasNull()) {
+                        writeObject(gen, rs, export.linkedColumns, linkedIdColumn);
+                        gen.writeEndObject();
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        if (current[0] != Long.MIN_VALUE) {
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        gen.writeEndArray();
+    }
+
+    /**
+     * Начинает объект и записывает поля из столбцов строки, начиная с указанного номера. Объект не закрывается.
+     */
+    private static void writeObject(JsonGenerator gen, ResultSet rs, Column[] columns, int first) throws SQLException, IOException {
+        gen.writeStartObject();
+        for (int i = 0; i < columns.length; i++) {
+            gen.writeFieldName(columns[i].name);
+            columns[i].writer.write(gen, rs, first + i);
+        }
+    }
+
+    /**
+     * Запись значения столбца текущей строки в JSON без промежуточных объектов.
+     */
+    @FunctionalInterface
+    private interface ColumnWriter {
+
+        ColumnWriter NUMBER = (gen, rs, column) -> {
+            long value = rs.getLong(column);
+            if (rs.wasNull()) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(value);
+            }
+        };
+        ColumnWriter STRING = (gen, rs, column) -> gen.writeString(rs.getString(column));
+        ColumnWriter BOOLEAN = (gen, rs, column) -> gen.writeBoolean(rs.getBoolean(column));
+
+        void write(JsonGenerator gen, ResultSet rs, int column) throws SQLException, IOException;
+    }
+
+    /**
+     * Поле JSON с заранее закодированным именем и столбец, из которого оно читается.
+     */
+    private record Column(SerializableString name, String column, ColumnWriter writer) {
+
+        Column(String name, String column, ColumnWriter writer) {
+            this(new SerializedString(name), column, writer);
+        }
+    }
+
+    /**
+     * Описание выгрузки сущности со связанными сущностями и текст ее запроса.
+     */
+    private static final class Export {
+
+        private final Column[] columns;
+        private final Column[] linkedColumns;
+        private final SerializableString linksField;
+        private final String sql;
+
+        private Export(Column[] columns, String table, String joinColumn, String linksField,
+                       Column[] linkedColumns, String linkedTable, String linkedJoinColumn) {
+            this.columns = columns;
+            this.linkedColumns = linkedColumns;
+            this.linksField = new SerializedString(linksField);
+            this.sql = "SELECT " + select("o", columns) + ", " + select("l", linkedColumns)
+                    + " FROM " + table + " o"
+                    + " LEFT JOIN products_recipes pr ON pr." + joinColumn + " = o.id"
+                    + " LEFT JOIN " + linkedTable + " l ON l.id = pr." + linkedJoinColumn
+                    + " ORDER BY o.id, l.id";
+        }
+
+        private static String select(String alias, Column[] columns) {
+            return Arrays.stream(columns).map(c -> alias + "." + c.column()).collect(Collectors.joining(", "));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+/**
+ * Репозиторий для частичного обновления сущностей одним запросом UPDATE.
+ * В отличие от save, не читает сущность перед обновлением и записывает только переданные поля.
+ */
+@Repository
+public class PartialUpdateRepository {
+
+    /**
+     * Атрибут, присваиваемый самому себе, если обновляемых полей нет.
+     * Такой запрос проверяет существование строки и блокирует ее до конца транзакции.
+     */
+    private static final String TOUCH_ATTRIBUTE = "name";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Обновляет указанные поля сущности.
+     *
+     * @param type   Класс сущности.
+     * @param id     Идентификатор сущности.
+     * @param fields Новые значения по именам атрибутов.
+     * @param <T>    Тип сущности.
+     * @return Количество обновленных строк (0, если сущность не существует).
+     */
+    @Transactional
+    public <T> int update(Class<T> type, Long id, Map<String, Object> fields) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<T> update = criteriaBuilder.createCriteriaUpdate(type);
+        Root<T> root = update.from(type);
+        if (fields.isEmpty()) {
+            Path<String> attribute = root.get(TOUCH_ATTRIBUTE);
+            update.set(attribute, attribute);
+        }
+        fields.forEach((attribute, value) -> update.set(attribute, value));
+        update.where(criteriaBuilder.equal(root.get("id"), id));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -1,8 +1,12 @@
 package com.alexpyslar03.productselectorbackend.repository;
 
+import com.alexpyslar03.productselectorbackend.dto.ProductSummary;
 import com.alexpyslar03.productselectorbackend.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
 import java.util.List;
@@ -38,4 +42,74 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
      * @return Множество продуктов, соответствующих указанным идентификаторам.
      */
     Set<Product> findAllByIdIn(List<Long> ids);
+
+    /**
+     * Найти краткие представления продуктов по списку идентификаторов.
+     * Изображения и связи не загружаются.
+     *
+     * @param ids Коллекция идентификаторов продуктов.
+     * @return Список кратких представлений продуктов.
+     */
+    @Query("SELECT new com.alexpyslar03.productselectorbackend.dto.ProductSummary(p.id, p.name) FROM Product p WHERE p.id IN :ids")
+    List<ProductSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    /**
+     * Найти краткие представления всех продуктов, упорядоченные по идентификатору.
+     * Изображения и связи не загружаются.
+     *
+     * @return Список кратких представлений продуктов.
+     */
+    @Query("SELECT new com.alexpyslar03.productselectorbackend.dto.ProductSummary(p.id, p.name) FROM Product p ORDER BY p.id")
+    List<ProductSummary> findAllSummaries();
+
+    /**
+     * Найти идентификаторы всех продуктов.
+     *
+     * @return Список идентификаторов продуктов.
+     */
+    @Query("SELECT p.id FROM Product p")
+    List<Long> findAllIds();
+
+    /**
+     * Найти идентификаторы рецептов, в которых используется продукт.
+     *
+     * @param id Идентификатор продукта.
+     * @return Список идентификаторов рецептов, связанных с продуктом.
+     */
+    @Query("SELECT r.id FROM Product p JOIN p.recipes r WHERE p.id = :id")
+    List<Long> findRecipeIdsById(Long id);
+
+    /**
+     * Удалить связи продукта с указанными рецептами.
+     *
+     * @param id        Идентификатор продукта.
+     * @param recipeIds Идентификаторы рецептов, связи с которыми удаляются.
+     * @return Количество удаленных связей.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM products_recipes WHERE product_id = :id AND recipe_id IN :recipeIds", nativeQuery = true)
+    int deleteRecipeLinks(Long id, Collection<Long> recipeIds);
+
+    /**
+     * Добавить связи продукта с указанными рецептами.
+     * Связи создаются только для существующих рецептов.
+     *
+     * @param id        Идентификатор продукта.
+     * @param recipeIds Идентификаторы рецептов, связи с которыми добавляются.
+     * @return Количество добавленных связей.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO products_recipes (product_id, recipe_id) SELECT :id, r.id FROM recipes r WHERE r.id IN :recipeIds", nativeQuery = true)
+    int insertRecipeLinks(Long id, Collection<Long> recipeIds);
+
+    /**
+     * Найти идентификаторы существующих продуктов из списка.
+     *
+     * @param ids Список идентификаторов продуктов.
+     * @return Список идентификаторов продуктов, которые существуют.
+     */
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :ids")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
 }
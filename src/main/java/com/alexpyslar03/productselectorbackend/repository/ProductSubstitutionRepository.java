@@ -0,0 +1,60 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.dto.SubstitutionDTO;
+import com.alexpyslar03.productselectorbackend.entity.ProductSubstitution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Репозиторий для работы с сущностями ProductSubstitution.
+ * Интерфейс наследует JpaRepository, предоставляя стандартные CRUD операции.
+ */
+@Repository
+public interface ProductSubstitutionRepository extends JpaRepository<ProductSubstitution, Long> {
+
+    /**
+     * Найти замену по заменяемому продукту и продукту-заменителю.
+     *
+     * @param productId    Идентификатор заменяемого продукта.
+     * @param substituteId Идентификатор продукта-заменителя.
+     * @return Замена, если она существует.
+     */
+    Optional<ProductSubstitution> findByProductIdAndSubstituteId(Long productId, Long substituteId);
+
+    /**
+     * Найти все замены продукта.
+     *
+     * @param productId Идентификатор заменяемого продукта.
+     * @return Список замен продукта без загрузки сущностей.
+     */
+    @Query("SELECT new com.alexpyslar03.productselectorbackend.dto.SubstitutionDTO(s.product.id, s.substitute.id, s.weight) " +
+            "FROM ProductSubstitution s WHERE s.product.id = :productId")
+    List<SubstitutionDTO> findEdgesByProductId(Long productId);
+
+    /**
+     * Найти все ребра графа замен.
+     *
+     * @return Список всех замен без загрузки сущностей.
+     */
+    @Query("SELECT new com.alexpyslar03.productselectorbackend.dto.SubstitutionDTO(s.product.id, s.substitute.id, s.weight) " +
+            "FROM ProductSubstitution s")
+    List<SubstitutionDTO> findAllEdges();
+
+    /**
+     * Удалить все замены, в которых участвуют указанные продукты.
+     *
+     * @param productIds Идентификаторы продуктов.
+     * @return Количество удаленных замен.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProductSubstitution s WHERE s.product.id IN :productIds OR s.substitute.id IN :productIds")
+    int deleteAllByProductIdIn(Collection<Long> productIds);
+}
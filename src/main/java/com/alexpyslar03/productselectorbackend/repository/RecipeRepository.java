@@ -1,10 +1,18 @@
 package com.alexpyslar03.productselectorbackend.repository;
 
+import com.alexpyslar03.productselectorbackend.dto.RecipeDetailsDTO;
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
 import com.alexpyslar03.productselectorbackend.entity.Recipe;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
@@ -28,8 +36,51 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
      * @param ids Список идентификаторов продуктов.
      * @return Список рецептов, содержащих указанные продукты.
      */
+    @Transactional(readOnly = true)
     List<Recipe> findByProductsIdIn(List<Long> ids);
 
+    /**
+     * Найти рецепт по идентификатору вместе с продуктами одним запросом.
+     *
+     * @param id Идентификатор рецепта.
+     * @return Рецепт с загруженными продуктами или пустой Optional, если рецепт не найден.
+     */
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.products WHERE r.id = :id")
+    Optional<Recipe> findWithProductsById(Long id);
+
+    /**
+     * Найти рецепты, содержащие хотя бы один из указанных продуктов, вместе со всеми их продуктами одним запросом.
+     *
+     * @param ids Список идентификаторов продуктов.
+     * @return Список рецептов без повторов в порядке возрастания идентификаторов.
+     */
+    @Query("SELECT DISTINCT r FROM Recipe r LEFT JOIN FETCH r.products " +
+            "WHERE r.id IN (SELECT r2.id FROM Recipe r2 JOIN r2.products p2 WHERE p2.id IN :ids) ORDER BY r.id")
+    List<Recipe> findWithProductsByProductsIdIn(Collection<Long> ids);
+
+    /**
+     * Найти рецепт по идентификатору и преобразовать его в неизменяемое представление в одной транзакции.
+     *
+     * @param id Идентификатор рецепта.
+     * @return Представление рецепта или пустой Optional, если рецепт не найден.
+     */
+    @Transactional(readOnly = true)
+    default Optional<RecipeDetailsDTO> findDetailsById(Long id) {
+        return findWithProductsById(id).map(RecipeDetailsDTO::of);
+    }
+
+    /**
+     * Найти рецепты, содержащие хотя бы один из указанных продуктов, и преобразовать их в неизменяемые
+     * представления в одной транзакции.
+     *
+     * @param ids Список идентификаторов продуктов.
+     * @return Список представлений рецептов в порядке возрастания идентификаторов.
+     */
+    @Transactional(readOnly = true)
+    default List<RecipeDetailsDTO> findDetailsByProductsIdIn(Collection<Long> ids) {
+        return findWithProductsByProductsIdIn(ids).stream().map(RecipeDetailsDTO::of).toList();
+    }
+
     /**
      * Найти рецепты по списку идентификаторов.
      *
@@ -37,4 +88,143 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
      * @return Множество рецептов, соответствующих указанным идентификаторам.
      */
     Set<Recipe> findAllByIdIn(List<Long> ids);
+
+    /**
+     * Найти все связи между рецептами и продуктами.
+     * Возвращает только пары идентификаторов без загрузки сущностей.
+     *
+     * @return Список связей из таблицы products_recipes.
+     */
+    @Query("SELECT new com.alexpyslar03.productselectorbackend.dto.RecipeProductLink(r.id, p.id) FROM Recipe r JOIN r.products p")
+    List<RecipeProductLink> findAllLinks();
+
+    /**
+     * Найти идентификаторы рецептов по признаку веганства и уровню сложности.
+     *
+     * @param vegan            Допустимые значения признака веганства.
+     * @param difficultyLevels Допустимые уровни сложности.
+     * @return Список идентификаторов подходящих рецептов.
+     */
+    @Query("SELECT r.id FROM Recipe r WHERE r.vegan IN :vegan AND r.difficultyLevel IN :difficultyLevels")
+    List<Long> findIdsByVeganInAndDifficultyLevelIn(Collection<Boolean> vegan, Collection<Recipe.DifficultyLevel> difficultyLevels);
+
+    /**
+     * Найти идентификаторы всех рецептов.
+     *
+     * @return Список идентификаторов рецептов.
+     */
+    @Query("SELECT r.id FROM Recipe r")
+    List<Long> findAllIds();
+
+    /**
+     * Найти краткие сведения о рецептах по списку идентификаторов.
+     *
+     * @param ids Список идентификаторов рецептов.
+     * @return Список кратких сведений о рецептах без загрузки изображений.
+     */
+    @Query("SELECT new com.alexpyslar03.productselectorbackend.dto.RecipeSummary(r.id, r.name, r.description, r.vegan, r.difficultyLevel, r.rating) " +
+            "FROM Recipe r WHERE r.id IN :ids")
+    List<RecipeSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    /**
+     * Найти краткие сведения обо всех рецептах, упорядоченные по идентификатору.
+     *
+     * @return Список кратких сведений о рецептах без загрузки изображений.
+     */
+    @Query("SELECT new com.alexpyslar03.productselectorbackend.dto.RecipeSummary(r.id, r.name, r.description, r.vegan, r.difficultyLevel, r.rating) " +
+            "FROM Recipe r ORDER BY r.id")
+    List<RecipeSummary> findAllSummaries();
+
+    /**
+     * Найти связи указанных рецептов с продуктами.
+     *
+     * @param ids Список идентификаторов рецептов.
+     * @return Список связей из таблицы products_recipes.
+     */
+    @Query("SELECT new com.alexpyslar03.productselectorbackend.dto.RecipeProductLink(r.id, p.id) FROM Recipe r JOIN r.products p WHERE r.id IN :ids")
+    List<RecipeProductLink> findLinksByRecipeIdIn(Collection<Long> ids);
+
+    /**
+     * Найти связи указанных продуктов с рецептами.
+     *
+     * @param ids Список идентификаторов продуктов.
+     * @return Список связей из таблицы products_recipes.
+     */
+    @Query("SELECT new com.alexpyslar03.productselectorbackend.dto.RecipeProductLink(r.id, p.id) FROM Recipe r JOIN r.products p WHERE p.id IN :ids")
+    List<RecipeProductLink> findLinksByProductIdIn(Collection<Long> ids);
+
+    /**
+     * Найти все связи рецептов, в которых используется хотя бы один из указанных продуктов.
+     *
+     * @param ids Список идентификаторов продуктов.
+     * @return Список связей найденных рецептов со всеми их продуктами.
+     */
+    @Query("SELECT new com.alexpyslar03.productselectorbackend.dto.RecipeProductLink(r.id, p.id) FROM Recipe r JOIN r.products p " +
+            "WHERE r.id IN (SELECT r2.id FROM Recipe r2 JOIN r2.products p2 WHERE p2.id IN :ids)")
+    List<RecipeProductLink> findRecipeLinksByProductIdIn(Collection<Long> ids);
+
+    /**
+     * Найти идентификаторы продуктов рецепта.
+     *
+     * @param id Идентификатор рецепта.
+     * @return Список идентификаторов продуктов, связанных с рецептом.
+     */
+    @Query("SELECT p.id FROM Recipe r JOIN r.products p WHERE r.id = :id")
+    List<Long> findProductIdsById(Long id);
+
+    /**
+     * Удалить связи рецепта с указанными продуктами.
+     *
+     * @param id         Идентификатор рецепта.
+     * @param productIds Идентификаторы продуктов, связи с которыми удаляются.
+     * @return Количество удаленных связей.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM products_recipes WHERE recipe_id = :id AND product_id IN :productIds", nativeQuery = true)
+    int deleteProductLinks(Long id, Collection<Long> productIds);
+
+    /**
+     * Удалить все связи указанных рецептов с продуктами.
+     *
+     * @param ids Идентификаторы рецептов.
+     * @return Количество удаленных связей.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM products_recipes WHERE recipe_id IN :ids", nativeQuery = true)
+    int deleteLinksByRecipeIdIn(Collection<Long> ids);
+
+    /**
+     * Удалить все связи указанных продуктов с рецептами.
+     *
+     * @param productIds Идентификаторы продуктов.
+     * @return Количество удаленных связей.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM products_recipes WHERE product_id IN :productIds", nativeQuery = true)
+    int deleteLinksByProductIdIn(Collection<Long> productIds);
+
+    /**
+     * Добавить связи рецепта с указанными продуктами.
+     * Связи создаются только для существующих продуктов.
+     *
+     * @param id         Идентификатор рецепта.
+     * @param productIds Идентификаторы продуктов, связи с которыми добавляются.
+     * @return Количество добавленных связей.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO products_recipes (product_id, recipe_id) SELECT p.id, :id FROM products p WHERE p.id IN :productIds", nativeQuery = true)
+    int insertProductLinks(Long id, Collection<Long> productIds);
+
+    /**
+     * Найти идентификаторы существующих рецептов из списка.
+     *
+     * @param ids Список идентификаторов рецептов.
+     * @return Список идентификаторов рецептов, которые существуют.
+     */
+    @Query("SELECT r.id FROM Recipe r WHERE r.id IN :ids")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
 }
@@ -2,8 +2,10 @@ package com.alexpyslar03.productselectorbackend.repository;
 
 import com.alexpyslar03.productselectorbackend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -20,4 +22,13 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Список пользователей, соответствующих указанным идентификаторам.
      */
     List<User> findAllByIdIn(List<Long> ids);
+
+    /**
+     * Найти идентификаторы существующих пользователей из списка.
+     *
+     * @param ids Список идентификаторов пользователей.
+     * @return Список идентификаторов пользователей, которые существуют.
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findIdsByIdIn(Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.index.CatalogReadModel;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import com.alexpyslar03.productselectorbackend.snapshot.CatalogSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Сервисный класс для модели каталога, используемой на горячих путях чтения.
+ * Модель неизменяема: запросы читают текущую версию без блокировок, а изменения каталога применяются
+ * к копии, которая затем атомарно заменяет текущую версию.
+ * <p>
+ * Поток, зафиксировавший изменение, только ставит событие в очередь. События применяются отдельным потоком
+ * пакетами: все события, накопившиеся за время применения предыдущего пакета, дают одну новую копию модели.
+ * Из событий берутся только идентификаторы измененных сущностей, а их сведения и связи читаются из базы данных
+ * в потоке применения.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogReadModelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogReadModelService.class);
+
+    private final RecipeRepository recipeRepository;
+    private final ProductRepository productRepository;
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    private final AtomicReference<CatalogReadModel> model = new AtomicReference<>(CatalogReadModel.EMPTY);
+    private final ExecutorService applier = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("catalog-read-model").factory());
+
+    /**
+     * Признак завершения первоначального построения модели.
+     */
+    private boolean built;
+
+    /**
+     * Признак запущенного применения событий.
+     */
+    private boolean applying;
+
+    /**
+     * События, еще не примененные к модели: поступившие во время построения или применения предыдущего пакета.
+     */
+    private final List<CatalogChangedEvent> pending = new ArrayList<>();
+
+    /**
+     * Возвращает текущую версию модели каталога.
+     *
+     * @return Модель каталога.
+     */
+    public CatalogReadModel current() {
+        return model.get();
+    }
+
+    /**
+     * Строит модель после запуска приложения.
+     * Если есть пригодный снимок каталога, модель строится по нему и догоняет изменения после версии снимка,
+     * иначе — по сведениям о рецептах и таблице products_recipes. События, поступившие во время построения,
+     * применяются после него.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.nanoTime();
+        CatalogSnapshot snapshot = catalogSnapshotService.load();
+        if (snapshot == null) {
+            model.set(CatalogReadModel.of(recipeRepository.findAllSummaries(), productRepository.findAllIds(),
+                    recipeRepository.findAllLinks()));
+        } else {
+            model.set(CatalogReadModel.of(snapshot));
+            apply(catalogSnapshotService.changesSince(snapshot.version()));
+        }
+        CatalogReadModel current = model.get();
+        logger.info("Модель каталога построена за {} мс: {} рецептов, {} продуктов, {} связей, {} байт.",
+                (System.nanoTime() - start) / 1_000_000, current.recipeCount(), current.productCount(),
+                current.linkCount(), current.sizeInBytes());
+        synchronized (pending) {
+            built = true;
+            schedule();
+        }
+    }
+
+    /**
+     * Ставит изменение каталога в очередь применения после фиксации транзакции.
+     *
+     * @param event Событие изменения каталога.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.type() == CatalogChangedEvent.Type.USER) {
+            return;
+        }
+        synchronized (pending) {
+            pending.add(event);
+            schedule();
+        }
+    }
+
+    /**
+     * Останавливает поток применения изменений при остановке приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        applier.shutdownNow();
+    }
+
+    /**
+     * Запускает применение накопленных событий, если модель построена и применение еще не запущено.
+     * Вызывается под монитором очереди.
+     */
+    private void schedule() {
+        if (built && !applying && !pending.isEmpty()) {
+            applying = true;
+            applier.execute(this::drain);
+        }
+    }
+
+    /**
+     * Применяет накопленные события пакетами, пока очередь не опустеет.
+     */
+    private void drain() {
+        while (true) {
+            List<CatalogChangedEvent> batch;
+            synchronized (pending) {
+                if (pending.isEmpty()) {
+                    applying = false;
+                    return;
+                }
+                batch = new ArrayList<>(pending);
+                pending.clear();
+            }
+            try {
+                apply(batch);
+            } catch (RuntimeException ex) {
+                logger.error("Не удалось применить к модели каталога {} изменений.", batch.size(), ex);
+            }
+        }
+    }
+
+    /**
+     * Применяет события к одной копии модели. Из событий берутся только измененные сущности: сведения о рецептах,
+     * существование продуктов и связи затронутых рецептов читаются из базы данных. Наборы связей в событиях
+     * вычислены транзакциями до фиксации и могут не учитывать одновременное изменение связей с другой стороны,
+     * а чтение после фиксации в единственном потоке применения гарантирует, что последним применяется
+     * самое позднее состояние. Сущности, которых уже нет в базе данных, считаются удаленными.
+     */
+    private void apply(List<CatalogChangedEvent> events) {
+        CatalogReadModel current = model.get();
+        Set<Long> recipeIds = new HashSet<>();
+        Set<Long> deletedRecipeIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        Set<Long> deletedProductIds = new HashSet<>();
+        Set<Long> relinkedRecipeIds = new HashSet<>();
+        Set<Long> relinkedProductIds = new HashSet<>();
+        for (CatalogChangedEvent event : events) {
+            boolean recipe = event.type() == CatalogChangedEvent.Type.RECIPE;
+            for (Long id : event.ids()) {
+                if (event.action() == CatalogChangedEvent.Action.DELETE) {
+                    (recipe ? recipeIds : productIds).remove(id);
+                    (recipe ? relinkedRecipeIds : relinkedProductIds).remove(id);
+                    (recipe ? deletedRecipeIds : deletedProductIds).add(id);
+                    continue;
+                }
+                (recipe ? recipeIds : productIds).add(id);
+                if (event.linksOf(id) != null) {
+                    (recipe ? relinkedRecipeIds : relinkedProductIds).add(id);
+                }
+            }
+        }
+        if (recipeIds.isEmpty() && deletedRecipeIds.isEmpty() && productIds.isEmpty() && deletedProductIds.isEmpty()) {
+            return;
+        }
+        Map<Long, Set<Long>> recipeProducts = currentLinks(current, relinkedRecipeIds, relinkedProductIds);
+        List<RecipeSummary> recipes = recipeIds.isEmpty() ? List.of() : recipeRepository.findSummariesByIdIn(recipeIds);
+        recipes.forEach(summary -> recipeIds.remove(summary.id()));
+        deletedRecipeIds.addAll(recipeIds);
+        Set<Long> products = productIds.isEmpty() ? Set.of() : new HashSet<>(productRepository.findIdsByIdIn(productIds));
+        productIds.removeAll(products);
+        deletedProductIds.addAll(productIds);
+        model.set(current.with(new CatalogReadModel.Delta(deletedRecipeIds, recipes, deletedProductIds, products, recipeProducts)));
+    }
+
+    /**
+     * Читает текущие наборы продуктов рецептов, связи которых изменились: измененных рецептов, а также рецептов,
+     * с которыми измененные продукты были связаны в модели или связаны теперь.
+     */
+    private Map<Long, Set<Long>> currentLinks(CatalogReadModel current, Set<Long> recipeIds, Set<Long> productIds) {
+        if (!productIds.isEmpty()) {
+            for (Long productId : productIds) {
+                for (long recipeId : current.recipesOf(productId)) {
+                    recipeIds.add(recipeId);
+                }
+            }
+            recipeRepository.findLinksByProductIdIn(productIds).forEach(link -> recipeIds.add(link.recipeId()));
+        }
+        Map<Long, Set<Long>> recipeProducts = new HashMap<>();
+        if (recipeIds.isEmpty()) {
+            return recipeProducts;
+        }
+        recipeIds.forEach(id -> recipeProducts.put(id, new HashSet<>()));
+        recipeRepository.findLinksByRecipeIdIn(recipeIds)
+                .forEach(link -> recipeProducts.get(link.recipeId()).add(link.productId()));
+        return recipeProducts;
+    }
+}
@@ -0,0 +1,152 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.ProductSummary;
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
+import com.alexpyslar03.productselectorbackend.entity.CatalogChange;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.repository.CatalogChangeRepository;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import com.alexpyslar03.productselectorbackend.snapshot.CatalogSnapshot;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Сервисный класс для снимков каталога на локальном диске.
+ * Периодически сохраняет компактный двоичный снимок продуктов, рецептов и их связей, помеченный версией
+ * журнала изменений. При запуске снимок отображается в память, что позволяет построить индексы без полного
+ * чтения каталога из базы данных, после чего догоняются только изменения, выполненные после версии снимка.
+ * Транзакции сервиса не помечаются только для чтения, чтобы выполняться на основной базе данных:
+ * снимок и догоняемые изменения должны соответствовать актуальному журналу, а реплика может отставать.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    private final RecipeRepository recipeRepository;
+    private final ProductRepository productRepository;
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final boolean enabled;
+    private final Path path;
+
+    public CatalogSnapshotService(RecipeRepository recipeRepository,
+                                  ProductRepository productRepository,
+                                  CatalogChangeRepository catalogChangeRepository,
+                                  @Value("${app.snapshot.enabled}") boolean enabled,
+                                  @Value("${app.snapshot.path}") String path) {
+        this.recipeRepository = recipeRepository;
+        this.productRepository = productRepository;
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.enabled = enabled;
+        this.path = Path.of(path);
+    }
+
+    /**
+     * Периодически записывает снимок каталога.
+     * Версия и данные читаются в одной транзакции с уровнем изоляции REPEATABLE READ. Записи журнала фиксируются
+     * в порядке номеров (см. CatalogSyncService.onCatalogChanged), поэтому последний номер, видимый транзакции,
+     * безопасен как версия: снимок содержит все изменения журнала до нее включительно, а изменения,
+     * зафиксированные позже, получат большие номера и будут догнаны при загрузке.
+     */
+    @Scheduled(initialDelayString = "${app.snapshot.interval}", fixedDelayString = "${app.snapshot.interval}")
+    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    public void write() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long version = catalogChangeRepository.findMaxId();
+        List<ProductSummary> products = productRepository.findAllSummaries();
+        List<RecipeSummary> recipes = recipeRepository.findAllSummaries();
+        List<RecipeProductLink> links = recipeRepository.findAllLinks();
+        try {
+            CatalogSnapshot.write(path, version, products, recipes, links);
+            logger.info("Снимок каталога версии {} записан за {} мс: {} продуктов, {} рецептов, {} связей.",
+                    version, (System.nanoTime() - start) / 1_000_000, products.size(), recipes.size(), links.size());
+        } catch (IOException ex) {
+            logger.warn("Не удалось записать снимок каталога в {}.", path, ex);
+        }
+    }
+
+    /**
+     * Открывает последний записанный снимок каталога.
+     * Снимок не используется, если он поврежден, журнал изменений пуст или версия снимка больше
+     * последней версии журнала (например, снимок снят с другой базы данных).
+     *
+     * @return Снимок каталога или null, если пригодного снимка нет.
+     */
+    @Transactional
+    public CatalogSnapshot load() {
+        if (!enabled || !Files.exists(path)) {
+            return null;
+        }
+        try {
+            CatalogSnapshot snapshot = CatalogSnapshot.open(path);
+            long latest = catalogChangeRepository.findMaxId();
+            if (latest == 0 || snapshot.version() > latest) {
+                logger.warn("Снимок каталога версии {} не соответствует журналу изменений (версия {}) и не будет использован.",
+                        snapshot.version(), latest);
+                return null;
+            }
+            return snapshot;
+        } catch (IOException ex) {
+            logger.warn("Не удалось открыть снимок каталога {}.", path, ex);
+            return null;
+        }
+    }
+
+    /**
+     * Возвращает изменения каталога, выполненные после версии снимка, в виде событий с текущими связями сущностей.
+     *
+     * @param version Версия снимка.
+     * @return События удаления и обновления продуктов и рецептов.
+     */
+    @Transactional
+    public List<CatalogChangedEvent> changesSince(long version) {
+        Map<CatalogChangedEvent.Type, Set<Long>> upserted = new EnumMap<>(CatalogChangedEvent.Type.class);
+        Map<CatalogChangedEvent.Type, Set<Long>> deleted = new EnumMap<>(CatalogChangedEvent.Type.class);
+        for (CatalogChange change : catalogChangeRepository.findByIdGreaterThanOrderByIdAsc(version, Limit.unlimited())) {
+            (change.getAction() == CatalogChangedEvent.Action.DELETE ? deleted : upserted)
+                    .computeIfAbsent(change.getEntityType(), k -> new TreeSet<>())
+                    .add(change.getEntityId());
+        }
+        List<CatalogChangedEvent> events = new ArrayList<>();
+        deleted.forEach((type, ids) -> events.add(CatalogChangedEvent.deleted(type, ids)));
+        Set<Long> recipeIds = upserted.getOrDefault(CatalogChangedEvent.Type.RECIPE, Set.of());
+        if (!recipeIds.isEmpty()) {
+            events.add(upserted(CatalogChangedEvent.Type.RECIPE, recipeIds,
+                    recipeRepository.findLinksByRecipeIdIn(recipeIds), RecipeProductLink::recipeId, RecipeProductLink::productId));
+        }
+        Set<Long> productIds = upserted.getOrDefault(CatalogChangedEvent.Type.PRODUCT, Set.of());
+        if (!productIds.isEmpty()) {
+            events.add(upserted(CatalogChangedEvent.Type.PRODUCT, productIds,
+                    recipeRepository.findLinksByProductIdIn(productIds), RecipeProductLink::productId, RecipeProductLink::recipeId));
+        }
+        return events;
+    }
+
+    /**
+     * Создает событие обновления сущностей с их полными наборами связей (пустыми для сущностей без связей).
+     */
+    private static CatalogChangedEvent upserted(CatalogChangedEvent.Type type, Set<Long> ids, List<RecipeProductLink> links,
+                                                Function<RecipeProductLink, Long> owner, Function<RecipeProductLink, Long> linked) {
+        Map<Long, Set<Long>> grouped = new HashMap<>();
+        ids.forEach(id -> grouped.put(id, new HashSet<>()));
+        links.forEach(link -> grouped.get(owner.apply(link)).add(linked.apply(link)));
+        return new CatalogChangedEvent(type, CatalogChangedEvent.Action.UPSERT, List.copyOf(ids), grouped);
+    }
+}
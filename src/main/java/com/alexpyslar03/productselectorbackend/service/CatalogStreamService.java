@@ -0,0 +1,367 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.CatalogNotificationDTO;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Сервисный класс для рассылки изменений каталога подписчикам через Server-Sent Events.
+ * <p>
+ * Поток, зафиксировавший изменение, только ставит событие в очередь, а рассылка по подписчикам выполняется
+ * отдельным потоком, поэтому стоимость записи не зависит от количества подписчиков.
+ * Каждый подписчик имеет ограниченный буфер неотправленных уведомлений, в котором повторные изменения
+ * одной сущности схлопываются в одно. Отправка выполняется отдельным виртуальным потоком подписчика,
+ * поэтому операции записи никогда не ждут медленных клиентов: при переполнении буфера подписчик отключается
+ * и может переподключиться с заголовком Last-Event-ID. Последние уведомления хранятся в кольцевом буфере
+ * для продолжения потока после переподключения; если продолжение невозможно, клиенту отправляется событие
+ * reset, после которого он должен выполнить синхронизацию через /sync.
+ */
+@Service
+public class CatalogStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogStreamService.class);
+
+    /**
+     * Идентификатор экземпляра приложения, входящий в идентификаторы событий.
+     * Позволяет отличить Last-Event-ID, выданный до перезапуска, когда нумерация событий начинается заново.
+     */
+    private final long instanceId = System.currentTimeMillis();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Executor dispatcher;
+    private final Notification[] replay;
+    private final int bufferSize;
+    private final long timeoutMillis;
+    private long sequence;
+
+    /**
+     * События, еще не разосланные подписчикам.
+     */
+    private final List<CatalogChangedEvent> events = new ArrayList<>();
+
+    /**
+     * Признак запущенной рассылки. Изменяется под монитором очереди событий.
+     */
+    private boolean dispatching;
+
+    @Autowired
+    public CatalogStreamService(@Value("${app.stream.buffer-size}") int bufferSize,
+                                @Value("${app.stream.replay-size}") int replaySize,
+                                @Value("${app.stream.timeout}") Duration timeout) {
+        this(bufferSize, replaySize, timeout,
+                Executors.newSingleThreadExecutor(Thread.ofVirtual().name("catalog-stream").factory()));
+    }
+
+    /**
+     * Создает сервис с указанным исполнителем рассылки событий.
+     *
+     * @param dispatcher Исполнитель, в котором события раскладываются по буферам подписчиков.
+     */
+    CatalogStreamService(int bufferSize, int replaySize, Duration timeout, Executor dispatcher) {
+        this.bufferSize = bufferSize;
+        this.replay = new Notification[replaySize];
+        this.timeoutMillis = timeout.toMillis();
+        this.dispatcher = dispatcher;
+    }
+
+    /**
+     * Регистрирует нового подписчика.
+     * Если передан идентификатор последнего полученного события, подписчику сначала отправляются
+     * пропущенные уведомления (со схлопыванием по сущностям) или событие reset, если они уже недоступны.
+     *
+     * @param lastEventId Идентификатор последнего полученного клиентом события или null.
+     * @return Поток событий подписчика.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(timeoutMillis), lastEventId);
+    }
+
+    /**
+     * Регистрирует подписчика с указанным потоком событий.
+     *
+     * @param emitter     Поток событий подписчика.
+     * @param lastEventId Идентификатор последнего полученного клиентом события или null.
+     * @return Поток событий подписчика.
+     */
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(ex -> unsubscribe(subscriber));
+        synchronized (replay) {
+            if (lastEventId != null && !replayFrom(subscriber, lastEventId)) {
+                // Пропущенные уведомления недоступны: вместо них клиент получает указание выполнить полную синхронизацию.
+                subscriber.restart();
+            }
+            subscribers.add(subscriber);
+        }
+        logger.info("Новый подписчик на изменения каталога, всего подписчиков: {}.", subscribers.size());
+        return emitter;
+    }
+
+    /**
+     * Ставит изменение каталога в очередь рассылки подписчикам после фиксации транзакции.
+     *
+     * @param event Событие изменения каталога.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        synchronized (events) {
+            events.add(event);
+            if (!dispatching) {
+                dispatching = true;
+                dispatcher.execute(this::dispatch);
+            }
+        }
+    }
+
+    /**
+     * Периодически отправляет подписчикам комментарий, чтобы обнаруживать разорванные соединения
+     * и не давать промежуточным прокси закрывать неактивные потоки.
+     */
+    @Scheduled(fixedDelayString = "${app.stream.heartbeat-interval}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::ping);
+    }
+
+    /**
+     * Закрывает потоки всех подписчиков при остановке приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        if (dispatcher instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+        senders.shutdownNow();
+    }
+
+    /**
+     * Рассылает накопленные события по порядку, пока очередь не опустеет.
+     */
+    private void dispatch() {
+        while (true) {
+            List<CatalogChangedEvent> batch;
+            synchronized (events) {
+                if (events.isEmpty()) {
+                    dispatching = false;
+                    return;
+                }
+                batch = new ArrayList<>(events);
+                events.clear();
+            }
+            try {
+                batch.forEach(this::publish);
+            } catch (RuntimeException ex) {
+                logger.error("Не удалось разослать подписчикам {} изменений каталога.", batch.size(), ex);
+            }
+        }
+    }
+
+    /**
+     * Нумерует уведомления об изменении, сохраняет их в кольцевом буфере и добавляет в буферы подписчиков.
+     */
+    private void publish(CatalogChangedEvent event) {
+        synchronized (replay) {
+            for (Long id : event.ids()) {
+                Notification notification = new Notification(++sequence,
+                        new CatalogNotificationDTO(event.type(), event.action(), id));
+                replay[(int) (notification.sequence % replay.length)] = notification;
+                for (Subscriber subscriber : subscribers) {
+                    subscriber.offer(notification);
+                }
+            }
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            subscriber.close();
+            logger.info("Подписчик на изменения каталога отключен, всего подписчиков: {}.", subscribers.size());
+        }
+    }
+
+    /**
+     * Помещает в буфер подписчика уведомления, выполненные после указанного события.
+     * Вызывается под блокировкой кольцевого буфера.
+     *
+     * @return false, если продолжение потока с указанного события невозможно.
+     */
+    private boolean replayFrom(Subscriber subscriber, String lastEventId) {
+        long last;
+        try {
+            int separator = lastEventId.indexOf('-');
+            if (separator < 0 || Long.parseLong(lastEventId.substring(0, separator)) != instanceId) {
+                return false;
+            }
+            last = Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException ex) {
+            return false;
+        }
+        if (last < 0 || last > sequence || sequence - last > replay.length) {
+            return false;
+        }
+        if (sequence == last) {
+            return true;
+        }
+        for (long s = last + 1; s <= sequence; s++) {
+            subscriber.offer(replay[(int) (s % replay.length)]);
+        }
+        return !subscriber.overflowed;
+    }
+
+    /**
+     * Уведомление с порядковым номером.
+     */
+    private record Notification(long sequence, CatalogNotificationDTO data) {
+
+        private Key key() {
+            return new Key(data.getType(), data.getId());
+        }
+    }
+
+    /**
+     * Ключ схлопывания уведомлений: тип и идентификатор сущности.
+     */
+    private record Key(CatalogChangedEvent.Type type, Long id) {
+    }
+
+    /**
+     * Подписчик с буфером неотправленных уведомлений.
+     * Состояние буфера защищено монитором подписчика; запись в соединение выполняется только потоком отправки.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final LinkedHashMap<Key, Notification> pending = new LinkedHashMap<>();
+        private boolean draining;
+        private boolean resetRequired;
+        private boolean pingRequired;
+        private boolean overflowed;
+        private boolean closed;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * Добавляет уведомление в буфер, заменяя неотправленное уведомление о той же сущности.
+         * Никогда не блокируется на отправке: при переполнении буфера подписчик помечается для отключения.
+         */
+        private synchronized void offer(Notification notification) {
+            if (closed || overflowed) {
+                return;
+            }
+            Key key = notification.key();
+            // Уведомление перемещается в конец, чтобы идентификаторы отправляемых событий возрастали.
+            pending.remove(key);
+            pending.put(key, notification);
+            if (pending.size() > bufferSize) {
+                overflowed = true;
+                pending.clear();
+            }
+            schedule();
+        }
+
+        private synchronized void restart() {
+            overflowed = false;
+            pending.clear();
+            resetRequired = true;
+            schedule();
+        }
+
+        private synchronized void ping() {
+            pingRequired = true;
+            schedule();
+        }
+
+        private synchronized void close() {
+            closed = true;
+            pending.clear();
+        }
+
+        /**
+         * Запускает поток отправки, если он еще не запущен.
+         */
+        private synchronized void schedule() {
+            if (!draining && !closed) {
+                draining = true;
+                senders.execute(this::drain);
+            }
+        }
+
+        /**
+         * Отправляет накопленные уведомления, пока буфер не опустеет.
+         */
+        private void drain() {
+            while (true) {
+                List<Notification> batch;
+                boolean reset;
+                boolean ping;
+                boolean dropped;
+                synchronized (this) {
+                    if (closed || (!overflowed && pending.isEmpty() && !resetRequired && !pingRequired)) {
+                        draining = false;
+                        return;
+                    }
+                    dropped = overflowed;
+                    batch = new ArrayList<>(pending.values());
+                    reset = resetRequired;
+                    ping = pingRequired;
+                    pending.clear();
+                    resetRequired = false;
+                    pingRequired = false;
+                    if (dropped) {
+                        closed = true;
+                        draining = false;
+                    }
+                }
+                if (dropped) {
+                    logger.warn("Подписчик на изменения каталога не успевает получать уведомления и будет отключен.");
+                    emitter.complete();
+                    return;
+                }
+                try {
+                    if (reset) {
+                        emitter.send(SseEmitter.event().name("reset").data("Необходима полная синхронизация через /sync."));
+                    }
+                    for (Notification notification : batch) {
+                        emitter.send(SseEmitter.event()
+                                .id(instanceId + "-" + notification.sequence)
+                                .name("change")
+                                .data(notification.data));
+                    }
+                    if (ping && batch.isEmpty()) {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    }
+                } catch (IOException | IllegalStateException ex) {
+                    synchronized (this) {
+                        closed = true;
+                        draining = false;
+                    }
+                    emitter.completeWithError(ex);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.ProductSummary;
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
+import com.alexpyslar03.productselectorbackend.dto.SyncDTO;
+import com.alexpyslar03.productselectorbackend.entity.CatalogChange;
+import com.alexpyslar03.productselectorbackend.entity.CatalogChangeLock;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
+import com.alexpyslar03.productselectorbackend.repository.CatalogChangeLockRepository;
+import com.alexpyslar03.productselectorbackend.repository.CatalogChangeRepository;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Сервисный класс для инкрементальной синхронизации каталога.
+ * Ведет журнал изменений продуктов и рецептов и возвращает клиентам только изменения,
+ * выполненные после переданного токена.
+ */
+@Service
+public class CatalogSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSyncService.class);
+
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final CatalogChangeLockRepository catalogChangeLockRepository;
+    private final ProductRepository productRepository;
+    private final RecipeRepository recipeRepository;
+    private final int maxLimit;
+
+    public CatalogSyncService(CatalogChangeRepository catalogChangeRepository,
+                              CatalogChangeLockRepository catalogChangeLockRepository,
+                              ProductRepository productRepository,
+                              RecipeRepository recipeRepository,
+                              @Value("${app.sync.max-limit}") int maxLimit) {
+        this.catalogChangeRepository = catalogChangeRepository;
+        this.catalogChangeLockRepository = catalogChangeLockRepository;
+        this.productRepository = productRepository;
+        this.recipeRepository = recipeRepository;
+        this.maxLimit = maxLimit;
+    }
+
+    /**
+     * Заполняет пустой журнал записями о всех существующих продуктах и рецептах,
+     * чтобы первая синхронизация с нулевым токеном возвращала весь каталог.
+     * Строка блокировки журнала создается миграцией; если схема создана без миграций, она создается здесь.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seed() {
+        if (!catalogChangeLockRepository.existsById(CatalogChangeLock.ID)) {
+            catalogChangeLockRepository.save(new CatalogChangeLock(CatalogChangeLock.ID));
+        }
+        lock();
+        if (catalogChangeRepository.count() > 0) {
+            return;
+        }
+        List<CatalogChange> changes = new ArrayList<>();
+        productRepository.findAllIds().forEach(id -> changes.add(change(CatalogChangedEvent.Type.PRODUCT, id, CatalogChangedEvent.Action.UPSERT)));
+        recipeRepository.findAllIds().forEach(id -> changes.add(change(CatalogChangedEvent.Type.RECIPE, id, CatalogChangedEvent.Action.UPSERT)));
+        catalogChangeRepository.saveAll(changes);
+        logger.info("Журнал изменений каталога заполнен: {} записей.", changes.size());
+    }
+
+    /**
+     * Записывает изменение продуктов или рецептов в журнал в той же транзакции, что и само изменение.
+     * Запись выполняется непосредственно перед фиксацией под блокировкой журнала, которая удерживается до фиксации:
+     * номера выделяются и фиксируются по очереди, поэтому любой снимок базы данных видит журнал без пропусков
+     * до своего последнего номера, и клиент с выданным токеном не пропустит изменение, зафиксированное позже.
+     * Отложенные изменения сущностей сбрасываются в базу данных до блокировки, чтобы под ней транзакция
+     * не ожидала блокировок строк каталога.
+     * Предыдущие записи о тех же сущностях удаляются, поэтому размер журнала не превышает количества сущностей и надгробий.
+     *
+     * @param event Событие изменения каталога.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.type() == CatalogChangedEvent.Type.USER || event.ids().isEmpty()) {
+            return;
+        }
+        catalogChangeRepository.flush();
+        lock();
+        catalogChangeRepository.deleteByEntityTypeAndEntityIdIn(event.type(), event.ids());
+        catalogChangeRepository.saveAll(event.ids().stream()
+                .map(id -> change(event.type(), id, event.action()))
+                .toList());
+    }
+
+    /**
+     * Возвращает изменения каталога, выполненные после указанного токена.
+     * Для измененных сущностей возвращается их текущее состояние; сущности, удаленные после записи изменения,
+     * возвращаются как удаленные.
+     *
+     * @param since Токен предыдущей синхронизации (0 для полной синхронизации).
+     * @param limit Максимальное количество изменений в ответе.
+     * @return Изменения каталога и новый токен синхронизации.
+     * @throws BadRequestException Если токен отрицателен или limit вне допустимого диапазона.
+     */
+    @Transactional(readOnly = true)
+    public SyncDTO sync(long since, int limit) {
+        if (since < 0) {
+            throw new BadRequestException(String.format("Некорректный токен синхронизации: %d.", since));
+        }
+        if (limit < 1 || limit > maxLimit) {
+            throw new BadRequestException(String.format("Некорректное ограничение количества изменений: %d (допустимо от 1 до %d).", limit, maxLimit));
+        }
+        List<CatalogChange> changes = catalogChangeRepository.findByIdGreaterThanOrderByIdAsc(since, Limit.of(limit + 1));
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        long token = changes.isEmpty() ? since : changes.get(changes.size() - 1).getId();
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        Set<Long> recipeIds = new LinkedHashSet<>();
+        Set<Long> deletedProductIds = new TreeSet<>();
+        Set<Long> deletedRecipeIds = new TreeSet<>();
+        for (CatalogChange change : changes) {
+            boolean deleted = change.getAction() == CatalogChangedEvent.Action.DELETE;
+            if (change.getEntityType() == CatalogChangedEvent.Type.PRODUCT) {
+                (deleted ? deletedProductIds : productIds).add(change.getEntityId());
+            } else {
+                (deleted ? deletedRecipeIds : recipeIds).add(change.getEntityId());
+            }
+        }
+        productIds.removeAll(deletedProductIds);
+        recipeIds.removeAll(deletedRecipeIds);
+
+        List<SyncDTO.ProductRecord> products = productRecords(productIds);
+        List<SyncDTO.RecipeRecord> recipes = recipeRecords(recipeIds);
+        products.forEach(p -> productIds.remove(p.getId()));
+        recipes.forEach(r -> recipeIds.remove(r.getId()));
+        deletedProductIds.addAll(productIds);
+        deletedRecipeIds.addAll(recipeIds);
+
+        logger.info("Синхронизация с токена {}: {} продуктов, {} рецептов, {} удалений, новый токен {}.",
+                since, products.size(), recipes.size(), deletedProductIds.size() + deletedRecipeIds.size(), token);
+        return new SyncDTO(token, hasMore, products, recipes, new ArrayList<>(deletedProductIds), new ArrayList<>(deletedRecipeIds));
+    }
+
+    /**
+     * Загружает компактные записи продуктов вместе с полными наборами их рецептов.
+     */
+    private List<SyncDTO.ProductRecord> productRecords(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, List<Long>> links = group(recipeRepository.findLinksByProductIdIn(ids),
+                RecipeProductLink::productId, RecipeProductLink::recipeId);
+        return productRepository.findSummariesByIdIn(ids).stream()
+                .sorted(Comparator.comparing(ProductSummary::id))
+                .map(p -> new SyncDTO.ProductRecord(p.id(), p.name(), links.getOrDefault(p.id(), List.of())))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Загружает компактные записи рецептов вместе с полными наборами их продуктов.
+     */
+    private List<SyncDTO.RecipeRecord> recipeRecords(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, List<Long>> links = group(recipeRepository.findLinksByRecipeIdIn(ids),
+                RecipeProductLink::recipeId, RecipeProductLink::productId);
+        return recipeRepository.findSummariesByIdIn(ids).stream()
+                .sorted(Comparator.comparing(RecipeSummary::id))
+                .map(r -> new SyncDTO.RecipeRecord(r.id(), r.name(), r.description(), r.vegan(),
+                        r.difficultyLevel(), r.rating(), links.getOrDefault(r.id(), List.of())))
+                .collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    /**
+     * Группирует связи по одной стороне, сортируя идентификаторы другой стороны.
+     */
+    private static Map<Long, List<Long>> group(List<RecipeProductLink> links,
+                                               Function<RecipeProductLink, Long> key,
+                                               Function<RecipeProductLink, Long> value) {
+        Map<Long, List<Long>> grouped = links.stream().collect(Collectors.groupingBy(key,
+                Collectors.mapping(value, Collectors.toCollection(ArrayList::new))));
+        grouped.values().forEach(Collections::sort);
+        return grouped;
+    }
+
+    /**
+     * Блокирует журнал изменений до конца текущей транзакции.
+     */
+    private void lock() {
+        catalogChangeLockRepository.lockById(CatalogChangeLock.ID)
+                .orElseThrow(() -> new IllegalStateException("Строка блокировки журнала изменений каталога не найдена."));
+    }
+
+    private static CatalogChange change(CatalogChangedEvent.Type type, Long id, CatalogChangedEvent.Action action) {
+        return CatalogChange.builder()
+                .entityType(type)
+                .entityId(id)
+                .action(action)
+                .build();
+    }
+}
@@ -0,0 +1,404 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.ImageDTO;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
+import com.alexpyslar03.productselectorbackend.exception.ImageNotFoundException;
+import com.alexpyslar03.productselectorbackend.exception.ProductNotFoundException;
+import com.alexpyslar03.productselectorbackend.exception.RecipeNotFoundException;
+import com.alexpyslar03.productselectorbackend.image.ImageFormat;
+import com.alexpyslar03.productselectorbackend.image.ImageOwner;
+import com.alexpyslar03.productselectorbackend.image.ImageUploadStream;
+import com.alexpyslar03.productselectorbackend.image.StoredImage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Savepoint;
+import java.util.*;
+
+/**
+ * Сервисный класс для хранения изображений продуктов и рецептов.
+ * Изображения хранятся в таблице images один раз на хэш SHA-256 содержимого, а продукты и рецепты ссылаются
+ * на них по хэшу. Счетчик ссылок ref_count изменяется в той же транзакции, что и ссылки сущностей,
+ * а изображения без ссылок удаляются периодической очисткой.
+ * Загружаемое изображение сначала читается во временный файл ограниченного размера: размер, формат и хэш
+ * содержимого проверяются и вычисляются по мере чтения. Только после этого в короткой транзакции блокируется
+ * строка сущности и записывается изображение, поэтому медленный клиент не удерживает соединение и блокировку.
+ */
+@Service
+public class ImageService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final long maxSize;
+
+    public ImageService(JdbcTemplate jdbcTemplate,
+                        TransactionTemplate transactionTemplate,
+                        ApplicationEventPublisher eventPublisher,
+                        @Value("${app.image.max-size}") DataSize maxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.maxSize = maxSize.toBytes();
+    }
+
+    /**
+     * Заменяет изображение продукта содержимым потока.
+     * Если продукт с указанным идентификатором не найден, выбрасывается исключение ProductNotFoundException.
+     *
+     * @param id          Идентификатор продукта.
+     * @param content     Поток с содержимым изображения.
+     * @param size        Размер содержимого в байтах.
+     * @param contentType Заявленный MIME-тип содержимого или null.
+     * @return Сведения о загруженном изображении.
+     * @throws ProductNotFoundException Если продукт с указанным идентификатором не найден.
+     * @throws BadRequestException     Если размер, тип или содержимое изображения недопустимы.
+     */
+    public ImageDTO uploadProductImage(Long id, InputStream content, long size, String contentType) {
+        ImageDTO image = upload(ImageOwner.PRODUCT, id, content, size, contentType);
+        if (image == null) {
+            throw new ProductNotFoundException(String.format("Невозможно обновить изображение. Продукт с идентификатором %d не найден.", id));
+        }
+        logger.info("Изображение продукта с ID {} обновлено: {} байт, SHA-256 {}.", id, image.getSize(), image.getHash());
+        return image;
+    }
+
+    /**
+     * Заменяет изображение рецепта содержимым потока.
+     * Если рецепт с указанным идентификатором не найден, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param id          Идентификатор рецепта.
+     * @param content     Поток с содержимым изображения.
+     * @param size        Размер содержимого в байтах.
+     * @param contentType Заявленный MIME-тип содержимого или null.
+     * @return Сведения о загруженном изображении.
+     * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
+     * @throws BadRequestException    Если размер, тип или содержимое изображения недопустимы.
+     */
+    public ImageDTO uploadRecipeImage(Long id, InputStream content, long size, String contentType) {
+        ImageDTO image = upload(ImageOwner.RECIPE, id, content, size, contentType);
+        if (image == null) {
+            throw new RecipeNotFoundException(String.format("Невозможно обновить изображение. Рецепт с идентификатором %d не найден.", id));
+        }
+        logger.info("Изображение рецепта с ID {} обновлено: {} байт, SHA-256 {}.", id, image.getSize(), image.getHash());
+        return image;
+    }
+
+    /**
+     * Возвращает изображение по хэшу содержимого.
+     * Если изображение не найдено, выбрасывается исключение ImageNotFoundException.
+     *
+     * @param hash Хэш SHA-256 содержимого.
+     * @return Изображение с MIME-типом и содержимым.
+     * @throws ImageNotFoundException Если изображение с указанным хэшем не найдено.
+     */
+    @Transactional(readOnly = true)
+    public StoredImage read(String hash) {
+        StoredImage image = jdbcTemplate.query("SELECT content_type, content FROM images WHERE hash = ?",
+                rs -> rs.next() ? new StoredImage(hash, rs.getString(1), rs.getBytes(2)) : null, hash);
+        if (image == null) {
+            throw new ImageNotFoundException(String.format("Изображение с хэшем %s не найдено.", hash));
+        }
+        return image;
+    }
+
+    /**
+     * Сохраняет изображение, переданное массивом, или находит уже сохраненное изображение с тем же содержимым.
+     * Счетчик ссылок не изменяется: ссылку добавляет {@link #retain(String)} или {@link #assign(ImageOwner, Long, String)}
+     * в той же транзакции, а до этого строка изображения заблокирована и не может быть удалена очисткой.
+     *
+     * @param content Содержимое изображения или null.
+     * @return Хэш SHA-256 содержимого или null, если содержимое не передано.
+     * @throws BadRequestException Если размер или формат изображения недопустимы.
+     */
+    @Transactional
+    public String save(byte[] content) {
+        if (content == null) {
+            return null;
+        }
+        checkSize(content.length);
+        ImageUploadStream upload = new ImageUploadStream(new ByteArrayInputStream(content), maxSize, null);
+        try {
+            upload.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException ex) {
+            throw new BadRequestException(upload.violation() != null ? upload.violation() : ex.getMessage());
+        }
+        String violation = upload.complete();
+        if (violation != null) {
+            throw new BadRequestException(violation);
+        }
+        String hash = upload.hash();
+        writeOnce(hash, () -> jdbcTemplate.update(
+                "INSERT INTO images (hash, content, content_type, size, ref_count) VALUES (?, ?, ?, ?, 0)",
+                hash, content, upload.format().mediaType(), (long) content.length));
+        return hash;
+    }
+
+    /**
+     * Добавляет ссылку на сохраненное изображение.
+     *
+     * @param hash Хэш SHA-256 содержимого или null.
+     * @throws BadRequestException Если изображение с указанным хэшем не найдено.
+     */
+    @Transactional
+    public void retain(String hash) {
+        if (hash != null && jdbcTemplate.update("UPDATE images SET ref_count = ref_count + 1 WHERE hash = ?", hash) == 0) {
+            throw new BadRequestException(String.format("Изображение с хэшем %s не найдено.", hash));
+        }
+    }
+
+    /**
+     * Назначает сущности изображение: записывает хэш в ее строку, добавляет ссылку на новое изображение
+     * и удаляет ссылку на прежнее. Если изображение не изменилось, счетчики не изменяются.
+     *
+     * @param owner Тип сущности.
+     * @param id    Идентификатор сущности.
+     * @param hash  Хэш SHA-256 нового изображения или null, чтобы удалить изображение.
+     * @return false, если сущность не найдена.
+     * @throws BadRequestException Если изображение с указанным хэшем не найдено.
+     */
+    @Transactional
+    public boolean assign(ImageOwner owner, Long id, String hash) {
+        List<String> current = jdbcTemplate.query("SELECT image_hash FROM " + owner.table() + " WHERE id = ? FOR UPDATE",
+                (rs, rowNum) -> rs.getString(1), id);
+        if (current.isEmpty()) {
+            return false;
+        }
+        String previous = current.get(0);
+        if (Objects.equals(previous, hash)) {
+            return true;
+        }
+        retain(hash);
+        jdbcTemplate.update("UPDATE " + owner.table() + " SET image_hash = ? WHERE id = ?", hash, id);
+        if (previous != null) {
+            release(Map.of(previous, 1L));
+        }
+        return true;
+    }
+
+    /**
+     * Удаляет ссылки удаляемых сущностей на их изображения. Вызывается до удаления строк сущностей.
+     *
+     * @param owner Тип сущности.
+     * @param ids   Идентификаторы удаляемых сущностей.
+     */
+    @Transactional
+    public void releaseAll(ImageOwner owner, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<String> hashes = jdbcTemplate.queryForList("SELECT image_hash FROM " + owner.table()
+                + " WHERE image_hash IS NOT NULL AND id IN (" + placeholders + ")", String.class, ids.toArray());
+        Map<String, Long> references = new TreeMap<>();
+        hashes.forEach(hash -> references.merge(hash, 1L, Long::sum));
+        release(references);
+    }
+
+    /**
+     * Периодически удаляет изображения, на которые не ссылается ни один продукт или рецепт.
+     * Незавершенные загрузки не видны очистке, а изображение, на которое параллельно добавляется ссылка,
+     * заблокировано этой транзакцией и после ее фиксации уже не удовлетворяет условию удаления.
+     */
+    @Scheduled(initialDelayString = "${app.image.gc-interval}", fixedDelayString = "${app.image.gc-interval}")
+    @Transactional
+    public void collectGarbage() {
+        int deleted = jdbcTemplate.update("DELETE FROM images WHERE ref_count <= 0");
+        if (deleted > 0) {
+            logger.info("Удалено {} изображений без ссылок.", deleted);
+        }
+    }
+
+    /**
+     * Записывает изображение из потока и назначает его сущности.
+     * Содержимое читается во временный файл до начала транзакции; затем в транзакции блокируется строка сущности,
+     * изображение записывается из файла, если оно еще не хранится, и назначается сущности.
+     * Существование сущности проверяется до чтения содержимого, чтобы не принимать изображение для отсутствующей сущности.
+     *
+     * @return Сведения об изображении или null, если сущность не найдена.
+     */
+    private ImageDTO upload(ImageOwner owner, Long id, InputStream content, long size, String contentType) {
+        checkSize(size);
+        ImageFormat expectedFormat = expectedFormat(contentType);
+        if (jdbcTemplate.queryForList("SELECT id FROM " + owner.table() + " WHERE id = ?", Long.class, id).isEmpty()) {
+            return null;
+        }
+        Path file = createTempFile();
+        try {
+            ImageUploadStream upload = new ImageUploadStream(content, maxSize, expectedFormat);
+            try (OutputStream out = Files.newOutputStream(file)) {
+                upload.transferTo(out);
+            } catch (IOException ex) {
+                if (upload.violation() != null) {
+                    throw new BadRequestException(upload.violation());
+                }
+                if (upload.size() < size) {
+                    throw new BadRequestException(String.format("Получено %d байт изображения вместо заявленных %d.", upload.size(), size));
+                }
+                throw new UncheckedIOException(ex);
+            }
+            if (upload.size() != size) {
+                throw new BadRequestException(String.format("Получено %d байт изображения вместо заявленных %d.", upload.size(), size));
+            }
+            String violation = upload.complete();
+            if (violation != null) {
+                throw new BadRequestException(violation);
+            }
+            return transactionTemplate.execute(status -> store(owner, id, upload.hash(), upload.format().mediaType(), file, size));
+        } finally {
+            deleteTempFile(file);
+        }
+    }
+
+    /**
+     * Блокирует строку сущности, записывает изображение из временного файла, если изображение с тем же хэшем
+     * еще не хранится, и назначает его сущности. Выполняется в транзакции.
+     *
+     * @return Сведения об изображении или null, если сущность удалена после начала загрузки.
+     */
+    private ImageDTO store(ImageOwner owner, Long id, String hash, String mediaType, Path file, long size) {
+        if (jdbcTemplate.queryForList("SELECT id FROM " + owner.table() + " WHERE id = ? FOR UPDATE", Long.class, id).isEmpty()) {
+            return null;
+        }
+        boolean written = writeOnce(hash, () -> {
+            try (InputStream in = Files.newInputStream(file)) {
+                jdbcTemplate.update("INSERT INTO images (hash, content, content_type, size, ref_count) VALUES (?, ?, ?, ?, 0)", ps -> {
+                    ps.setString(1, hash);
+                    ps.setBinaryStream(2, in, size);
+                    ps.setString(3, mediaType);
+                    ps.setLong(4, size);
+                });
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        if (!written) {
+            logger.info("Изображение SHA-256 {} уже хранится, повторная копия не сохранена.", hash);
+        }
+        assign(owner, id, hash);
+        eventPublisher.publishEvent(CatalogChangedEvent.upserted(owner.type(), id, null));
+        return new ImageDTO(hash, size, mediaType);
+    }
+
+    private static Path createTempFile() {
+        try {
+            return Files.createTempFile("image-upload", ".tmp");
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Не удалось создать временный файл для загрузки изображения.", ex);
+        }
+    }
+
+    private static void deleteTempFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ex) {
+            logger.warn("Не удалось удалить временный файл загрузки изображения {}.", file, ex);
+        }
+    }
+
+    /**
+     * Сохраняет изображение под хэшем, если оно еще не хранится, и в любом случае оставляет строку изображения
+     * заблокированной до конца транзакции. Запись выполняется в точке сохранения: если параллельная транзакция
+     * успела сохранить то же содержимое первой, откатывается только запись, а существующее изображение блокируется.
+     *
+     * @return true, если изображение записано этой транзакцией.
+     */
+    private boolean writeOnce(String hash, Runnable write) {
+        if (lock(hash)) {
+            return false;
+        }
+        boolean written = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                write.run();
+            } catch (DuplicateKeyException ex) {
+                connection.rollback(savepoint);
+                return false;
+            }
+            connection.releaseSavepoint(savepoint);
+            return true;
+        }));
+        if (!written && !lock(hash)) {
+            throw new IllegalStateException(String.format("Изображение с хэшем %s не найдено после конфликта записи.", hash));
+        }
+        return written;
+    }
+
+    /**
+     * Блокирует строку изображения, чтобы очистка не удалила его до добавления ссылки.
+     *
+     * @return true, если изображение с указанным хэшем хранится.
+     */
+    private boolean lock(String hash) {
+        return !jdbcTemplate.queryForList("SELECT hash FROM images WHERE hash = ? FOR UPDATE", String.class, hash).isEmpty();
+    }
+
+    /**
+     * Уменьшает счетчики ссылок изображений. Хэши обрабатываются в порядке сортировки,
+     * чтобы параллельные транзакции блокировали строки изображений в одном порядке.
+     */
+    private void release(Map<String, Long> references) {
+        if (references.isEmpty()) {
+            return;
+        }
+        List<Object[]> batch = new TreeMap<>(references).entrySet().stream()
+                .map(e -> new Object[]{e.getValue(), e.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate("UPDATE images SET ref_count = ref_count - ? WHERE hash = ?", batch);
+    }
+
+    private void checkSize(long size) {
+        if (size <= 0) {
+            throw new BadRequestException("Не указан размер изображения (заголовок Content-Length) или изображение пустое.");
+        }
+        if (size > maxSize) {
+            throw new BadRequestException(String.format("Размер изображения %d байт превышает допустимый размер %d байт.", size, maxSize));
+        }
+    }
+
+    /**
+     * Возвращает формат, заявленный MIME-типом. Для application/octet-stream и отсутствующего типа формат
+     * определяется только по содержимому.
+     */
+    private static ImageFormat expectedFormat(String contentType) {
+        if (contentType == null) {
+            return null;
+        }
+        MediaType mediaType;
+        try {
+            mediaType = MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException ex) {
+            throw new BadRequestException(String.format("Некорректный тип содержимого %s.", contentType));
+        }
+        if (MediaType.APPLICATION_OCTET_STREAM.equalsTypeAndSubtype(mediaType)) {
+            return null;
+        }
+        ImageFormat format = ImageFormat.fromMediaType(mediaType.getType() + "/" + mediaType.getSubtype());
+        if (format == null) {
+            throw new BadRequestException(String.format("Неподдерживаемый тип содержимого %s. Допустимые типы: image/jpeg, image/png, image/gif, image/webp.", contentType));
+        }
+        return format;
+    }
+}
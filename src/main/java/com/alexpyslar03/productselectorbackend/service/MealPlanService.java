@@ -0,0 +1,86 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.MealPlanDTO;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
+import com.alexpyslar03.productselectorbackend.exception.RecipeNotFoundException;
+import com.alexpyslar03.productselectorbackend.index.CatalogReadModel;
+import com.alexpyslar03.productselectorbackend.planner.MealPlanner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Сервисный класс для составления плана питания.
+ * Кандидаты отбираются по ограничениям и составу рецептов из модели каталога в памяти без обращений к базе данных.
+ */
+@Service
+public class MealPlanService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MealPlanService.class);
+
+    private final CatalogReadModelService catalogReadModelService;
+    private final MealPlanner mealPlanner;
+    private final Duration timeBudget;
+    private final int maxCount;
+
+    public MealPlanService(CatalogReadModelService catalogReadModelService,
+                           @Value("${app.meal-plan.time-budget}") Duration timeBudget,
+                           @Value("${app.meal-plan.max-seeds}") int maxSeeds,
+                           @Value("${app.meal-plan.max-count}") int maxCount) {
+        this.catalogReadModelService = catalogReadModelService;
+        this.mealPlanner = new MealPlanner(ForkJoinPool.commonPool(), maxSeeds);
+        this.timeBudget = timeBudget;
+        this.maxCount = maxCount;
+    }
+
+    /**
+     * Составляет план из count рецептов, максимизируя повторное использование продуктов и покрытие кладовой.
+     * Если подходящих рецептов нет, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param count            Количество рецептов в плане.
+     * @param pantryIds        Идентификаторы продуктов в кладовой (может быть null).
+     * @param vegan            Только веганские рецепты.
+     * @param difficultyLevels Допустимые уровни сложности (null — любые).
+     * @return План питания.
+     * @throws BadRequestException     Если количество рецептов вне допустимого диапазона.
+     * @throws RecipeNotFoundException Если рецепты, удовлетворяющие ограничениям, не найдены.
+     */
+    public MealPlanDTO create(int count, List<Long> pantryIds, boolean vegan, List<Recipe.DifficultyLevel> difficultyLevels) {
+        if (count < 1 || count > maxCount) {
+            throw new BadRequestException(String.format("Количество рецептов в плане должно быть от 1 до %d.", maxCount));
+        }
+        CatalogReadModel catalog = catalogReadModelService.current();
+        long[] candidates = catalog.recipeIds(vegan,
+                difficultyLevels == null || difficultyLevels.isEmpty() ? EnumSet.allOf(Recipe.DifficultyLevel.class) : EnumSet.copyOf(difficultyLevels));
+        long[] recipeIds = new long[candidates.length];
+        long[][] recipeProducts = new long[candidates.length][];
+        int size = 0;
+        for (long id : candidates) {
+            long[] products = catalog.productsOf(id);
+            if (products.length > 0) {
+                recipeIds[size] = id;
+                recipeProducts[size++] = products;
+            }
+        }
+        if (size == 0) {
+            throw new RecipeNotFoundException("Рецепты, удовлетворяющие указанным ограничениям, не найдены.");
+        }
+        long start = System.nanoTime();
+        MealPlanner.Plan plan = mealPlanner.plan(Arrays.copyOf(recipeIds, size), Arrays.copyOf(recipeProducts, size),
+                pantryIds == null ? Set.of() : pantryIds, count, timeBudget.toNanos());
+        logger.info("План из {} рецептов составлен за {} мс по {} кандидатам: {} покупок.",
+                plan.recipeIds().length, (System.nanoTime() - start) / 1_000_000, size, plan.purchaseProductIds().length);
+        return new MealPlanDTO(toList(plan.recipeIds()), toList(plan.purchaseProductIds()),
+                toList(plan.pantryProductIds()), plan.timedOut());
+    }
+
+    private static List<Long> toList(long[] values) {
+        return Arrays.stream(values).boxed().toList();
+    }
+}
@@ -0,0 +1,267 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.TrendingRecipeDTO;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Сервисный класс для учета популярности рецептов и продуктов.
+ * Счетчики просмотров и приготовлений накапливаются в памяти в полосатых счетчиках LongAdder,
+ * не создающих конкуренции между потоками, и периодически сбрасываются в базу данных пакетными UPDATE.
+ * Для расчета трендов рецептов в памяти хранятся окна событий по временным корзинам.
+ */
+@Service
+public class PopularityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PopularityService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counters recipeCounters = new Counters("recipes");
+    private final Counters productCounters = new Counters("products");
+    private final AtomicReferenceArray<Bucket> buckets;
+    private final long bucketMillis;
+    private final double halfLifeMillis;
+    private final long cookedWeight;
+
+    public PopularityService(JdbcTemplate jdbcTemplate,
+                             @Value("${app.popularity.bucket-width}") Duration bucketWidth,
+                             @Value("${app.popularity.buckets}") int buckets,
+                             @Value("${app.popularity.half-life}") Duration halfLife,
+                             @Value("${app.popularity.cooked-weight}") long cookedWeight) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buckets = new AtomicReferenceArray<>(buckets);
+        this.bucketMillis = bucketWidth.toMillis();
+        this.halfLifeMillis = halfLife.toMillis();
+        this.cookedWeight = cookedWeight;
+    }
+
+    /**
+     * Учитывает просмотр рецепта.
+     *
+     * @param recipeId Идентификатор рецепта.
+     */
+    public void recordRecipeView(Long recipeId) {
+        recipeCounters.views(recipeId).increment();
+        recordTrending(recipeId, 1);
+    }
+
+    /**
+     * Учитывает приготовление рецепта и использование его продуктов.
+     *
+     * @param recipeId   Идентификатор рецепта.
+     * @param productIds Идентификаторы продуктов рецепта.
+     */
+    public void recordRecipeCooked(Long recipeId, long[] productIds) {
+        recipeCounters.cooked(recipeId).increment();
+        for (long productId : productIds) {
+            productCounters.cooked(productId).increment();
+        }
+        recordTrending(recipeId, cookedWeight);
+    }
+
+    /**
+     * Учитывает просмотр продукта.
+     *
+     * @param productId Идентификатор продукта.
+     */
+    public void recordProductView(Long productId) {
+        productCounters.views(productId).increment();
+    }
+
+    /**
+     * Возвращает рецепты с наибольшей популярностью в последнее время.
+     * Вклад каждой корзины уменьшается вдвое за период полураспада.
+     *
+     * @param limit Максимальное количество результатов.
+     * @return Список рецептов, упорядоченный по убыванию оценки.
+     */
+    public List<TrendingRecipeDTO> trending(int limit) {
+        long now = System.currentTimeMillis() / bucketMillis;
+        Map<Long, Double> scores = new HashMap<>();
+        for (int i = 0; i < buckets.length(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket == null || now - bucket.epoch >= buckets.length() || bucket.epoch > now) {
+                continue;
+            }
+            double decay = Math.pow(0.5, (now - bucket.epoch) * bucketMillis / halfLifeMillis);
+            bucket.events.forEach((id, count) -> scores.merge(id, count.sum() * decay, Double::sum));
+        }
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .limit(limit)
+                .map(e -> new TrendingRecipeDTO(e.getKey(), e.getValue()))
+                .toList();
+    }
+
+    /**
+     * Периодически сбрасывает накопленные приращения счетчиков в базу данных пакетами.
+     */
+    @Scheduled(fixedDelayString = "${app.popularity.flush-interval}")
+    public void flush() {
+        recipeCounters.flush();
+        productCounters.flush();
+    }
+
+    /**
+     * Сбрасывает оставшиеся приращения при остановке приложения.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * Удаляет из памяти счетчики удаленных сущностей.
+     *
+     * @param event Событие изменения каталога.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        if (event.action() != CatalogChangedEvent.Action.DELETE) {
+            return;
+        }
+        if (event.type() == CatalogChangedEvent.Type.RECIPE) {
+            recipeCounters.forget(event.ids());
+            for (int i = 0; i < buckets.length(); i++) {
+                Bucket bucket = buckets.get(i);
+                if (bucket != null) {
+                    event.ids().forEach(bucket.events::remove);
+                }
+            }
+        } else if (event.type() == CatalogChangedEvent.Type.PRODUCT) {
+            productCounters.forget(event.ids());
+        }
+    }
+
+    /**
+     * Добавляет событие в корзину текущего временного интервала, заменяя устаревшую корзину в том же слоте.
+     */
+    private void recordTrending(Long recipeId, long weight) {
+        long epoch = System.currentTimeMillis() / bucketMillis;
+        int slot = (int) (epoch % buckets.length());
+        Bucket bucket = buckets.get(slot);
+        while (bucket == null || bucket.epoch < epoch) {
+            Bucket fresh = new Bucket(epoch);
+            if (buckets.compareAndSet(slot, bucket, fresh)) {
+                bucket = fresh;
+            } else {
+                bucket = buckets.get(slot);
+            }
+        }
+        if (bucket.epoch == epoch) {
+            bucket.events.computeIfAbsent(recipeId, k -> new LongAdder()).add(weight);
+        }
+    }
+
+    /**
+     * Корзина событий одного временного интервала.
+     */
+    private static final class Bucket {
+
+        private final long epoch;
+        private final ConcurrentHashMap<Long, LongAdder> events = new ConcurrentHashMap<>();
+
+        private Bucket(long epoch) {
+            this.epoch = epoch;
+        }
+    }
+
+    /**
+     * Накопленные, но еще не записанные приращения счетчиков одной таблицы.
+     * Приращения копятся в текущем окне; при сбросе окно заменяется новым, поэтому в памяти остаются
+     * только счетчики сущностей, изменявшихся с прошлого сброса, а не всех когда-либо затронутых.
+     * Замененное окно сохраняется до следующего сброса: поток, получивший счетчик до замены, может
+     * увеличить его уже после сброса, и такое приращение записывается следующим сбросом.
+     */
+    private final class Counters {
+
+        private final String table;
+        private volatile Window window = new Window();
+        private Window retired = new Window();
+
+        private Counters(String table) {
+            this.table = table;
+        }
+
+        private LongAdder views(Long id) {
+            return window.views.computeIfAbsent(id, k -> new LongAdder());
+        }
+
+        private LongAdder cooked(Long id) {
+            return window.cooked.computeIfAbsent(id, k -> new LongAdder());
+        }
+
+        private synchronized void forget(Collection<Long> ids) {
+            window.forget(ids);
+            retired.forget(ids);
+        }
+
+        /**
+         * Забирает приращения и записывает их одним пакетом. При ошибке приращения возвращаются в счетчики.
+         */
+        private synchronized void flush() {
+            Window drained = window;
+            window = new Window();
+            Map<Long, long[]> deltas = new HashMap<>();
+            retired.drainTo(deltas);
+            drained.drainTo(deltas);
+            retired = drained;
+            List<Object[]> batch = new ArrayList<>();
+            deltas.forEach((id, delta) -> {
+                if (delta[0] != 0 || delta[1] != 0) {
+                    batch.add(new Object[]{delta[0], delta[1], id});
+                }
+            });
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                jdbcTemplate.batchUpdate("UPDATE " + table
+                        + " SET view_count = view_count + ?, cooked_count = cooked_count + ? WHERE id = ?", batch);
+                logger.info("Счетчики популярности записаны в таблицу {}: {} строк.", table, batch.size());
+            } catch (DataAccessException ex) {
+                for (Object[] row : batch) {
+                    views((Long) row[2]).add((Long) row[0]);
+                    cooked((Long) row[2]).add((Long) row[1]);
+                }
+                logger.warn("Не удалось записать счетчики популярности в таблицу {}, повтор при следующем сбросе.", table, ex);
+            }
+        }
+    }
+
+    /**
+     * Окно счетчиков между двумя сбросами.
+     */
+    private static final class Window {
+
+        private final ConcurrentHashMap<Long, LongAdder> views = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<Long, LongAdder> cooked = new ConcurrentHashMap<>();
+
+        private void forget(Collection<Long> ids) {
+            ids.forEach(views::remove);
+            ids.forEach(cooked::remove);
+        }
+
+        /**
+         * Забирает приращения окна, складывая их в deltas: идентификатор → {просмотры, приготовления}.
+         */
+        private void drainTo(Map<Long, long[]> deltas) {
+            views.forEach((id, adder) -> deltas.computeIfAbsent(id, k -> new long[2])[0] += adder.sumThenReset());
+            cooked.forEach((id, adder) -> deltas.computeIfAbsent(id, k -> new long[2])[1] += adder.sumThenReset());
+        }
+    }
+}
@@ -1,17 +1,40 @@
 package com.alexpyslar03.productselectorbackend.service;
 
+import com.alexpyslar03.productselectorbackend.dto.BulkDeleteDTO;
 import com.alexpyslar03.productselectorbackend.dto.ProductDTO;
+import com.alexpyslar03.productselectorbackend.dto.ProductPatchDTO;
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RelatedProductDTO;
+import com.alexpyslar03.productselectorbackend.dto.SparseFieldsDTO;
 import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
 import com.alexpyslar03.productselectorbackend.exception.ProductNotFoundException;
+import com.alexpyslar03.productselectorbackend.image.ImageOwner;
+import com.alexpyslar03.productselectorbackend.index.RecipeProductIndex;
+import com.alexpyslar03.productselectorbackend.json.ProductField;
+import com.alexpyslar03.productselectorbackend.json.SparseFieldsWriter;
+import com.alexpyslar03.productselectorbackend.repository.FieldProjectionRepository;
+import com.alexpyslar03.productselectorbackend.repository.JsonExportRepository;
+import com.alexpyslar03.productselectorbackend.repository.PartialUpdateRepository;
 import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.ProductSubstitutionRepository;
 import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Set;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * Сервисный класс для работы с продуктами.
@@ -25,6 +48,18 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final RecipeRepository recipeRepository;
+    private final ProductSubstitutionRepository productSubstitutionRepository;
+    private final PartialUpdateRepository partialUpdateRepository;
+    private final FieldProjectionRepository fieldProjectionRepository;
+    private final JsonExportRepository jsonExportRepository;
+    private final RecipeProductIndex recipeProductIndex;
+    private final PopularityService popularityService;
+    private final ImageService imageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.bulk-delete.max-ids}")
+    private int maxBulkDeleteIds;
 
     /**
      * Создает новый продукт на основе предоставленного DTO и сохраняет его в репозитории.
@@ -32,26 +67,35 @@ public class ProductService {
      * @param dto DTO с данными нового продукта.
      * @return Созданный продукт.
      */
+    @Transactional
     public Product create(ProductDTO dto) {
         Product product = Product.builder()
                 .name(dto.getName())
-                .image(dto.getImage())
+                .imageHash(imageService.save(dto.getImage()))
                 .recipes(recipeRepository.findAllByIdIn(dto.getRecipeIds())) // Установка связанных рецептов
                 .build();
         Product savedProduct = productRepository.save(product);
+        imageService.retain(savedProduct.getImageHash());
+        eventPublisher.publishEvent(CatalogChangedEvent.upserted(
+                CatalogChangedEvent.Type.PRODUCT, savedProduct.getId(), recipeIds(savedProduct.getRecipes())));
+        publishRelinked(CatalogChangedEvent.Type.RECIPE, recipeIds(savedProduct.getRecipes()));
         logger.info("Продукт с ID {} успешно создан.", savedProduct.getId());
         return savedProduct;
     }
 
     /**
-     * Возвращает список всех продуктов.
+     * Записывает список всех продуктов в JSON напрямую из курсора базы данных, без загрузки сущностей.
+     * Формат совпадает с сериализацией списка сущностей.
      *
-     * @return Список всех продуктов.
+     * @param out Поток, в который записывается JSON.
+     * @throws IOException Если запись не удалась.
      */
-    public List<Product> readAll() {
-        List<Product> products = productRepository.findAll();
+    @Transactional(readOnly = true)
+    public void writeAll(OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            jsonExportRepository.writeProducts(gen);
+        }
         logger.info("Запрошен список всех продуктов.");
-        return products;
     }
 
     /**
@@ -62,9 +106,11 @@ public class ProductService {
      * @return Продукт с указанным идентификатором.
      * @throws ProductNotFoundException Если продукт с указанным идентификатором не найден.
      */
+    @Transactional(readOnly = true)
     public Product readById(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ProductNotFoundException(String.format("Продукт с идентификатором %d не найден.", id)));
+        popularityService.recordProductView(id);
         logger.info("Продукт с ID {} найден.", id);
         return product;
     }
@@ -77,6 +123,7 @@ public class ProductService {
      * @return Набор продуктов с указанными идентификаторами.
      * @throws ProductNotFoundException Если продукты с указанными идентификаторами не найдены.
      */
+    @Transactional(readOnly = true)
     public Set<Product> readAllByIdIn(List<Long> ids) {
         Set<Product> products = productRepository.findAllByIdIn(ids);
         if (products.isEmpty()) {
@@ -94,6 +141,7 @@ public class ProductService {
      * @return Список продуктов, связанных с указанным рецептом.
      * @throws ProductNotFoundException Если продукты для указанного рецепта не найдены.
      */
+    @Transactional(readOnly = true)
     public List<Product> readByRecipeId(Long id) {
         List<Product> products = productRepository.findByRecipesId(id);
         if (products.isEmpty()) {
@@ -111,6 +159,7 @@ public class ProductService {
      * @return Список продуктов, связанных с указанными рецептами.
      * @throws ProductNotFoundException Если продукты для указанных рецептов не найдены.
      */
+    @Transactional(readOnly = true)
     public List<Product> readByRecipeIdIn(List<Long> ids) {
         List<Product> products = productRepository.findByRecipesIdIn(ids);
         if (products.isEmpty()) {
@@ -121,20 +170,183 @@ public class ProductService {
     }
 
     /**
-     * Обновляет существующий продукт.
+     * Возвращает указанные поля всех продуктов.
+     * Из базы данных выбираются только столбцы запрошенных полей.
+     *
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями продуктов.
+     * @throws BadRequestException Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readAllFields(String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(ProductField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findAll(Product.class, writer.attributes());
+        logger.info("Запрошены поля {} всех продуктов.", writer.attributes());
+        return new SparseFieldsDTO(writer, rows, false);
+    }
+
+    /**
+     * Возвращает указанные поля продукта по его идентификатору.
+     * Если продукт не найден, выбрасывается исключение ProductNotFoundException.
+     *
+     * @param id     Идентификатор продукта.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями продукта.
+     * @throws ProductNotFoundException Если продукт с указанным идентификатором не найден.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readFieldsById(Long id, String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(ProductField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findByIdIn(Product.class, writer.attributes(), List.of(id));
+        if (rows.isEmpty()) {
+            throw new ProductNotFoundException(String.format("Продукт с идентификатором %d не найден.", id));
+        }
+        popularityService.recordProductView(id);
+        logger.info("Продукт с ID {} найден.", id);
+        return new SparseFieldsDTO(writer, rows, true);
+    }
+
+    /**
+     * Возвращает указанные поля продуктов по предоставленным идентификаторам.
+     * Если продукты не найдены, выбрасывается исключение ProductNotFoundException.
+     *
+     * @param ids    Список идентификаторов продуктов.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями продуктов.
+     * @throws ProductNotFoundException Если продукты с указанными идентификаторами не найдены.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readFieldsByIdIn(List<Long> ids, String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(ProductField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findByIdIn(Product.class, writer.attributes(), ids);
+        if (rows.isEmpty()) {
+            throw new ProductNotFoundException("Не найдено продуктов с указанными идентификаторами.");
+        }
+        logger.info("Найдено {} продуктов по указанным ID.", rows.size());
+        return new SparseFieldsDTO(writer, rows, false);
+    }
+
+    /**
+     * Возвращает указанные поля продуктов по идентификатору рецепта.
+     * Если продукты не найдены, выбрасывается исключение ProductNotFoundException.
+     *
+     * @param id     Идентификатор рецепта.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями продуктов, связанных с указанным рецептом.
+     * @throws ProductNotFoundException Если продукты для указанного рецепта не найдены.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readFieldsByRecipeId(Long id, String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(ProductField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findByAssociationIdIn(Product.class, writer.attributes(), "recipes", List.of(id));
+        if (rows.isEmpty()) {
+            throw new ProductNotFoundException(String.format("Продукты для рецепта с идентификатором %d не найдены.", id));
+        }
+        logger.info("Найдено {} продуктов для рецепта с ID {}.", rows.size(), id);
+        return new SparseFieldsDTO(writer, rows, false);
+    }
+
+    /**
+     * Возвращает указанные поля продуктов по списку идентификаторов рецептов.
+     * Если продукты не найдены, выбрасывается исключение ProductNotFoundException.
+     *
+     * @param ids    Список идентификаторов рецептов.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями продуктов, связанных с указанными рецептами.
+     * @throws ProductNotFoundException Если продукты для указанных рецептов не найдены.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readFieldsByRecipeIdIn(List<Long> ids, String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(ProductField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findByAssociationIdIn(Product.class, writer.attributes(), "recipes", ids);
+        if (rows.isEmpty()) {
+            throw new ProductNotFoundException(String.format("Продукты для рецептов с идентификаторами %s не найдены.", ids));
+        }
+        logger.info("Найдено {} продуктов для рецептов с ID {}.", rows.size(), ids);
+        return new SparseFieldsDTO(writer, rows, false);
+    }
+
+    /**
+     * Возвращает продукты, которые чаще всего используются в рецептах вместе с указанным продуктом.
+     * Результат вычисляется по индексу совместной встречаемости без обращения к базе данных.
+     * Если связанные продукты не найдены, выбрасывается исключение ProductNotFoundException.
+     *
+     * @param id    Идентификатор продукта.
+     * @param limit Максимальное количество результатов.
+     * @return Список связанных продуктов, упорядоченный по количеству общих рецептов.
+     * @throws BadRequestException     Если limit не положителен.
+     * @throws ProductNotFoundException Если связанные продукты не найдены.
+     */
+    public List<RelatedProductDTO> readRelated(Long id, int limit) {
+        checkLimit(limit);
+        List<RelatedProductDTO> related = recipeProductIndex.related(id, limit);
+        if (related.isEmpty()) {
+            throw new ProductNotFoundException(String.format("Связанные продукты для продукта с идентификатором %d не найдены.", id));
+        }
+        logger.info("Найдено {} связанных продуктов для продукта с ID {}.", related.size(), id);
+        return related;
+    }
+
+    /**
+     * Возвращает продукты, которые могут понадобиться вместе с продуктами из кладовой пользователя.
+     * Результат вычисляется по индексу совместной встречаемости без обращения к базе данных.
+     * Если подходящие продукты не найдены, выбрасывается исключение ProductNotFoundException.
+     *
+     * @param ids   Список идентификаторов продуктов в кладовой.
+     * @param limit Максимальное количество результатов.
+     * @return Список рекомендуемых продуктов, упорядоченный по суммарной совместной встречаемости.
+     * @throws BadRequestException     Если limit не положителен.
+     * @throws ProductNotFoundException Если рекомендуемые продукты не найдены.
+     */
+    public List<RelatedProductDTO> readSuggestions(List<Long> ids, int limit) {
+        checkLimit(limit);
+        List<RelatedProductDTO> suggestions = recipeProductIndex.suggest(ids, limit);
+        if (suggestions.isEmpty()) {
+            throw new ProductNotFoundException(String.format("Рекомендуемые продукты для продуктов с идентификаторами %s не найдены.", ids));
+        }
+        logger.info("Найдено {} рекомендуемых продуктов для продуктов с ID {}.", suggestions.size(), ids);
+        return suggestions;
+    }
+
+    /**
+     * Обновляет существующий продукт, заменяя все его поля и связи с рецептами.
      * Если продукт с указанным идентификатором не найден, выбрасывается исключение ProductNotFoundException.
      *
      * @param product Продукт с обновленными данными.
-     * @return Обновленный продукт.
+     * @return Обновленный продукт в том виде, в каком он сохранен.
      * @throws ProductNotFoundException Если продукт с указанным идентификатором не найден.
+     * @throws BadRequestException     Если некоторые из связанных рецептов не найдены или не найдено изображение с указанным хэшем.
      */
+    @Transactional
     public Product update(Product product) {
-        if (!productRepository.existsById(product.getId())) {
-            throw new ProductNotFoundException(String.format("Невозможно обновить. Продукт с идентификатором %d не найден.", product.getId()));
-        }
-        Product updatedProduct = productRepository.save(product);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("name", product.getName());
+        apply(product.getId(), fields, recipeIds(product.getRecipes()));
+        imageService.assign(ImageOwner.PRODUCT, product.getId(), product.getImageHash());
         logger.info("Продукт с ID {} успешно обновлен.", product.getId());
-        return updatedProduct;
+        return productRepository.findById(product.getId()).orElseThrow();
+    }
+
+    /**
+     * Частично обновляет продукт: записываются только переданные поля, а связи с рецептами
+     * изменяются добавлением и удалением только измененных связей.
+     * Если продукт с указанным идентификатором не найден, выбрасывается исключение ProductNotFoundException.
+     *
+     * @param id  Идентификатор продукта.
+     * @param dto DTO с изменяемыми полями продукта.
+     * @throws ProductNotFoundException Если продукт с указанным идентификатором не найден.
+     * @throws BadRequestException     Если некоторые из связанных рецептов не найдены или изображение недопустимо.
+     */
+    @Transactional
+    public void patch(Long id, ProductPatchDTO dto) {
+        Map<String, Object> fields = new HashMap<>();
+        if (dto.getName() != null) {
+            fields.put("name", dto.getName());
+        }
+        apply(id, fields, dto.getRecipeIds() == null ? null : new HashSet<>(dto.getRecipeIds()));
+        if (dto.getImage() != null) {
+            imageService.assign(ImageOwner.PRODUCT, id, imageService.save(dto.getImage()));
+        }
+        logger.info("Продукт с ID {} успешно изменен.", id);
     }
 
     /**
@@ -144,11 +356,117 @@ public class ProductService {
      * @param id Идентификатор продукта для удаления.
      * @throws ProductNotFoundException Если продукт с указанным идентификатором не найден.
      */
+    @Transactional
     public void delete(Long id) {
-        if (!productRepository.existsById(id)) {
+        if (remove(List.of(id)).isEmpty()) {
             throw new ProductNotFoundException(String.format("Невозможно удалить. Продукт с идентификатором %d не найден.", id));
         }
-        productRepository.deleteById(id);
         logger.info("Продукт с ID {} успешно удален.", id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Удаляет продукты по набору идентификаторов.
+     * Замены, связи с рецептами и сами продукты удаляются запросами над множествами в одной транзакции,
+     * после чего индексы и кэши обновляются одним событием.
+     * Если ни один из продуктов не найден, выбрасывается исключение ProductNotFoundException.
+     *
+     * @param ids Идентификаторы продуктов для удаления.
+     * @return Идентификаторы удаленных и не найденных продуктов.
+     * @throws BadRequestException Если список идентификаторов пуст или превышает допустимый размер.
+     * @throws ProductNotFoundException Если ни один из продуктов не найден.
+     */
+    @Transactional
+    public BulkDeleteDTO deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new BadRequestException("Список идентификаторов для удаления не должен быть пустым.");
+        }
+        if (ids.size() > maxBulkDeleteIds) {
+            throw new BadRequestException(String.format("Невозможно удалить более %d продуктов за один запрос.", maxBulkDeleteIds));
+        }
+        Set<Long> requested = new TreeSet<>(ids);
+        List<Long> deleted = remove(requested).stream().sorted().toList();
+        if (deleted.isEmpty()) {
+            throw new ProductNotFoundException(String.format("Невозможно удалить. Продукты с идентификаторами %s не найдены.", requested));
+        }
+        deleted.forEach(requested::remove);
+        logger.info("Удалено {} продуктов, не найдено {}.", deleted.size(), requested.size());
+        return new BulkDeleteDTO(deleted, new ArrayList<>(requested));
+    }
+
+    /**
+     * Удаляет существующие продукты из набора. Связи с рецептами и замены удаляются явно до удаления продуктов,
+     * ссылки на изображения освобождаются. Публикуется событие удаления продуктов и событие изменения
+     * рецептов, которые их использовали.
+     *
+     * @return Идентификаторы удаленных продуктов.
+     */
+    private List<Long> remove(Collection<Long> ids) {
+        List<Long> existing = ids.isEmpty() ? List.of() : productRepository.findIdsByIdIn(ids);
+        if (existing.isEmpty()) {
+            return existing;
+        }
+        Set<Long> linked = recipeRepository.findLinksByProductIdIn(existing).stream()
+                .map(RecipeProductLink::recipeId)
+                .collect(Collectors.toSet());
+        recipeRepository.deleteLinksByProductIdIn(existing);
+        productSubstitutionRepository.deleteAllByProductIdIn(existing);
+        imageService.releaseAll(ImageOwner.PRODUCT, existing);
+        productRepository.deleteAllByIdInBatch(existing);
+        eventPublisher.publishEvent(CatalogChangedEvent.deleted(CatalogChangedEvent.Type.PRODUCT, existing));
+        publishRelinked(CatalogChangedEvent.Type.RECIPE, linked);
+        return existing;
+    }
+
+    /**
+     * Записывает поля продукта одним запросом UPDATE, проверяя существование по количеству обновленных строк,
+     * и при необходимости приводит связи с рецептами к указанному набору.
+     */
+    private void apply(Long id, Map<String, Object> fields, Set<Long> recipeIds) {
+        if (partialUpdateRepository.update(Product.class, id, fields) == 0) {
+            throw new ProductNotFoundException(String.format("Невозможно обновить. Продукт с идентификатором %d не найден.", id));
+        }
+        Set<Long> relinked = new HashSet<>();
+        if (recipeIds != null) {
+            Set<Long> removed = new HashSet<>(productRepository.findRecipeIdsById(id));
+            Set<Long> added = new HashSet<>(recipeIds);
+            added.removeAll(removed);
+            removed.removeAll(recipeIds);
+            relinked.addAll(added);
+            relinked.addAll(removed);
+            if (!removed.isEmpty()) {
+                productRepository.deleteRecipeLinks(id, removed);
+            }
+            if (!added.isEmpty() && productRepository.insertRecipeLinks(id, added) != added.size()) {
+                throw new BadRequestException(String.format("Некоторые из рецептов с идентификаторами %s не найдены.", added));
+            }
+        }
+        eventPublisher.publishEvent(CatalogChangedEvent.upserted(CatalogChangedEvent.Type.PRODUCT, id, recipeIds));
+        publishRelinked(CatalogChangedEvent.Type.RECIPE, relinked);
+    }
+
+    /**
+     * Публикует событие изменения рецептов, у которых изменились связи, чтобы журнал изменений,
+     * индексы и кэши учитывали обе стороны связи.
+     */
+    private void publishRelinked(CatalogChangedEvent.Type type, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.relinked(type, ids));
+        }
+    }
+
+    /**
+     * Проверяет, что ограничение количества результатов положительно.
+     */
+    private static void checkLimit(int limit) {
+        if (limit < 1) {
+            throw new BadRequestException(String.format("Некорректное ограничение количества результатов: %d.", limit));
+        }
+    }
+
+    /**
+     * Возвращает идентификаторы рецептов из коллекции.
+     */
+    private static Set<Long> recipeIds(Collection<Recipe> recipes) {
+        return recipes == null ? Set.of() : recipes.stream().map(Recipe::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,119 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.SubstitutionDTO;
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.entity.ProductSubstitution;
+import com.alexpyslar03.productselectorbackend.event.SubstitutionChangedEvent;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
+import com.alexpyslar03.productselectorbackend.exception.ProductNotFoundException;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.ProductSubstitutionRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сервисный класс для работы с графом замен продуктов.
+ * Содержит методы для чтения, добавления и удаления замен.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSubstitutionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSubstitutionService.class);
+
+    private final ProductSubstitutionRepository productSubstitutionRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Возвращает замены продукта.
+     * Если замены не найдены, выбрасывается исключение ProductNotFoundException.
+     *
+     * @param productId Идентификатор заменяемого продукта.
+     * @return Список замен продукта.
+     * @throws ProductNotFoundException Если замены для продукта не найдены.
+     */
+    @Transactional(readOnly = true)
+    public List<SubstitutionDTO> readByProductId(Long productId) {
+        List<SubstitutionDTO> substitutions = productSubstitutionRepository.findEdgesByProductId(productId);
+        if (substitutions.isEmpty()) {
+            throw new ProductNotFoundException(String.format("Замены для продукта с идентификатором %d не найдены.", productId));
+        }
+        logger.info("Найдено {} замен для продукта с ID {}.", substitutions.size(), productId);
+        return substitutions;
+    }
+
+    /**
+     * Добавляет замену продукта или обновляет вес существующей.
+     *
+     * @param productId Идентификатор заменяемого продукта.
+     * @param dto       DTO с идентификатором продукта-заменителя и весом замены.
+     * @return Сохраненная замена.
+     * @throws BadRequestException      Если продукт-заменитель не указан, вес вне диапазона (0, 1]
+     *                                  или продукт заменяет сам себя.
+     * @throws ProductNotFoundException Если один из продуктов не найден.
+     */
+    @Transactional
+    public SubstitutionDTO save(Long productId, SubstitutionDTO dto) {
+        if (dto.getSubstituteId() == null) {
+            throw new BadRequestException("Не указан идентификатор продукта-заменителя.");
+        }
+        if (!(dto.getWeight() > 0 && dto.getWeight() <= 1)) {
+            throw new BadRequestException(String.format("Вес замены должен быть в диапазоне (0, 1], получено %s.", dto.getWeight()));
+        }
+        if (productId.equals(dto.getSubstituteId())) {
+            throw new BadRequestException("Продукт не может быть заменой самому себе.");
+        }
+        ProductSubstitution substitution = productSubstitutionRepository.findByProductIdAndSubstituteId(productId, dto.getSubstituteId())
+                .orElseGet(() -> ProductSubstitution.builder()
+                        .product(findProduct(productId))
+                        .substitute(findProduct(dto.getSubstituteId()))
+                        .build());
+        substitution.setWeight(dto.getWeight());
+        productSubstitutionRepository.save(substitution);
+        publish(productId);
+        logger.info("Замена продукта с ID {} продуктом с ID {} сохранена.", productId, dto.getSubstituteId());
+        return new SubstitutionDTO(productId, dto.getSubstituteId(), dto.getWeight());
+    }
+
+    /**
+     * Удаляет замену продукта.
+     * Если замена не найдена, выбрасывается исключение ProductNotFoundException.
+     *
+     * @param productId    Идентификатор заменяемого продукта.
+     * @param substituteId Идентификатор продукта-заменителя.
+     * @throws ProductNotFoundException Если замена не найдена.
+     */
+    @Transactional
+    public void delete(Long productId, Long substituteId) {
+        ProductSubstitution substitution = productSubstitutionRepository.findByProductIdAndSubstituteId(productId, substituteId)
+                .orElseThrow(() -> new ProductNotFoundException(String.format(
+                        "Невозможно удалить. Замена продукта с идентификатором %d продуктом с идентификатором %d не найдена.", productId, substituteId)));
+        productSubstitutionRepository.delete(substitution);
+        publish(productId);
+        logger.info("Замена продукта с ID {} продуктом с ID {} успешно удалена.", productId, substituteId);
+    }
+
+    private Product findProduct(Long id) {
+        return productRepository.findById(id)
+                .orElseThrow(() -> new ProductNotFoundException(String.format("Продукт с идентификатором %d не найден.", id)));
+    }
+
+    /**
+     * Публикует актуальный набор замен продукта для обновления индекса.
+     */
+    private void publish(Long productId) {
+        Map<Long, Double> substitutes = new LinkedHashMap<>();
+        productSubstitutionRepository.findEdgesByProductId(productId)
+                .forEach(edge -> substitutes.put(edge.getSubstituteId(), edge.getWeight()));
+        eventPublisher.publishEvent(new SubstitutionChangedEvent(productId, substitutes));
+    }
+}
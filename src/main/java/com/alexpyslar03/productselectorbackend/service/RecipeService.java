@@ -1,17 +1,46 @@
 package com.alexpyslar03.productselectorbackend.service;
 
+import com.alexpyslar03.productselectorbackend.datasource.ReplicaRoutingContext;
+import com.alexpyslar03.productselectorbackend.dto.BulkDeleteDTO;
+import com.alexpyslar03.productselectorbackend.dto.NormalizedRecipesDTO;
+import com.alexpyslar03.productselectorbackend.dto.PantryMatchDTO;
 import com.alexpyslar03.productselectorbackend.dto.RecipeDTO;
+import com.alexpyslar03.productselectorbackend.dto.RecipeDetailsDTO;
+import com.alexpyslar03.productselectorbackend.dto.RecipePatchDTO;
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
+import com.alexpyslar03.productselectorbackend.dto.SparseFieldsDTO;
+import com.alexpyslar03.productselectorbackend.dto.TrendingRecipeDTO;
+import com.alexpyslar03.productselectorbackend.entity.Product;
 import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
 import com.alexpyslar03.productselectorbackend.exception.RecipeNotFoundException;
+import com.alexpyslar03.productselectorbackend.image.ImageOwner;
+import com.alexpyslar03.productselectorbackend.index.RecipeProductIndex;
+import com.alexpyslar03.productselectorbackend.json.RecipeField;
+import com.alexpyslar03.productselectorbackend.json.SparseFieldsWriter;
+import com.alexpyslar03.productselectorbackend.repository.FieldProjectionRepository;
+import com.alexpyslar03.productselectorbackend.repository.JsonExportRepository;
+import com.alexpyslar03.productselectorbackend.repository.PartialUpdateRepository;
 import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
 import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import com.alexpyslar03.productselectorbackend.util.SingleFlight;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-import java.util.Set;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Сервисный класс для работы с рецептами.
@@ -25,6 +54,19 @@ public class RecipeService {
 
     private final RecipeRepository recipeRepository;
     private final ProductRepository productRepository;
+    private final PartialUpdateRepository partialUpdateRepository;
+    private final FieldProjectionRepository fieldProjectionRepository;
+    private final JsonExportRepository jsonExportRepository;
+    private final RecipeProductIndex recipeProductIndex;
+    private final PopularityService popularityService;
+    private final ImageService imageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final SingleFlight<Long, RecipeDetailsDTO> recipeByIdFlight;
+    private final SingleFlight<List<Long>, List<RecipeDetailsDTO>> recipesByProductIdsFlight;
+
+    @Value("${app.bulk-delete.max-ids}")
+    private int maxBulkDeleteIds;
 
     /**
      * Создает новый рецепт на основе предоставленного DTO и сохраняет его в репозитории.
@@ -32,6 +74,7 @@ public class RecipeService {
      * @param dto DTO с данными нового рецепта.
      * @return Созданный рецепт.
      */
+    @Transactional
     public Recipe create(RecipeDTO dto) {
         Recipe recipe = Recipe.builder()
                 .name(dto.getName())
@@ -39,36 +82,50 @@ public class RecipeService {
                 .vegan(dto.isVegan())
                 .difficultyLevel(dto.getDifficultyLevel())
                 .rating(dto.getRating())
-                .image(dto.getImage())
+                .imageHash(imageService.save(dto.getImage()))
                 .products(productRepository.findAllByIdIn(dto.getProductIds())) // Установка связанных продуктов
                 .build();
         Recipe savedRecipe = recipeRepository.save(recipe);
+        imageService.retain(savedRecipe.getImageHash());
+        eventPublisher.publishEvent(CatalogChangedEvent.upserted(
+                CatalogChangedEvent.Type.RECIPE, savedRecipe.getId(), productIds(savedRecipe.getProducts())));
+        publishRelinked(CatalogChangedEvent.Type.PRODUCT, productIds(savedRecipe.getProducts()));
         logger.info("Рецепт с ID {} успешно создан.", savedRecipe.getId());
         return savedRecipe;
     }
 
     /**
-     * Возвращает список всех рецептов.
+     * Записывает список всех рецептов в JSON напрямую из курсора базы данных, без загрузки сущностей.
+     * Формат совпадает с сериализацией списка сущностей.
      *
-     * @return Список всех рецептов.
+     * @param out Поток, в который записывается JSON.
+     * @throws IOException Если запись не удалась.
      */
-    public List<Recipe> readAll() {
-        List<Recipe> recipes = recipeRepository.findAll();
+    @Transactional(readOnly = true)
+    public void writeAll(OutputStream out) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            jsonExportRepository.writeRecipes(gen);
+        }
         logger.info("Запрошен список всех рецептов.");
-        return recipes;
     }
 
     /**
      * Возвращает рецепт по его идентификатору.
+     * Одновременные запросы одного рецепта объединяются в одно обращение к базе данных. Рецепт вместе с продуктами
+     * загружается одним запросом в транзакции только для чтения репозитория и передается всем ожидающим вызовам
+     * в виде неизменяемого представления, не связанного с сессией Hibernate. Метод не открывает собственную
+     * транзакцию, чтобы ожидающие вызовы не занимали соединения. Вызовы, которые должны читать основную базу данных,
+     * не объединяются с остальными.
      * Если рецепт не найден, выбрасывается исключение RecipeNotFoundException.
      *
      * @param id Идентификатор рецепта.
      * @return Рецепт с указанным идентификатором.
      * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
      */
-    public Recipe readById(Long id) {
-        Recipe recipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new RecipeNotFoundException(String.format("Рецепт с идентификатором %d не найден.", id)));
+    public RecipeDetailsDTO readById(Long id) {
+        RecipeDetailsDTO recipe = shared(recipeByIdFlight, id, () -> recipeRepository.findDetailsById(id)
+                .orElseThrow(() -> new RecipeNotFoundException(String.format("Рецепт с идентификатором %d не найден.", id))));
+        popularityService.recordRecipeView(id);
         logger.info("Рецепт с ID {} найден.", id);
         return recipe;
     }
@@ -81,6 +138,7 @@ public class RecipeService {
      * @return Набор рецептов с указанными идентификаторами.
      * @throws RecipeNotFoundException Если рецепты с указанными идентификаторами не найдены.
      */
+    @Transactional(readOnly = true)
     public Set<Recipe> readAllByIdIn(List<Long> ids) {
         Set<Recipe> recipes = recipeRepository.findAllByIdIn(ids);
         if (recipes.isEmpty()) {
@@ -98,6 +156,7 @@ public class RecipeService {
      * @return Список рецептов, содержащих указанный продукт.
      * @throws RecipeNotFoundException Если рецепты для указанного продукта не найдены.
      */
+    @Transactional(readOnly = true)
     public List<Recipe> readByProductId(Long id) {
         List<Recipe> recipes = recipeRepository.findByProductsId(id);
         if (recipes.isEmpty()) {
@@ -109,36 +168,270 @@ public class RecipeService {
 
     /**
      * Возвращает список рецептов по списку идентификаторов продуктов.
+     * Одновременные запросы с одинаковым набором продуктов (без учета порядка и повторов)
+     * объединяются в одно обращение к базе данных; результат, как и в {@link #readById(Long)},
+     * загружается в транзакции репозитория и разделяется в виде неизменяемых представлений.
      * Если рецепты не найдены, выбрасывается исключение RecipeNotFoundException.
      *
      * @param ids Список идентификаторов продуктов.
-     * @return Список рецептов, содержащих указанные продукты.
+     * @return Список рецептов, содержащих указанные продукты, без повторов в порядке возрастания идентификаторов.
      * @throws RecipeNotFoundException Если рецепты для указанных продуктов не найдены.
      */
-    public List<Recipe> readByProductIdIn(List<Long> ids) {
-        List<Recipe> recipes = recipeRepository.findByProductsIdIn(ids);
-        if (recipes.isEmpty()) {
-            throw new RecipeNotFoundException(String.format("Рецепты для продуктов с идентификаторами %s не найдены.", ids));
-        }
+    public List<RecipeDetailsDTO> readByProductIdIn(List<Long> ids) {
+        List<Long> key = List.copyOf(new TreeSet<>(ids));
+        List<RecipeDetailsDTO> recipes = shared(recipesByProductIdsFlight, key, () -> {
+            List<RecipeDetailsDTO> found = recipeRepository.findDetailsByProductsIdIn(key);
+            if (found.isEmpty()) {
+                throw new RecipeNotFoundException(String.format("Рецепты для продуктов с идентификаторами %s не найдены.", key));
+            }
+            return found;
+        });
         logger.info("Найдено {} рецептов для продуктов с ID {}.", recipes.size(), ids);
         return recipes;
     }
 
     /**
-     * Обновляет существующий рецепт.
+     * Выполняет загрузку с объединением одинаковых одновременных запросов. Если чтения текущего запроса должны
+     * выполняться на основной базе данных (клиент недавно выполнял запись), загрузка выполняется отдельно:
+     * результат, загруженный с реплики для другого запроса, может не содержать изменений клиента.
+     */
+    private static <K, V> V shared(SingleFlight<K, V> flight, K key, Supplier<V> loader) {
+        return ReplicaRoutingContext.isPrimaryRequired() ? loader.get() : flight.execute(key, loader);
+    }
+
+    /**
+     * Возвращает указанные поля всех рецептов.
+     * Из базы данных выбираются только столбцы запрошенных полей.
+     *
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями рецептов.
+     * @throws BadRequestException Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readAllFields(String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(RecipeField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findAll(Recipe.class, writer.attributes());
+        logger.info("Запрошены поля {} всех рецептов.", writer.attributes());
+        return new SparseFieldsDTO(writer, rows, false);
+    }
+
+    /**
+     * Возвращает указанные поля рецепта по его идентификатору.
+     * Если рецепт не найден, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param id     Идентификатор рецепта.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями рецепта.
+     * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readFieldsById(Long id, String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(RecipeField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findByIdIn(Recipe.class, writer.attributes(), List.of(id));
+        if (rows.isEmpty()) {
+            throw new RecipeNotFoundException(String.format("Рецепт с идентификатором %d не найден.", id));
+        }
+        popularityService.recordRecipeView(id);
+        logger.info("Рецепт с ID {} найден.", id);
+        return new SparseFieldsDTO(writer, rows, true);
+    }
+
+    /**
+     * Возвращает указанные поля рецептов по предоставленным идентификаторам.
+     * Если рецепты не найдены, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param ids    Список идентификаторов рецептов.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями рецептов.
+     * @throws RecipeNotFoundException Если рецепты с указанными идентификаторами не найдены.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readFieldsByIdIn(List<Long> ids, String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(RecipeField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findByIdIn(Recipe.class, writer.attributes(), ids);
+        if (rows.isEmpty()) {
+            throw new RecipeNotFoundException("Рецепты с указанными идентификаторами не найдены.");
+        }
+        logger.info("Найдено {} рецептов по указанным ID.", rows.size());
+        return new SparseFieldsDTO(writer, rows, false);
+    }
+
+    /**
+     * Возвращает указанные поля рецептов по идентификатору продукта.
+     * Если рецепты не найдены, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param id     Идентификатор продукта.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями рецептов, содержащих указанный продукт.
+     * @throws RecipeNotFoundException Если рецепты для указанного продукта не найдены.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readFieldsByProductId(Long id, String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(RecipeField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findByAssociationIdIn(Recipe.class, writer.attributes(), "products", List.of(id));
+        if (rows.isEmpty()) {
+            throw new RecipeNotFoundException(String.format("Рецепты для продукта с идентификатором %d не найдены.", id));
+        }
+        logger.info("Найдено {} рецептов для продукта с ID {}.", rows.size(), id);
+        return new SparseFieldsDTO(writer, rows, false);
+    }
+
+    /**
+     * Возвращает указанные поля рецептов по списку идентификаторов продуктов.
+     * Если рецепты не найдены, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param ids    Список идентификаторов продуктов.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями рецептов, содержащих указанные продукты.
+     * @throws RecipeNotFoundException Если рецепты для указанных продуктов не найдены.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readFieldsByProductIdIn(List<Long> ids, String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(RecipeField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findByAssociationIdIn(Recipe.class, writer.attributes(), "products", ids);
+        if (rows.isEmpty()) {
+            throw new RecipeNotFoundException(String.format("Рецепты для продуктов с идентификаторами %s не найдены.", ids));
+        }
+        logger.info("Найдено {} рецептов для продуктов с ID {}.", rows.size(), ids);
+        return new SparseFieldsDTO(writer, rows, false);
+    }
+
+    /**
+     * Возвращает рецепты по списку идентификаторов продуктов в нормализованном виде: рецепты ссылаются
+     * на продукты по идентификаторам, а каждый продукт передается один раз.
+     * Ответ строится тремя запросами без загрузки сущностей и их связей.
+     * Если рецепты не найдены, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param ids Список идентификаторов продуктов.
+     * @return Нормализованный ответ с рецептами, содержащими указанные продукты, и их продуктами.
+     * @throws RecipeNotFoundException Если рецепты для указанных продуктов не найдены.
+     */
+    @Transactional(readOnly = true)
+    public NormalizedRecipesDTO readNormalizedByProductIdIn(List<Long> ids) {
+        List<RecipeProductLink> links = recipeRepository.findRecipeLinksByProductIdIn(ids);
+        if (links.isEmpty()) {
+            throw new RecipeNotFoundException(String.format("Рецепты для продуктов с идентификаторами %s не найдены.", ids));
+        }
+        Set<Long> recipeIds = new HashSet<>();
+        Set<Long> productIds = new HashSet<>();
+        for (RecipeProductLink link : links) {
+            recipeIds.add(link.recipeId());
+            productIds.add(link.productId());
+        }
+        List<RecipeSummary> recipes = recipeRepository.findSummariesByIdIn(recipeIds);
+        NormalizedRecipesDTO result = NormalizedRecipesDTO.of(recipes, links, productRepository.findSummariesByIdIn(productIds));
+        logger.info("Найдено {} рецептов с {} продуктами для продуктов с ID {}.", recipes.size(), productIds.size(), ids);
+        return result;
+    }
+
+    /**
+     * Возвращает рецепты, которые можно приготовить из продуктов кладовой.
+     * При разрешенных заменах недостающие продукты могут быть заменены продуктами из кладовой
+     * согласно графу замен; такие рецепты получают оценку меньше 1.
+     * Если подходящие рецепты не найдены, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param ids         Список идентификаторов продуктов в кладовой.
+     * @param substitutes Разрешить замену недостающих продуктов.
+     * @return Список подходящих рецептов, упорядоченный по убыванию оценки.
+     * @throws RecipeNotFoundException Если подходящие рецепты не найдены.
+     */
+    public List<PantryMatchDTO> readByPantry(List<Long> ids, boolean substitutes) {
+        List<PantryMatchDTO> matches = recipeProductIndex.match(ids, substitutes);
+        if (matches.isEmpty()) {
+            throw new RecipeNotFoundException(String.format("Рецепты, которые можно приготовить из продуктов с идентификаторами %s, не найдены.", ids));
+        }
+        logger.info("Найдено {} рецептов для кладовой из продуктов с ID {}.", matches.size(), ids);
+        return matches;
+    }
+
+    /**
+     * Возвращает рецепты, популярные в последнее время.
+     * Оценка рассчитывается по окнам событий в памяти без обращения к базе данных.
+     *
+     * @param limit Максимальное количество результатов.
+     * @return Список рецептов, упорядоченный по убыванию оценки популярности.
+     * @throws BadRequestException Если limit не положителен.
+     */
+    public List<TrendingRecipeDTO> readTrending(int limit) {
+        if (limit < 1) {
+            throw new BadRequestException(String.format("Некорректное ограничение количества результатов: %d.", limit));
+        }
+        List<TrendingRecipeDTO> trending = popularityService.trending(limit);
+        logger.info("Запрошен список из {} популярных рецептов.", trending.size());
+        return trending;
+    }
+
+    /**
+     * Отмечает, что рецепт был приготовлен.
+     * Счетчики рецепта и его продуктов увеличиваются в памяти и записываются в базу данных пакетно.
+     * Если рецепт с указанным идентификатором не найден, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param id Идентификатор рецепта.
+     * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
+     */
+    public void cooked(Long id) {
+        if (!recipeRepository.existsById(id)) {
+            throw new RecipeNotFoundException(String.format("Рецепт с идентификатором %d не найден.", id));
+        }
+        popularityService.recordRecipeCooked(id, recipeProductIndex.productsOf(id));
+        logger.info("Рецепт с ID {} отмечен как приготовленный.", id);
+    }
+
+    /**
+     * Обновляет существующий рецепт, заменяя все его поля и связи с продуктами.
      * Если рецепт с указанным идентификатором не найден, выбрасывается исключение RecipeNotFoundException.
      *
      * @param recipe Рецепт с обновленными данными.
-     * @return Обновленный рецепт.
+     * @return Обновленный рецепт в том виде, в каком он сохранен.
      * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
+     * @throws BadRequestException     Если некоторые из связанных продуктов не найдены или не найдено изображение с указанным хэшем.
      */
+    @Transactional
     public Recipe update(Recipe recipe) {
-        if (!recipeRepository.existsById(recipe.getId())) {
-            throw new RecipeNotFoundException(String.format("Невозможно обновить. Рецепт с идентификатором %d не найден.", recipe.getId()));
-        }
-        Recipe updatedRecipe = recipeRepository.save(recipe);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("name", recipe.getName());
+        fields.put("description", recipe.getDescription());
+        fields.put("vegan", recipe.isVegan());
+        fields.put("difficultyLevel", recipe.getDifficultyLevel());
+        fields.put("rating", recipe.getRating());
+        apply(recipe.getId(), fields, productIds(recipe.getProducts()));
+        imageService.assign(ImageOwner.RECIPE, recipe.getId(), recipe.getImageHash());
         logger.info("Рецепт с ID {} успешно обновлен.", recipe.getId());
-        return updatedRecipe;
+        return recipeRepository.findById(recipe.getId()).orElseThrow();
+    }
+
+    /**
+     * Частично обновляет рецепт: записываются только переданные поля, а связи с продуктами
+     * изменяются добавлением и удалением только измененных связей.
+     * Если рецепт с указанным идентификатором не найден, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param id  Идентификатор рецепта.
+     * @param dto DTO с изменяемыми полями рецепта.
+     * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
+     * @throws BadRequestException     Если некоторые из связанных продуктов не найдены или изображение недопустимо.
+     */
+    @Transactional
+    public void patch(Long id, RecipePatchDTO dto) {
+        Map<String, Object> fields = new HashMap<>();
+        if (dto.getName() != null) {
+            fields.put("name", dto.getName());
+        }
+        if (dto.getDescription() != null) {
+            fields.put("description", dto.getDescription());
+        }
+        if (dto.getVegan() != null) {
+            fields.put("vegan", dto.getVegan());
+        }
+        if (dto.getDifficultyLevel() != null) {
+            fields.put("difficultyLevel", dto.getDifficultyLevel());
+        }
+        if (dto.getRating() != null) {
+            fields.put("rating", dto.getRating());
+        }
+        apply(id, fields, dto.getProductIds() == null ? null : new HashSet<>(dto.getProductIds()));
+        if (dto.getImage() != null) {
+            imageService.assign(ImageOwner.RECIPE, id, imageService.save(dto.getImage()));
+        }
+        logger.info("Рецепт с ID {} успешно изменен.", id);
     }
 
     /**
@@ -148,11 +441,107 @@ public class RecipeService {
      * @param id Идентификатор рецепта для удаления.
      * @throws RecipeNotFoundException Если рецепт с указанным идентификатором не найден.
      */
+    @Transactional
     public void delete(Long id) {
-        if (!recipeRepository.existsById(id)) {
+        if (remove(List.of(id)).isEmpty()) {
             throw new RecipeNotFoundException(String.format("Невозможно удалить. Рецепт с идентификатором %d не найден.", id));
         }
-        recipeRepository.deleteById(id);
         logger.info("Рецепт с ID {} успешно удален.", id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Удаляет рецепты по набору идентификаторов.
+     * Связи с продуктами и сами рецепты удаляются запросами над множествами в одной транзакции,
+     * после чего индексы и кэши обновляются одним событием.
+     * Если ни один из рецептов не найден, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param ids Идентификаторы рецептов для удаления.
+     * @return Идентификаторы удаленных и не найденных рецептов.
+     * @throws BadRequestException Если список идентификаторов пуст или превышает допустимый размер.
+     * @throws RecipeNotFoundException Если ни один из рецептов не найден.
+     */
+    @Transactional
+    public BulkDeleteDTO deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new BadRequestException("Список идентификаторов для удаления не должен быть пустым.");
+        }
+        if (ids.size() > maxBulkDeleteIds) {
+            throw new BadRequestException(String.format("Невозможно удалить более %d рецептов за один запрос.", maxBulkDeleteIds));
+        }
+        Set<Long> requested = new TreeSet<>(ids);
+        List<Long> deleted = remove(requested).stream().sorted().toList();
+        if (deleted.isEmpty()) {
+            throw new RecipeNotFoundException(String.format("Невозможно удалить. Рецепты с идентификаторами %s не найдены.", requested));
+        }
+        deleted.forEach(requested::remove);
+        logger.info("Удалено {} рецептов, не найдено {}.", deleted.size(), requested.size());
+        return new BulkDeleteDTO(deleted, new ArrayList<>(requested));
+    }
+
+    /**
+     * Удаляет существующие рецепты из набора. Связи с продуктами удаляются явно до удаления рецептов,
+     * ссылки на изображения освобождаются. Публикуется событие удаления рецептов и событие изменения
+     * продуктов, которые в них использовались.
+     *
+     * @return Идентификаторы удаленных рецептов.
+     */
+    private List<Long> remove(Collection<Long> ids) {
+        List<Long> existing = ids.isEmpty() ? List.of() : recipeRepository.findIdsByIdIn(ids);
+        if (existing.isEmpty()) {
+            return existing;
+        }
+        Set<Long> linked = recipeRepository.findLinksByRecipeIdIn(existing).stream()
+                .map(RecipeProductLink::productId)
+                .collect(Collectors.toSet());
+        recipeRepository.deleteLinksByRecipeIdIn(existing);
+        imageService.releaseAll(ImageOwner.RECIPE, existing);
+        recipeRepository.deleteAllByIdInBatch(existing);
+        eventPublisher.publishEvent(CatalogChangedEvent.deleted(CatalogChangedEvent.Type.RECIPE, existing));
+        publishRelinked(CatalogChangedEvent.Type.PRODUCT, linked);
+        return existing;
+    }
+
+    /**
+     * Записывает поля рецепта одним запросом UPDATE, проверяя существование по количеству обновленных строк,
+     * и при необходимости приводит связи с продуктами к указанному набору.
+     */
+    private void apply(Long id, Map<String, Object> fields, Set<Long> productIds) {
+        if (partialUpdateRepository.update(Recipe.class, id, fields) == 0) {
+            throw new RecipeNotFoundException(String.format("Невозможно обновить. Рецепт с идентификатором %d не найден.", id));
+        }
+        Set<Long> relinked = new HashSet<>();
+        if (productIds != null) {
+            Set<Long> removed = new HashSet<>(recipeRepository.findProductIdsById(id));
+            Set<Long> added = new HashSet<>(productIds);
+            added.removeAll(removed);
+            removed.removeAll(productIds);
+            relinked.addAll(added);
+            relinked.addAll(removed);
+            if (!removed.isEmpty()) {
+                recipeRepository.deleteProductLinks(id, removed);
+            }
+            if (!added.isEmpty() && recipeRepository.insertProductLinks(id, added) != added.size()) {
+                throw new BadRequestException(String.format("Некоторые из продуктов с идентификаторами %s не найдены.", added));
+            }
+        }
+        eventPublisher.publishEvent(CatalogChangedEvent.upserted(CatalogChangedEvent.Type.RECIPE, id, productIds));
+        publishRelinked(CatalogChangedEvent.Type.PRODUCT, relinked);
+    }
+
+    /**
+     * Публикует событие изменения продуктов, у которых изменились связи, чтобы журнал изменений,
+     * индексы и кэши учитывали обе стороны связи.
+     */
+    private void publishRelinked(CatalogChangedEvent.Type type, Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(CatalogChangedEvent.relinked(type, ids));
+        }
+    }
+
+    /**
+     * Возвращает идентификаторы продуктов из коллекции.
+     */
+    private static Set<Long> productIds(Collection<Product> products) {
+        return products == null ? Set.of() : products.stream().map(Product::getId).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,61 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.ProductSummary;
+import com.alexpyslar03.productselectorbackend.dto.ShoppingListDTO;
+import com.alexpyslar03.productselectorbackend.exception.RecipeNotFoundException;
+import com.alexpyslar03.productselectorbackend.index.RecipeProductIndex;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Сервисный класс для формирования списка покупок по набору рецептов.
+ * Состав рецептов берется из индекса связей в памяти, названия продуктов загружаются одним запросом.
+ */
+@Service
+@RequiredArgsConstructor
+public class ShoppingListService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShoppingListService.class);
+
+    private final RecipeProductIndex recipeProductIndex;
+    private final ProductRepository productRepository;
+
+    /**
+     * Формирует дедуплицированный список недостающих продуктов для указанных рецептов.
+     * Если ни один из рецептов не содержит продуктов, выбрасывается исключение RecipeNotFoundException.
+     *
+     * @param recipeIds  Список идентификаторов рецептов.
+     * @param pantryIds  Список идентификаторов продуктов, уже имеющихся у пользователя (может быть null).
+     * @return Список покупок с рецептами, в которых используется каждый продукт.
+     * @throws RecipeNotFoundException Если продукты для указанных рецептов не найдены.
+     */
+    @Transactional(readOnly = true)
+    public ShoppingListDTO create(List<Long> recipeIds, List<Long> pantryIds) {
+        Set<Long> pantry = pantryIds == null ? Set.of() : new HashSet<>(pantryIds);
+        SortedMap<Long, List<Long>> usage = new TreeMap<>();
+        for (Long recipeId : new LinkedHashSet<>(recipeIds)) {
+            for (long productId : recipeProductIndex.productsOf(recipeId)) {
+                usage.computeIfAbsent(productId, k -> new ArrayList<>()).add(recipeId);
+            }
+        }
+        if (usage.isEmpty()) {
+            throw new RecipeNotFoundException(String.format("Продукты для рецептов с идентификаторами %s не найдены.", recipeIds));
+        }
+        List<Long> covered = usage.keySet().stream().filter(pantry::contains).toList();
+        usage.keySet().removeAll(pantry);
+        Map<Long, String> names = usage.isEmpty() ? Map.of() : productRepository.findSummariesByIdIn(usage.keySet()).stream()
+                .collect(Collectors.toMap(ProductSummary::id, ProductSummary::name, (a, b) -> a));
+        List<ShoppingListDTO.Item> items = usage.entrySet().stream()
+                .map(e -> new ShoppingListDTO.Item(e.getKey(), names.get(e.getKey()), e.getValue()))
+                .toList();
+        logger.info("Сформирован список покупок из {} продуктов для рецептов с ID {}.", items.size(), recipeIds);
+        return new ShoppingListDTO(items, covered);
+    }
+}
@@ -1,15 +1,33 @@
 package com.alexpyslar03.productselectorbackend.service;
 
+import com.alexpyslar03.productselectorbackend.dto.BulkDeleteDTO;
+import com.alexpyslar03.productselectorbackend.dto.SparseFieldsDTO;
 import com.alexpyslar03.productselectorbackend.dto.UserDTO;
+import com.alexpyslar03.productselectorbackend.dto.UserPatchDTO;
 import com.alexpyslar03.productselectorbackend.entity.User;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
 import com.alexpyslar03.productselectorbackend.exception.UserNotFoundException;
+import com.alexpyslar03.productselectorbackend.json.SparseFieldsWriter;
+import com.alexpyslar03.productselectorbackend.json.UserField;
+import com.alexpyslar03.productselectorbackend.repository.FieldProjectionRepository;
+import com.alexpyslar03.productselectorbackend.repository.PartialUpdateRepository;
 import com.alexpyslar03.productselectorbackend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * Сервисный класс для работы с пользователями.
@@ -22,6 +40,12 @@ public class UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
+    private final PartialUpdateRepository partialUpdateRepository;
+    private final FieldProjectionRepository fieldProjectionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.bulk-delete.max-ids}")
+    private int maxBulkDeleteIds;
 
     /**
      * Создает нового пользователя на основе предоставленного DTO и сохраняет его в репозитории.
@@ -29,6 +53,7 @@ public class UserService {
      * @param dto DTO с данными нового пользователя.
      * @return Сообщение о создании пользователя и сам созданный пользователь.
      */
+    @Transactional
     public User create(UserDTO dto) {
         User user = User.builder()
                 .name(dto.getName())
@@ -40,6 +65,7 @@ public class UserService {
                 .accessLevel(dto.getAccessLevel())
                 .build();
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(CatalogChangedEvent.upserted(CatalogChangedEvent.Type.USER, savedUser.getId(), null));
         logger.info("Пользователь с ID {} успешно создан.", savedUser.getId());
         return savedUser;
     }
@@ -49,6 +75,7 @@ public class UserService {
      *
      * @return Список пользователей.
      */
+    @Transactional(readOnly = true)
     public List<User> readAll() {
         List<User> users = userRepository.findAll();
         logger.info("Запрошен список всех пользователей.");
@@ -63,6 +90,7 @@ public class UserService {
      * @return Пользователь с указанным идентификатором.
      * @throws UserNotFoundException Если пользователь с указанным идентификатором не найден.
      */
+    @Transactional(readOnly = true)
     public User readById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new UserNotFoundException(String.format("Пользователь с идентификатором %d не найден.", id)));
@@ -78,6 +106,7 @@ public class UserService {
      * @return Список пользователей с указанными идентификаторами.
      * @throws UserNotFoundException Если пользователи с указанными идентификаторами не найдены.
      */
+    @Transactional(readOnly = true)
     public List<User> readAllByIdIn(List<Long> ids) {
         List<User> users = userRepository.findAllByIdIn(ids);
         if (users.isEmpty()) {
@@ -88,20 +117,113 @@ public class UserService {
     }
 
     /**
-     * Обновляет существующего пользователя.
+     * Возвращает указанные поля всех пользователей.
+     * Из базы данных выбираются только столбцы запрошенных полей.
+     *
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями пользователей.
+     * @throws BadRequestException Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readAllFields(String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(UserField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findAll(User.class, writer.attributes());
+        logger.info("Запрошены поля {} всех пользователей.", writer.attributes());
+        return new SparseFieldsDTO(writer, rows, false);
+    }
+
+    /**
+     * Возвращает указанные поля пользователя по его идентификатору.
+     * Если пользователь не найден, выбрасывается исключение UserNotFoundException.
+     *
+     * @param id     Идентификатор пользователя.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями пользователя.
+     * @throws UserNotFoundException Если пользователь с указанным идентификатором не найден.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readFieldsById(Long id, String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(UserField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findByIdIn(User.class, writer.attributes(), List.of(id));
+        if (rows.isEmpty()) {
+            throw new UserNotFoundException(String.format("Пользователь с идентификатором %d не найден.", id));
+        }
+        logger.info("Пользователь с ID {} найден.", id);
+        return new SparseFieldsDTO(writer, rows, true);
+    }
+
+    /**
+     * Возвращает указанные поля пользователей по предоставленным идентификаторам.
+     * Если пользователи не найдены, выбрасывается исключение UserNotFoundException.
+     *
+     * @param ids    Список идентификаторов пользователей.
+     * @param fields Имена полей через запятую.
+     * @return Ответ с выбранными полями пользователей.
+     * @throws UserNotFoundException Если пользователи с указанными идентификаторами не найдены.
+     * @throws BadRequestException     Если поля не указаны или среди них есть неизвестные.
+     */
+    public SparseFieldsDTO readFieldsByIdIn(List<Long> ids, String fields) {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(UserField.class, fields);
+        List<Object[]> rows = fieldProjectionRepository.findByIdIn(User.class, writer.attributes(), ids);
+        if (rows.isEmpty()) {
+            throw new UserNotFoundException("Не найдено пользователей с указанными идентификаторами.");
+        }
+        logger.info("Найдено {} пользователей по указанным ID.", rows.size());
+        return new SparseFieldsDTO(writer, rows, false);
+    }
+
+    /**
+     * Обновляет существующего пользователя. Дата регистрации не изменяется.
      * Если пользователь с указанным идентификатором не найден, выбрасывается исключение UserNotFoundException.
      *
      * @param user Пользователь с обновленными данными.
-     * @return Обновленный пользователь.
+     * @return Обновленный пользователь в том виде, в каком он сохранен.
      * @throws UserNotFoundException Если пользователь с указанным идентификатором не найден.
      */
+    @Transactional
     public User update(User user) {
-        if (!userRepository.existsById(user.getId())) {
-            throw new UserNotFoundException(String.format("Невозможно обновить. Пользователь с идентификатором %d не найден.", user.getId()));
-        }
-        User updatedUser = userRepository.save(user);
+        Map<String, Object> fields = new HashMap<>();
+        fields.put("name", user.getName());
+        fields.put("surname", user.getSurname());
+        fields.put("email", user.getEmail());
+        fields.put("password", user.getPassword());
+        fields.put("birthDate", user.getBirthDate());
+        fields.put("accessLevel", user.getAccessLevel());
+        apply(user.getId(), fields);
         logger.info("Пользователь с ID {} успешно обновлен.", user.getId());
-        return updatedUser;
+        return userRepository.findById(user.getId()).orElseThrow();
+    }
+
+    /**
+     * Частично обновляет пользователя: одним запросом UPDATE записываются только переданные поля.
+     * Если пользователь с указанным идентификатором не найден, выбрасывается исключение UserNotFoundException.
+     *
+     * @param id  Идентификатор пользователя.
+     * @param dto DTO с изменяемыми полями пользователя.
+     * @throws UserNotFoundException Если пользователь с указанным идентификатором не найден.
+     */
+    @Transactional
+    public void patch(Long id, UserPatchDTO dto) {
+        Map<String, Object> fields = new HashMap<>();
+        if (dto.getName() != null) {
+            fields.put("name", dto.getName());
+        }
+        if (dto.getSurname() != null) {
+            fields.put("surname", dto.getSurname());
+        }
+        if (dto.getEmail() != null) {
+            fields.put("email", dto.getEmail());
+        }
+        if (dto.getPassword() != null) {
+            fields.put("password", dto.getPassword());
+        }
+        if (dto.getBirthDate() != null) {
+            fields.put("birthDate", dto.getBirthDate());
+        }
+        if (dto.getAccessLevel() != null) {
+            fields.put("accessLevel", dto.getAccessLevel());
+        }
+        apply(id, fields);
+        logger.info("Пользователь с ID {} успешно изменен.", id);
     }
 
     /**
@@ -111,11 +233,66 @@ public class UserService {
      * @param id Идентификатор пользователя для удаления.
      * @throws UserNotFoundException Если пользователь с указанным идентификатором не найден.
      */
+    @Transactional
     public void delete(Long id) {
-        if (!userRepository.existsById(id)) {
+        if (remove(List.of(id)).isEmpty()) {
             throw new UserNotFoundException(String.format("Невозможно удалить. Пользователь с идентификатором %d не найден.", id));
         }
-        userRepository.deleteById(id);
         logger.info("Пользователь с ID {} успешно удален.", id);
     }
-}
\ No newline at end of file
+
+    /**
+     * Удаляет пользователей по набору идентификаторов.
+     * Пользователи удаляются запросами над множествами в одной транзакции,
+     * после чего индексы и кэши обновляются одним событием.
+     * Если ни один из пользователей не найден, выбрасывается исключение UserNotFoundException.
+     *
+     * @param ids Идентификаторы пользователей для удаления.
+     * @return Идентификаторы удаленных и не найденных пользователей.
+     * @throws BadRequestException Если список идентификаторов пуст или превышает допустимый размер.
+     * @throws UserNotFoundException Если ни один из пользователей не найден.
+     */
+    @Transactional
+    public BulkDeleteDTO deleteAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            throw new BadRequestException("Список идентификаторов для удаления не должен быть пустым.");
+        }
+        if (ids.size() > maxBulkDeleteIds) {
+            throw new BadRequestException(String.format("Невозможно удалить более %d пользователей за один запрос.", maxBulkDeleteIds));
+        }
+        Set<Long> requested = new TreeSet<>(ids);
+        List<Long> deleted = remove(requested).stream().sorted().toList();
+        if (deleted.isEmpty()) {
+            throw new UserNotFoundException(String.format("Невозможно удалить. Пользователи с идентификаторами %s не найдены.", requested));
+        }
+        deleted.forEach(requested::remove);
+        logger.info("Удалено {} пользователей, не найдено {}.", deleted.size(), requested.size());
+        return new BulkDeleteDTO(deleted, new ArrayList<>(requested));
+    }
+
+    /**
+     * Удаляет существующих пользователей из набора одним запросом: связанных таблиц у пользователей нет.
+     * Публикуется одно событие удаления пользователей.
+     *
+     * @return Идентификаторы удаленных пользователей.
+     */
+    private List<Long> remove(Collection<Long> ids) {
+        List<Long> existing = ids.isEmpty() ? List.of() : userRepository.findIdsByIdIn(ids);
+        if (existing.isEmpty()) {
+            return existing;
+        }
+        userRepository.deleteAllByIdInBatch(existing);
+        eventPublisher.publishEvent(CatalogChangedEvent.deleted(CatalogChangedEvent.Type.USER, existing));
+        return existing;
+    }
+
+    /**
+     * Записывает поля пользователя одним запросом UPDATE, проверяя существование по количеству обновленных строк.
+     */
+    private void apply(Long id, Map<String, Object> fields) {
+        if (partialUpdateRepository.update(User.class, id, fields) == 0) {
+            throw new UserNotFoundException(String.format("Невозможно обновить. Пользователь с идентификатором %d не найден.", id));
+        }
+        eventPublisher.publishEvent(CatalogChangedEvent.upserted(CatalogChangedEvent.Type.USER, id, null));
+    }
+}
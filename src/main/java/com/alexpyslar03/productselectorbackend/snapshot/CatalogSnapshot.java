@@ -0,0 +1,326 @@
+package com.alexpyslar03.productselectorbackend.snapshot;
+
+import com.alexpyslar03.productselectorbackend.dto.ProductSummary;
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.util.LongIntHashMap;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Двоичный снимок каталога для быстрого запуска: продукты, рецепты со скалярными полями (без изображений)
+ * и связи products_recipes. Файл отображается в память и читается без разбора в объекты,
+ * значения извлекаются по смещениям колонок.
+ * <p>
+ * Формат (big-endian): заголовок {@code magic, formatVersion, version, productCount, recipeCount, linkCount},
+ * колонки продуктов (идентификаторы, названия), колонки рецептов (идентификаторы, сложность, рейтинг,
+ * битовая карта веганских рецептов, названия, описания), связи в виде CSR (смещения по рецептам
+ * и плотные индексы продуктов) и контрольная сумма CRC32 всего предшествующего содержимого.
+ * Строки (обязательные поля) хранятся в UTF-8 с массивом смещений. Размер файла ограничен 2 ГБ.
+ */
+public final class CatalogSnapshot {
+
+    private static final int MAGIC = 0x464D4353; // "FMCS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4;
+    private static final long NO_RATING = Long.MIN_VALUE;
+    private static final Recipe.DifficultyLevel[] LEVELS = Recipe.DifficultyLevel.values();
+
+    private final ByteBuffer buffer;
+    private final long version;
+    private final int productCount;
+    private final int recipeCount;
+    private final int linkCount;
+    private final int productIdsAt;
+    private final int productNamesAt;
+    private final int recipeIdsAt;
+    private final int difficultyAt;
+    private final int ratingAt;
+    private final int veganAt;
+    private final int recipeNamesAt;
+    private final int descriptionsAt;
+    private final int linkOffsetsAt;
+    private final int linkProductsAt;
+
+    private CatalogSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        int size = buffer.limit();
+        if (size < HEADER_BYTES + 8 || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Файл не является снимком каталога.");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException(String.format("Неподдерживаемая версия формата снимка каталога: %d.", buffer.getInt(4)));
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(0, size - 8));
+        if (crc.getValue() != buffer.getLong(size - 8)) {
+            throw new IOException("Контрольная сумма снимка каталога не совпадает.");
+        }
+        version = buffer.getLong(8);
+        productCount = buffer.getInt(16);
+        recipeCount = buffer.getInt(20);
+        linkCount = buffer.getInt(24);
+        productIdsAt = HEADER_BYTES;
+        productNamesAt = productIdsAt + 8 * productCount;
+        recipeIdsAt = skipStrings(productNamesAt, productCount);
+        difficultyAt = recipeIdsAt + 8 * recipeCount;
+        ratingAt = difficultyAt + recipeCount;
+        veganAt = ratingAt + 8 * recipeCount;
+        recipeNamesAt = veganAt + 8 * ((recipeCount + 63) >>> 6);
+        descriptionsAt = skipStrings(recipeNamesAt, recipeCount);
+        linkOffsetsAt = skipStrings(descriptionsAt, recipeCount);
+        linkProductsAt = linkOffsetsAt + 4 * (recipeCount + 1);
+        if (linkProductsAt + 4L * linkCount != size - 8) {
+            throw new IOException("Размер снимка каталога не соответствует заголовку.");
+        }
+    }
+
+    /**
+     * Открывает снимок, отображая файл в память, и проверяет его целостность.
+     *
+     * @param path Путь к файлу снимка.
+     * @return Снимок каталога.
+     * @throws IOException Если файл не удалось прочитать или он поврежден.
+     */
+    public static CatalogSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CatalogSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Записывает снимок во временный файл и атомарно заменяет им предыдущий.
+     * Связи с продуктами или рецептами, отсутствующими в переданных списках, пропускаются.
+     *
+     * @param path     Путь к файлу снимка.
+     * @param version  Версия каталога (порядковый номер последнего изменения в журнале).
+     * @param products Продукты.
+     * @param recipes  Рецепты.
+     * @param links    Связи между рецептами и продуктами.
+     * @throws IOException Если файл не удалось записать.
+     */
+    public static void write(Path path, long version, List<ProductSummary> products, List<RecipeSummary> recipes,
+                             List<RecipeProductLink> links) throws IOException {
+        LongIntHashMap productIndex = new LongIntHashMap(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            productIndex.put(products.get(i).id(), i);
+        }
+        LongIntHashMap recipeIndex = new LongIntHashMap(recipes.size());
+        for (int i = 0; i < recipes.size(); i++) {
+            recipeIndex.put(recipes.get(i).id(), i);
+        }
+        int[] linkOffsets = new int[recipes.size() + 1];
+        for (RecipeProductLink link : links) {
+            int r = recipeIndex.get(link.recipeId(), -1);
+            if (r >= 0 && productIndex.get(link.productId(), -1) >= 0) {
+                linkOffsets[r + 1]++;
+            }
+        }
+        for (int r = 0; r < recipes.size(); r++) {
+            linkOffsets[r + 1] += linkOffsets[r];
+        }
+        int[] linkProducts = new int[linkOffsets[recipes.size()]];
+        int[] fill = linkOffsets.clone();
+        for (RecipeProductLink link : links) {
+            int r = recipeIndex.get(link.recipeId(), -1);
+            int p = productIndex.get(link.productId(), -1);
+            if (r >= 0 && p >= 0) {
+                linkProducts[fill[r]++] = p;
+            }
+        }
+
+        Path parent = path.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path tmp = Files.createTempFile(parent, path.getFileName().toString(), ".tmp");
+        try {
+            CRC32 crc = new CRC32();
+            try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16), crc))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(version);
+                out.writeInt(products.size());
+                out.writeInt(recipes.size());
+                out.writeInt(linkProducts.length);
+                for (ProductSummary product : products) {
+                    out.writeLong(product.id());
+                }
+                writeStrings(out, products, ProductSummary::name);
+                for (RecipeSummary recipe : recipes) {
+                    out.writeLong(recipe.id());
+                }
+                for (RecipeSummary recipe : recipes) {
+                    out.writeByte(recipe.difficultyLevel().ordinal());
+                }
+                for (RecipeSummary recipe : recipes) {
+                    out.writeLong(recipe.rating() == null ? NO_RATING : recipe.rating());
+                }
+                long[] vegan = new long[(recipes.size() + 63) >>> 6];
+                for (int r = 0; r < recipes.size(); r++) {
+                    if (recipes.get(r).vegan()) {
+                        vegan[r >>> 6] |= 1L << r;
+                    }
+                }
+                for (long word : vegan) {
+                    out.writeLong(word);
+                }
+                writeStrings(out, recipes, RecipeSummary::name);
+                writeStrings(out, recipes, RecipeSummary::description);
+                for (int offset : linkOffsets) {
+                    out.writeInt(offset);
+                }
+                for (int p : linkProducts) {
+                    out.writeInt(p);
+                }
+                out.flush();
+                out.writeLong(crc.getValue());
+            }
+            Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Возвращает версию каталога, с которой снят снимок.
+     *
+     * @return Порядковый номер последнего изменения журнала на момент снятия снимка.
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Возвращает количество продуктов в снимке.
+     */
+    public int productCount() {
+        return productCount;
+    }
+
+    /**
+     * Возвращает идентификатор продукта по его позиции (продукты упорядочены по идентификатору).
+     */
+    public long productId(int i) {
+        return buffer.getLong(productIdsAt + 8 * i);
+    }
+
+    /**
+     * Возвращает название продукта по его позиции.
+     */
+    public String productName(int i) {
+        return string(productNamesAt, productCount, i);
+    }
+
+    /**
+     * Возвращает количество рецептов в снимке.
+     */
+    public int recipeCount() {
+        return recipeCount;
+    }
+
+    /**
+     * Возвращает идентификатор рецепта по его позиции (рецепты упорядочены по идентификатору).
+     */
+    public long recipeId(int r) {
+        return buffer.getLong(recipeIdsAt + 8 * r);
+    }
+
+    /**
+     * Возвращает уровень сложности рецепта.
+     */
+    public Recipe.DifficultyLevel recipeDifficulty(int r) {
+        return LEVELS[buffer.get(difficultyAt + r)];
+    }
+
+    /**
+     * Возвращает признак веганского рецепта.
+     */
+    public boolean recipeVegan(int r) {
+        return (buffer.getLong(veganAt + 8 * (r >>> 6)) & (1L << r)) != 0;
+    }
+
+    /**
+     * Возвращает рейтинг рецепта или null, если рейтинг не установлен.
+     */
+    public Long recipeRating(int r) {
+        long rating = buffer.getLong(ratingAt + 8 * r);
+        return rating == NO_RATING ? null : rating;
+    }
+
+    /**
+     * Возвращает название рецепта.
+     */
+    public String recipeName(int r) {
+        return string(recipeNamesAt, recipeCount, r);
+    }
+
+    /**
+     * Возвращает описание рецепта.
+     */
+    public String recipeDescription(int r) {
+        return string(descriptionsAt, recipeCount, r);
+    }
+
+    /**
+     * Возвращает все связи между рецептами и продуктами снимка.
+     *
+     * @return Список связей.
+     */
+    public List<RecipeProductLink> links() {
+        List<RecipeProductLink> links = new ArrayList<>(linkCount);
+        for (int r = 0; r < recipeCount; r++) {
+            long recipeId = recipeId(r);
+            int end = buffer.getInt(linkOffsetsAt + 4 * (r + 1));
+            for (int i = buffer.getInt(linkOffsetsAt + 4 * r); i < end; i++) {
+                links.add(new RecipeProductLink(recipeId, productId(buffer.getInt(linkProductsAt + 4 * i))));
+            }
+        }
+        return links;
+    }
+
+    /**
+     * Возвращает строку из колонки: массив из count + 1 смещений, за которым следуют байты UTF-8.
+     */
+    private String string(int at, int count, int i) {
+        int data = at + 4 * (count + 1);
+        int from = buffer.getInt(at + 4 * i);
+        int to = buffer.getInt(at + 4 * (i + 1));
+        byte[] bytes = new byte[to - from];
+        buffer.get(data + from, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int skipStrings(int at, int count) {
+        return at + 4 * (count + 1) + buffer.getInt(at + 4 * count);
+    }
+
+    private static <T> void writeStrings(DataOutputStream out, List<T> rows, Function<T, String> column) throws IOException {
+        List<byte[]> values = new ArrayList<>(rows.size());
+        int offset = 0;
+        out.writeInt(0);
+        for (T row : rows) {
+            byte[] bytes = column.apply(row).getBytes(StandardCharsets.UTF_8);
+            values.add(bytes);
+            offset += bytes.length;
+            out.writeInt(offset);
+        }
+        for (byte[] bytes : values) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.alexpyslar03.productselectorbackend.tracing;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Экспорт span в формате OTLP/JSON.
+ * Завершенные span помещаются в ограниченную очередь без ожидания; при переполнении span отбрасываются.
+ * Фоновый поток забирает span пакетами и записывает каждый пакет одной строкой ExportTraceServiceRequest
+ * в файл (формат читается приемником otlpjsonfile OpenTelemetry Collector) и/или отправляет его POST-запросом
+ * на эндпоинт OTLP/HTTP, например http://localhost:4318/v1/traces.
+ */
+public class OtlpJsonSpanExporter implements SpanExporter, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(OtlpJsonSpanExporter.class);
+    private static final JsonFactory FACTORY = new JsonFactory();
+    private static final int BATCH_SIZE = 512;
+
+    private final String serviceName;
+    private final Path file;
+    private final URI endpoint;
+    private final HttpClient client;
+    private final long intervalNanos;
+    private final ArrayBlockingQueue<Span> queue;
+    private final Counter exported;
+    private final Counter dropped;
+    private final Thread worker;
+    private volatile boolean closed;
+
+    /**
+     * Создает экспорт и запускает его фоновый поток.
+     *
+     * @param serviceName Имя сервиса, записываемое в атрибут ресурса service.name.
+     * @param file        Файл, в конец которого дописываются пакеты, или null.
+     * @param endpoint    Эндпоинт OTLP/HTTP, принимающий JSON, или null.
+     * @param queueSize   Максимальное количество span, ожидающих экспорта.
+     * @param interval    Интервал экспорта накопленных span.
+     * @param registry    Реестр метрик.
+     */
+    public OtlpJsonSpanExporter(String serviceName, Path file, URI endpoint, int queueSize, Duration interval, MeterRegistry registry) {
+        this.serviceName = serviceName;
+        this.file = file;
+        this.endpoint = endpoint;
+        this.client = endpoint != null ? HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build() : null;
+        this.intervalNanos = interval.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.exported = Counter.builder("tracing.spans")
+                .description("Количество span, переданных на экспорт или отброшенных из-за переполнения очереди")
+                .tag("result", "exported")
+                .register(registry);
+        this.dropped = Counter.builder("tracing.spans")
+                .description("Количество span, переданных на экспорт или отброшенных из-за переполнения очереди")
+                .tag("result", "dropped")
+                .register(registry);
+        this.worker = new Thread(this::run, "span-exporter");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void export(Span span) {
+        if (closed || !queue.offer(span)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Останавливает фоновый поток, экспортировав накопленные span.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        closed = true;
+        LockSupport.unpark(worker);
+        worker.join(Duration.ofSeconds(10).toMillis());
+    }
+
+    private void run() {
+        List<Span> batch = new ArrayList<>(BATCH_SIZE);
+        while (true) {
+            queue.drainTo(batch, BATCH_SIZE);
+            if (batch.isEmpty()) {
+                if (closed) {
+                    return;
+                }
+                LockSupport.parkNanos(this, intervalNanos);
+                continue;
+            }
+            try {
+                write(encode(batch));
+                exported.increment(batch.size());
+            } catch (IOException | RuntimeException ex) {
+                dropped.increment(batch.size());
+                logger.warn("Не удалось экспортировать {} span: {}", batch.size(), ex.toString());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private void write(byte[] request) throws IOException, InterruptedException {
+        if (file != null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.write(file, request, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        if (endpoint != null) {
+            HttpResponse<Void> response = client.send(HttpRequest.newBuilder(endpoint)
+                            .timeout(Duration.ofSeconds(10))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(request))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                throw new IOException("Эндпоинт OTLP ответил статусом " + response.statusCode());
+            }
+        }
+    }
+
+    /**
+     * Кодирует пакет как ExportTraceServiceRequest в OTLP/JSON, завершая его переводом строки.
+     * Идентификаторы записываются шестнадцатеричными строками, 64-битные числа — строками, как требует спецификация.
+     */
+    byte[] encode(List<Span> spans) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(256 * spans.size());
+        try (JsonGenerator gen = FACTORY.createGenerator(out)) {
+            gen.writeStartObject();
+            gen.writeArrayFieldStart("resourceSpans");
+            gen.writeStartObject();
+            gen.writeObjectFieldStart("resource");
+            gen.writeArrayFieldStart("attributes");
+            writeAttribute(gen, "service.name", serviceName);
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.writeArrayFieldStart("scopeSpans");
+            gen.writeStartObject();
+            gen.writeObjectFieldStart("scope");
+            gen.writeStringField("name", Tracer.class.getPackageName());
+            gen.writeEndObject();
+            gen.writeArrayFieldStart("spans");
+            for (Span span : spans) {
+                writeSpan(gen, span);
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.writeEndArray();
+            gen.writeEndObject();
+        }
+        out.write('\n');
+        return out.toByteArray();
+    }
+
+    private static void writeSpan(JsonGenerator gen, Span span) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("traceId", span.traceId());
+        gen.writeStringField("spanId", span.spanId());
+        if (span.parentSpanId() != null) {
+            gen.writeStringField("parentSpanId", span.parentSpanId());
+        }
+        gen.writeStringField("name", span.name());
+        gen.writeNumberField("kind", span.kind().code());
+        gen.writeStringField("startTimeUnixNano", Long.toString(span.startEpochNanos()));
+        gen.writeStringField("endTimeUnixNano", Long.toString(span.endEpochNanos()));
+        gen.writeArrayFieldStart("attributes");
+        for (Map.Entry<String, Object> attribute : span.attributes().entrySet()) {
+            writeAttribute(gen, attribute.getKey(), attribute.getValue());
+        }
+        gen.writeEndArray();
+        gen.writeObjectFieldStart("status");
+        if (span.isError()) {
+            gen.writeNumberField("code", 2);
+            if (span.errorMessage() != null) {
+                gen.writeStringField("message", span.errorMessage());
+            }
+        }
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    private static void writeAttribute(JsonGenerator gen, String key, Object value) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("key", key);
+        gen.writeObjectFieldStart("value");
+        if (value instanceof Long || value instanceof Integer) {
+            gen.writeStringField("intValue", value.toString());
+        } else if (value instanceof Boolean bool) {
+            gen.writeBooleanField("boolValue", bool);
+        } else {
+            gen.writeStringField("stringValue", value.toString());
+        }
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+}
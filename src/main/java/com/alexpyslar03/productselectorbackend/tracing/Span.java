@@ -0,0 +1,189 @@
+package com.alexpyslar03.productselectorbackend.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Участок трассы: операция с именем, временем начала и окончания, атрибутами и признаком ошибки.
+ * Span создается {@link Tracer}, становится текущим для потока и завершается закрытием, после чего текущим
+ * снова становится родительский span. Записываются и экспортируются только span выбранных (sampled) трасс;
+ * для остальных запросов создается только корневой span, идентификатор трассы которого попадает в журнал.
+ */
+public final class Span implements AutoCloseable {
+
+    /**
+     * Span, не записывающий ничего; возвращается, когда текущая трасса не записывается.
+     */
+    static final Span NOOP = new Span(null, null, null, null, null, null, false, null);
+
+    private final Tracer tracer;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final SpanKind kind;
+    private final boolean recording;
+    private final Span parent;
+    private final long startEpochNanos;
+    private final long startNanos;
+    private String name;
+    private long endEpochNanos;
+    private Map<String, Object> attributes;
+    private boolean error;
+    private String errorMessage;
+
+    Span(Tracer tracer, String traceId, String spanId, String parentSpanId, String name, SpanKind kind,
+         boolean recording, Span parent) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.recording = recording;
+        this.parent = parent;
+        this.startEpochNanos = recording ? System.currentTimeMillis() * 1_000_000 : 0;
+        this.startNanos = recording ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Возвращает идентификатор трассы (32 шестнадцатеричных символа) или null для {@link #NOOP}.
+     *
+     * @return Идентификатор трассы.
+     */
+    public String traceId() {
+        return traceId;
+    }
+
+    /**
+     * Возвращает идентификатор span (16 шестнадцатеричных символов) или null для {@link #NOOP}.
+     *
+     * @return Идентификатор span.
+     */
+    public String spanId() {
+        return spanId;
+    }
+
+    /**
+     * Возвращает признак записи span. Незаписываемые span не экспортируются, их атрибуты игнорируются.
+     *
+     * @return true, если трасса выбрана для записи.
+     */
+    public boolean isRecording() {
+        return recording;
+    }
+
+    /**
+     * Возвращает значение заголовка W3C traceparent для передачи контекста трассы.
+     *
+     * @return Значение заголовка.
+     */
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (recording ? "-01" : "-00");
+    }
+
+    /**
+     * Изменяет имя span, например после определения шаблона маршрута запроса.
+     *
+     * @param name Новое имя.
+     * @return Этот span.
+     */
+    public Span setName(String name) {
+        if (recording) {
+            this.name = name;
+        }
+        return this;
+    }
+
+    /**
+     * Добавляет атрибут span. Значения String, Long, Integer и Boolean экспортируются с сохранением типа,
+     * остальные — строкой.
+     *
+     * @param key   Имя атрибута.
+     * @param value Значение атрибута.
+     * @return Этот span.
+     */
+    public Span setAttribute(String key, Object value) {
+        if (recording && value != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>();
+            }
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Помечает span как завершившийся ошибкой.
+     *
+     * @param ex Исключение, которым завершилась операция.
+     */
+    public void recordError(Throwable ex) {
+        if (recording) {
+            error = true;
+            errorMessage = ex.getClass().getName() + (ex.getMessage() != null ? ": " + ex.getMessage() : "");
+        }
+    }
+
+    /**
+     * Помечает span как завершившийся ошибкой без исключения, например при ответе 5xx.
+     *
+     * @param message Описание ошибки.
+     */
+    public void recordError(String message) {
+        if (recording) {
+            error = true;
+            errorMessage = message;
+        }
+    }
+
+    /**
+     * Завершает span и делает текущим родительский span.
+     */
+    @Override
+    public void close() {
+        if (tracer != null) {
+            tracer.end(this);
+        }
+    }
+
+    void finish() {
+        endEpochNanos = startEpochNanos + (System.nanoTime() - startNanos);
+    }
+
+    Span parent() {
+        return parent;
+    }
+
+    String parentSpanId() {
+        return parentSpanId;
+    }
+
+    String name() {
+        return name;
+    }
+
+    SpanKind kind() {
+        return kind;
+    }
+
+    long startEpochNanos() {
+        return startEpochNanos;
+    }
+
+    long endEpochNanos() {
+        return endEpochNanos;
+    }
+
+    Map<String, Object> attributes() {
+        return attributes == null ? Collections.emptyMap() : attributes;
+    }
+
+    boolean isError() {
+        return error;
+    }
+
+    String errorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,15 @@
+package com.alexpyslar03.productselectorbackend.tracing;
+
+/**
+ * Получатель завершенных записываемых span.
+ */
+@FunctionalInterface
+public interface SpanExporter {
+
+    /**
+     * Передает завершенный span на экспорт. Вызывается в потоке, завершившем span, поэтому не должен блокироваться.
+     *
+     * @param span Завершенный span.
+     */
+    void export(Span span);
+}
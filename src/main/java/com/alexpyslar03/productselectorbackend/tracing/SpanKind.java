@@ -0,0 +1,32 @@
+package com.alexpyslar03.productselectorbackend.tracing;
+
+/**
+ * Вид span в терминах OpenTelemetry. Код совпадает со значением поля kind в формате OTLP.
+ */
+public enum SpanKind {
+
+    /**
+     * Операция внутри приложения: обработчик контроллера, метод сервиса или репозитория, запись JSON.
+     */
+    INTERNAL(1),
+
+    /**
+     * Обработка входящего HTTP-запроса.
+     */
+    SERVER(2),
+
+    /**
+     * Обращение к внешней системе, например выполнение SQL-выражения.
+     */
+    CLIENT(3);
+
+    private final int code;
+
+    SpanKind(int code) {
+        this.code = code;
+    }
+
+    public int code() {
+        return code;
+    }
+}
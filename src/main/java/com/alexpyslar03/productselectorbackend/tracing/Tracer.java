@@ -0,0 +1,158 @@
+package com.alexpyslar03.productselectorbackend.tracing;
+
+import org.slf4j.MDC;
+
+import java.util.HexFormat;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Трассировщик запросов в стиле OpenTelemetry.
+ * Корневой span создается для каждого HTTP-запроса; решение о записи трассы принимается один раз при его создании:
+ * по флагу sampled входящего заголовка W3C traceparent, а без него — с вероятностью samplingProbability.
+ * Дочерние span создаются только в записываемых трассах, поэтому в остальных запросах трассировка сводится к чтению
+ * ThreadLocal.
+ * <p>
+ * Идентификаторы трассы и текущего span кладутся в MDC под ключами {@link #TRACE_ID} и {@link #SPAN_ID},
+ * поэтому строки журнала любого запроса, в том числе не выбранного для записи, связываются с трассой.
+ */
+public class Tracer {
+
+    /**
+     * Ключ MDC с идентификатором трассы.
+     */
+    public static final String TRACE_ID = "traceId";
+
+    /**
+     * Ключ MDC с идентификатором текущего span.
+     */
+    public static final String SPAN_ID = "spanId";
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final ThreadLocal<Span> current = new ThreadLocal<>();
+    private final long samplingThreshold;
+    private final SpanExporter exporter;
+
+    /**
+     * Создает трассировщик.
+     *
+     * @param samplingProbability Доля записываемых трасс от 0 до 1 для запросов без входящего контекста трассы.
+     * @param exporter            Получатель завершенных записываемых span.
+     */
+    public Tracer(double samplingProbability, SpanExporter exporter) {
+        if (samplingProbability < 0 || samplingProbability > 1) {
+            throw new IllegalArgumentException("Вероятность записи трассы должна быть от 0 до 1.");
+        }
+        this.samplingThreshold = (long) (samplingProbability * Long.MAX_VALUE);
+        this.exporter = exporter;
+    }
+
+    /**
+     * Начинает корневой span входящего запроса и делает его текущим.
+     * Если заголовок traceparent корректен, span продолжает трассу вызывающей стороны и наследует ее решение о записи.
+     *
+     * @param name        Имя span.
+     * @param traceparent Значение заголовка traceparent или null.
+     * @return Корневой span; его нужно закрыть по окончании запроса.
+     */
+    public Span startRequest(String name, String traceparent) {
+        String traceId;
+        String parentSpanId;
+        boolean recording;
+        if (isValidTraceparent(traceparent)) {
+            traceId = traceparent.substring(3, 35);
+            parentSpanId = traceparent.substring(36, 52);
+            recording = (HexFormat.fromHexDigits(traceparent, 53, 55) & 1) == 1;
+        } else {
+            long high = ThreadLocalRandom.current().nextLong();
+            long low = ThreadLocalRandom.current().nextLong() | 1;
+            traceId = HEX.toHexDigits(high) + HEX.toHexDigits(low);
+            parentSpanId = null;
+            recording = (high & Long.MAX_VALUE) < samplingThreshold;
+        }
+        Span span = new Span(this, traceId, newSpanId(), parentSpanId, name, SpanKind.SERVER, recording, null);
+        current.set(span);
+        MDC.put(TRACE_ID, span.traceId());
+        MDC.put(SPAN_ID, span.spanId());
+        return span;
+    }
+
+    /**
+     * Начинает дочерний span текущего span и делает его текущим.
+     * Если текущей трассы нет или она не записывается, возвращает span, не записывающий ничего.
+     *
+     * @param name Имя span.
+     * @param kind Вид span.
+     * @return Дочерний span; его нужно закрыть по окончании операции.
+     */
+    public Span startSpan(String name, SpanKind kind) {
+        Span parent = current.get();
+        if (parent == null || !parent.isRecording()) {
+            return Span.NOOP;
+        }
+        Span span = new Span(this, parent.traceId(), newSpanId(), parent.spanId(), name, kind, true, parent);
+        current.set(span);
+        MDC.put(SPAN_ID, span.spanId());
+        return span;
+    }
+
+    /**
+     * Проверяет, записывается ли текущая трасса. Позволяет не вычислять имя и атрибуты span в остальных запросах.
+     *
+     * @return true, если дочерние span будут записаны.
+     */
+    public boolean isRecording() {
+        Span span = current.get();
+        return span != null && span.isRecording();
+    }
+
+    /**
+     * Возвращает текущий span потока.
+     *
+     * @return Текущий span или null, если поток не обрабатывает запрос.
+     */
+    public Span currentSpan() {
+        return current.get();
+    }
+
+    /**
+     * Завершает span: экспортирует записываемый span и восстанавливает родительский span как текущий.
+     */
+    void end(Span span) {
+        if (span.isRecording()) {
+            span.finish();
+            exporter.export(span);
+        }
+        Span parent = span.parent();
+        if (parent == null) {
+            current.remove();
+            MDC.remove(TRACE_ID);
+            MDC.remove(SPAN_ID);
+        } else {
+            current.set(parent);
+            MDC.put(SPAN_ID, parent.spanId());
+        }
+    }
+
+    private static String newSpanId() {
+        return HEX.toHexDigits(ThreadLocalRandom.current().nextLong() | 1);
+    }
+
+    /**
+     * Проверяет формат заголовка версии 00: "00-" + 32 + "-" + 16 + "-" + 2 шестнадцатеричных символа
+     * в нижнем регистре, идентификаторы не нулевые.
+     */
+    private static boolean isValidTraceparent(String value) {
+        if (value == null || value.length() != 55 || !value.startsWith("00-")
+                || value.charAt(35) != '-' || value.charAt(52) != '-') {
+            return false;
+        }
+        for (int i = 3; i < 55; i++) {
+            char c = value.charAt(i);
+            if (i != 35 && i != 52 && !(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+                return false;
+            }
+        }
+        return !value.startsWith("00000000000000000000000000000000", 3) && !value.startsWith("0000000000000000", 36);
+    }
+}
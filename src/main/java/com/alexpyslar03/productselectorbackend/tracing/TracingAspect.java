@@ -0,0 +1,77 @@
+package com.alexpyslar03.productselectorbackend.tracing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Аспект, создающий span для обработчиков контроллеров, методов ProductService, RecipeService и UserService
+ * и вызовов репозиториев. Span называется "Класс.метод"; для репозиториев Spring Data используется имя интерфейса
+ * репозитория приложения. В запросах, трасса которых не записывается, метод вызывается без дополнительной работы.
+ */
+@Aspect
+@Component
+public class TracingAspect {
+
+    private static final String BASE_PACKAGE = "com.alexpyslar03.productselectorbackend.";
+
+    private final Tracer tracer;
+    private final ConcurrentHashMap<Class<?>, String> typeNames = new ConcurrentHashMap<>();
+
+    public TracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("within(com.alexpyslar03.productselectorbackend.controller..*)")
+    public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "controller");
+    }
+
+    @Around("within(com.alexpyslar03.productselectorbackend.service.ProductService)"
+            + " || within(com.alexpyslar03.productselectorbackend.service.RecipeService)"
+            + " || within(com.alexpyslar03.productselectorbackend.service.UserService)")
+    public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "service");
+    }
+
+    @Around("bean(*Repository)")
+    public Object traceRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return trace(joinPoint, "repository");
+    }
+
+    private Object trace(ProceedingJoinPoint joinPoint, String layer) throws Throwable {
+        if (!tracer.isRecording()) {
+            return joinPoint.proceed();
+        }
+        String type = typeNames.computeIfAbsent(joinPoint.getThis().getClass(), TracingAspect::typeName);
+        String method = joinPoint.getSignature().getName();
+        try (Span span = tracer.startSpan(type + "." + method, SpanKind.INTERNAL)) {
+            span.setAttribute("code.namespace", type);
+            span.setAttribute("code.function", method);
+            span.setAttribute("app.layer", layer);
+            try {
+                return joinPoint.proceed();
+            } catch (Throwable ex) {
+                span.recordError(ex);
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Возвращает простое имя класса приложения за прокси: для прокси интерфейсов (репозитории Spring Data) —
+     * первого интерфейса из пакета приложения, для прокси классов — исходного класса.
+     */
+    private static String typeName(Class<?> proxyClass) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(proxyClass)) {
+            if (type.getName().startsWith(BASE_PACKAGE)) {
+                return type.getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(proxyClass).getSimpleName();
+    }
+}
@@ -0,0 +1,56 @@
+package com.alexpyslar03.productselectorbackend.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Фильтр, открывающий корневой span каждого HTTP-запроса.
+ * Продолжает трассу из заголовка traceparent, если он передан, и возвращает traceparent своего span в ответе,
+ * чтобы клиент мог сообщить идентификатор трассы. После обработки span получает имя по шаблону маршрута,
+ * например "GET /recipes/product/batch", и код статуса ответа.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    /**
+     * Имя заголовка W3C Trace Context.
+     */
+    public static final String TRACEPARENT = "traceparent";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (Span span = tracer.startRequest(request.getMethod(), request.getHeader(TRACEPARENT))) {
+            response.setHeader(TRACEPARENT, span.traceparent());
+            try {
+                chain.doFilter(request, response);
+            } catch (IOException | ServletException | RuntimeException ex) {
+                span.recordError(ex);
+                throw ex;
+            } finally {
+                if (span.isRecording()) {
+                    Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    span.setName(route != null ? request.getMethod() + " " + route : request.getMethod());
+                    span.setAttribute("http.request.method", request.getMethod());
+                    span.setAttribute("http.route", route);
+                    span.setAttribute("url.path", request.getRequestURI());
+                    span.setAttribute("http.response.status_code", response.getStatus());
+                    if (response.getStatus() >= 500) {
+                        span.recordError("HTTP " + response.getStatus());
+                    }
+                }
+            }
+        }
+    }
+}
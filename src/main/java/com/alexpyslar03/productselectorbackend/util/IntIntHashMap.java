@@ -0,0 +1,161 @@
+package com.alexpyslar03.productselectorbackend.util;
+
+import java.util.Arrays;
+
+/**
+ * Компактная хеш-таблица с открытой адресацией для пар int → int.
+ * Ключи должны быть неотрицательными; записи с нулевым значением удаляются автоматически.
+ * Класс не потокобезопасен, синхронизация выполняется вызывающей стороной.
+ */
+public class IntIntHashMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Создает пустую таблицу с начальной емкостью по умолчанию.
+     */
+    public IntIntHashMap() {
+        this(8);
+    }
+
+    /**
+     * Создает пустую таблицу, рассчитанную на указанное количество элементов.
+     *
+     * @param expectedSize Ожидаемое количество элементов.
+     */
+    public IntIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Возвращает значение по ключу или 0, если ключ отсутствует.
+     *
+     * @param key Ключ.
+     * @return Значение, связанное с ключом.
+     */
+    public int get(int key) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Прибавляет delta к значению по ключу. Если итоговое значение равно 0, запись удаляется.
+     *
+     * @param key   Ключ.
+     * @param delta Прибавляемая величина.
+     * @return Новое значение.
+     */
+    public int addTo(int key, int delta) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                int value = values[slot] + delta;
+                if (value == 0) {
+                    removeSlot(slot);
+                } else {
+                    values[slot] = value;
+                }
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (delta == 0) {
+            return 0;
+        }
+        keys[slot] = key;
+        values[slot] = delta;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+        return delta;
+    }
+
+    /**
+     * Возвращает количество записей в таблице.
+     *
+     * @return Количество записей.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Обходит все записи таблицы.
+     *
+     * @param visitor Обработчик пар ключ-значение.
+     */
+    public void forEach(Visitor visitor) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                visitor.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Удаляет запись из слота со сдвигом последующих записей цепочки (без "надгробий").
+     */
+    private void removeSlot(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+        int next = (slot + 1) & mask;
+        while (keys[next] != EMPTY) {
+            int home = mix(keys[next]) & mask;
+            // Запись можно перенести в "дыру", только если ее домашний слот не лежит между дырой и текущей позицией.
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[gap] = EMPTY;
+        values[gap] = 0;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Обработчик пары ключ-значение при обходе таблицы.
+     */
+    @FunctionalInterface
+    public interface Visitor {
+        void accept(int key, int value);
+    }
+}
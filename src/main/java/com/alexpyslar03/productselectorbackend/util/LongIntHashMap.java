@@ -0,0 +1,109 @@
+package com.alexpyslar03.productselectorbackend.util;
+
+import java.util.Arrays;
+
+/**
+ * Компактная хеш-таблица с открытой адресацией для пар long → int.
+ * Используется для отображения идентификаторов сущностей в плотные индексы.
+ * Удаление не поддерживается. Класс не потокобезопасен.
+ */
+public class LongIntHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    /**
+     * Создает пустую таблицу с начальной емкостью по умолчанию.
+     */
+    public LongIntHashMap() {
+        this(16);
+    }
+
+    /**
+     * Создает пустую таблицу, рассчитанную на указанное количество элементов.
+     *
+     * @param expectedSize Ожидаемое количество элементов.
+     */
+    public LongIntHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Возвращает значение по ключу.
+     *
+     * @param key          Ключ.
+     * @param defaultValue Значение, возвращаемое при отсутствии ключа.
+     * @return Значение, связанное с ключом, или defaultValue.
+     */
+    public int get(long key, int defaultValue) {
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Сохраняет значение по ключу, заменяя предыдущее.
+     *
+     * @param key   Ключ (не может быть равен Long.MIN_VALUE).
+     * @param value Значение.
+     */
+    public void put(long key, int value) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length << 1);
+        }
+    }
+
+    /**
+     * Возвращает количество записей в таблице.
+     *
+     * @return Количество записей.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,112 @@
+package com.alexpyslar03.productselectorbackend.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых одновременных запросов (single-flight).
+ * Первый вызов с ключом выполняет загрузку, а вызовы с тем же ключом, пришедшие до ее завершения,
+ * получают тот же результат или то же исключение. Результаты не кэшируются: после завершения загрузки
+ * следующий вызов снова обращается к источнику.
+ * <p>
+ * Ожидание чужой загрузки ограничено: по его истечении вызов выполняет загрузку самостоятельно.
+ * Результат разделяется между вызывающими и может использоваться в разных потоках, поэтому он должен быть
+ * неизменяемым и полностью загруженным: управляемые сущности JPA с ленивыми связями передавать нельзя.
+ *
+ * @param <K> Тип нормализованного ключа запроса.
+ * @param <V> Тип результата.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+    private final Counter leaders;
+    private final Counter shared;
+    private final Counter timeouts;
+
+    /**
+     * Создает группу объединения запросов и регистрирует ее метрики.
+     * Доля объединенных запросов равна отношению result=shared к сумме result=leader и result=shared.
+     *
+     * @param name     Имя группы, используемое в теге метрик.
+     * @param maxWait  Максимальное время ожидания результата чужой загрузки.
+     * @param registry Реестр метрик.
+     */
+    public SingleFlight(String name, Duration maxWait, MeterRegistry registry) {
+        this.maxWaitNanos = maxWait.toNanos();
+        this.leaders = counter(registry, name, "leader");
+        this.shared = counter(registry, name, "shared");
+        this.timeouts = counter(registry, name, "timeout");
+        Gauge.builder("single.flight.in.flight", inFlight, Map::size)
+                .description("Количество выполняющихся загрузок")
+                .tag("name", name)
+                .register(registry);
+    }
+
+    /**
+     * Возвращает результат загрузки по ключу, присоединяясь к уже выполняющейся загрузке, если она есть.
+     *
+     * @param key    Нормализованный ключ запроса.
+     * @param loader Загрузка результата.
+     * @return Результат загрузки.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing == null) {
+            leaders.increment();
+            try {
+                V value = loader.get();
+                call.complete(value);
+                return value;
+            } catch (RuntimeException | Error ex) {
+                call.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                inFlight.remove(key, call);
+            }
+        }
+        try {
+            V value = existing.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+            shared.increment();
+            return value;
+        } catch (ExecutionException ex) {
+            shared.increment();
+            throw rethrow(ex.getCause());
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            return loader.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание результата совпадающего запроса прервано.", ex);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable cause) {
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static Counter counter(MeterRegistry registry, String name, String result) {
+        return Counter.builder("single.flight.calls")
+                .description("Количество вызовов с объединением одинаковых запросов")
+                .tag("name", name)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+-- Исходная схема базы данных: таблицы и последовательности, которые создавал Hibernate (ddl-auto: update)
+-- до перехода на миграции. Существующие базы данных принимаются за эту версию (baseline-version: 1).
+
+CREATE SEQUENCE product_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE recipe_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE user_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE products
+(
+    id           BIGINT       NOT NULL,
+    name         VARCHAR(255) NOT NULL,
+    image        BYTEA,
+    CONSTRAINT pk_products PRIMARY KEY (id),
+    CONSTRAINT uk_products_name UNIQUE (name)
+);
+
+CREATE TABLE recipes
+(
+    id               BIGINT       NOT NULL,
+    name             VARCHAR(255) NOT NULL,
+    description      VARCHAR(255) NOT NULL,
+    is_vegan         BOOLEAN      NOT NULL,
+    difficulty_level VARCHAR(255) NOT NULL,
+    rating           BIGINT,
+    image            BYTEA,
+    CONSTRAINT pk_recipes PRIMARY KEY (id),
+    CONSTRAINT uk_recipes_name UNIQUE (name),
+    CONSTRAINT ck_recipes_difficulty_level CHECK (difficulty_level IN ('EASY', 'MEDIUM', 'HARD'))
+);
+
+CREATE TABLE products_recipes
+(
+    product_id BIGINT NOT NULL,
+    recipe_id  BIGINT NOT NULL,
+    CONSTRAINT pk_products_recipes PRIMARY KEY (product_id, recipe_id),
+    CONSTRAINT fk_products_recipes_product FOREIGN KEY (product_id) REFERENCES products (id),
+    CONSTRAINT fk_products_recipes_recipe FOREIGN KEY (recipe_id) REFERENCES recipes (id)
+);
+
+CREATE TABLE users
+(
+    id                BIGINT       NOT NULL,
+    name              VARCHAR(255) NOT NULL,
+    surname           VARCHAR(255) NOT NULL,
+    email             VARCHAR(255) NOT NULL,
+    password          VARCHAR(255) NOT NULL,
+    birth_date        DATE         NOT NULL,
+    registration_date DATE         NOT NULL,
+    access_level      VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email),
+    CONSTRAINT ck_users_access_level CHECK (access_level IN ('USER', 'ADMIN', 'SUPER_ADMIN'))
+);
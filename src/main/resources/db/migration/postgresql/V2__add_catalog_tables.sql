@@ -0,0 +1,36 @@
+-- Счетчики популярности, замены продуктов и журнал изменений каталога.
+-- IF NOT EXISTS позволяет применить миграцию к базе данных, в которую Hibernate (ddl-auto: update)
+-- уже добавил часть этих объектов до перехода на миграции.
+
+ALTER TABLE products ADD COLUMN IF NOT EXISTS view_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE products ADD COLUMN IF NOT EXISTS cooked_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS view_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE recipes ADD COLUMN IF NOT EXISTS cooked_count BIGINT NOT NULL DEFAULT 0;
+
+CREATE SEQUENCE IF NOT EXISTS product_substitution_seq START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS catalog_change_seq START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS product_substitutions
+(
+    id            BIGINT           NOT NULL,
+    product_id    BIGINT           NOT NULL,
+    substitute_id BIGINT           NOT NULL,
+    weight        DOUBLE PRECISION NOT NULL,
+    CONSTRAINT pk_product_substitutions PRIMARY KEY (id),
+    CONSTRAINT uk_product_substitutions_pair UNIQUE (product_id, substitute_id),
+    CONSTRAINT fk_product_substitutions_product FOREIGN KEY (product_id) REFERENCES products (id),
+    CONSTRAINT fk_product_substitutions_substitute FOREIGN KEY (substitute_id) REFERENCES products (id)
+);
+
+CREATE TABLE IF NOT EXISTS catalog_changes
+(
+    id          BIGINT       NOT NULL,
+    entity_type VARCHAR(255) NOT NULL,
+    entity_id   BIGINT       NOT NULL,
+    action      VARCHAR(255) NOT NULL,
+    CONSTRAINT pk_catalog_changes PRIMARY KEY (id),
+    CONSTRAINT ck_catalog_changes_entity_type CHECK (entity_type IN ('PRODUCT', 'RECIPE', 'USER')),
+    CONSTRAINT ck_catalog_changes_action CHECK (action IN ('UPSERT', 'DELETE'))
+);
+
+CREATE INDEX IF NOT EXISTS idx_catalog_changes_entity ON catalog_changes (entity_type, entity_id);
@@ -0,0 +1,17 @@
+-- Индексы для горячих запросов каталога.
+-- IF NOT EXISTS позволяет применить миграцию к базе данных, схема которой ранее создавалась Hibernate.
+
+-- Первичный ключ products_recipes (product_id, recipe_id) обслуживает переход от продукта к рецептам
+-- (findByProductsId, findByProductsIdIn, findLinksByProductIdIn), обратный составной индекс — переход
+-- от рецепта к продуктам (findByRecipesId, findLinksByRecipeIdIn). Оба направления читаются только из индексов.
+CREATE UNIQUE INDEX IF NOT EXISTS idx_products_recipes_recipe_product ON products_recipes (recipe_id, product_id);
+
+-- Покрывающий индекс для отбора рецептов по ограничениям (findIdsByVeganInAndDifficultyLevelIn).
+CREATE INDEX IF NOT EXISTS idx_recipes_filters ON recipes (is_vegan, difficulty_level) INCLUDE (id);
+
+-- Индекс для поиска продуктов по названию без учета регистра.
+CREATE INDEX IF NOT EXISTS idx_products_lower_name ON products (lower(name));
+
+-- Удаление продукта удаляет и замены, в которых он указан заменой (deleteAllByProductIdIn);
+-- направление product_id покрывается уникальным ограничением (product_id, substitute_id).
+CREATE INDEX IF NOT EXISTS idx_product_substitutions_substitute ON product_substitutions (substitute_id);
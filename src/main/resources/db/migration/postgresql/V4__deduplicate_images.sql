@@ -0,0 +1,54 @@
+-- Хранение изображений по хэшу содержимого: одинаковые изображения продуктов и рецептов хранятся один раз,
+-- а products и recipes ссылаются на них по хэшу SHA-256. Количество ссылок хранится в ref_count,
+-- изображения без ссылок удаляются периодической очисткой (ImageService.collectGarbage).
+
+CREATE TABLE images
+(
+    hash         VARCHAR(64) NOT NULL,
+    content      BYTEA       NOT NULL,
+    content_type VARCHAR(32) NOT NULL,
+    size         BIGINT      NOT NULL,
+    ref_count    BIGINT      NOT NULL DEFAULT 0,
+    CONSTRAINT pk_images PRIMARY KEY (hash)
+);
+
+ALTER TABLE products ADD COLUMN image_hash VARCHAR(64);
+ALTER TABLE recipes ADD COLUMN image_hash VARCHAR(64);
+
+-- Перенос существующих изображений: хэш вычисляется в базе данных, каждое содержимое копируется один раз.
+UPDATE products SET image_hash = encode(sha256(image), 'hex') WHERE image IS NOT NULL;
+UPDATE recipes SET image_hash = encode(sha256(image), 'hex') WHERE image IS NOT NULL;
+
+-- Удаление изображения проверяет внешние ключи, а подсчет ссылок при переносе ищет строки по хэшу.
+CREATE INDEX idx_products_image_hash ON products (image_hash);
+CREATE INDEX idx_recipes_image_hash ON recipes (image_hash);
+
+-- Формат определяется по сигнатуре так же, как ImageFormat.detect; прежние изображения не проверялись
+-- при записи, поэтому нераспознанное содержимое сохраняется как application/octet-stream.
+INSERT INTO images (hash, content, content_type, size, ref_count)
+SELECT DISTINCT ON (hash) hash,
+       image,
+       CASE
+           WHEN substring(image FROM 1 FOR 3) = '\xffd8ff'::bytea THEN 'image/jpeg'
+           WHEN substring(image FROM 1 FOR 8) = '\x89504e470d0a1a0a'::bytea THEN 'image/png'
+           WHEN substring(image FROM 1 FOR 4) = '\x47494638'::bytea THEN 'image/gif'
+           WHEN substring(image FROM 1 FOR 4) = '\x52494646'::bytea
+               AND substring(image FROM 9 FOR 4) = '\x57454250'::bytea THEN 'image/webp'
+           ELSE 'application/octet-stream'
+           END,
+       length(image),
+       0
+FROM (SELECT image_hash AS hash, image FROM products WHERE image IS NOT NULL
+      UNION ALL
+      SELECT image_hash, image FROM recipes WHERE image IS NOT NULL) existing
+ORDER BY hash;
+
+UPDATE images
+SET ref_count = (SELECT count(*) FROM products WHERE products.image_hash = images.hash)
+              + (SELECT count(*) FROM recipes WHERE recipes.image_hash = images.hash);
+
+ALTER TABLE products DROP COLUMN image;
+ALTER TABLE recipes DROP COLUMN image;
+
+ALTER TABLE products ADD CONSTRAINT fk_products_image FOREIGN KEY (image_hash) REFERENCES images (hash);
+ALTER TABLE recipes ADD CONSTRAINT fk_recipes_image FOREIGN KEY (image_hash) REFERENCES images (hash);
@@ -0,0 +1,10 @@
+-- Строка блокировки журнала изменений каталога: транзакции записывают журнал по очереди и удерживают
+-- блокировку до фиксации, поэтому порядковые номера изменений фиксируются в порядке возрастания.
+
+CREATE TABLE catalog_change_lock
+(
+    id BIGINT NOT NULL,
+    CONSTRAINT pk_catalog_change_lock PRIMARY KEY (id)
+);
+
+INSERT INTO catalog_change_lock (id) VALUES (1);
@@ -0,0 +1,121 @@
+package com.alexpyslar03.productselectorbackend;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Бенчмарк времени запуска приложения до первого успешного запроса.
+ * Сравнивает запуск исполняемого JAR с запуском распакованного JAR с AOT-кодом контекста и архивом CDS.
+ * Требует PostgreSQL: ./gradlew benchmark -Pbenchmark.datasource.url=... -Pbenchmark.datasource.username=...
+ * -Pbenchmark.datasource.password=...
+ */
+@Tag("benchmark")
+public class StartupBenchmark {
+
+    private static final int RUNS = 5;
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private static final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    private static String java;
+    private static Path bootJar;
+    private static Path fastStartupJar;
+    private static Path cdsArchive;
+
+    @BeforeAll
+    public static void locateArtifacts() {
+        assumeTrue(System.getProperty("benchmark.datasource.url") != null, "Не задана база данных для бенчмарка запуска.");
+        java = ProcessHandle.current().info().command().orElse("java");
+        bootJar = Path.of(System.getProperty("benchmark.boot-jar"));
+        fastStartupJar = Path.of(System.getProperty("benchmark.fast-startup-jar"));
+        cdsArchive = fastStartupJar.resolveSibling("application.jsa");
+        assertTrue(Files.exists(bootJar) && Files.exists(fastStartupJar) && Files.exists(cdsArchive));
+    }
+
+    @Test
+    public void benchmarkTimeToFirstRequest() throws Exception {
+        report("Исполняемый JAR", List.of("-jar", bootJar.toString()));
+        report("Распакованный JAR + AOT", List.of("-Dspring.aot.enabled=true", "-jar", fastStartupJar.toString()));
+        report("Распакованный JAR + AOT + CDS", List.of("-XX:SharedArchiveFile=" + cdsArchive,
+                "-Dspring.aot.enabled=true", "-jar", fastStartupJar.toString()));
+    }
+
+    private static void report(String mode, List<String> launch) throws Exception {
+        long[] times = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            times[i] = timeToFirstRequest(launch);
+        }
+        Arrays.sort(times);
+        System.out.printf("Запуск до первого запроса, %s: p50 = %d мс, min = %d мс, max = %d мс%n",
+                mode, times[RUNS / 2], times[0], times[RUNS - 1]);
+    }
+
+    /**
+     * Запускает приложение в отдельном процессе и измеряет время от запуска процесса до первого успешного
+     * ответа /actuator/health.
+     */
+    private static long timeToFirstRequest(List<String> launch) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(launch);
+        command.add("--server.port=" + port);
+        command.add("--spring.datasource.url=" + System.getProperty("benchmark.datasource.url"));
+        command.add("--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "postgres"));
+        command.add("--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""));
+        command.add("--app.snapshot.enabled=false");
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        Path workDir = Files.createTempDirectory("startup-benchmark");
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(workDir.toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                assertTrue(process.isAlive(), "Приложение завершилось при запуске.");
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException ex) {
+                    // Сервер еще не принимает соединения
+                }
+                Thread.sleep(10);
+            }
+            throw new AssertionError("Приложение не ответило за " + TIMEOUT.toSeconds() + " с.");
+        } finally {
+            process.destroy();
+            process.waitFor(30, TimeUnit.SECONDS);
+            FileSystemUtils.deleteRecursively(workDir); // Приложение создает файлы в рабочем каталоге
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
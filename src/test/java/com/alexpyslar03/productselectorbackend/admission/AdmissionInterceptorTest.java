@@ -0,0 +1,51 @@
+package com.alexpyslar03.productselectorbackend.admission;
+
+import com.alexpyslar03.productselectorbackend.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.SimpleDriverDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdmissionInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private final AdmissionInterceptor interceptor = new AdmissionInterceptor(new RateLimiter(2, 0.001),
+            new PoolSaturation(new SimpleDriverDataSource(), 0), Set.of(), 1, registry);
+
+    @Test
+    public void testAsyncDispatchIsNotChargedAgain() throws NoSuchMethodException {
+        HandlerMethod handler = new HandlerMethod(new Handler(), "plan");
+
+        assertTrue(interceptor.preHandle(request(DispatcherType.REQUEST), new MockHttpServletResponse(), handler));
+        // Завершение асинхронного обработчика повторно проходит через перехватчики с типом ASYNC.
+        assertTrue(interceptor.preHandle(request(DispatcherType.ASYNC), new MockHttpServletResponse(), handler));
+        assertTrue(interceptor.preHandle(request(DispatcherType.ASYNC), new MockHttpServletResponse(), handler));
+        assertEquals(1.0, registry.get("admission.requests").tag("result", "admitted").counter().count());
+
+        assertThrows(TooManyRequestsException.class,
+                () -> interceptor.preHandle(request(DispatcherType.REQUEST), new MockHttpServletResponse(), handler));
+    }
+
+    private static MockHttpServletRequest request(DispatcherType dispatcherType) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/meal-plan");
+        request.setDispatcherType(dispatcherType);
+        return request;
+    }
+
+    private static final class Handler {
+
+        @RequestCost(2)
+        public void plan() {
+        }
+    }
+}
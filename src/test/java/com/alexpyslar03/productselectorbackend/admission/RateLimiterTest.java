@@ -0,0 +1,56 @@
+package com.alexpyslar03.productselectorbackend.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+
+    @Test
+    public void testAllowsBurstThenRefills() {
+        RateLimiter limiter = new RateLimiter(10, 5, now::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.tryAcquire("client", 1));
+        }
+        long wait = limiter.tryAcquire("client", 1);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), wait);
+        assertEquals(0, limiter.tryAcquire("other", 1));
+
+        now.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("client", 1));
+        assertTrue(limiter.tryAcquire("client", 1) > 0);
+    }
+
+    @Test
+    public void testChargesRequestCost() {
+        RateLimiter limiter = new RateLimiter(10, 5, now::get);
+
+        assertEquals(0, limiter.tryAcquire("client", 6));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(400), limiter.tryAcquire("client", 6));
+        assertEquals(0, limiter.tryAcquire("client", 4));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(0, limiter.tryAcquire("client", 100));
+        assertTrue(limiter.tryAcquire("client", 1) > 0);
+    }
+
+    @Test
+    public void testEvictsOnlyFullBuckets() {
+        RateLimiter limiter = new RateLimiter(10, 5, now::get);
+        limiter.tryAcquire("idle", 1);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        limiter.tryAcquire("busy", 1);
+
+        limiter.evictIdle();
+
+        assertEquals(1, limiter.size());
+        assertEquals(0, limiter.tryAcquire("idle", 10));
+    }
+}
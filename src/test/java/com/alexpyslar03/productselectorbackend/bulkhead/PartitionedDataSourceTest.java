@@ -0,0 +1,96 @@
+package com.alexpyslar03.productselectorbackend.bulkhead;
+
+import com.alexpyslar03.productselectorbackend.config.BulkheadConfig;
+import com.alexpyslar03.productselectorbackend.datasource.DataSourceWrappingPostProcessor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PartitionedDataSourceTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    public void testLimitsConnectionsOfBulkhead() throws Exception {
+        PartitionedDataSource dataSource = new PartitionedDataSource(h2(), Duration.ofMillis(10));
+        Bulkhead bulkhead = new Bulkhead(TrafficClass.IMAGE, 10, 1, registry);
+
+        assertTrue(bulkhead.tryEnter(0));
+        try {
+            Connection connection = dataSource.getConnection();
+            assertEquals(1, bulkhead.activeConnections());
+            assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+            connection.close();
+            connection.close();
+            assertEquals(0, bulkhead.activeConnections());
+            try (Connection again = dataSource.getConnection()) {
+                assertTrue(again.isValid(1));
+            }
+        } finally {
+            bulkhead.exit();
+        }
+
+        try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+            assertNotSame(first, second);
+        }
+        assertEquals(1.0, registry.get("bulkhead.connections.timeouts").tag("name", "image").counter().count());
+    }
+
+    @Test
+    public void testPartitionsPhysicalConnectionsBelowLazyProxy() throws Exception {
+        DataSourceWrappingPostProcessor partition = BulkheadConfig.partitionedDataSourcePostProcessor(Duration.ofMillis(10));
+        BeanPostProcessor outer = new DataSourceWrappingPostProcessor(Ordered.LOWEST_PRECEDENCE, false, DelegatingDataSource::new);
+        LazyConnectionDataSourceProxy lazy = new LazyConnectionDataSourceProxy(h2());
+        DataSource dataSource = (DataSource) outer.postProcessAfterInitialization(
+                partition.postProcessAfterInitialization(lazy, "dataSource"), "dataSource");
+        assertSame(lazy, ((DelegatingDataSource) dataSource).getTargetDataSource());
+        assertInstanceOf(PartitionedDataSource.class, lazy.getTargetDataSource());
+
+        Bulkhead bulkhead = new Bulkhead(TrafficClass.CRUD, 10, 1, registry);
+        assertTrue(bulkhead.tryEnter(0));
+        try (Connection unused = dataSource.getConnection(); Connection used = dataSource.getConnection()) {
+            assertEquals(0, bulkhead.activeConnections());
+            used.createStatement().close();
+            assertEquals(1, bulkhead.activeConnections());
+        } finally {
+            bulkhead.exit();
+        }
+        assertEquals(0, bulkhead.activeConnections());
+    }
+
+    @Test
+    public void testRejectsWhenBulkheadIsFull() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(TrafficClass.SEARCH, 1, 0, registry);
+
+        assertTrue(bulkhead.tryEnter(0));
+        try {
+            assertFalse(CompletableFuture.supplyAsync(() -> bulkhead.tryEnter(1_000_000)).get());
+            assertEquals(1.0, registry.get("bulkhead.saturation").tag("name", "search").gauge().value());
+        } finally {
+            bulkhead.exit();
+        }
+
+        assertEquals(0, bulkhead.active());
+        assertNull(Bulkhead.current());
+        assertEquals(1.0, registry.get("bulkhead.rejected").tag("name", "search").counter().count());
+    }
+
+    private static JdbcDataSource h2() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:partitioned;DB_CLOSE_DELAY=-1");
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
@@ -0,0 +1,117 @@
+package com.alexpyslar03.productselectorbackend.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replica;
+
+    @BeforeEach
+    public void setUp() {
+        primary = new DriverManagerDataSource("jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1", "sa", "");
+        replica = new DriverManagerDataSource("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1", "sa", "");
+        for (Map.Entry<String, DataSource> database : Map.of("primary", primary, "replica", replica).entrySet()) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(database.getValue());
+            jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(32), lag BIGINT)");
+            jdbcTemplate.update("INSERT INTO node VALUES (?, 0)", database.getKey());
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        new JdbcTemplate(primary).execute("DROP TABLE node");
+        new JdbcTemplate(replica).execute("DROP TABLE node");
+    }
+
+    @Test
+    public void testReadOnlyTransactionsGoToReplica() {
+        Routing routing = new Routing(replica, null);
+        assertEquals("replica", routing.read());
+        assertEquals("primary", routing.write());
+    }
+
+    @Test
+    public void testReadsAfterWriteGoToPrimary() {
+        Routing routing = new Routing(replica, null);
+        AtomicInteger writes = new AtomicInteger();
+        ReplicaRoutingContext.begin(false, writes::incrementAndGet);
+        try {
+            assertEquals("replica", routing.read());
+            routing.write();
+            routing.write();
+            assertEquals("primary", routing.read());
+            assertEquals(1, writes.get());
+        } finally {
+            ReplicaRoutingContext.end();
+        }
+        ReplicaRoutingContext.begin(true, null);
+        try {
+            assertEquals("primary", routing.read());
+        } finally {
+            ReplicaRoutingContext.end();
+        }
+    }
+
+    @Test
+    public void testFailoverToPrimary() {
+        Routing routing = new Routing(new DriverManagerDataSource("jdbc:h2:mem:missing;IFEXISTS=TRUE", "sa", ""), null);
+        assertEquals("primary", routing.read());
+        assertEquals(List.of(), routing.dataSource.healthyReplicas());
+    }
+
+    @Test
+    public void testCheckHealthExcludesLaggingReplica() {
+        Routing routing = new Routing(replica, "SELECT lag FROM node");
+        new JdbcTemplate(replica).update("UPDATE node SET lag = 60000");
+        routing.dataSource.checkHealth();
+        assertEquals("primary", routing.read());
+        new JdbcTemplate(replica).update("UPDATE node SET lag = 0");
+        routing.dataSource.checkHealth();
+        assertEquals("replica", routing.read());
+    }
+
+    private final class Routing {
+
+        private final ReplicaRoutingDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate readTemplate;
+        private final TransactionTemplate writeTemplate;
+
+        private Routing(DataSource replica, String lagQuery) {
+            dataSource = new ReplicaRoutingDataSource(primary, Map.of("replica-0", replica), lagQuery, 10_000);
+            dataSource.afterPropertiesSet();
+            LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(dataSource);
+            jdbcTemplate = new JdbcTemplate(proxy);
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+            readTemplate = new TransactionTemplate(transactionManager);
+            readTemplate.setReadOnly(true);
+            writeTemplate = new TransactionTemplate(transactionManager);
+        }
+
+        private String read() {
+            return readTemplate.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM node", String.class));
+        }
+
+        private String write() {
+            return writeTemplate.execute(status -> {
+                jdbcTemplate.update("UPDATE node SET lag = lag");
+                return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+            });
+        }
+    }
+}
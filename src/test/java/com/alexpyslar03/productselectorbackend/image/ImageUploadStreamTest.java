@@ -0,0 +1,70 @@
+package com.alexpyslar03.productselectorbackend.image;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageUploadStreamTest {
+
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+
+    @Test
+    public void testReadValidImage() throws Exception {
+        byte[] image = image(PNG_HEADER, 100_000);
+        ImageUploadStream upload = new ImageUploadStream(new ByteArrayInputStream(image), 200_000, ImageFormat.PNG);
+        drain(upload);
+
+        assertNull(upload.complete());
+        assertEquals(ImageFormat.PNG, upload.format());
+        assertEquals(image.length, upload.size());
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(image)), upload.hash());
+    }
+
+    @Test
+    public void testRejectOversizedImage() {
+        ImageUploadStream upload = new ImageUploadStream(new ByteArrayInputStream(image(PNG_HEADER, 10_000)), 5_000, null);
+        assertThrows(IOException.class, () -> drain(upload));
+        assertNotNull(upload.violation());
+        assertTrue(upload.size() <= 5_000 + 4096);
+    }
+
+    @Test
+    public void testRejectMismatchedFormat() {
+        ImageUploadStream upload = new ImageUploadStream(new ByteArrayInputStream(image(PNG_HEADER, 1_000)), 5_000, ImageFormat.JPEG);
+        assertThrows(IOException.class, () -> drain(upload));
+        assertNotNull(upload.violation());
+    }
+
+    @Test
+    public void testRejectUnknownFormat() {
+        ImageUploadStream upload = new ImageUploadStream(new ByteArrayInputStream("not an image at all".getBytes()), 5_000, null);
+        assertThrows(IOException.class, () -> drain(upload));
+        assertNotNull(upload.violation());
+
+        ImageUploadStream tiny = new ImageUploadStream(new ByteArrayInputStream(new byte[]{(byte) 0xFF, (byte) 0xD8}), 5_000, null);
+        assertThrows(IOException.class, () -> drain(tiny));
+        assertNotNull(tiny.complete());
+    }
+
+    private static byte[] image(byte[] header, int size) {
+        byte[] image = new byte[size];
+        System.arraycopy(header, 0, image, 0, header.length);
+        for (int i = header.length; i < size; i++) {
+            image[i] = (byte) (i * 31);
+        }
+        return image;
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        byte[] buffer = new byte[4096];
+        while (in.read(buffer) != -1) {
+            // Содержимое проверяется самим потоком
+        }
+    }
+}
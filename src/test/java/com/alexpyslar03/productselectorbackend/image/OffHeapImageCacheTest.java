@@ -0,0 +1,97 @@
+package com.alexpyslar03.productselectorbackend.image;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OffHeapImageCacheTest {
+
+    private static final int PAGE = OffHeapImageCache.PAGE_SIZE;
+
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    public void testPutAndRead() throws IOException {
+        OffHeapImageCache cache = new OffHeapImageCache(DataSize.ofBytes(8 * PAGE), DataSize.ofBytes(4 * PAGE), registry);
+        byte[] image = content(2 * PAGE + 100, 7);
+
+        assertNull(cache.acquire("a"));
+        cache.put("a", "image/png", image);
+        try (OffHeapImageCache.Entry entry = cache.acquire("a")) {
+            assertEquals("image/png", entry.contentType());
+            assertEquals(image.length, entry.size());
+            assertArrayEquals(image, read(entry));
+        }
+        cache.put("b", "image/png", content(4 * PAGE + 1, 3));
+
+        assertEquals(1, cache.size());
+        assertEquals(3L * PAGE, cache.usedBytes());
+        assertEquals(1.0, registry.get("image.cache.requests").tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get("image.cache.requests").tag("result", "miss").counter().count());
+        assertEquals(8.0 * PAGE, registry.get("image.cache.memory.max").gauge().value());
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyRead() throws IOException {
+        OffHeapImageCache cache = new OffHeapImageCache(DataSize.ofBytes(4 * PAGE), DataSize.ofBytes(4 * PAGE), registry);
+        cache.put("a", "image/png", content(2 * PAGE, 1));
+        cache.put("b", "image/png", content(2 * PAGE, 2));
+        cache.acquire("a").close();
+
+        cache.put("c", "image/png", content(PAGE, 3));
+
+        assertNull(cache.acquire("b"));
+        try (OffHeapImageCache.Entry a = cache.acquire("a"); OffHeapImageCache.Entry c = cache.acquire("c")) {
+            assertArrayEquals(content(2 * PAGE, 1), read(a));
+            assertArrayEquals(content(PAGE, 3), read(c));
+        }
+        assertEquals(1.0, registry.get("image.cache.evictions").counter().count());
+    }
+
+    @Test
+    public void testPinnedEntryIsNotOverwritten() throws IOException {
+        OffHeapImageCache cache = new OffHeapImageCache(DataSize.ofBytes(2 * PAGE), DataSize.ofBytes(2 * PAGE), registry);
+        cache.put("a", "image/png", content(2 * PAGE, 1));
+        OffHeapImageCache.Entry pinned = cache.acquire("a");
+
+        cache.put("b", "image/png", content(2 * PAGE, 2));
+
+        assertEquals(0, cache.size());
+        assertArrayEquals(content(2 * PAGE, 1), read(pinned));
+        pinned.close();
+        assertEquals(0, cache.usedBytes());
+        cache.put("b", "image/png", content(2 * PAGE, 2));
+        try (OffHeapImageCache.Entry b = cache.acquire("b")) {
+            assertArrayEquals(content(2 * PAGE, 2), read(b));
+        }
+    }
+
+    private static byte[] read(OffHeapImageCache.Entry entry) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        entry.writeTo(chunk -> {
+            byte[] bytes = new byte[chunk.remaining()];
+            chunk.get(bytes);
+            out.write(bytes);
+        });
+        return out.toByteArray();
+    }
+
+    private static byte[] content(int size, int seed) {
+        byte[] content = new byte[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = (byte) (i * seed + seed);
+        }
+        return content;
+    }
+}
@@ -0,0 +1,93 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CatalogReadModelTest {
+
+    private static final Set<Recipe.DifficultyLevel> ANY = EnumSet.allOf(Recipe.DifficultyLevel.class);
+
+    @Test
+    public void testOf() {
+        CatalogReadModel model = model();
+
+        assertEquals(3, model.recipeCount());
+        assertEquals(3, model.productCount());
+        assertEquals(4, model.linkCount());
+        assertArrayEquals(new long[]{10, 30}, model.productsOf(200));
+        assertArrayEquals(new long[]{100, 200}, model.recipesOf(10));
+        assertArrayEquals(new long[0], model.productsOf(999));
+        assertArrayEquals(new long[0], model.recipesOf(20));
+        assertEquals(5L, model.ratingOf(100));
+        assertNull(model.ratingOf(200));
+    }
+
+    @Test
+    public void testRecipeIds() {
+        CatalogReadModel model = model();
+
+        assertArrayEquals(new long[]{100, 200, 300}, model.recipeIds(false, ANY));
+        assertArrayEquals(new long[]{100, 300}, model.recipeIds(true, ANY));
+        assertArrayEquals(new long[]{200}, model.recipeIds(false, EnumSet.of(Recipe.DifficultyLevel.HARD)));
+        assertArrayEquals(new long[0], model.recipeIds(true, EnumSet.of(Recipe.DifficultyLevel.HARD)));
+    }
+
+    @Test
+    public void testWith() {
+        CatalogReadModel model = model();
+
+        CatalogReadModel changed = model.with(new CatalogReadModel.Delta(
+                Set.of(300L),
+                List.of(recipe(200L, true, Recipe.DifficultyLevel.EASY, 7L), recipe(400L, false, Recipe.DifficultyLevel.HARD, null)),
+                Set.of(30L),
+                Set.of(40L),
+                Map.of(200L, Set.of(20L), 400L, Set.of(40L), 100L, Set.of(10L, 40L))));
+
+        assertArrayEquals(new long[]{100, 200, 400}, changed.recipeIds(false, ANY));
+        assertArrayEquals(new long[]{100, 200}, changed.recipeIds(true, ANY));
+        assertArrayEquals(new long[]{20}, changed.productsOf(200));
+        assertArrayEquals(new long[]{10, 40}, changed.productsOf(100));
+        assertArrayEquals(new long[]{100, 400}, changed.recipesOf(40));
+        assertArrayEquals(new long[0], changed.recipesOf(30));
+        assertEquals(7L, changed.ratingOf(200));
+        assertEquals(3, changed.productCount());
+
+        assertArrayEquals(new long[]{10, 30}, model.productsOf(200));
+        assertArrayEquals(new long[]{100, 200, 300}, model.recipeIds(false, ANY));
+
+        // Изменение сведений о рецепте без новых связей сохраняет его связи.
+        CatalogReadModel rated = model.with(new CatalogReadModel.Delta(Set.of(),
+                List.of(recipe(200L, false, Recipe.DifficultyLevel.HARD, 9L)), Set.of(), Set.of(), Map.of()));
+        assertArrayEquals(new long[]{10, 30}, rated.productsOf(200));
+        assertEquals(9L, rated.ratingOf(200));
+    }
+
+    private static CatalogReadModel model() {
+        return CatalogReadModel.of(
+                List.of(recipe(200L, false, Recipe.DifficultyLevel.HARD, null),
+                        recipe(100L, true, Recipe.DifficultyLevel.EASY, 5L),
+                        recipe(300L, true, Recipe.DifficultyLevel.MEDIUM, 3L)),
+                List.of(10L, 20L, 30L),
+                List.of(new RecipeProductLink(100L, 10L),
+                        new RecipeProductLink(200L, 10L),
+                        new RecipeProductLink(200L, 30L),
+                        new RecipeProductLink(200L, 30L),
+                        new RecipeProductLink(300L, 30L),
+                        new RecipeProductLink(300L, 99L)));
+    }
+
+    private static RecipeSummary recipe(Long id, boolean vegan, Recipe.DifficultyLevel level, Long rating) {
+        return new RecipeSummary(id, "Рецепт " + id, "Описание", vegan, level, rating);
+    }
+}
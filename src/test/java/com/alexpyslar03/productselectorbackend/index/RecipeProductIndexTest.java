@@ -0,0 +1,213 @@
+package com.alexpyslar03.productselectorbackend.index;
+
+import com.alexpyslar03.productselectorbackend.dto.PantryMatchDTO;
+import com.alexpyslar03.productselectorbackend.dto.RelatedProductDTO;
+import com.alexpyslar03.productselectorbackend.dto.SubstitutionDTO;
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.event.SubstitutionChangedEvent;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.ProductSubstitutionRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import com.alexpyslar03.productselectorbackend.service.CatalogSnapshotService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Проверяет инкрементальное обновление индекса: после применения событий индекс отвечает так же,
+ * как индекс, заново построенный по итоговым связям, а подбор по кладовой учитывает текущие замены.
+ * Связи изменяются в базе данных перед публикацией события, как это делают сервисы.
+ */
+@SpringBootTest(properties = "app.snapshot.enabled=false")
+@AutoConfigureTestDatabase
+public class RecipeProductIndexTest {
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSubstitutionRepository productSubstitutionRepository;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private long flour;
+    private long salt;
+    private long sugar;
+    private long egg;
+    private long bread;
+    private long cake;
+
+    @BeforeEach
+    public void setUp() {
+        flour = product("Мука");
+        salt = product("Соль");
+        sugar = product("Сахар");
+        egg = product("Яйцо");
+        bread = recipe("Хлеб");
+        cake = recipe("Торт");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        productSubstitutionRepository.deleteAll();
+        recipeRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testIncrementalUpdatesMatchRebuild() {
+        RecipeProductIndex index = index();
+
+        setProducts(index, bread, flour, salt);
+        setProducts(index, cake, flour, sugar, egg);
+        assertArrayEquals(sorted(new long[]{bread, cake}), sorted(index.recipesOf(flour)));
+        assertEquals(Map.of(salt, 1L, sugar, 1L, egg, 1L), counts(index.related(flour, 10)));
+        assertEquals(Map.of(flour, 1L, egg, 1L), counts(index.related(sugar, 10)));
+
+        // Замена набора продуктов рецепта снимает пары удаленного продукта и добавляет пары нового.
+        setProducts(index, bread, flour, egg);
+        assertArrayEquals(sorted(new long[]{flour, egg}), sorted(index.productsOf(bread)));
+        assertArrayEquals(new long[0], index.recipesOf(salt));
+        assertEquals(Map.of(), counts(index.related(salt, 10)));
+        assertEquals(Map.of(sugar, 1L, egg, 2L), counts(index.related(flour, 10)));
+
+        // Набор рецептов продукта перестраивает наборы продуктов затронутых рецептов.
+        setRecipes(index, sugar, bread);
+        assertArrayEquals(sorted(new long[]{flour, sugar, egg}), sorted(index.productsOf(bread)));
+        assertArrayEquals(sorted(new long[]{flour, egg}), sorted(index.productsOf(cake)));
+        assertEquals(Map.of(flour, 1L, egg, 1L), counts(index.related(sugar, 10)));
+
+        recipeRepository.deleteLinksByRecipeIdIn(List.of(cake));
+        recipeRepository.deleteById(cake);
+        index.onCatalogChanged(CatalogChangedEvent.deleted(CatalogChangedEvent.Type.RECIPE, List.of(cake)));
+        assertArrayEquals(new long[]{bread}, index.recipesOf(flour));
+        assertEquals(Map.of(sugar, 1L, egg, 1L), counts(index.related(flour, 10)));
+        assertEquals(List.of(new RelatedProductDTO(egg, 2L)), index.suggest(List.of(flour, sugar), 1));
+
+        RecipeProductIndex rebuilt = index();
+        for (long product : List.of(flour, salt, sugar, egg)) {
+            assertArrayEquals(sorted(rebuilt.recipesOf(product)), sorted(index.recipesOf(product)));
+            assertEquals(counts(rebuilt.related(product, 10)), counts(index.related(product, 10)));
+        }
+        for (long recipe : List.of(bread, cake)) {
+            assertArrayEquals(sorted(rebuilt.productsOf(recipe)), sorted(index.productsOf(recipe)));
+        }
+    }
+
+    @Test
+    public void testSubstitutionCoverage() {
+        long soy = product("Соевый соус");
+        RecipeProductIndex index = index();
+
+        // Замена известна раньше рецептов: битовая карта покрытия заполняется при добавлении связей.
+        index.onSubstitutionChanged(new SubstitutionChangedEvent(salt, Map.of(soy, 0.5)));
+        setProducts(index, bread, flour, salt);
+        setProducts(index, cake, salt);
+        assertEquals(List.of(new PantryMatchDTO(cake, 0.5, List.of(new SubstitutionDTO(salt, soy, 0.5)))), index.match(List.of(soy), true));
+        assertEquals(List.of(), index.match(List.of(soy), false));
+        assertEquals(Set.of(bread, cake), recipeIds(index.match(List.of(flour, soy), true)));
+
+        // Удаление заменяемого продукта из рецепта снимает рецепт с покрытия заменителя.
+        setProducts(index, cake, sugar);
+        assertEquals(List.of(), index.match(List.of(soy), true));
+
+        setProducts(index, cake, salt);
+        index.onSubstitutionChanged(new SubstitutionChangedEvent(salt, Map.of()));
+        assertEquals(List.of(), index.match(List.of(soy), true));
+
+        // Из нескольких заменителей в кладовой выбирается замена с наибольшим весом.
+        index.onSubstitutionChanged(new SubstitutionChangedEvent(salt, Map.of(soy, 0.5, egg, 0.8)));
+        assertEquals(List.of(new PantryMatchDTO(cake, 0.8, List.of(new SubstitutionDTO(salt, egg, 0.8)))), index.match(List.of(soy, egg), true));
+
+        // Удаление продукта-заменителя удаляет его замены и покрытие.
+        index.onCatalogChanged(CatalogChangedEvent.deleted(CatalogChangedEvent.Type.PRODUCT, List.of(egg)));
+        assertEquals(List.of(), index.match(List.of(egg), true));
+        assertEquals(List.of(new PantryMatchDTO(cake, 0.5, List.of(new SubstitutionDTO(salt, soy, 0.5)))), index.match(List.of(soy, egg), true));
+    }
+
+    @Test
+    public void testConcurrentEditsOfBothSidesKeepCommittedLinks() {
+        RecipeProductIndex index = index();
+        setProducts(index, bread, flour);
+
+        // Продукты рецепта и рецепты продукта изменены одновременно: каждая транзакция вычислила свой набор
+        // до фиксации другой, а события применяются в порядке, обратном порядку фиксации.
+        recipeRepository.insertProductLinks(bread, List.of(salt));
+        productRepository.insertRecipeLinks(sugar, List.of(bread));
+        index.onCatalogChanged(CatalogChangedEvent.upserted(CatalogChangedEvent.Type.PRODUCT, sugar, Set.of(bread)));
+        index.onCatalogChanged(CatalogChangedEvent.upserted(CatalogChangedEvent.Type.RECIPE, bread, Set.of(flour, salt)));
+
+        assertArrayEquals(sorted(new long[]{flour, salt, sugar}), sorted(index.productsOf(bread)));
+        assertArrayEquals(new long[]{bread}, index.recipesOf(sugar));
+        assertEquals(Map.of(flour, 1L, salt, 1L), counts(index.related(sugar, 10)));
+    }
+
+    /**
+     * Заменяет продукты рецепта в базе данных и публикует событие, как это делает сервис рецептов.
+     */
+    private void setProducts(RecipeProductIndex index, long recipe, Long... products) {
+        recipeRepository.deleteLinksByRecipeIdIn(List.of(recipe));
+        recipeRepository.insertProductLinks(recipe, List.of(products));
+        index.onCatalogChanged(CatalogChangedEvent.upserted(CatalogChangedEvent.Type.RECIPE, recipe, Set.of(products)));
+    }
+
+    /**
+     * Заменяет рецепты продукта в базе данных и публикует событие, как это делает сервис продуктов.
+     */
+    private void setRecipes(RecipeProductIndex index, long product, Long... recipes) {
+        recipeRepository.deleteLinksByProductIdIn(List.of(product));
+        productRepository.insertRecipeLinks(product, List.of(recipes));
+        index.onCatalogChanged(CatalogChangedEvent.upserted(CatalogChangedEvent.Type.PRODUCT, product, Set.of(recipes)));
+    }
+
+    /**
+     * Создает отдельный экземпляр индекса, не подписанный на события приложения, и строит его по базе данных.
+     */
+    private RecipeProductIndex index() {
+        RecipeProductIndex index = new RecipeProductIndex(recipeRepository, productSubstitutionRepository, catalogSnapshotService);
+        index.build();
+        return index;
+    }
+
+    private long product(String name) {
+        return productRepository.save(Product.builder().name(name).build()).getId();
+    }
+
+    private long recipe(String name) {
+        return recipeRepository.save(Recipe.builder().name(name).description("Описание")
+                .difficultyLevel(Recipe.DifficultyLevel.EASY).build()).getId();
+    }
+
+    private static long[] sorted(long[] ids) {
+        return Arrays.stream(ids).sorted().toArray();
+    }
+
+    private static Set<Long> recipeIds(List<PantryMatchDTO> matches) {
+        return matches.stream().map(PantryMatchDTO::getRecipeId).collect(Collectors.toSet());
+    }
+
+    private static Map<Long, Long> counts(List<RelatedProductDTO> related) {
+        Map<Long, Long> counts = new TreeMap<>();
+        related.forEach(r -> counts.put(r.getProductId(), r.getCount()));
+        return counts;
+    }
+}
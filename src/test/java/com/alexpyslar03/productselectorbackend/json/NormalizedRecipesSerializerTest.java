@@ -0,0 +1,48 @@
+package com.alexpyslar03.productselectorbackend.json;
+
+import com.alexpyslar03.productselectorbackend.dto.NormalizedRecipesDTO;
+import com.alexpyslar03.productselectorbackend.dto.ProductSummary;
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class NormalizedRecipesSerializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testSerialize() throws Exception {
+        NormalizedRecipesDTO dto = NormalizedRecipesDTO.of(
+                List.of(new RecipeSummary(2L, "Паста", "С сыром", false, Recipe.DifficultyLevel.HARD, null),
+                        new RecipeSummary(1L, "Салат", "Овощной", true, Recipe.DifficultyLevel.EASY, 5L)),
+                List.of(new RecipeProductLink(2L, 30L), new RecipeProductLink(1L, 20L),
+                        new RecipeProductLink(1L, 10L), new RecipeProductLink(2L, 10L)),
+                List.of(new ProductSummary(30L, "Сыр"), new ProductSummary(10L, "Соль"), new ProductSummary(20L, "Огурец")));
+
+        assertEquals("{\"recipes\":["
+                        + "{\"id\":1,\"name\":\"Салат\",\"description\":\"Овощной\",\"vegan\":true,\"difficultyLevel\":\"EASY\",\"rating\":5,\"products\":[10,20]},"
+                        + "{\"id\":2,\"name\":\"Паста\",\"description\":\"С сыром\",\"vegan\":false,\"difficultyLevel\":\"HARD\",\"rating\":null,\"products\":[10,30]}],"
+                        + "\"products\":{"
+                        + "\"10\":{\"id\":10,\"name\":\"Соль\"},"
+                        + "\"20\":{\"id\":20,\"name\":\"Огурец\"},"
+                        + "\"30\":{\"id\":30,\"name\":\"Сыр\"}}}",
+                objectMapper.writeValueAsString(dto));
+    }
+
+    @Test
+    public void testSerializeRecipeWithoutProducts() throws Exception {
+        NormalizedRecipesDTO dto = NormalizedRecipesDTO.of(
+                List.of(new RecipeSummary(1L, "Вода", "Кипяченая", true, Recipe.DifficultyLevel.EASY, null)),
+                List.of(), List.of());
+
+        assertEquals("{\"recipes\":[{\"id\":1,\"name\":\"Вода\",\"description\":\"Кипяченая\",\"vegan\":true,"
+                        + "\"difficultyLevel\":\"EASY\",\"rating\":null,\"products\":[]}],\"products\":{}}",
+                objectMapper.writeValueAsString(dto));
+    }
+}
@@ -0,0 +1,49 @@
+package com.alexpyslar03.productselectorbackend.json;
+
+import com.alexpyslar03.productselectorbackend.dto.SparseFieldsDTO;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.entity.User;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SparseFieldsWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testForFields() {
+        SparseFieldsWriter writer = SparseFieldsWriter.forFields(RecipeField.class, "rating, name,id");
+        assertEquals(List.of("id", "name", "rating"), writer.attributes());
+        assertSame(writer, SparseFieldsWriter.forFields(RecipeField.class, "id,name,rating,name"));
+        assertEquals(List.of("id", "name"), SparseFieldsWriter.forFields(ProductField.class, "name,id").attributes());
+    }
+
+    @Test
+    public void testForFieldsInvalid() {
+        assertThrows(BadRequestException.class, () -> SparseFieldsWriter.forFields(UserField.class, "id,password"));
+        assertThrows(BadRequestException.class, () -> SparseFieldsWriter.forFields(RecipeField.class, " , "));
+    }
+
+    @Test
+    public void testSerialize() throws Exception {
+        SparseFieldsWriter recipes = SparseFieldsWriter.forFields(RecipeField.class, "id,vegan,difficultyLevel,rating,imageHash");
+        assertEquals("[{\"id\":1,\"vegan\":true,\"difficultyLevel\":\"EASY\",\"rating\":5,\"imageHash\":\"c0ffee\"},"
+                        + "{\"id\":2,\"vegan\":false,\"difficultyLevel\":\"HARD\",\"rating\":null,\"imageHash\":null}]",
+                objectMapper.writeValueAsString(new SparseFieldsDTO(recipes, List.of(
+                        new Object[]{1L, true, Recipe.DifficultyLevel.EASY, 5L, "c0ffee"},
+                        new Object[]{2L, false, Recipe.DifficultyLevel.HARD, null, null}), false)));
+
+        SparseFieldsWriter users = SparseFieldsWriter.forFields(UserField.class, "name,birthDate,accessLevel");
+        assertEquals("{\"name\":\"Анна\",\"birthDate\":\"1990-05-01\",\"accessLevel\":\"ADMIN\"}",
+                objectMapper.writeValueAsString(new SparseFieldsDTO(users, List.<Object[]>of(
+                        new Object[]{"Анна", LocalDate.of(1990, 5, 1), User.AccessLevel.ADMIN}), true)));
+    }
+}
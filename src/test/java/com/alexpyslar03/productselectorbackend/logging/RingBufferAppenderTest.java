@@ -0,0 +1,119 @@
+package com.alexpyslar03.productselectorbackend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RingBufferAppenderTest {
+
+    private LoggerContext context;
+    private Logger logger;
+
+    @BeforeEach
+    public void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        logger = context.getLogger("test");
+    }
+
+    @Test
+    public void testDeliversAllEventsInOrderOfEachThread() throws InterruptedException {
+        ListAppender<ILoggingEvent> target = listAppender();
+        RingBufferAppender appender = ringBuffer(8192, target);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            String thread = "thread-" + t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    appender.doAppend(event(Level.INFO, thread + " " + i));
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        appender.stop();
+
+        assertEquals(4000, target.list.size());
+        assertEquals(0, appender.droppedCount());
+        int[] next = new int[4];
+        for (ILoggingEvent event : target.list) {
+            String[] parts = event.getMessage().split(" ");
+            int thread = parts[0].charAt(parts[0].length() - 1) - '0';
+            assertEquals(next[thread]++, Integer.parseInt(parts[1]));
+        }
+    }
+
+    @Test
+    public void testDropsInfoBeforeWarnWhenFull() throws InterruptedException {
+        CountDownLatch consuming = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ListAppender<ILoggingEvent> target = new ListAppender<>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                consuming.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                super.append(event);
+            }
+        };
+        target.setContext(context);
+        target.start();
+        RingBufferAppender appender = ringBuffer(8, target);
+
+        appender.doAppend(event(Level.INFO, "first"));
+        assertTrue(consuming.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 8; i++) {
+            appender.doAppend(event(Level.INFO, "info " + i));
+        }
+        appender.doAppend(event(Level.WARN, "warn 1"));
+        appender.doAppend(event(Level.WARN, "warn 2"));
+        release.countDown();
+        appender.stop();
+
+        assertEquals(2, appender.droppedCount());
+        assertEquals(9, target.list.size());
+        assertEquals("info 6", target.list.get(7).getMessage());
+        assertEquals("warn 1", target.list.get(8).getMessage());
+    }
+
+    private ListAppender<ILoggingEvent> listAppender() {
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.setContext(context);
+        appender.start();
+        return appender;
+    }
+
+    private RingBufferAppender ringBuffer(int bufferSize, ListAppender<ILoggingEvent> target) {
+        RingBufferAppender appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("ring");
+        appender.setBufferSize(bufferSize);
+        appender.setMaxFlushTime(5000);
+        appender.addAppender(target);
+        appender.start();
+        return appender;
+    }
+
+    private ILoggingEvent event(Level level, String message) {
+        return new LoggingEvent(Logger.FQCN, logger, level, message, null, null);
+    }
+}
@@ -0,0 +1,85 @@
+package com.alexpyslar03.productselectorbackend.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SamplingTurboFilterTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private LoggerContext context;
+    private ListAppender<ILoggingEvent> events;
+    private SamplingTurboFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        context = new LoggerContext();
+        filter = new SamplingTurboFilter(clock::get);
+        filter.setRate(3);
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+        events = new ListAppender<>();
+        events.setContext(context);
+        events.start();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(events);
+    }
+
+    @Test
+    public void testLimitsEachLoggerSeparately() {
+        Logger a = context.getLogger("a");
+        Logger b = context.getLogger("b");
+        for (int i = 0; i < 10; i++) {
+            a.info("a {}", i);
+            b.info("b {}", i);
+        }
+        a.warn("warn");
+
+        assertEquals(7, events.list.size());
+        assertEquals(3, events.list.stream().filter(e -> e.getLoggerName().equals("a") && e.getLevel() == Level.INFO).count());
+        assertEquals(3, events.list.stream().filter(e -> e.getLoggerName().equals("b")).count());
+        assertEquals(Level.WARN, events.list.get(6).getLevel());
+        assertEquals(14, filter.sampledCount());
+    }
+
+    @Test
+    public void testLimitResetsEachSecond() {
+        Logger a = context.getLogger("a");
+        for (int i = 0; i < 5; i++) {
+            a.info("first {}", i);
+        }
+        clock.addAndGet(1000);
+        for (int i = 0; i < 5; i++) {
+            a.info("second {}", i);
+        }
+
+        assertEquals(6, events.list.size());
+        assertEquals("second 0", events.list.get(3).getFormattedMessage());
+    }
+
+    @Test
+    public void testDisabledEventsDoNotConsumeLimit() {
+        Logger a = context.getLogger("a");
+        for (int i = 0; i < 10; i++) {
+            a.debug("debug {}", i);
+            assertTrue(a.isInfoEnabled());
+        }
+        for (int i = 0; i < 3; i++) {
+            a.info("info {}", i);
+        }
+
+        assertEquals(3, events.list.size());
+        assertEquals(0, filter.sampledCount());
+    }
+}
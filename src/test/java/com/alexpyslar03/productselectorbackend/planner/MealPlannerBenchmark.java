@@ -0,0 +1,104 @@
+package com.alexpyslar03.productselectorbackend.planner;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Бенчмарк качества и задержки планировщика меню на синтетическом каталоге.
+ * Запускается отдельно от обычных тестов: ./gradlew benchmark
+ */
+@Tag("benchmark")
+public class MealPlannerBenchmark {
+
+    private static final int PRODUCTS = 800;
+    private static final int RECIPES = 5000;
+    private static final int PLAN_SIZE = 7;
+
+    private static long[] recipeIds;
+    private static long[][] recipeProducts;
+    private static List<Long> pantry;
+
+    @BeforeAll
+    public static void generateCatalog() {
+        Random random = new Random(42);
+        // Популярность продуктов распределена по закону Ципфа: соль и масло встречаются чаще шафрана.
+        double[] cumulative = new double[PRODUCTS];
+        double total = 0;
+        for (int p = 0; p < PRODUCTS; p++) {
+            total += 1.0 / (p + 1);
+            cumulative[p] = total;
+        }
+        recipeIds = new long[RECIPES];
+        recipeProducts = new long[RECIPES][];
+        for (int r = 0; r < RECIPES; r++) {
+            recipeIds[r] = r + 1;
+            Set<Long> products = new TreeSet<>();
+            int size = 4 + random.nextInt(9);
+            while (products.size() < size) {
+                int p = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+                products.add((long) (p < 0 ? -p - 1 : p) + 1);
+            }
+            recipeProducts[r] = products.stream().mapToLong(Long::longValue).toArray();
+        }
+        pantry = new ArrayList<>();
+        for (long p = 1; p <= 40; p += 2) {
+            pantry.add(p);
+        }
+    }
+
+    @Test
+    public void quality() {
+        MealPlanner planner = new MealPlanner(ForkJoinPool.commonPool(), 32);
+        MealPlanner.Plan plan = planner.plan(recipeIds, recipeProducts, pantry, PLAN_SIZE, TimeUnit.SECONDS.toNanos(2));
+        assertEquals(PLAN_SIZE, plan.recipeIds().length);
+
+        Random random = new Random(7);
+        int bestRandom = Integer.MAX_VALUE;
+        long sumRandom = 0;
+        int samples = 1000;
+        for (int i = 0; i < samples; i++) {
+            Set<Long> purchases = new HashSet<>();
+            for (int k = 0; k < PLAN_SIZE; k++) {
+                for (long p : recipeProducts[random.nextInt(RECIPES)]) {
+                    if (!pantry.contains(p)) {
+                        purchases.add(p);
+                    }
+                }
+            }
+            bestRandom = Math.min(bestRandom, purchases.size());
+            sumRandom += purchases.size();
+        }
+        System.out.printf("Качество: планировщик — %d покупок, %d продуктов из кладовой; случайный план — в среднем %.1f, лучший из %d — %d покупок%n",
+                plan.purchaseProductIds().length, plan.pantryProductIds().length, (double) sumRandom / samples, samples, bestRandom);
+        assertTrue(plan.purchaseProductIds().length <= bestRandom);
+    }
+
+    @Test
+    public void latency() {
+        for (long budgetMillis : new long[]{20, 50, 200}) {
+            MealPlanner planner = new MealPlanner(ForkJoinPool.commonPool(), 32);
+            long[] samples = new long[50];
+            int timedOut = 0;
+            int purchases = 0;
+            for (int i = 0; i < samples.length; i++) {
+                long start = System.nanoTime();
+                MealPlanner.Plan plan = planner.plan(recipeIds, recipeProducts, pantry, PLAN_SIZE, TimeUnit.MILLISECONDS.toNanos(budgetMillis));
+                samples[i] = System.nanoTime() - start;
+                timedOut += plan.timedOut() ? 1 : 0;
+                purchases = plan.purchaseProductIds().length;
+            }
+            Arrays.sort(samples);
+            System.out.printf("Задержка при бюджете %d мс: p50 = %.1f мс, p95 = %.1f мс, max = %.1f мс, прервано по времени %d из %d, покупок %d%n",
+                    budgetMillis, samples[samples.length / 2] / 1e6, samples[samples.length * 95 / 100] / 1e6,
+                    samples[samples.length - 1] / 1e6, timedOut, samples.length, purchases);
+        }
+    }
+}
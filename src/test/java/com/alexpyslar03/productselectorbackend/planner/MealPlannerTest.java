@@ -0,0 +1,60 @@
+package com.alexpyslar03.productselectorbackend.planner;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class MealPlannerTest {
+
+    private static final long[] RECIPE_IDS = {10, 20, 30, 40};
+
+    private static final long[][] RECIPE_PRODUCTS = {
+            {1, 2},
+            {1, 3},
+            {4, 5, 6},
+            {2, 3}
+    };
+
+    private final MealPlanner planner = new MealPlanner(ForkJoinPool.commonPool(), 4);
+
+    @Test
+    public void testPlanSizeIsLimitedByCandidatesWithoutRepeats() {
+        MealPlanner.Plan plan = planner.plan(RECIPE_IDS, RECIPE_PRODUCTS, List.of(), 3, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(3, plan.recipeIds().length);
+        assertEquals(3, Arrays.stream(plan.recipeIds()).distinct().count());
+
+        MealPlanner.Plan all = planner.plan(RECIPE_IDS, RECIPE_PRODUCTS, List.of(), 10, TimeUnit.SECONDS.toNanos(1));
+        assertArrayEquals(RECIPE_IDS, Arrays.stream(all.recipeIds()).sorted().toArray());
+        assertFalse(all.timedOut());
+
+        MealPlanner.Plan empty = planner.plan(new long[0], new long[0][], List.of(1L), 3, TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0, empty.recipeIds().length);
+    }
+
+    @Test
+    public void testSplitsPurchasesAndPantryProducts() {
+        // Рецепты 10, 20 и 40 обходятся тремя продуктами, два из которых уже есть в кладовой.
+        MealPlanner.Plan plan = planner.plan(RECIPE_IDS, RECIPE_PRODUCTS, List.of(1L, 2L, 7L), 3, TimeUnit.SECONDS.toNanos(1));
+
+        assertArrayEquals(new long[]{10, 20, 40}, Arrays.stream(plan.recipeIds()).sorted().toArray());
+        assertArrayEquals(new long[]{3}, plan.purchaseProductIds());
+        assertArrayEquals(new long[]{1, 2}, plan.pantryProductIds());
+    }
+
+    @Test
+    public void testZeroBudgetStillReturnsPlan() {
+        MealPlanner.Plan plan = planner.plan(RECIPE_IDS, RECIPE_PRODUCTS, List.of(1L), 2, 0);
+
+        assertEquals(2, plan.recipeIds().length);
+        assertEquals(2, Arrays.stream(plan.recipeIds()).distinct().count());
+        assertTrue(plan.timedOut());
+    }
+}
@@ -0,0 +1,70 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.entity.CatalogChange;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@DataJpaTest
+@SpringJUnitConfig
+public class CatalogChangeRepositoryTest {
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    private CatalogChange change1;
+    private CatalogChange change2;
+    private CatalogChange change3;
+
+    @BeforeEach
+    public void setUp() {
+        change1 = catalogChangeRepository.save(CatalogChange.builder()
+                .entityType(CatalogChangedEvent.Type.PRODUCT)
+                .entityId(1L)
+                .action(CatalogChangedEvent.Action.UPSERT)
+                .build());
+
+        change2 = catalogChangeRepository.save(CatalogChange.builder()
+                .entityType(CatalogChangedEvent.Type.RECIPE)
+                .entityId(1L)
+                .action(CatalogChangedEvent.Action.UPSERT)
+                .build());
+
+        change3 = catalogChangeRepository.save(CatalogChange.builder()
+                .entityType(CatalogChangedEvent.Type.PRODUCT)
+                .entityId(2L)
+                .action(CatalogChangedEvent.Action.DELETE)
+                .build());
+    }
+
+    @Test
+    public void testFindByIdGreaterThanOrderByIdAsc() {
+        List<CatalogChange> changes = catalogChangeRepository.findByIdGreaterThanOrderByIdAsc(change1.getId(), Limit.of(10));
+        assertNotNull(changes);
+        assertEquals(Arrays.asList(change2, change3), changes);
+        assertEquals(List.of(change1), catalogChangeRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(1)));
+    }
+
+    @Test
+    public void testDeleteByEntityTypeAndEntityIdIn() {
+        assertEquals(2, catalogChangeRepository.deleteByEntityTypeAndEntityIdIn(CatalogChangedEvent.Type.PRODUCT, Arrays.asList(1L, 2L)));
+        assertEquals(List.of(change2), catalogChangeRepository.findAll());
+    }
+
+    @Test
+    public void testFindMaxId() {
+        assertEquals(change3.getId().longValue(), catalogChangeRepository.findMaxId());
+        catalogChangeRepository.deleteAll();
+        assertEquals(0, catalogChangeRepository.findMaxId());
+    }
+}
@@ -0,0 +1,99 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@SpringJUnitConfig
+@Import(FieldProjectionRepository.class)
+public class FieldProjectionRepositoryTest {
+
+    @Autowired
+    private FieldProjectionRepository fieldProjectionRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product product1;
+    private Product product2;
+    private Recipe recipe1;
+    private Recipe recipe2;
+
+    @BeforeEach
+    public void setUp() {
+        product1 = productRepository.save(Product.builder()
+                .name("Product 1")
+                .build());
+
+        product2 = productRepository.save(Product.builder()
+                .name("Product 2")
+                .build());
+
+        recipe1 = recipeRepository.save(Recipe.builder()
+                .name("Recipe 1")
+                .description("Description 1")
+                .vegan(true)
+                .difficultyLevel(Recipe.DifficultyLevel.EASY)
+                .rating(5L)
+                .build());
+
+        recipe2 = recipeRepository.save(Recipe.builder()
+                .name("Recipe 2")
+                .description("Description 2")
+                .vegan(false)
+                .difficultyLevel(Recipe.DifficultyLevel.HARD)
+                .build());
+
+        recipe1.setProducts(new HashSet<>(Arrays.asList(product1, product2)));
+        recipe2.setProducts(new HashSet<>(Collections.singletonList(product1)));
+
+        recipeRepository.saveAll(Arrays.asList(recipe1, recipe2));
+        entityManager.flush();
+    }
+
+    @Test
+    public void testFindAll() {
+        List<Object[]> rows = fieldProjectionRepository.findAll(Recipe.class, List.of("id", "name", "rating"));
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[]{recipe1.getId(), "Recipe 1", 5L}, rows.get(0));
+        assertArrayEquals(new Object[]{recipe2.getId(), "Recipe 2", null}, rows.get(1));
+    }
+
+    @Test
+    public void testFindByIdInSingleAttribute() {
+        List<Object[]> rows = fieldProjectionRepository.findByIdIn(Recipe.class, List.of("difficultyLevel"), List.of(recipe2.getId()));
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[]{Recipe.DifficultyLevel.HARD}, rows.get(0));
+    }
+
+    @Test
+    public void testFindByAssociationIdIn() {
+        List<Object[]> rows = fieldProjectionRepository.findByAssociationIdIn(Recipe.class, List.of("vegan"), "products",
+                List.of(product1.getId(), product2.getId()));
+        assertEquals(2, rows.size());
+        assertArrayEquals(new Object[]{true}, rows.get(0));
+        assertArrayEquals(new Object[]{false}, rows.get(1));
+
+        rows = fieldProjectionRepository.findByAssociationIdIn(Product.class, List.of("name"), "recipes", List.of(recipe2.getId()));
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[]{"Product 1"}, rows.get(0));
+    }
+}
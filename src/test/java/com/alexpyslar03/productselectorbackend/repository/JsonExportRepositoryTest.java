@@ -0,0 +1,98 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.io.StringWriter;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@SpringJUnitConfig
+@Import(JsonExportRepository.class)
+public class JsonExportRepositoryTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private JsonExportRepository jsonExportRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    public void setUp() {
+        Product product1 = productRepository.save(Product.builder().name("Product 1").imageHash("c0ffee").build());
+        Product product2 = productRepository.save(Product.builder().name("Product 2").build());
+        productRepository.save(Product.builder().name("Product 3").build());
+        recipeRepository.save(Recipe.builder()
+                .name("Recipe 1")
+                .description("Description 1")
+                .vegan(true)
+                .difficultyLevel(Recipe.DifficultyLevel.EASY)
+                .rating(5L)
+                .products(Set.of(product1))
+                .build());
+        recipeRepository.save(Recipe.builder()
+                .name("Recipe 2")
+                .description("Description 2")
+                .vegan(false)
+                .difficultyLevel(Recipe.DifficultyLevel.HARD)
+                .products(Set.of(product2))
+                .build());
+        recipeRepository.save(Recipe.builder()
+                .name("Recipe 3")
+                .description("Description 3")
+                .vegan(true)
+                .difficultyLevel(Recipe.DifficultyLevel.MEDIUM)
+                .products(Set.of())
+                .build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    public void testWriteProductsMatchesEntities() throws Exception {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(json)) {
+            jsonExportRepository.writeProducts(gen);
+        }
+        assertEquals(objectMapper.writeValueAsString(productRepository.findAll(Sort.by("id"))), json.toString());
+    }
+
+    @Test
+    public void testWriteRecipesMatchesEntities() throws Exception {
+        StringWriter json = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(json)) {
+            jsonExportRepository.writeRecipes(gen);
+        }
+        assertEquals(objectMapper.writeValueAsString(recipeRepository.findAll(Sort.by("id"))), json.toString());
+    }
+
+    @Test
+    public void testWriteEmpty() throws Exception {
+        recipeRepository.deleteAllInBatch();
+        StringWriter json = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(json)) {
+            jsonExportRepository.writeRecipes(gen);
+        }
+        assertEquals("[]", json.toString());
+    }
+}
@@ -0,0 +1,61 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@SpringJUnitConfig
+@Import(PartialUpdateRepository.class)
+public class PartialUpdateRepositoryTest {
+
+    @Autowired
+    private PartialUpdateRepository partialUpdateRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Product product;
+
+    @BeforeEach
+    public void setUp() {
+        product = productRepository.save(Product.builder()
+                .name("Product 1")
+                .imageHash("c0ffee")
+                .build());
+        entityManager.flush();
+    }
+
+    @Test
+    public void testUpdate() {
+        assertEquals(1, partialUpdateRepository.update(Product.class, product.getId(), Map.of("name", "Product 2")));
+        entityManager.clear();
+        Product updated = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals("Product 2", updated.getName());
+        assertEquals("c0ffee", updated.getImageHash());
+    }
+
+    @Test
+    public void testUpdateWithoutFields() {
+        assertEquals(1, partialUpdateRepository.update(Product.class, product.getId(), Map.of()));
+        entityManager.clear();
+        assertEquals("Product 1", productRepository.findById(product.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    public void testUpdateMissing() {
+        assertEquals(0, partialUpdateRepository.update(Product.class, product.getId() + 1, Map.of("name", "Product 2")));
+    }
+}
@@ -1,5 +1,6 @@
 package com.alexpyslar03.productselectorbackend.repository;
 
+import com.alexpyslar03.productselectorbackend.dto.ProductSummary;
 import com.alexpyslar03.productselectorbackend.entity.Product;
 import com.alexpyslar03.productselectorbackend.entity.Recipe;
 import org.junit.jupiter.api.BeforeEach;
@@ -84,4 +85,43 @@ public class ProductRepositoryTest {
         assertEquals(2, products.size());
         assertEquals(new HashSet<>(Arrays.asList(product1, product2)), products);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindSummariesByIdIn() {
+        List<ProductSummary> summaries = productRepository.findSummariesByIdIn(Arrays.asList(product1.getId(), product3.getId()));
+        assertNotNull(summaries);
+        assertEquals(2, summaries.size());
+        assertEquals(new HashSet<>(Arrays.asList(
+                        new ProductSummary(product1.getId(), product1.getName()),
+                        new ProductSummary(product3.getId(), product3.getName()))),
+                new HashSet<>(summaries));
+    }
+
+    @Test
+    public void testFindRecipeIdsById() {
+        List<Long> recipeIds = productRepository.findRecipeIdsById(product1.getId());
+        assertEquals(new HashSet<>(Arrays.asList(recipe1.getId(), recipe2.getId())), new HashSet<>(recipeIds));
+    }
+
+    @Test
+    public void testDeleteAndInsertRecipeLinks() {
+        assertEquals(1, productRepository.deleteRecipeLinks(product2.getId(), Collections.singletonList(recipe1.getId())));
+        assertEquals(1, productRepository.insertRecipeLinks(product2.getId(), Arrays.asList(recipe2.getId(), -1L)));
+        assertEquals(Collections.singletonList(recipe2.getId()), productRepository.findRecipeIdsById(product2.getId()));
+    }
+
+    @Test
+    public void testFindIdsByIdIn() {
+        List<Long> ids = productRepository.findIdsByIdIn(Arrays.asList(product1.getId(), product3.getId(), -1L));
+        assertEquals(new HashSet<>(Arrays.asList(product1.getId(), product3.getId())), new HashSet<>(ids));
+    }
+
+    @Test
+    public void testFindAllSummaries() {
+        assertEquals(Arrays.asList(
+                        new ProductSummary(product1.getId(), product1.getName()),
+                        new ProductSummary(product2.getId(), product2.getName()),
+                        new ProductSummary(product3.getId(), product3.getName())),
+                productRepository.findAllSummaries());
+    }
+}
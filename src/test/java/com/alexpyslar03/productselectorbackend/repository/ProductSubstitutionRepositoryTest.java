@@ -0,0 +1,71 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import com.alexpyslar03.productselectorbackend.dto.SubstitutionDTO;
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.entity.ProductSubstitution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@SpringJUnitConfig
+public class ProductSubstitutionRepositoryTest {
+
+    @Autowired
+    private ProductSubstitutionRepository productSubstitutionRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product butter;
+    private Product margarine;
+    private Product oil;
+
+    @BeforeEach
+    public void setUp() {
+        butter = productRepository.save(Product.builder().name("Butter").build());
+        margarine = productRepository.save(Product.builder().name("Margarine").build());
+        oil = productRepository.save(Product.builder().name("Oil").build());
+
+        productSubstitutionRepository.saveAll(Arrays.asList(
+                ProductSubstitution.builder().product(butter).substitute(margarine).weight(0.9).build(),
+                ProductSubstitution.builder().product(butter).substitute(oil).weight(0.5).build(),
+                ProductSubstitution.builder().product(margarine).substitute(butter).weight(1.0).build()));
+    }
+
+    @Test
+    public void testFindByProductIdAndSubstituteId() {
+        Optional<ProductSubstitution> substitution = productSubstitutionRepository.findByProductIdAndSubstituteId(butter.getId(), oil.getId());
+        assertTrue(substitution.isPresent());
+        assertEquals(0.5, substitution.get().getWeight());
+        assertTrue(productSubstitutionRepository.findByProductIdAndSubstituteId(oil.getId(), butter.getId()).isEmpty());
+    }
+
+    @Test
+    public void testFindEdgesByProductId() {
+        List<SubstitutionDTO> edges = productSubstitutionRepository.findEdgesByProductId(butter.getId());
+        assertNotNull(edges);
+        assertEquals(new HashSet<>(Arrays.asList(
+                        new SubstitutionDTO(butter.getId(), margarine.getId(), 0.9),
+                        new SubstitutionDTO(butter.getId(), oil.getId(), 0.5))),
+                new HashSet<>(edges));
+    }
+
+    @Test
+    public void testFindAllEdges() {
+        assertEquals(3, productSubstitutionRepository.findAllEdges().size());
+    }
+
+    @Test
+    public void testDeleteAllByProductIdIn() {
+        assertEquals(2, productSubstitutionRepository.deleteAllByProductIdIn(List.of(margarine.getId())));
+        List<SubstitutionDTO> edges = productSubstitutionRepository.findAllEdges();
+        assertEquals(List.of(new SubstitutionDTO(butter.getId(), oil.getId(), 0.5)), edges);
+    }
+}
@@ -1,5 +1,7 @@
 package com.alexpyslar03.productselectorbackend.repository;
 
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
 import com.alexpyslar03.productselectorbackend.entity.Product;
 import com.alexpyslar03.productselectorbackend.entity.Recipe;
 import org.junit.jupiter.api.BeforeEach;
@@ -90,4 +92,85 @@ public class RecipeRepositoryTest {
         assertEquals(2, recipes.size());
         assertEquals(new HashSet<>(Arrays.asList(recipe1, recipe2)), recipes);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindAllLinks() {
+        List<RecipeProductLink> links = recipeRepository.findAllLinks();
+        assertNotNull(links);
+        assertEquals(4, links.size());
+        assertEquals(new HashSet<>(Arrays.asList(
+                        new RecipeProductLink(recipe1.getId(), product1.getId()),
+                        new RecipeProductLink(recipe1.getId(), product2.getId()),
+                        new RecipeProductLink(recipe2.getId(), product1.getId()),
+                        new RecipeProductLink(recipe3.getId(), product2.getId()))),
+                new HashSet<>(links));
+    }
+
+    @Test
+    public void testFindSummariesByIdIn() {
+        List<RecipeSummary> summaries = recipeRepository.findSummariesByIdIn(Arrays.asList(recipe1.getId(), recipe2.getId()));
+        assertNotNull(summaries);
+        assertEquals(new HashSet<>(Arrays.asList(
+                        new RecipeSummary(recipe1.getId(), "Recipe 1", "Description 1", true, Recipe.DifficultyLevel.EASY, null),
+                        new RecipeSummary(recipe2.getId(), "Recipe 2", "Description 2", false, Recipe.DifficultyLevel.MEDIUM, null))),
+                new HashSet<>(summaries));
+    }
+
+    @Test
+    public void testFindLinksByRecipeIdIn() {
+        List<RecipeProductLink> links = recipeRepository.findLinksByRecipeIdIn(Arrays.asList(recipe1.getId(), recipe3.getId()));
+        assertEquals(new HashSet<>(Arrays.asList(
+                        new RecipeProductLink(recipe1.getId(), product1.getId()),
+                        new RecipeProductLink(recipe1.getId(), product2.getId()),
+                        new RecipeProductLink(recipe3.getId(), product2.getId()))),
+                new HashSet<>(links));
+    }
+
+    @Test
+    public void testFindLinksByProductIdIn() {
+        List<RecipeProductLink> links = recipeRepository.findLinksByProductIdIn(Collections.singletonList(product1.getId()));
+        assertEquals(new HashSet<>(Arrays.asList(
+                        new RecipeProductLink(recipe1.getId(), product1.getId()),
+                        new RecipeProductLink(recipe2.getId(), product1.getId()))),
+                new HashSet<>(links));
+    }
+
+    @Test
+    public void testFindRecipeLinksByProductIdIn() {
+        List<RecipeProductLink> links = recipeRepository.findRecipeLinksByProductIdIn(Collections.singletonList(product1.getId()));
+        assertEquals(new HashSet<>(Arrays.asList(
+                        new RecipeProductLink(recipe1.getId(), product1.getId()),
+                        new RecipeProductLink(recipe1.getId(), product2.getId()),
+                        new RecipeProductLink(recipe2.getId(), product1.getId()))),
+                new HashSet<>(links));
+    }
+
+    @Test
+    public void testFindProductIdsById() {
+        List<Long> productIds = recipeRepository.findProductIdsById(recipe1.getId());
+        assertEquals(new HashSet<>(Arrays.asList(product1.getId(), product2.getId())), new HashSet<>(productIds));
+    }
+
+    @Test
+    public void testDeleteAndInsertProductLinks() {
+        assertEquals(1, recipeRepository.deleteProductLinks(recipe2.getId(), Collections.singletonList(product1.getId())));
+        assertEquals(1, recipeRepository.insertProductLinks(recipe2.getId(), Arrays.asList(product2.getId(), -1L)));
+        assertEquals(Collections.singletonList(product2.getId()), recipeRepository.findProductIdsById(recipe2.getId()));
+    }
+
+    @Test
+    public void testFindIdsByIdIn() {
+        List<Long> ids = recipeRepository.findIdsByIdIn(Arrays.asList(recipe1.getId(), -1L));
+        assertEquals(Collections.singletonList(recipe1.getId()), ids);
+    }
+
+    @Test
+    public void testFindAllSummaries() {
+        List<RecipeSummary> summaries = recipeRepository.findAllSummaries();
+        assertEquals(3, summaries.size());
+        assertEquals(Arrays.asList(recipe1.getId(), recipe2.getId(), recipe3.getId()),
+                summaries.stream().map(RecipeSummary::id).toList());
+        assertEquals(new RecipeSummary(recipe3.getId(), "Recipe 3", "Description 3", true, Recipe.DifficultyLevel.HARD, null),
+                summaries.get(2));
+    }
+}
@@ -0,0 +1,93 @@
+package com.alexpyslar03.productselectorbackend.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Проверяет миграции схемы на PostgreSQL: приложение запускается на пустой базе данных с проверкой схемы
+ * Hibernate (ddl-auto: validate), а база данных со схемой, созданной до перехода на миграции, приводится
+ * к той же схеме.
+ */
+@SpringBootTest(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "app.snapshot.enabled=false"
+})
+public class SchemaMigrationTest {
+
+    private static EmbeddedPostgres postgres;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @Test
+    public void testMigratesBaselinedDatabase() {
+        jdbcTemplate.execute("CREATE DATABASE legacy");
+        DataSource legacyDataSource = new DriverManagerDataSource(postgres.getJdbcUrl("postgres", "legacy"), "postgres", "postgres");
+        JdbcTemplate legacy = new JdbcTemplate(legacyDataSource);
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/postgresql/V1__create_schema.sql")).execute(legacyDataSource);
+        byte[] photo = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n', 1, 2, 3};
+        legacy.update("INSERT INTO products (id, name, image) VALUES (1, 'Мука', ?), (2, 'Соль', ?), (3, 'Сахар', NULL)", photo, photo);
+        legacy.update("INSERT INTO recipes (id, name, description, is_vegan, difficulty_level, image) VALUES (1, 'Хлеб', 'Простой', true, 'EASY', ?)", photo);
+        legacy.update("INSERT INTO products_recipes (product_id, recipe_id) VALUES (1, 1), (2, 1)");
+
+        Flyway.configure()
+                .dataSource(legacyDataSource)
+                .locations("classpath:db/migration/postgresql")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        assertEquals(describeSchema(jdbcTemplate), describeSchema(legacy));
+        assertEquals(List.of(Map.of("content_type", "image/png", "size", 11L, "ref_count", 3L)),
+                legacy.queryForList("SELECT content_type, size, ref_count FROM images"));
+        String hash = legacy.queryForObject("SELECT hash FROM images", String.class);
+        assertEquals(List.of(hash, hash), legacy.queryForList("SELECT image_hash FROM products WHERE id IN (1, 2)", String.class));
+        assertNull(legacy.queryForObject("SELECT image_hash FROM products WHERE id = 3", String.class));
+        assertEquals(hash, legacy.queryForObject("SELECT image_hash FROM recipes WHERE id = 1", String.class));
+        assertEquals(0L, legacy.queryForObject("SELECT view_count + cooked_count FROM recipes WHERE id = 1", Long.class));
+        assertEquals(2, legacy.queryForObject("SELECT count(*) FROM products_recipes", Integer.class));
+    }
+
+    /**
+     * Описывает таблицы, столбцы и индексы схемы без учета порядка их создания.
+     */
+    private static List<String> describeSchema(JdbcTemplate jdbc) {
+        return jdbc.queryForList("""
+                SELECT table_name || '.' || column_name || ' ' || data_type || ' ' || is_nullable || ' ' || coalesce(column_default, '')
+                FROM information_schema.columns
+                WHERE table_schema = 'public' AND table_name <> 'flyway_schema_history'
+                UNION ALL
+                SELECT indexdef FROM pg_indexes WHERE schemaname = 'public' AND tablename <> 'flyway_schema_history'
+                UNION ALL
+                SELECT 'sequence ' || sequence_name FROM information_schema.sequences WHERE sequence_schema = 'public'
+                ORDER BY 1
+                """, String.class);
+    }
+}
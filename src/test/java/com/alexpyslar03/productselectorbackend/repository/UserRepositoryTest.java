@@ -66,4 +66,10 @@ public class UserRepositoryTest {
         assertEquals(3, users.size());
         assertEquals(new HashSet<>(Arrays.asList(user1, user2, user3)), new HashSet<>(users));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFindIdsByIdIn() {
+        List<Long> ids = userRepository.findIdsByIdIn(Arrays.asList(user1.getId(), user3.getId(), -1L));
+        assertEquals(new HashSet<>(Arrays.asList(user1.getId(), user3.getId())), new HashSet<>(ids));
+    }
+}
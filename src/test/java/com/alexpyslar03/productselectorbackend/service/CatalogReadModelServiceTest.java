@@ -0,0 +1,122 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.ProductDTO;
+import com.alexpyslar03.productselectorbackend.dto.RecipeDTO;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.index.CatalogReadModel;
+import com.alexpyslar03.productselectorbackend.repository.CatalogChangeRepository;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+@SpringBootTest(properties = "app.snapshot.enabled=false")
+@AutoConfigureTestDatabase
+public class CatalogReadModelServiceTest {
+
+    @Autowired
+    private CatalogReadModelService catalogReadModelService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @AfterEach
+    public void tearDown() {
+        recipeRepository.deleteAll();
+        productRepository.deleteAll();
+        catalogChangeRepository.deleteAll();
+    }
+
+    @Test
+    public void testAppliesLinksFromEvents() throws InterruptedException {
+        long flour = product("Мука", List.of());
+        long salt = product("Соль", List.of());
+        long bread = recipe("Хлеб", List.of(flour, salt));
+        await(model -> sorted(model.productsOf(bread)).equals(List.of(flour, salt)));
+
+        // Набор рецептов продукта добавляет продукт в рецепт, не затрагивая остальные связи рецепта.
+        long sugar = product("Сахар", List.of(bread));
+        await(model -> sorted(model.productsOf(bread)).equals(List.of(flour, salt, sugar)));
+
+        productService.delete(salt);
+        await(model -> sorted(model.productsOf(bread)).equals(List.of(flour, sugar)) && model.recipesOf(salt).length == 0);
+
+        recipeService.delete(bread);
+        await(model -> model.productsOf(bread).length == 0 && model.recipesOf(flour).length == 0);
+    }
+
+    @Test
+    public void testConcurrentEditsOfBothSidesKeepCommittedLinks() throws InterruptedException {
+        long flour = product("Мука", List.of());
+        long salt = product("Соль", List.of());
+        long sugar = product("Сахар", List.of());
+        long bread = recipe("Хлеб", List.of(flour));
+        await(model -> sorted(model.productsOf(bread)).equals(List.of(flour)));
+
+        // Продукты рецепта и рецепты продукта изменены одновременно: каждая транзакция вычислила свой набор
+        // до фиксации другой, и ни одно из событий не содержит итоговых связей рецепта.
+        recipeRepository.insertProductLinks(bread, List.of(salt));
+        productRepository.insertRecipeLinks(sugar, List.of(bread));
+        catalogReadModelService.onCatalogChanged(CatalogChangedEvent.upserted(CatalogChangedEvent.Type.PRODUCT, sugar, Set.of(bread)));
+        catalogReadModelService.onCatalogChanged(CatalogChangedEvent.upserted(CatalogChangedEvent.Type.RECIPE, bread, Set.of(flour, salt)));
+
+        await(model -> sorted(model.productsOf(bread)).equals(List.of(flour, salt, sugar))
+                && sorted(model.recipesOf(sugar)).equals(List.of(bread)));
+    }
+
+    /**
+     * Ожидает, пока модель, обновляемая в отдельном потоке, не придет в ожидаемое состояние.
+     */
+    private void await(Predicate<CatalogReadModel> condition) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            if (condition.test(catalogReadModelService.current())) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Модель каталога не пришла в ожидаемое состояние.");
+    }
+
+    private long product(String name, List<Long> recipeIds) {
+        ProductDTO dto = new ProductDTO();
+        dto.setName(name);
+        dto.setRecipeIds(recipeIds);
+        return productService.create(dto).getId();
+    }
+
+    private long recipe(String name, List<Long> productIds) {
+        RecipeDTO dto = new RecipeDTO();
+        dto.setName(name);
+        dto.setDescription("Простой");
+        dto.setDifficultyLevel(Recipe.DifficultyLevel.EASY);
+        dto.setProductIds(productIds);
+        return recipeService.create(dto).getId();
+    }
+
+    private static List<Long> sorted(long[] ids) {
+        return Arrays.stream(ids).sorted().boxed().toList();
+    }
+}
@@ -0,0 +1,161 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.CatalogNotificationDTO;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogStreamServiceTest {
+
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\d+-)(\\d+)\\n");
+
+    /**
+     * Сервис, раскладывающий события по буферам подписчиков в потоке публикации, чтобы к возврату из
+     * onCatalogChanged буферы были заполнены и проверки не зависели от потока рассылки.
+     */
+    private final CatalogStreamService stream = new CatalogStreamService(2, 16, Duration.ofMinutes(1), Runnable::run);
+
+    @AfterEach
+    public void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    public void testCoalescesPendingChangesOfSameEntity() throws InterruptedException {
+        RecordingEmitter emitter = new RecordingEmitter();
+        stream.subscribe(emitter, null);
+
+        changed(CatalogChangedEvent.Action.UPSERT, 1L);
+        assertEquals("1 change PRODUCT UPSERT 1", emitter.next());
+        // Пока отправка первого уведомления не завершена, последующие копятся в буфере подписчика.
+        changed(CatalogChangedEvent.Action.UPSERT, 2L);
+        changed(CatalogChangedEvent.Action.UPSERT, 1L);
+        changed(CatalogChangedEvent.Action.DELETE, 2L);
+        emitter.release();
+
+        assertEquals("3 change PRODUCT UPSERT 1", emitter.next());
+        assertEquals("4 change PRODUCT DELETE 2", emitter.next());
+        assertNull(emitter.sent.poll(200, TimeUnit.MILLISECONDS));
+
+        RecordingEmitter resumed = new RecordingEmitter();
+        resumed.release();
+        stream.subscribe(resumed, emitter.instance + "2");
+        assertEquals("3 change PRODUCT UPSERT 1", resumed.next());
+        assertEquals("4 change PRODUCT DELETE 2", resumed.next());
+
+        RecordingEmitter restarted = new RecordingEmitter();
+        restarted.release();
+        stream.subscribe(restarted, "0-1");
+        assertTrue(restarted.next().startsWith("reset "));
+    }
+
+    @Test
+    public void testDisconnectsSubscriberOnOverflow() throws InterruptedException {
+        RecordingEmitter slow = new RecordingEmitter();
+        stream.subscribe(slow, null);
+
+        changed(CatalogChangedEvent.Action.UPSERT, 1L);
+        assertEquals("1 change PRODUCT UPSERT 1", slow.next());
+        changed(CatalogChangedEvent.Action.UPSERT, 2L);
+        changed(CatalogChangedEvent.Action.UPSERT, 3L);
+        changed(CatalogChangedEvent.Action.UPSERT, 4L);
+        slow.release();
+
+        // Публикация не ждала медленного подписчика; его буфер на два уведомления переполнен, и он отключается
+        // без отправки накопленных уведомлений, а переподключившись, продолжает поток с последнего полученного события.
+        assertEquals("complete", slow.next());
+        assertNull(slow.sent.poll(200, TimeUnit.MILLISECONDS));
+
+        RecordingEmitter reconnected = new RecordingEmitter();
+        reconnected.release();
+        stream.subscribe(reconnected, slow.instance + "3");
+        assertEquals("4 change PRODUCT UPSERT 4", reconnected.next());
+    }
+
+    @Test
+    public void testDispatchesInPublicationOrder() throws InterruptedException {
+        CatalogStreamService dispatched = new CatalogStreamService(16, 16, Duration.ofMinutes(1));
+        try {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitter.release();
+            dispatched.subscribe(emitter, null);
+
+            for (long id = 1; id <= 5; id++) {
+                dispatched.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Type.PRODUCT,
+                        CatalogChangedEvent.Action.UPSERT, List.of(id), Map.of()));
+            }
+
+            for (long id = 1; id <= 5; id++) {
+                assertEquals(id + " change PRODUCT UPSERT " + id, emitter.next());
+            }
+        } finally {
+            dispatched.shutdown();
+        }
+    }
+
+    private void changed(CatalogChangedEvent.Action action, Long id) {
+        stream.onCatalogChanged(new CatalogChangedEvent(CatalogChangedEvent.Type.PRODUCT, action, List.of(id), Map.of()));
+    }
+
+    /**
+     * Поток событий, записывающий отправленные события. Отправка блокируется до вызова release,
+     * имитируя медленного клиента.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+        private final CountDownLatch released = new CountDownLatch(1);
+        private volatile String instance;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            String text = builder.build().stream()
+                    .map(part -> part.getData() instanceof CatalogNotificationDTO dto
+                            ? dto.getType() + " " + dto.getAction() + " " + dto.getId()
+                            : part.getData().toString())
+                    .collect(Collectors.joining());
+            Matcher id = EVENT_ID.matcher(text);
+            if (id.find()) {
+                instance = id.group(1);
+                text = id.replaceFirst("$2 ");
+            }
+            sent.add(text.replaceFirst("event:(\\w+)\\ndata:", "$1 ").strip());
+            try {
+                released.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+        }
+
+        @Override
+        public synchronized void complete() {
+            sent.add("complete");
+        }
+
+        private void release() {
+            released.countDown();
+        }
+
+        private String next() throws InterruptedException {
+            String event = sent.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event);
+            return event;
+        }
+    }
+}
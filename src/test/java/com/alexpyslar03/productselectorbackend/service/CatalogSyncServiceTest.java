@@ -0,0 +1,116 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.RecipeDTO;
+import com.alexpyslar03.productselectorbackend.dto.SyncDTO;
+import com.alexpyslar03.productselectorbackend.entity.CatalogChange;
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.repository.CatalogChangeRepository;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.snapshot.enabled=false")
+@AutoConfigureTestDatabase
+public class CatalogSyncServiceTest {
+
+    @Autowired
+    private CatalogSyncService catalogSyncService;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    public void tearDown() {
+        recipeRepository.deleteAll();
+        productRepository.deleteAll();
+        catalogChangeRepository.deleteAll();
+    }
+
+    @Test
+    public void testLogsBothSidesOfLinks() {
+        Product flour = productRepository.save(Product.builder().name("Мука").build());
+        long token = catalogSyncService.sync(0, 1000).getToken();
+
+        RecipeDTO dto = new RecipeDTO();
+        dto.setName("Хлеб");
+        dto.setDescription("Простой");
+        dto.setDifficultyLevel(Recipe.DifficultyLevel.EASY);
+        dto.setProductIds(List.of(flour.getId()));
+        Long breadId = recipeService.create(dto).getId();
+
+        SyncDTO created = catalogSyncService.sync(token, 1000);
+        assertEquals(List.of(breadId), created.getRecipes().stream().map(SyncDTO.RecipeRecord::getId).toList());
+        assertEquals(1, created.getProducts().size());
+        assertEquals(List.of(breadId), created.getProducts().get(0).getRecipeIds());
+
+        recipeService.delete(breadId);
+
+        SyncDTO deleted = catalogSyncService.sync(created.getToken(), 1000);
+        assertEquals(List.of(breadId), deleted.getDeletedRecipeIds());
+        assertEquals(1, deleted.getProducts().size());
+        assertEquals(flour.getId(), deleted.getProducts().get(0).getId());
+        assertEquals(List.of(), deleted.getProducts().get(0).getRecipeIds());
+    }
+
+    @Test
+    public void testLogWritersCommitInOrder() throws Exception {
+        CountDownLatch logged = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            catalogSyncService.onCatalogChanged(CatalogChangedEvent.deleted(CatalogChangedEvent.Type.PRODUCT, List.of(1L)));
+            logged.countDown();
+            await(commit);
+        }));
+        assertTrue(logged.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status ->
+                catalogSyncService.onCatalogChanged(CatalogChangedEvent.deleted(CatalogChangedEvent.Type.PRODUCT, List.of(2L)))));
+
+        // Второй писатель ждет фиксации первого, поэтому не может зафиксировать больший номер раньше него.
+        Thread.sleep(200);
+        assertFalse(second.isDone());
+        commit.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        List<CatalogChange> changes = catalogChangeRepository.findAll().stream()
+                .filter(change -> change.getAction() == CatalogChangedEvent.Action.DELETE)
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .toList();
+        assertEquals(List.of(1L, 2L), changes.stream().map(CatalogChange::getEntityId).toList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.ImageDTO;
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.exception.BadRequestException;
+import com.alexpyslar03.productselectorbackend.image.ImageOwner;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@SpringJUnitConfig
+@Import(ImageService.class)
+public class ImageServiceTest {
+
+    private static final byte[] PNG_HEADER = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+
+    @Autowired
+    private ImageService imageService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product first;
+    private Product second;
+
+    @BeforeEach
+    public void setUp() {
+        first = productRepository.save(Product.builder().name("Product 1").build());
+        second = productRepository.save(Product.builder().name("Product 2").build());
+        productRepository.flush();
+    }
+
+    @Test
+    public void testUploadStoresSameContentOnce() {
+        byte[] image = image(1);
+        ImageDTO firstImage = imageService.uploadProductImage(first.getId(), new ByteArrayInputStream(image), image.length, "image/png");
+        ImageDTO secondImage = imageService.uploadProductImage(second.getId(), new ByteArrayInputStream(image), image.length, null);
+
+        assertEquals(firstImage.getHash(), secondImage.getHash());
+        assertEquals(List.of(firstImage.getHash()), jdbcTemplate.queryForList("SELECT hash FROM images", String.class));
+        assertEquals(2L, refCount(firstImage.getHash()));
+        assertEquals("image/png", imageService.read(firstImage.getHash()).contentType());
+        assertArrayEquals(image, imageService.read(firstImage.getHash()).content());
+        assertEquals(firstImage.getHash(), imageHash(first.getId()));
+        assertEquals(firstImage.getHash(), imageHash(second.getId()));
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void testReadsBodyOutsideTransaction() {
+        byte[] image = image(3);
+        AtomicBoolean readInTransaction = new AtomicBoolean();
+        FilterInputStream body = new FilterInputStream(new ByteArrayInputStream(image)) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                    readInTransaction.set(true);
+                }
+                return super.read(b, off, len);
+            }
+        };
+        try {
+            ImageDTO uploaded = imageService.uploadProductImage(first.getId(), body, image.length, null);
+
+            assertFalse(readInTransaction.get());
+            assertEquals(uploaded.getHash(), imageHash(first.getId()));
+            assertEquals(1L, refCount(uploaded.getHash()));
+            assertThrows(BadRequestException.class, () -> imageService.uploadProductImage(second.getId(),
+                    new ByteArrayInputStream(image), image.length + 1, null));
+            assertNull(imageHash(second.getId()));
+        } finally {
+            jdbcTemplate.update("DELETE FROM products");
+            jdbcTemplate.update("DELETE FROM images");
+        }
+    }
+
+    @Test
+    public void testAssignMovesReference() {
+        String original = imageService.save(image(1));
+        assertEquals(original, imageService.save(image(1)));
+        assertTrue(imageService.assign(ImageOwner.PRODUCT, first.getId(), original));
+        assertTrue(imageService.assign(ImageOwner.PRODUCT, second.getId(), original));
+
+        ImageDTO replacement = imageService.uploadProductImage(first.getId(), new ByteArrayInputStream(image(2)), image(2).length, null);
+
+        assertNotEquals(original, replacement.getHash());
+        assertEquals(1L, refCount(original));
+        assertEquals(1L, refCount(replacement.getHash()));
+        assertFalse(imageService.assign(ImageOwner.PRODUCT, second.getId() + 100, original));
+        assertThrows(BadRequestException.class, () -> imageService.assign(ImageOwner.PRODUCT, second.getId(), "missing"));
+        assertThrows(BadRequestException.class, () -> imageService.save("not an image".getBytes()));
+    }
+
+    @Test
+    public void testCollectGarbageRemovesUnreferencedImages() {
+        String shared = imageService.save(image(1));
+        String unused = imageService.save(image(2));
+        imageService.assign(ImageOwner.PRODUCT, first.getId(), shared);
+        imageService.assign(ImageOwner.PRODUCT, second.getId(), shared);
+
+        imageService.releaseAll(ImageOwner.PRODUCT, List.of(first.getId()));
+        imageService.collectGarbage();
+        assertEquals(List.of(shared), jdbcTemplate.queryForList("SELECT hash FROM images", String.class));
+        assertNotEquals(shared, unused);
+
+        imageService.releaseAll(ImageOwner.PRODUCT, List.of(first.getId(), second.getId()));
+        imageService.collectGarbage();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM images", Integer.class));
+    }
+
+    private long refCount(String hash) {
+        return jdbcTemplate.queryForObject("SELECT ref_count FROM images WHERE hash = ?", Long.class, hash);
+    }
+
+    private String imageHash(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT image_hash FROM products WHERE id = ?", String.class, productId);
+    }
+
+    private static byte[] image(int seed) {
+        byte[] image = new byte[4_096];
+        System.arraycopy(PNG_HEADER, 0, image, 0, PNG_HEADER.length);
+        for (int i = PNG_HEADER.length; i < image.length; i++) {
+            image[i] = (byte) (i * seed);
+        }
+        return image;
+    }
+}
@@ -0,0 +1,107 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.TrendingRecipeDTO;
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.event.CatalogChangedEvent;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.snapshot.enabled=false")
+@AutoConfigureTestDatabase
+public class PopularityServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private long flour;
+    private long bread;
+    private long cake;
+
+    @BeforeEach
+    public void setUp() {
+        flour = productRepository.save(Product.builder().name("Мука").build()).getId();
+        bread = recipe("Хлеб");
+        cake = recipe("Торт");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recipeRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testFlushWritesEachIncrementOnce() {
+        PopularityService popularity = popularity(Duration.ofHours(1), Duration.ofHours(12));
+        popularity.recordRecipeView(bread);
+        popularity.recordRecipeView(bread);
+        popularity.recordRecipeCooked(bread, new long[]{flour});
+        popularity.recordProductView(flour);
+
+        popularity.flush();
+        popularity.flush();
+        assertEquals(List.of(2L, 1L), counts("recipes", bread));
+        assertEquals(List.of(1L, 1L), counts("products", flour));
+
+        popularity.recordRecipeView(bread);
+        popularity.recordRecipeView(cake);
+        popularity.onCatalogChanged(CatalogChangedEvent.deleted(CatalogChangedEvent.Type.RECIPE, List.of(cake)));
+        popularity.flush();
+        assertEquals(List.of(3L, 1L), counts("recipes", bread));
+        assertEquals(List.of(0L, 0L), counts("recipes", cake));
+    }
+
+    @Test
+    public void testTrendingDecaysOlderBuckets() throws InterruptedException {
+        PopularityService popularity = popularity(Duration.ofMillis(200), Duration.ofMillis(200));
+        for (int i = 0; i < 4; i++) {
+            popularity.recordRecipeView(bread);
+        }
+        Thread.sleep(400);
+        popularity.recordRecipeCooked(cake, new long[0]);
+
+        List<TrendingRecipeDTO> trending = popularity.trending(10);
+        assertEquals(List.of(cake, bread), trending.stream().map(TrendingRecipeDTO::getRecipeId).toList());
+        // Приготовление весит как три просмотра, а четыре просмотра двумя периодами полураспада ранее — не больше одного.
+        assertTrue(trending.get(0).getScore() <= 3.0 && trending.get(0).getScore() > 1.0);
+        assertTrue(trending.get(1).getScore() <= 1.0);
+        assertEquals(List.of(cake), popularity.trending(1).stream().map(TrendingRecipeDTO::getRecipeId).toList());
+    }
+
+    /**
+     * Создает отдельный экземпляр сервиса, не связанный с планировщиком и событиями приложения.
+     */
+    private PopularityService popularity(Duration bucketWidth, Duration halfLife) {
+        return new PopularityService(jdbcTemplate, bucketWidth, 1000, halfLife, 3);
+    }
+
+    private List<Long> counts(String table, long id) {
+        return jdbcTemplate.queryForObject("SELECT view_count, cooked_count FROM " + table + " WHERE id = ?",
+                (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2)), id);
+    }
+
+    private long recipe(String name) {
+        return recipeRepository.save(Recipe.builder().name(name).description("Описание")
+                .difficultyLevel(Recipe.DifficultyLevel.EASY).build()).getId();
+    }
+}
@@ -1,5 +1,177 @@
 package com.alexpyslar03.productselectorbackend.service;
 
+import com.alexpyslar03.productselectorbackend.datasource.ReplicaRoutingContext;
+import com.alexpyslar03.productselectorbackend.dto.BulkDeleteDTO;
+import com.alexpyslar03.productselectorbackend.dto.RecipeDetailsDTO;
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.repository.CatalogChangeRepository;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import com.alexpyslar03.productselectorbackend.util.SingleFlight;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "app.snapshot.enabled=false")
+@AutoConfigureTestDatabase
 public class RecipeServiceTest {
 
-}
\ No newline at end of file
+    private static final int THREADS = 16;
+
+    @Autowired
+    private RecipeService recipeService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SingleFlight<Long, RecipeDetailsDTO> recipeByIdFlight;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    private Product flour;
+    private Product salt;
+    private Recipe bread;
+
+    @BeforeEach
+    public void setUp() {
+        flour = productRepository.save(Product.builder().name("Мука").build());
+        salt = productRepository.save(Product.builder().name("Соль").build());
+        bread = recipeRepository.save(Recipe.builder().name("Хлеб").description("Простой")
+                .difficultyLevel(Recipe.DifficultyLevel.EASY).build());
+        recipeRepository.insertProductLinks(bread.getId(), List.of(flour.getId(), salt.getId()));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+        recipeRepository.deleteAll();
+        productRepository.deleteAll();
+        catalogChangeRepository.deleteAll();
+    }
+
+    @Test
+    public void testSharedResultIsSerializedOnEveryThread() throws Exception {
+        List<String> byId = serializeConcurrently(() -> recipeService.readById(bread.getId()));
+        List<String> byProducts = serializeConcurrently(() -> recipeService.readByProductIdIn(List.of(salt.getId(), flour.getId(), salt.getId())));
+
+        assertEquals(1, byId.stream().distinct().count());
+        JsonNode recipe = objectMapper.readTree(byId.get(0));
+        assertEquals("Хлеб", recipe.get("name").asText());
+        assertEquals(List.of("Мука", "Соль"), names(recipe.get("products")));
+        assertEquals(1, byProducts.stream().distinct().count());
+        JsonNode recipes = objectMapper.readTree(byProducts.get(0));
+        assertEquals(1, recipes.size());
+        assertEquals(recipe, recipes.get(0));
+    }
+
+    @Test
+    public void testDeleteAllRemovesProductLinks() {
+        Recipe soup = recipeRepository.save(Recipe.builder().name("Суп").description("Простой")
+                .difficultyLevel(Recipe.DifficultyLevel.EASY).build());
+        recipeRepository.insertProductLinks(soup.getId(), List.of(salt.getId()));
+
+        BulkDeleteDTO recipes = recipeService.deleteAll(List.of(bread.getId(), -1L));
+        assertEquals(List.of(bread.getId()), recipes.getDeletedIds());
+        assertEquals(List.of(-1L), recipes.getMissingIds());
+        assertEquals(List.of(new RecipeProductLink(soup.getId(), salt.getId())), recipeRepository.findAllLinks());
+        assertEquals(2, productRepository.count());
+
+        BulkDeleteDTO products = productService.deleteAll(List.of(salt.getId()));
+        assertEquals(List.of(salt.getId()), products.getDeletedIds());
+        assertEquals(List.of(), recipeRepository.findAllLinks());
+        assertEquals(List.of(soup.getId()), recipeRepository.findAll().stream().map(Recipe::getId).toList());
+    }
+
+    @Test
+    public void testPrimaryRequiredReadDoesNotJoinReplicaLoad() throws Exception {
+        RecipeDetailsDTO replicaResult = new RecipeDetailsDTO(bread.getId(), "Хлеб с реплики", "Простой", false,
+                Recipe.DifficultyLevel.EASY, null, 0, 0, null, List.of());
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // Загрузка того же рецепта, начатая запросом, который читает реплику, еще не завершена.
+        Future<RecipeDetailsDTO> replicaRead = executor.submit(() -> recipeByIdFlight.execute(bread.getId(), () -> {
+            loading.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return replicaResult;
+        }));
+        loading.await();
+
+        Future<RecipeDetailsDTO> primaryRead = executor.submit(() -> {
+            ReplicaRoutingContext.begin(true, null);
+            try {
+                return recipeService.readById(bread.getId());
+            } finally {
+                ReplicaRoutingContext.end();
+            }
+        });
+        // Чтение основной базы данных не ждет чужой загрузки: результат готов раньше, чем истекло бы ожидание.
+        try {
+            assertEquals("Хлеб", primaryRead.get(1, TimeUnit.SECONDS).name());
+        } finally {
+            release.countDown();
+        }
+        assertEquals(replicaResult, replicaRead.get());
+    }
+
+    /**
+     * Выполняет вызов одновременно во всех потоках и сериализует результат в потоке вызова, как это делает
+     * обработчик запроса.
+     */
+    private List<String> serializeConcurrently(Callable<Object> call) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return objectMapper.writeValueAsString(call.call());
+            }));
+        }
+        start.countDown();
+        List<String> results = new ArrayList<>();
+        for (Future<String> future : futures) {
+            results.add(future.get());
+        }
+        return results;
+    }
+
+    private static List<String> names(JsonNode products) {
+        List<String> names = new ArrayList<>();
+        products.forEach(product -> names.add(product.get("name").asText()));
+        return names;
+    }
+}
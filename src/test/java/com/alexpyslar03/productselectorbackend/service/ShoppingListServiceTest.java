@@ -0,0 +1,97 @@
+package com.alexpyslar03.productselectorbackend.service;
+
+import com.alexpyslar03.productselectorbackend.dto.ShoppingListDTO;
+import com.alexpyslar03.productselectorbackend.entity.Product;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import com.alexpyslar03.productselectorbackend.exception.RecipeNotFoundException;
+import com.alexpyslar03.productselectorbackend.index.RecipeProductIndex;
+import com.alexpyslar03.productselectorbackend.repository.ProductRepository;
+import com.alexpyslar03.productselectorbackend.repository.ProductSubstitutionRepository;
+import com.alexpyslar03.productselectorbackend.repository.RecipeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "app.snapshot.enabled=false")
+@AutoConfigureTestDatabase
+public class ShoppingListServiceTest {
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSubstitutionRepository productSubstitutionRepository;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private ShoppingListService shoppingListService;
+
+    private long flour;
+    private long salt;
+    private long sugar;
+    private long egg;
+    private long bread;
+    private long cake;
+
+    @BeforeEach
+    public void setUp() {
+        flour = product("Мука");
+        salt = product("Соль");
+        sugar = product("Сахар");
+        egg = product("Яйцо");
+        bread = recipe("Хлеб", List.of(flour, salt));
+        cake = recipe("Торт", List.of(flour, sugar, egg));
+        // Отдельный индекс, построенный по связям из базы данных, без событий приложения.
+        RecipeProductIndex index = new RecipeProductIndex(recipeRepository, productSubstitutionRepository, catalogSnapshotService);
+        index.build();
+        shoppingListService = new ShoppingListService(index, productRepository);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        recipeRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testMergesRecipesAndSubtractsPantry() {
+        ShoppingListDTO list = shoppingListService.create(List.of(bread, cake, bread, -1L), List.of(salt, egg));
+
+        assertEquals(List.of(
+                new ShoppingListDTO.Item(flour, "Мука", List.of(bread, cake)),
+                new ShoppingListDTO.Item(sugar, "Сахар", List.of(cake))), list.getItems());
+        assertEquals(List.of(salt, egg), list.getCoveredProductIds());
+
+        ShoppingListDTO withoutPantry = shoppingListService.create(List.of(bread), null);
+        assertEquals(List.of(flour, salt), withoutPantry.getItems().stream().map(ShoppingListDTO.Item::getId).toList());
+        assertEquals(List.of(), withoutPantry.getCoveredProductIds());
+    }
+
+    @Test
+    public void testRejectsRecipesWithoutProducts() {
+        assertThrows(RecipeNotFoundException.class, () -> shoppingListService.create(List.of(-1L, -2L), List.of(flour)));
+    }
+
+    private long product(String name) {
+        return productRepository.save(Product.builder().name(name).build()).getId();
+    }
+
+    private long recipe(String name, List<Long> productIds) {
+        long id = recipeRepository.save(Recipe.builder().name(name).description("Описание")
+                .difficultyLevel(Recipe.DifficultyLevel.EASY).build()).getId();
+        recipeRepository.insertProductLinks(id, productIds);
+        return id;
+    }
+}
@@ -1,5 +1,61 @@
 package com.alexpyslar03.productselectorbackend.service;
 
+import com.alexpyslar03.productselectorbackend.entity.User;
+import com.alexpyslar03.productselectorbackend.repository.CatalogChangeRepository;
+import com.alexpyslar03.productselectorbackend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "app.snapshot.enabled=false")
+@AutoConfigureTestDatabase
 public class UserServiceTest {
 
-}
\ No newline at end of file
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CatalogChangeRepository catalogChangeRepository;
+
+    @AfterEach
+    public void tearDown() {
+        userRepository.deleteAll();
+        catalogChangeRepository.deleteAll();
+    }
+
+    @Test
+    public void testUpdateKeepsRegistrationDateAndReturnsStoredUser() {
+        User stored = userRepository.save(user("ivan@example.com", LocalDate.of(2020, 1, 1)));
+        User request = user("petr@example.com", LocalDate.of(2030, 1, 1));
+        request.setId(stored.getId());
+        request.setName("Петр");
+
+        User updated = userService.update(request);
+
+        assertEquals("Петр", updated.getName());
+        assertEquals("petr@example.com", updated.getEmail());
+        assertEquals(LocalDate.of(2020, 1, 1), updated.getRegistrationDate());
+        assertEquals(LocalDate.of(2020, 1, 1), userRepository.findById(stored.getId()).orElseThrow().getRegistrationDate());
+    }
+
+    private static User user(String email, LocalDate registrationDate) {
+        return User.builder()
+                .name("Иван")
+                .surname("Иванов")
+                .email(email)
+                .password("secret")
+                .birthDate(LocalDate.of(1990, 5, 17))
+                .registrationDate(registrationDate)
+                .accessLevel(User.AccessLevel.USER)
+                .build();
+    }
+}
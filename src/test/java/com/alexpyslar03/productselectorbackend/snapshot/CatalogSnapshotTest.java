@@ -0,0 +1,73 @@
+package com.alexpyslar03.productselectorbackend.snapshot;
+
+import com.alexpyslar03.productselectorbackend.dto.ProductSummary;
+import com.alexpyslar03.productselectorbackend.dto.RecipeProductLink;
+import com.alexpyslar03.productselectorbackend.dto.RecipeSummary;
+import com.alexpyslar03.productselectorbackend.entity.Recipe;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CatalogSnapshotTest {
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testWriteAndOpen() throws IOException {
+        Path path = dir.resolve("catalog.snapshot");
+        write(path);
+
+        CatalogSnapshot snapshot = CatalogSnapshot.open(path);
+        assertEquals(42, snapshot.version());
+        assertEquals(3, snapshot.productCount());
+        assertEquals(30, snapshot.productId(2));
+        assertEquals("Сыр", snapshot.productName(2));
+        assertEquals(2, snapshot.recipeCount());
+        assertEquals(200, snapshot.recipeId(1));
+        assertTrue(snapshot.recipeVegan(0));
+        assertFalse(snapshot.recipeVegan(1));
+        assertEquals(Recipe.DifficultyLevel.HARD, snapshot.recipeDifficulty(1));
+        assertEquals(5L, snapshot.recipeRating(0));
+        assertNull(snapshot.recipeRating(1));
+        assertEquals("Паста", snapshot.recipeName(1));
+        assertEquals("С сыром", snapshot.recipeDescription(1));
+        assertEquals(new HashSet<>(Arrays.asList(
+                        new RecipeProductLink(100L, 10L),
+                        new RecipeProductLink(200L, 10L),
+                        new RecipeProductLink(200L, 30L))),
+                new HashSet<>(snapshot.links()));
+    }
+
+    @Test
+    public void testCorruptedSnapshotIsRejected() throws IOException {
+        Path path = dir.resolve("catalog.snapshot");
+        write(path);
+        byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+
+        assertThrows(IOException.class, () -> CatalogSnapshot.open(path));
+    }
+
+    private static void write(Path path) throws IOException {
+        CatalogSnapshot.write(path, 42,
+                List.of(new ProductSummary(10L, "Мука"), new ProductSummary(20L, "Соль"), new ProductSummary(30L, "Сыр")),
+                List.of(new RecipeSummary(100L, "Хлеб", "Простой", true, Recipe.DifficultyLevel.EASY, 5L),
+                        new RecipeSummary(200L, "Паста", "С сыром", false, Recipe.DifficultyLevel.HARD, null)),
+                List.of(new RecipeProductLink(100L, 10L), new RecipeProductLink(200L, 30L),
+                        new RecipeProductLink(200L, 10L), new RecipeProductLink(300L, 20L)));
+    }
+}
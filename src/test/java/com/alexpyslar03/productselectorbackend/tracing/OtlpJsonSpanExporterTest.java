@@ -0,0 +1,66 @@
+package com.alexpyslar03.productselectorbackend.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class OtlpJsonSpanExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    private Path dir;
+
+    @Test
+    public void testWritesExportTraceServiceRequestPerBatch() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Path file = dir.resolve("traces/spans.jsonl");
+        OtlpJsonSpanExporter exporter = new OtlpJsonSpanExporter("test-service", file, null, 16, Duration.ofMillis(10), registry);
+        Tracer tracer = new Tracer(1.0, exporter);
+
+        try (Span root = tracer.startRequest("GET", null)) {
+            root.setName("GET /recipes/product/batch");
+            root.setAttribute("http.response.status_code", 200);
+            try (Span query = tracer.startSpan("SELECT", SpanKind.CLIENT)) {
+                query.setAttribute("db.statement", "select 1");
+                query.recordError(new IllegalStateException("boom"));
+            }
+        }
+        exporter.close();
+
+        List<String> lines = Files.readAllLines(file);
+        assertFalse(lines.isEmpty());
+        ArrayNode spans = objectMapper.createArrayNode();
+        for (String line : lines) {
+            JsonNode resourceSpans = objectMapper.readTree(line).get("resourceSpans").get(0);
+            assertEquals("service.name", resourceSpans.at("/resource/attributes/0/key").asText());
+            assertEquals("test-service", resourceSpans.at("/resource/attributes/0/value/stringValue").asText());
+            resourceSpans.at("/scopeSpans/0/spans").forEach(spans::add);
+        }
+        assertEquals(2, spans.size());
+        JsonNode query = spans.get(0);
+        JsonNode root = spans.get(1);
+        assertEquals("SELECT", query.get("name").asText());
+        assertEquals(3, query.get("kind").asInt());
+        assertEquals(root.get("spanId").asText(), query.get("parentSpanId").asText());
+        assertEquals("select 1", query.at("/attributes/0/value/stringValue").asText());
+        assertEquals(2, query.at("/status/code").asInt());
+        assertEquals("GET /recipes/product/batch", root.get("name").asText());
+        assertEquals(2, root.get("kind").asInt());
+        assertEquals("200", root.at("/attributes/0/value/intValue").asText());
+        assertFalse(root.has("parentSpanId"));
+        assertFalse(root.get("status").has("code"));
+        assertEquals(2.0, registry.get("tracing.spans").tag("result", "exported").counter().count());
+    }
+}
@@ -0,0 +1,83 @@
+package com.alexpyslar03.productselectorbackend.tracing;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TracerTest {
+
+    private final List<Span> exported = new ArrayList<>();
+
+    @Test
+    public void testRecordsNestedSpans() {
+        Tracer tracer = new Tracer(1.0, exported::add);
+
+        try (Span root = tracer.startRequest("GET", null)) {
+            assertTrue(root.isRecording());
+            try (Span service = tracer.startSpan("RecipeService.readByProductIds", SpanKind.INTERNAL)) {
+                try (Span query = tracer.startSpan("SELECT", SpanKind.CLIENT)) {
+                    assertEquals(query.spanId(), MDC.get(Tracer.SPAN_ID));
+                }
+                assertEquals(service.spanId(), MDC.get(Tracer.SPAN_ID));
+            }
+            assertEquals(root.traceId(), MDC.get(Tracer.TRACE_ID));
+            assertEquals(root.spanId(), MDC.get(Tracer.SPAN_ID));
+        }
+
+        assertEquals(3, exported.size());
+        Span query = exported.get(0);
+        Span service = exported.get(1);
+        Span root = exported.get(2);
+        assertEquals(service.spanId(), query.parentSpanId());
+        assertEquals(root.spanId(), service.parentSpanId());
+        assertNull(root.parentSpanId());
+        assertEquals(root.traceId(), query.traceId());
+        assertEquals(32, root.traceId().length());
+        assertTrue(query.endEpochNanos() >= query.startEpochNanos());
+        assertNull(tracer.currentSpan());
+        assertNull(MDC.get(Tracer.TRACE_ID));
+    }
+
+    @Test
+    public void testUnsampledRequestKeepsTraceIdForLogs() {
+        Tracer tracer = new Tracer(0.0, exported::add);
+
+        try (Span root = tracer.startRequest("GET", null)) {
+            assertFalse(root.isRecording());
+            assertFalse(tracer.isRecording());
+            assertEquals(root.traceId(), MDC.get(Tracer.TRACE_ID));
+            try (Span child = tracer.startSpan("ProductService.readAll", SpanKind.INTERNAL)) {
+                assertSame(Span.NOOP, child);
+            }
+            assertTrue(root.traceparent().endsWith("-00"));
+        }
+
+        assertTrue(exported.isEmpty());
+        assertNull(MDC.get(Tracer.TRACE_ID));
+    }
+
+    @Test
+    public void testContinuesIncomingTrace() {
+        Tracer tracer = new Tracer(0.0, exported::add);
+        String traceId = "4bf92f3577b34da6a3ce929d0e0e4736";
+
+        try (Span root = tracer.startRequest("GET", "00-" + traceId + "-00f067aa0ba902b7-01")) {
+            assertTrue(root.isRecording());
+            assertEquals(traceId, root.traceId());
+        }
+        try (Span root = tracer.startRequest("GET", "00-" + traceId + "-00f067aa0ba902b7-00")) {
+            assertFalse(root.isRecording());
+        }
+        try (Span root = tracer.startRequest("GET", "00-" + traceId.toUpperCase() + "-00f067aa0ba902b7-01")) {
+            assertNotEquals(traceId.toUpperCase(), root.traceId());
+            assertFalse(root.isRecording());
+        }
+
+        assertEquals(1, exported.size());
+        assertEquals("00f067aa0ba902b7", exported.get(0).parentSpanId());
+    }
+}
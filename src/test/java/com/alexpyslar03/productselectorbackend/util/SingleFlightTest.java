@@ -0,0 +1,131 @@
+package com.alexpyslar03.productselectorbackend.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SingleFlightTest {
+
+    private SimpleMeterRegistry registry;
+    private ExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new SimpleMeterRegistry();
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testConcurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofSeconds(10), registry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+            loads.incrementAndGet();
+            entered.countDown();
+            await(release);
+            return "value";
+        }));
+        entered.await();
+        List<Future<String>> followers = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            followers.add(executor.submit(() -> flight.execute(1L, () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+        }
+        awaitWaiting(8);
+        release.countDown();
+
+        assertEquals("value", leader.get());
+        for (Future<String> follower : followers) {
+            assertEquals("value", follower.get());
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1.0, count("leader"));
+        assertEquals(8.0, count("shared"));
+        assertEquals("next", flight.execute(1L, () -> "next"));
+    }
+
+    @Test
+    public void testFailureIsSharedWithWaiters() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofSeconds(10), registry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> flight.execute(1L, () -> {
+            entered.countDown();
+            await(release);
+            throw new IllegalArgumentException("missing");
+        }));
+        entered.await();
+        Future<String> follower = executor.submit(() -> flight.execute(1L, () -> "other"));
+        awaitWaiting(1);
+        release.countDown();
+
+        Exception ex = assertThrows(Exception.class, follower::get);
+        assertEquals(IllegalArgumentException.class, ex.getCause().getClass());
+        assertEquals(1.0, count("shared"));
+    }
+
+    @Test
+    public void testWaitIsBounded() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>("test", Duration.ofMillis(50), registry);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.submit(() -> flight.execute(1L, () -> {
+            entered.countDown();
+            await(release);
+            return "slow";
+        }));
+        entered.await();
+
+        assertEquals("own", flight.execute(1L, () -> "own"));
+        assertEquals(1.0, count("timeout"));
+        release.countDown();
+    }
+
+    private double count(String result) {
+        return registry.get("single.flight.calls").tag("result", result).counter().count();
+    }
+
+    /**
+     * Ожидает, пока указанное количество потоков не перейдет к ожиданию результата чужой загрузки.
+     */
+    private void awaitWaiting(int threads) throws InterruptedException {
+        while (Thread.getAllStackTraces().entrySet().stream()
+                .filter(e -> e.getKey().getState() == Thread.State.TIMED_WAITING)
+                .filter(e -> Arrays.stream(e.getValue()).anyMatch(frame ->
+                        frame.getClassName().equals(SingleFlight.class.getName()) && frame.getMethodName().equals("execute")))
+                .count() < threads) {
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
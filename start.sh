@@ -1,7 +1,18 @@
 #!/bin/bash
 
-# Ищем последний JAR файл в директории build/libs
-JAR_FILE=$(find /app/build/libs -name "*.jar" -print0 | xargs -0 ls -t | head -n 1)
+# Распакованный JAR с архивом CDS, созданный задачей ./gradlew cdsArchive
+FAST_STARTUP_DIR=/app/build/fast-startup
+CDS_ARCHIVE="$FAST_STARTUP_DIR/application.jsa"
+
+# Быстрый запуск: AOT-код контекста Spring и архив CDS (отключается переменной FAST_STARTUP=false)
+if [ "${FAST_STARTUP:-true}" = "true" ] && [ -f "$CDS_ARCHIVE" ]; then
+  JAR_FILE=$(find "$FAST_STARTUP_DIR" -maxdepth 1 -name "*.jar" | head -n 1)
+  echo "Running JAR file with AOT and CDS: $JAR_FILE"
+  exec java -XX:SharedArchiveFile="$CDS_ARCHIVE" -Dspring.aot.enabled=true -jar "$JAR_FILE"
+fi
+
+# Ищем последний исполняемый JAR файл в директории build/libs
+JAR_FILE=$(find /app/build/libs -name "*.jar" ! -name "*-plain.jar" -print0 | xargs -0 ls -t | head -n 1)
 
 # Проверяем, что JAR файл найден
 if [ -z "$JAR_FILE" ]; then